@@ -0,0 +1,20 @@
+package com.adsb.simulator.config;
+
+import com.aircraft.spatial.ZOrderCellBackfill;
+import com.adsb.simulator.repository.AircraftRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Backfills the Z-order cell of simulated aircraft rows at startup.
+ */
+@Configuration
+public class ZOrderCellConfig {
+    
+    @Bean
+    public ZOrderCellBackfill zOrderCellBackfill(AircraftRepository aircraftRepository,
+                                                 TransactionTemplate transactionTemplate) {
+        return new ZOrderCellBackfill(aircraftRepository, transactionTemplate);
+    }
+}
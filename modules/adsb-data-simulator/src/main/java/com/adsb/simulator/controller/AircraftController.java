@@ -2,6 +2,7 @@ package com.adsb.simulator.controller;
 
 import com.adsb.simulator.dto.AircraftDto;
 import com.adsb.simulator.dto.SimulationRequestDto;
+import com.adsb.simulator.recording.FrameRecorder;
 import com.adsb.simulator.service.AircraftService;
 import com.adsb.simulator.service.PlaybackSchedulerService;
 import com.adsb.simulator.service.RkssDataService;
@@ -12,7 +13,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/adsb")
@@ -24,6 +27,7 @@ public class AircraftController {
     private final AircraftService aircraftService;
     private final PlaybackSchedulerService playbackSchedulerService;
     private final RkssDataService rkssDataService;
+    private final FrameRecorder frameRecorder;
     
     @GetMapping("/aircraft")
     public ResponseEntity<List<AircraftDto>> getAllAircraft() {
@@ -143,4 +147,44 @@ public class AircraftController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+    
+    @PostMapping("/recording/start")
+    public ResponseEntity<String> startRecording() {
+        log.info("Starting frame recording");
+        try {
+            Path directory = frameRecorder.start();
+            return ResponseEntity.ok("Recording started: " + directory);
+        } catch (Exception e) {
+            log.error("Failed to start recording", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to start recording");
+        }
+    }
+    
+    @PostMapping("/recording/stop")
+    public ResponseEntity<String> stopRecording() {
+        log.info("Stopping frame recording");
+        frameRecorder.stop();
+        return ResponseEntity.ok("Recording stopped");
+    }
+    
+    @GetMapping("/recording/status")
+    public ResponseEntity<Map<String, Object>> getRecordingStatus() {
+        return ResponseEntity.ok(frameRecorder.getStatus());
+    }
+    
+    @PostMapping("/playback/recording")
+    public ResponseEntity<String> playRecording(@RequestParam("directory") String directory) {
+        log.info("Starting playback of recording {}", directory);
+        try {
+            rkssDataService.loadRecording(frameRecorder.resolveRecording(directory));
+            playbackSchedulerService.startPlayback();
+            return ResponseEntity.ok("Recording playback started");
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected recording playback: {}", e.getMessage());
+            return ResponseEntity.badRequest().body("Recording must be inside the recording directory");
+        } catch (Exception e) {
+            log.error("Failed to play recording", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to play recording");
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,103 @@
+package com.adsb.simulator.decoder;
+
+import java.util.Arrays;
+
+/**
+ * Incremental parser for the AVR text format ({@code *8D4840D6...;} lines, optionally
+ * {@code @} followed by a 12 hex digit MLAT timestamp). Works directly on ASCII bytes via a
+ * nibble lookup table so a TCP or file stream can be fed without decoding to strings.
+ */
+public final class AvrFrameReader {
+
+    private static final byte[] HEX = new byte[256];
+
+    static {
+        Arrays.fill(HEX, (byte) -1);
+        for (int i = 0; i < 10; i++) {
+            HEX['0' + i] = (byte) i;
+        }
+        for (int i = 0; i < 6; i++) {
+            HEX['A' + i] = (byte) (10 + i);
+            HEX['a' + i] = (byte) (10 + i);
+        }
+    }
+
+    private static final int MLAT_DIGITS = 12;
+
+    private final ModeSFrameHandler handler;
+    private final byte[] frame = new byte[ModeSDecoder.LONG_FRAME_BYTES];
+
+    private boolean inFrame;
+    private boolean withTimestamp;
+    private int nibbles;
+    private long timestamp;
+    private long framesRead;
+    private long malformed;
+
+    public AvrFrameReader(ModeSFrameHandler handler) {
+        this.handler = handler;
+    }
+
+    public void feed(byte[] buf, int offset, int length) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            int c = buf[i] & 0xFF;
+            if (c == '*' || c == '@') {
+                inFrame = true;
+                withTimestamp = c == '@';
+                nibbles = 0;
+                timestamp = 0;
+            } else if (!inFrame) {
+                continue;
+            } else if (c == ';') {
+                finish();
+                inFrame = false;
+            } else {
+                int v = HEX[c];
+                if (v < 0) {
+                    malformed++;
+                    inFrame = false;
+                    continue;
+                }
+                accept(v);
+            }
+        }
+    }
+
+    private void accept(int nibble) {
+        if (withTimestamp && nibbles < MLAT_DIGITS) {
+            timestamp = (timestamp << 4) | nibble;
+            nibbles++;
+            return;
+        }
+        int pos = nibbles - (withTimestamp ? MLAT_DIGITS : 0);
+        if (pos >= frame.length * 2) {
+            malformed++;
+            inFrame = false;
+            return;
+        }
+        if ((pos & 1) == 0) {
+            frame[pos >> 1] = (byte) (nibble << 4);
+        } else {
+            frame[pos >> 1] |= (byte) nibble;
+        }
+        nibbles++;
+    }
+
+    private void finish() {
+        int digits = nibbles - (withTimestamp ? MLAT_DIGITS : 0);
+        if (digits != 14 && digits != 28) {
+            malformed++;
+            return;
+        }
+        framesRead++;
+        handler.onFrame(frame, 0, digits / 2, timestamp, 0);
+    }
+
+    public long getFramesRead() {
+        return framesRead;
+    }
+
+    public long getMalformed() {
+        return malformed;
+    }
+}
@@ -0,0 +1,108 @@
+package com.adsb.simulator.decoder;
+
+/**
+ * Incremental parser for the Mode-S Beast binary protocol.
+ * <p>
+ * Each record is {@code 0x1a <type> <6 byte timestamp> <signal> <payload>}, where any
+ * {@code 0x1a} after the type byte is escaped by doubling it. Input may be split at
+ * arbitrary byte boundaries; partially received records are carried over to the next
+ * {@link #feed} call. Only Mode-S short ({@code '2'}) and long ({@code '3'}) records are
+ * forwarded to the handler.
+ */
+public final class BeastFrameReader {
+
+    private static final int ESCAPE = 0x1A;
+    private static final int TYPE_MODE_AC = 0x31;
+    private static final int TYPE_MODE_S_SHORT = 0x32;
+    private static final int TYPE_MODE_S_LONG = 0x33;
+    private static final int HEADER_BYTES = 7; // timestamp + signal
+
+    private static final int STATE_SYNC = 0;
+    private static final int STATE_TYPE = 1;
+    private static final int STATE_BODY = 2;
+
+    private final ModeSFrameHandler handler;
+    private final byte[] record = new byte[HEADER_BYTES + ModeSDecoder.LONG_FRAME_BYTES];
+
+    private int state = STATE_SYNC;
+    private boolean pendingEscape;
+    private int expected;
+    private int filled;
+    private long framesRead;
+    private long resyncs;
+
+    public BeastFrameReader(ModeSFrameHandler handler) {
+        this.handler = handler;
+    }
+
+    public void feed(byte[] buf, int offset, int length) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            int b = buf[i] & 0xFF;
+            switch (state) {
+                case STATE_SYNC -> {
+                    if (b == ESCAPE) {
+                        state = STATE_TYPE;
+                    }
+                }
+                case STATE_TYPE -> startRecord(b);
+                default -> {
+                    if (pendingEscape) {
+                        pendingEscape = false;
+                        if (b != ESCAPE) {
+                            // A lone escape inside a record marks the start of the next one
+                            resyncs++;
+                            startRecord(b);
+                            continue;
+                        }
+                    } else if (b == ESCAPE) {
+                        pendingEscape = true;
+                        continue;
+                    }
+                    record[filled++] = (byte) b;
+                    if (filled == expected) {
+                        emit();
+                        state = STATE_SYNC;
+                    }
+                }
+            }
+        }
+    }
+
+    private void startRecord(int type) {
+        int payload;
+        switch (type) {
+            case TYPE_MODE_AC -> payload = 2;
+            case TYPE_MODE_S_SHORT -> payload = 7;
+            case TYPE_MODE_S_LONG -> payload = ModeSDecoder.LONG_FRAME_BYTES;
+            default -> {
+                state = type == ESCAPE ? STATE_TYPE : STATE_SYNC;
+                return;
+            }
+        }
+        expected = HEADER_BYTES + payload;
+        filled = 0;
+        pendingEscape = false;
+        state = STATE_BODY;
+    }
+
+    private void emit() {
+        int payload = expected - HEADER_BYTES;
+        if (payload == 2) {
+            return; // Mode A/C replies carry no ADS-B content
+        }
+        long timestamp = 0;
+        for (int i = 0; i < 6; i++) {
+            timestamp = (timestamp << 8) | (record[i] & 0xFF);
+        }
+        framesRead++;
+        handler.onFrame(record, HEADER_BYTES, payload, timestamp, record[6] & 0xFF);
+    }
+
+    public long getFramesRead() {
+        return framesRead;
+    }
+
+    public long getResyncs() {
+        return resyncs;
+    }
+}
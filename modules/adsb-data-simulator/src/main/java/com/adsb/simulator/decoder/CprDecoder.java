@@ -0,0 +1,137 @@
+package com.adsb.simulator.decoder;
+
+/**
+ * Compact Position Reporting (CPR) math for airborne and surface position messages.
+ * <p>
+ * The latitude zone table for NL() is computed once, so every decode is a handful of
+ * floor/modulo operations. Results are written into a caller supplied {@code double[2]}
+ * ({@code [lat, lon]}) to keep the hot path free of allocations.
+ */
+public final class CprDecoder {
+
+    public static final double CPR_SCALE = 131072.0; // 2^17
+
+    private static final int NZ = 15;
+    private static final double[] NL_THRESHOLDS = new double[60];
+
+    static {
+        double a = 1 - Math.cos(Math.PI / (2 * NZ));
+        for (int nl = 2; nl < 60; nl++) {
+            NL_THRESHOLDS[nl] = Math.toDegrees(Math.acos(Math.sqrt(a / (1 - Math.cos(2 * Math.PI / nl)))));
+        }
+    }
+
+    private CprDecoder() {
+    }
+
+    /**
+     * Number of longitude zones at the given latitude.
+     */
+    public static int nl(double latitude) {
+        double lat = Math.abs(latitude);
+        for (int nl = 59; nl >= 2; nl--) {
+            if (lat < NL_THRESHOLDS[nl]) {
+                return nl;
+            }
+        }
+        return lat > 87.0 ? 1 : 2;
+    }
+
+    /**
+     * Global decode of an even/odd pair. {@code latestOdd} selects which of the two frames
+     * the resulting position belongs to.
+     *
+     * @param surface   true for surface position messages (90 degree CPR zones)
+     * @param refLat    receiver latitude, only used to resolve the surface quadrant
+     * @param refLon    receiver longitude, only used to resolve the surface quadrant
+     * @return false if the pair straddles a latitude zone boundary and cannot be decoded
+     */
+    public static boolean decodeGlobal(int evenLat, int evenLon, int oddLat, int oddLon,
+                                       boolean latestOdd, boolean surface,
+                                       double refLat, double refLon, double[] out) {
+        double span = surface ? 90.0 : 360.0;
+        double latE = evenLat / CPR_SCALE;
+        double latO = oddLat / CPR_SCALE;
+        double lonE = evenLon / CPR_SCALE;
+        double lonO = oddLon / CPR_SCALE;
+
+        double j = Math.floor(59 * latE - 60 * latO + 0.5);
+        double rlatE = (span / 60) * (mod(j, 60) + latE);
+        double rlatO = (span / 59) * (mod(j, 59) + latO);
+
+        if (surface) {
+            // Surface latitude is ambiguous by 90 degrees; pick the candidate nearest the receiver
+            rlatE = nearestLatitude(rlatE, refLat);
+            rlatO = nearestLatitude(rlatO, refLat);
+        } else {
+            if (rlatE >= 270) rlatE -= 360;
+            if (rlatO >= 270) rlatO -= 360;
+        }
+
+        int nlE = nl(rlatE);
+        if (nlE != nl(rlatO)) {
+            return false;
+        }
+
+        double lat = latestOdd ? rlatO : rlatE;
+        int ni = Math.max(nlE - (latestOdd ? 1 : 0), 1);
+        double m = Math.floor(lonE * (nlE - 1) - lonO * nlE + 0.5);
+        double lon = (span / ni) * (mod(m, ni) + (latestOdd ? lonO : lonE));
+
+        if (surface) {
+            lon = nearestLongitude(lon, refLon);
+        } else if (lon >= 180) {
+            lon -= 360;
+        }
+
+        out[0] = lat;
+        out[1] = lon;
+        return true;
+    }
+
+    /**
+     * Local decode of a single frame against a reference position known to be within
+     * 180 NM (airborne) or 45 NM (surface) of the target.
+     */
+    public static void decodeLocal(int cprLat, int cprLon, boolean odd, boolean surface,
+                                   double refLat, double refLon, double[] out) {
+        double span = surface ? 90.0 : 360.0;
+        double latFrac = cprLat / CPR_SCALE;
+        double lonFrac = cprLon / CPR_SCALE;
+
+        double dLat = span / (odd ? 59 : 60);
+        double j = Math.floor(refLat / dLat) + Math.floor(0.5 + mod(refLat, dLat) / dLat - latFrac);
+        double lat = dLat * (j + latFrac);
+
+        double dLon = span / Math.max(nl(lat) - (odd ? 1 : 0), 1);
+        double m = Math.floor(refLon / dLon) + Math.floor(0.5 + mod(refLon, dLon) / dLon - lonFrac);
+
+        out[0] = lat;
+        out[1] = dLon * (m + lonFrac);
+    }
+
+    private static double nearestLatitude(double northern, double refLat) {
+        double southern = northern - 90;
+        return Math.abs(southern - refLat) < Math.abs(northern - refLat) ? southern : northern;
+    }
+
+    private static double nearestLongitude(double lon, double refLon) {
+        double best = lon;
+        double bestDiff = Double.MAX_VALUE;
+        for (int k = 0; k < 4; k++) {
+            double candidate = lon + k * 90.0;
+            if (candidate >= 180) candidate -= 360;
+            double diff = Math.abs(candidate - refLon);
+            if (diff < bestDiff) {
+                bestDiff = diff;
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    private static double mod(double a, double b) {
+        double r = a % b;
+        return r < 0 ? r + b : r;
+    }
+}
@@ -0,0 +1,191 @@
+package com.adsb.simulator.decoder;
+
+import java.util.Arrays;
+
+/**
+ * Per-aircraft CPR frame memory keyed by 24-bit ICAO address.
+ * <p>
+ * Open addressing over parallel primitive arrays: looking up or inserting an aircraft
+ * never allocates. When the table fills up, entries not heard from within
+ * {@code staleMillis} are compacted into a preallocated shadow table which then becomes
+ * the live one.
+ */
+public final class CprPositionTable {
+
+    private static final int EMPTY = -1;
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private final int capacity;
+    private final int mask;
+    private final int maxSize;
+    private final long staleMillis;
+
+    private Slots live;
+    private Slots shadow;
+    private int size;
+
+    public CprPositionTable(int expectedAircraft, long staleMillis) {
+        int cap = Integer.highestOneBit(Math.max(16, expectedAircraft * 2 - 1)) << 1;
+        this.capacity = cap;
+        this.mask = cap - 1;
+        this.maxSize = cap * 3 / 4;
+        this.staleMillis = staleMillis;
+        this.live = new Slots(cap);
+        this.shadow = new Slots(cap);
+    }
+
+    /**
+     * Returns the slot index for {@code icao}, inserting a fresh entry if needed.
+     */
+    int slot(int icao, long nowMillis) {
+        int idx = find(live, icao);
+        if (live.keys[idx] == icao) {
+            live.lastSeen[idx] = nowMillis;
+            return idx;
+        }
+        if (size >= maxSize) {
+            compact(nowMillis);
+            idx = find(live, icao);
+        }
+        live.clear(idx);
+        live.keys[idx] = icao;
+        live.lastSeen[idx] = nowMillis;
+        size++;
+        return idx;
+    }
+
+    /**
+     * Records a CPR frame and tries to resolve a position, globally from a fresh even/odd
+     * pair or locally from the last known position. Writes {@code [lat, lon]} into
+     * {@code out} and returns true on success.
+     */
+    boolean update(int slot, boolean odd, int cprLat, int cprLon, boolean surface,
+                   long nowMillis, double refLat, double refLon, double[] out) {
+        Slots s = live;
+        if (odd) {
+            s.oddLat[slot] = cprLat;
+            s.oddLon[slot] = cprLon;
+            s.oddTime[slot] = nowMillis;
+        } else {
+            s.evenLat[slot] = cprLat;
+            s.evenLon[slot] = cprLon;
+            s.evenTime[slot] = nowMillis;
+        }
+
+        long pairWindow = surface ? 25_000L : 10_000L;
+        boolean decoded = false;
+
+        if (s.evenTime[slot] != NEVER && s.oddTime[slot] != NEVER
+                && Math.abs(s.evenTime[slot] - s.oddTime[slot]) <= pairWindow) {
+            decoded = CprDecoder.decodeGlobal(s.evenLat[slot], s.evenLon[slot],
+                    s.oddLat[slot], s.oddLon[slot], odd, surface, refLat, refLon, out);
+        }
+        if (!decoded && s.fixTime[slot] != NEVER && nowMillis - s.fixTime[slot] <= pairWindow * 3) {
+            CprDecoder.decodeLocal(cprLat, cprLon, odd, surface, s.fixLat[slot], s.fixLon[slot], out);
+            decoded = true;
+        } else if (!decoded && surface) {
+            // Surface targets are always within 45 NM of the receiver
+            CprDecoder.decodeLocal(cprLat, cprLon, odd, true, refLat, refLon, out);
+            decoded = true;
+        }
+
+        if (decoded) {
+            s.fixLat[slot] = out[0];
+            s.fixLon[slot] = out[1];
+            s.fixTime[slot] = nowMillis;
+        }
+        return decoded;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(live.keys, EMPTY);
+        size = 0;
+    }
+
+    private int find(Slots s, int icao) {
+        int idx = mix(icao) & mask;
+        while (s.keys[idx] != EMPTY && s.keys[idx] != icao) {
+            idx = (idx + 1) & mask;
+        }
+        return idx;
+    }
+
+    private void compact(long nowMillis) {
+        Slots target = shadow;
+        Arrays.fill(target.keys, EMPTY);
+        int kept = 0;
+        for (int i = 0; i < capacity; i++) {
+            int key = live.keys[i];
+            if (key != EMPTY && nowMillis - live.lastSeen[i] <= staleMillis) {
+                target.copyFrom(live, i, find(target, key));
+                kept++;
+            }
+        }
+        if (kept >= maxSize) {
+            // Everything is fresh; start over rather than degrade into a full table scan
+            Arrays.fill(target.keys, EMPTY);
+            kept = 0;
+        }
+        shadow = live;
+        live = target;
+        size = kept;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Slots {
+        final int[] keys;
+        final long[] lastSeen;
+        final int[] evenLat;
+        final int[] evenLon;
+        final long[] evenTime;
+        final int[] oddLat;
+        final int[] oddLon;
+        final long[] oddTime;
+        final double[] fixLat;
+        final double[] fixLon;
+        final long[] fixTime;
+
+        Slots(int capacity) {
+            keys = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+            lastSeen = new long[capacity];
+            evenLat = new int[capacity];
+            evenLon = new int[capacity];
+            evenTime = new long[capacity];
+            oddLat = new int[capacity];
+            oddLon = new int[capacity];
+            oddTime = new long[capacity];
+            fixLat = new double[capacity];
+            fixLon = new double[capacity];
+            fixTime = new long[capacity];
+        }
+
+        void clear(int i) {
+            evenTime[i] = NEVER;
+            oddTime[i] = NEVER;
+            fixTime[i] = NEVER;
+        }
+
+        void copyFrom(Slots src, int from, int to) {
+            keys[to] = src.keys[from];
+            lastSeen[to] = src.lastSeen[from];
+            evenLat[to] = src.evenLat[from];
+            evenLon[to] = src.evenLon[from];
+            evenTime[to] = src.evenTime[from];
+            oddLat[to] = src.oddLat[from];
+            oddLon[to] = src.oddLon[from];
+            oddTime[to] = src.oddTime[from];
+            fixLat[to] = src.fixLat[from];
+            fixLon[to] = src.fixLon[from];
+            fixTime[to] = src.fixTime[from];
+        }
+    }
+}
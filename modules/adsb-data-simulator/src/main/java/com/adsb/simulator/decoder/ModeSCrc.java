@@ -0,0 +1,45 @@
+package com.adsb.simulator.decoder;
+
+/**
+ * Table driven CRC-24 (generator 0xFFF409) used by Mode-S downlink frames.
+ */
+public final class ModeSCrc {
+
+    private static final int GENERATOR = 0xFFF409;
+    private static final int[] TABLE = new int[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            int crc = i << 16;
+            for (int bit = 0; bit < 8; bit++) {
+                crc = (crc & 0x800000) != 0 ? (crc << 1) ^ GENERATOR : crc << 1;
+            }
+            TABLE[i] = crc & 0xFFFFFF;
+        }
+    }
+
+    private ModeSCrc() {
+    }
+
+    /**
+     * Computes the CRC over {@code length} bytes starting at {@code offset}.
+     */
+    public static int compute(byte[] buf, int offset, int length) {
+        int crc = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            crc = ((crc << 8) ^ TABLE[((crc >>> 16) ^ buf[i]) & 0xFF]) & 0xFFFFFF;
+        }
+        return crc;
+    }
+
+    /**
+     * Returns the parity residual of a frame: zero for an undamaged DF17/DF18 frame.
+     */
+    public static int residual(byte[] frame, int offset, int lengthBytes) {
+        int dataLength = lengthBytes - 3;
+        int parity = ((frame[offset + dataLength] & 0xFF) << 16)
+                | ((frame[offset + dataLength + 1] & 0xFF) << 8)
+                | (frame[offset + dataLength + 2] & 0xFF);
+        return compute(frame, offset, dataLength) ^ parity;
+    }
+}
@@ -0,0 +1,197 @@
+package com.adsb.simulator.decoder;
+
+/**
+ * Decoder for 112-bit DF17/DF18 extended squitter (1090ES) frames.
+ * <p>
+ * Handles identification (TC 1-4), surface position (TC 5-8), airborne position
+ * (TC 9-18, 20-22) and airborne velocity (TC 19). Decoding works on the raw frame bytes
+ * through lookup tables and writes into a caller owned {@link ModeSMessage}; nothing is
+ * allocated per frame. Instances are not thread safe - use one per feed thread.
+ */
+public final class ModeSDecoder {
+
+    public static final int LONG_FRAME_BYTES = 14;
+
+    private static final char[] CALLSIGN_CHARSET =
+            "#ABCDEFGHIJKLMNOPQRSTUVWXYZ##### ###############0123456789######".toCharArray();
+
+    private static final double[] SURFACE_MOVEMENT_KT = new double[128];
+
+    static {
+        for (int m = 0; m < 128; m++) {
+            double kt;
+            if (m == 0 || m > 124) kt = Double.NaN;      // no information / reserved
+            else if (m == 1) kt = 0;                      // stopped
+            else if (m <= 8) kt = 0.125 + (m - 2) * 0.125;
+            else if (m <= 12) kt = 1 + (m - 9) * 0.25;
+            else if (m <= 38) kt = 2 + (m - 13) * 0.5;
+            else if (m <= 93) kt = 15 + (m - 39);
+            else if (m <= 108) kt = 70 + (m - 94) * 2;
+            else if (m <= 123) kt = 100 + (m - 109) * 5;
+            else kt = 175;
+            SURFACE_MOVEMENT_KT[m] = kt;
+        }
+    }
+
+    private final CprPositionTable positions;
+    private final double receiverLatitude;
+    private final double receiverLongitude;
+    private final double[] position = new double[2];
+
+    public ModeSDecoder(CprPositionTable positions, double receiverLatitude, double receiverLongitude) {
+        this.positions = positions;
+        this.receiverLatitude = receiverLatitude;
+        this.receiverLongitude = receiverLongitude;
+    }
+
+    /**
+     * Decodes the 14-byte frame at {@code offset} into {@code out}.
+     *
+     * @return true if the frame is a DF17/DF18 squitter with a valid CRC
+     */
+    public boolean decode(byte[] frame, int offset, long timestampMillis, ModeSMessage out) {
+        out.reset();
+        out.timestampMillis = timestampMillis;
+
+        int header = frame[offset] & 0xFF;
+        int df = header >>> 3;
+        out.downlinkFormat = df;
+        out.capability = header & 0x07;
+
+        if (df != 17 && df != 18) {
+            return false;
+        }
+        // DF18 CF 0/1 carry ADS-B with a 24-bit address; other CF values are TIS-B/ADS-R
+        if (df == 18 && out.capability > 1) {
+            return false;
+        }
+        if (ModeSCrc.residual(frame, offset, LONG_FRAME_BYTES) != 0) {
+            return false;
+        }
+
+        out.icao = ((frame[offset + 1] & 0xFF) << 16)
+                | ((frame[offset + 2] & 0xFF) << 8)
+                | (frame[offset + 3] & 0xFF);
+
+        long me = 0;
+        for (int i = 4; i < 11; i++) {
+            me = (me << 8) | (frame[offset + i] & 0xFF);
+        }
+
+        int tc = (int) (me >>> 51) & 0x1F;
+        out.typeCode = tc;
+
+        if (tc >= 1 && tc <= 4) {
+            decodeIdentification(me, out);
+        } else if (tc >= 5 && tc <= 8) {
+            decodeSurfacePosition(me, timestampMillis, out);
+        } else if ((tc >= 9 && tc <= 18) || (tc >= 20 && tc <= 22)) {
+            decodeAirbornePosition(me, tc, timestampMillis, out);
+        } else if (tc == 19) {
+            decodeVelocity(me, out);
+        }
+        return true;
+    }
+
+    private void decodeIdentification(long me, ModeSMessage out) {
+        out.kind = ModeSMessage.Kind.IDENTIFICATION;
+        out.category = (int) (me >>> 48) & 0x07;
+        for (int i = 0; i < 8; i++) {
+            out.callsign[i] = CALLSIGN_CHARSET[(int) (me >>> (42 - 6 * i)) & 0x3F];
+        }
+        out.callsignLength = 8;
+    }
+
+    private void decodeAirbornePosition(long me, int tc, long now, ModeSMessage out) {
+        out.kind = ModeSMessage.Kind.AIRBORNE_POSITION;
+        int alt = (int) (me >>> 36) & 0xFFF;
+        if (tc >= 20) {
+            out.gnssAltitude = true;
+            out.altitudeFt = (int) Math.round(alt * 3.28084);
+        } else {
+            out.altitudeFt = decodeAltitude12(alt);
+        }
+        decodeCpr(me, false, now, out);
+    }
+
+    private void decodeSurfacePosition(long me, long now, ModeSMessage out) {
+        out.kind = ModeSMessage.Kind.SURFACE_POSITION;
+        out.altitudeFt = 0;
+
+        double kt = SURFACE_MOVEMENT_KT[(int) (me >>> 44) & 0x7F];
+        if (!Double.isNaN(kt)) {
+            out.speedValid = true;
+            out.groundSpeedKt = kt;
+        }
+        if (((me >>> 43) & 1) != 0) {
+            out.headingValid = true;
+            out.headingDeg = ((me >>> 36) & 0x7F) * 360.0 / 128.0;
+        }
+        decodeCpr(me, true, now, out);
+    }
+
+    private void decodeCpr(long me, boolean surface, long now, ModeSMessage out) {
+        out.cprOdd = ((me >>> 34) & 1) != 0;
+        out.cprLat = (int) (me >>> 17) & 0x1FFFF;
+        out.cprLon = (int) me & 0x1FFFF;
+
+        int slot = positions.slot(out.icao, now);
+        if (positions.update(slot, out.cprOdd, out.cprLat, out.cprLon, surface, now,
+                receiverLatitude, receiverLongitude, position)) {
+            out.positionValid = true;
+            out.latitude = position[0];
+            out.longitude = position[1];
+        }
+    }
+
+    private void decodeVelocity(long me, ModeSMessage out) {
+        out.kind = ModeSMessage.Kind.AIRBORNE_VELOCITY;
+        int st = (int) (me >>> 48) & 0x07;
+        out.subtype = st;
+
+        if (st == 1 || st == 2) {
+            int vew = (int) (me >>> 32) & 0x3FF;
+            int vns = (int) (me >>> 21) & 0x3FF;
+            if (vew != 0 && vns != 0) {
+                int factor = st == 2 ? 4 : 1;
+                double ew = (vew - 1) * factor * (((me >>> 42) & 1) != 0 ? -1 : 1);
+                double ns = (vns - 1) * factor * (((me >>> 31) & 1) != 0 ? -1 : 1);
+                out.speedValid = true;
+                out.groundSpeedKt = Math.sqrt(ew * ew + ns * ns);
+                double heading = Math.toDegrees(Math.atan2(ew, ns));
+                out.headingValid = true;
+                out.headingDeg = heading < 0 ? heading + 360 : heading;
+            }
+        } else if (st == 3 || st == 4) {
+            if (((me >>> 42) & 1) != 0) {
+                out.headingValid = true;
+                out.headingDeg = ((me >>> 32) & 0x3FF) * 360.0 / 1024.0;
+            }
+            int as = (int) (me >>> 21) & 0x3FF;
+            if (as != 0) {
+                out.speedValid = true;
+                out.airspeed = true;
+                out.groundSpeedKt = (as - 1) * (st == 4 ? 4 : 1);
+            }
+        } else {
+            return;
+        }
+
+        int vr = (int) (me >>> 10) & 0x1FF;
+        if (vr != 0) {
+            out.verticalRateValid = true;
+            out.verticalRateFpm = (vr - 1) * 64 * (((me >>> 19) & 1) != 0 ? -1 : 1);
+        }
+    }
+
+    /**
+     * Barometric altitude from the 12-bit AC field; only Q=1 (25 ft) encoding is supported.
+     */
+    static int decodeAltitude12(int alt) {
+        if (alt == 0 || (alt & 0x10) == 0) {
+            return ModeSMessage.UNKNOWN_ALTITUDE;
+        }
+        int n = ((alt & 0xFE0) >>> 1) | (alt & 0x0F);
+        return n * 25 - 1000;
+    }
+}
@@ -0,0 +1,78 @@
+package com.adsb.simulator.decoder;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Glue between a frame reader and {@link ModeSDecoder}: filters long frames, decodes them
+ * into a single reused {@link ModeSMessage} and hands valid ones to the listener.
+ * <p>
+ * Typical use with a Beast TCP feed:
+ * <pre>
+ * ModeSFeedDecoder feed = new ModeSFeedDecoder(37.5583, 126.7906, listener);
+ * BeastFrameReader reader = new BeastFrameReader(feed);
+ * while ((n = in.read(buf)) &gt; 0) reader.feed(buf, 0, n);
+ * </pre>
+ */
+public final class ModeSFeedDecoder implements ModeSFrameHandler {
+
+    private static final int EXPECTED_AIRCRAFT = 2048;
+    private static final long STALE_AIRCRAFT_MILLIS = 60_000L;
+
+    private final ModeSDecoder decoder;
+    private final ModeSMessage message = new ModeSMessage();
+    private final ModeSMessageListener listener;
+    private final LongSupplier clock;
+
+    private long framesReceived;
+    private long shortFrames;
+    private long rejected;
+    private long decoded;
+
+    public ModeSFeedDecoder(double receiverLatitude, double receiverLongitude, ModeSMessageListener listener) {
+        this(receiverLatitude, receiverLongitude, listener, System::currentTimeMillis);
+    }
+
+    public ModeSFeedDecoder(double receiverLatitude, double receiverLongitude,
+                            ModeSMessageListener listener, LongSupplier clock) {
+        this.decoder = new ModeSDecoder(new CprPositionTable(EXPECTED_AIRCRAFT, STALE_AIRCRAFT_MILLIS),
+                receiverLatitude, receiverLongitude);
+        this.listener = listener;
+        this.clock = clock;
+    }
+
+    @Override
+    public void onFrame(byte[] frame, int offset, int length, long mlatTimestamp, int signalLevel) {
+        framesReceived++;
+        if (length != ModeSDecoder.LONG_FRAME_BYTES) {
+            shortFrames++;
+            return;
+        }
+        if (!decoder.decode(frame, offset, clock.getAsLong(), message)) {
+            rejected++;
+            return;
+        }
+        message.mlatTimestamp = mlatTimestamp;
+        message.signalLevel = signalLevel;
+        decoded++;
+        listener.onMessage(message);
+    }
+
+    public long getFramesReceived() {
+        return framesReceived;
+    }
+
+    public long getShortFrames() {
+        return shortFrames;
+    }
+
+    /**
+     * Long frames dropped because of a CRC mismatch or a non ADS-B downlink format.
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getDecoded() {
+        return decoded;
+    }
+}
@@ -0,0 +1,17 @@
+package com.adsb.simulator.decoder;
+
+/**
+ * Receives raw Mode-S frames extracted from a receiver stream.
+ * <p>
+ * The {@code frame} buffer is reused by the reader; implementations must not keep a
+ * reference to it after returning.
+ */
+@FunctionalInterface
+public interface ModeSFrameHandler {
+
+    /**
+     * @param mlatTimestamp receiver 12 MHz counter, or 0 when the format carries none
+     * @param signalLevel   RSSI byte for Beast input, 0 otherwise
+     */
+    void onFrame(byte[] frame, int offset, int length, long mlatTimestamp, int signalLevel);
+}
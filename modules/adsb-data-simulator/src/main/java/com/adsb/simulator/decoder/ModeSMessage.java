@@ -0,0 +1,127 @@
+package com.adsb.simulator.decoder;
+
+/**
+ * Mutable, reusable result of decoding one extended squitter frame.
+ * <p>
+ * A single instance is owned by the decoding thread and overwritten for every frame, so
+ * listeners must copy out whatever they need before returning.
+ */
+public final class ModeSMessage {
+
+    public static final int UNKNOWN_ALTITUDE = Integer.MIN_VALUE;
+
+    public enum Kind {
+        IDENTIFICATION,
+        AIRBORNE_POSITION,
+        SURFACE_POSITION,
+        AIRBORNE_VELOCITY,
+        OTHER
+    }
+
+    // Frame header
+    int downlinkFormat;
+    int capability;
+    int icao;
+    int typeCode;
+    int subtype;
+    Kind kind = Kind.OTHER;
+    long timestampMillis;
+    long mlatTimestamp;
+    int signalLevel;
+
+    // Identification
+    int category;
+    final char[] callsign = new char[8];
+    int callsignLength;
+
+    // Position
+    int altitudeFt = UNKNOWN_ALTITUDE;
+    boolean gnssAltitude;
+    boolean cprOdd;
+    int cprLat;
+    int cprLon;
+    boolean positionValid;
+    double latitude;
+    double longitude;
+
+    // Velocity / surface movement
+    boolean speedValid;
+    double groundSpeedKt;
+    boolean airspeed;
+    boolean headingValid;
+    double headingDeg;
+    boolean verticalRateValid;
+    int verticalRateFpm;
+
+    void reset() {
+        downlinkFormat = 0;
+        capability = 0;
+        icao = 0;
+        typeCode = 0;
+        subtype = 0;
+        kind = Kind.OTHER;
+        mlatTimestamp = 0;
+        signalLevel = 0;
+        category = 0;
+        callsignLength = 0;
+        altitudeFt = UNKNOWN_ALTITUDE;
+        gnssAltitude = false;
+        cprOdd = false;
+        cprLat = 0;
+        cprLon = 0;
+        positionValid = false;
+        latitude = 0;
+        longitude = 0;
+        speedValid = false;
+        groundSpeedKt = 0;
+        airspeed = false;
+        headingValid = false;
+        headingDeg = 0;
+        verticalRateValid = false;
+        verticalRateFpm = 0;
+    }
+
+    public int getDownlinkFormat() { return downlinkFormat; }
+    public int getCapability() { return capability; }
+    public int getIcao() { return icao; }
+    public int getTypeCode() { return typeCode; }
+    public int getSubtype() { return subtype; }
+    public Kind getKind() { return kind; }
+    public long getTimestampMillis() { return timestampMillis; }
+    public long getMlatTimestamp() { return mlatTimestamp; }
+    public int getSignalLevel() { return signalLevel; }
+    public int getCategory() { return category; }
+    public int getAltitudeFt() { return altitudeFt; }
+    public boolean isGnssAltitude() { return gnssAltitude; }
+    public boolean isCprOdd() { return cprOdd; }
+    public int getCprLat() { return cprLat; }
+    public int getCprLon() { return cprLon; }
+    public boolean isPositionValid() { return positionValid; }
+    public double getLatitude() { return latitude; }
+    public double getLongitude() { return longitude; }
+    public boolean isSpeedValid() { return speedValid; }
+    public double getGroundSpeedKt() { return groundSpeedKt; }
+    public boolean isAirspeed() { return airspeed; }
+    public boolean isHeadingValid() { return headingValid; }
+    public double getHeadingDeg() { return headingDeg; }
+    public boolean isVerticalRateValid() { return verticalRateValid; }
+    public int getVerticalRateFpm() { return verticalRateFpm; }
+
+    /**
+     * Copies the callsign characters (trailing spaces included) into {@code target}.
+     */
+    public StringBuilder appendCallsign(StringBuilder target) {
+        return target.append(callsign, 0, callsignLength);
+    }
+
+    /**
+     * Allocating convenience accessor; prefer {@link #appendCallsign} on hot paths.
+     */
+    public String getCallsign() {
+        return new String(callsign, 0, callsignLength).trim();
+    }
+
+    public String getIcaoHex() {
+        return String.format("%06X", icao);
+    }
+}
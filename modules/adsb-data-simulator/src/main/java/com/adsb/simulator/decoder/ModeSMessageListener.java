@@ -0,0 +1,11 @@
+package com.adsb.simulator.decoder;
+
+/**
+ * Receives decoded extended squitter messages. The message instance is reused for the
+ * next frame, so listeners copy out what they need before returning.
+ */
+@FunctionalInterface
+public interface ModeSMessageListener {
+
+    void onMessage(ModeSMessage message);
+}
@@ -16,6 +16,7 @@ public class AircraftDto {
     
     private Long id;
     private String callsign;
+    private String hexId;
     private String flightNumber;
     private Double latitude;
     private Double longitude;
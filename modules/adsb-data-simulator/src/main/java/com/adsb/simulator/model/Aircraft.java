@@ -1,5 +1,6 @@
 package com.adsb.simulator.model;
 
+import com.aircraft.spatial.ZOrderCell;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -9,7 +10,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "aircraft")
+@Table(name = "aircraft", indexes = {
+        @Index(name = "idx_aircraft_cell_last_contact", columnList = "cell, last_contact"),
+        @Index(name = "idx_aircraft_last_contact", columnList = "last_contact")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -23,6 +27,9 @@ public class Aircraft {
     @Column(unique = true, nullable = false)
     private String callsign;
     
+    @Column(name = "hex_id")
+    private String hexId; // ICAO 24-bit address
+    
     @Column(name = "flight_number")
     private String flightNumber;
     
@@ -32,6 +39,9 @@ public class Aircraft {
     @Column(nullable = false)
     private Double longitude;
     
+    @Column(name = "cell")
+    private Long cell; // Z-order cell of latitude/longitude, see ZOrderCell
+    
     @Column(nullable = false)
     private Integer altitude; // feet
     
@@ -72,11 +82,19 @@ public class Aircraft {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
         lastContact = LocalDateTime.now();
+        updateCell();
     }
     
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
         lastContact = LocalDateTime.now();
+        updateCell();
+    }
+    
+    private void updateCell() {
+        if (latitude != null && longitude != null) {
+            cell = ZOrderCell.encode(latitude, longitude);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,276 @@
+package com.adsb.simulator.recording;
+
+import com.adsb.simulator.model.Aircraft;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records simulator / live frames into an append-only segmented log for later replay.
+ * <p>
+ * {@link #record} runs on the tick thread and only copies the frame and offers it to a
+ * bounded queue; if the writer falls behind, frames are dropped and counted instead of
+ * stalling the tick. A dedicated writer thread turns frames into deltas against the last
+ * written state, appends them to the memory-mapped segment and batches fsyncs by time.
+ */
+@Service
+@Slf4j
+public class FrameRecorder {
+
+    private static final DateTimeFormatter SESSION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Value("${adsb.recording.directory:recordings}")
+    private String baseDirectory;
+
+    @Value("${adsb.recording.segment-size-mb:64}")
+    private int segmentSizeMb;
+
+    @Value("${adsb.recording.keyframe-interval-ms:10000}")
+    private long keyframeIntervalMillis;
+
+    @Value("${adsb.recording.fsync-interval-ms:1000}")
+    private long fsyncIntervalMillis;
+
+    @Value("${adsb.recording.queue-capacity:1024}")
+    private int queueCapacity;
+
+    private volatile BlockingQueue<RecordedFrame> queue;
+    private volatile boolean recording;
+    private volatile Path sessionDirectory;
+    private Thread writerThread;
+
+    private final AtomicLong framesRecorded = new AtomicLong();
+    private final AtomicLong framesDropped = new AtomicLong();
+    private final AtomicLong framesOversize = new AtomicLong();
+    private final AtomicLong fsyncs = new AtomicLong();
+    private volatile long bytesWritten;
+    private volatile long maxWriteMicros;
+    private volatile long maxFsyncMicros;
+
+    public synchronized Path start() throws IOException {
+        if (recording) {
+            return sessionDirectory;
+        }
+        Path directory = Paths.get(baseDirectory, "recording-" + LocalDateTime.now().format(SESSION_FORMAT));
+        SegmentedLogWriter writer = new SegmentedLogWriter(directory, segmentSizeMb * 1024 * 1024);
+
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        framesRecorded.set(0);
+        framesDropped.set(0);
+        framesOversize.set(0);
+        fsyncs.set(0);
+        maxWriteMicros = 0;
+        maxFsyncMicros = 0;
+        sessionDirectory = directory;
+        recording = true;
+
+        writerThread = new Thread(() -> runWriter(writer, queue), "frame-recorder");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Started frame recording to {}", directory);
+        return directory;
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (!recording) {
+            return;
+        }
+        recording = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Stopped frame recording to {} ({} frames, {} dropped)",
+                sessionDirectory, framesRecorded.get(), framesDropped.get());
+    }
+
+    /**
+     * Queues a frame for recording without blocking; a no-op when not recording.
+     */
+    public void record(List<Aircraft> frame) {
+        if (!recording) {
+            return;
+        }
+        List<RecordedAircraft> copy = new ArrayList<>(frame.size());
+        for (Aircraft aircraft : frame) {
+            if (aircraft.getCallsign() != null && aircraft.getLatitude() != null && aircraft.getLongitude() != null) {
+                copy.add(RecordedAircraft.from(aircraft));
+            }
+        }
+        if (!queue.offer(new RecordedFrame(System.currentTimeMillis(), copy))) {
+            framesDropped.incrementAndGet();
+        }
+    }
+
+    public boolean isRecording() {
+        return recording;
+    }
+
+    public Path getSessionDirectory() {
+        return sessionDirectory;
+    }
+
+    String getBaseDirectory() {
+        return baseDirectory;
+    }
+
+    /**
+     * Resolves a recording name against the recording directory.
+     *
+     * @throws IllegalArgumentException if the name points outside of it
+     */
+    public Path resolveRecording(String name) {
+        Path base = Paths.get(baseDirectory).toAbsolutePath().normalize();
+        Path resolved = base.resolve(name).normalize();
+        if (!resolved.startsWith(base) || resolved.equals(base)) {
+            throw new IllegalArgumentException("Recording must be inside " + base + ": " + name);
+        }
+        return resolved;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("recording", recording);
+        status.put("directory", sessionDirectory != null ? sessionDirectory.toAbsolutePath().toString() : null);
+        status.put("framesRecorded", framesRecorded.get());
+        status.put("framesDropped", framesDropped.get());
+        status.put("framesOversize", framesOversize.get());
+        status.put("queued", queue != null ? queue.size() : 0);
+        status.put("bytesWritten", bytesWritten);
+        status.put("fsyncs", fsyncs.get());
+        status.put("maxWriteMicros", maxWriteMicros);
+        status.put("maxFsyncMicros", maxFsyncMicros);
+        return status;
+    }
+
+    private void runWriter(SegmentedLogWriter writer, BlockingQueue<RecordedFrame> frames) {
+        DeltaEncoder encoder = new DeltaEncoder(writer);
+        long lastForce = System.currentTimeMillis();
+        boolean dirty = false;
+        try (writer) {
+            while (recording || !frames.isEmpty()) {
+                RecordedFrame frame = frames.poll(fsyncIntervalMillis, TimeUnit.MILLISECONDS);
+                if (frame != null) {
+                    long start = System.nanoTime();
+                    if (encoder.write(frame)) {
+                        maxWriteMicros = Math.max(maxWriteMicros, (System.nanoTime() - start) / 1000);
+                        bytesWritten = writer.getBytesWritten();
+                        framesRecorded.incrementAndGet();
+                        dirty = true;
+                    } else {
+                        framesOversize.incrementAndGet();
+                    }
+                }
+                long now = System.currentTimeMillis();
+                if (dirty && now - lastForce >= fsyncIntervalMillis) {
+                    long start = System.nanoTime();
+                    writer.force();
+                    maxFsyncMicros = Math.max(maxFsyncMicros, (System.nanoTime() - start) / 1000);
+                    fsyncs.incrementAndGet();
+                    lastForce = now;
+                    dirty = false;
+                }
+            }
+        } catch (IOException e) {
+            log.error("Frame recording to {} failed", sessionDirectory, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            recording = false;
+        }
+    }
+
+    record RecordedFrame(long timestampMillis, List<RecordedAircraft> aircraft) {
+    }
+
+    /**
+     * Writer-thread state: the last written aircraft set, used to emit only changes.
+     */
+    private final class DeltaEncoder {
+
+        private final SegmentedLogWriter writer;
+        private final Map<String, RecordedAircraft> lastWritten = new HashMap<>();
+        private final Set<String> present = new HashSet<>();
+        private long lastKeyframe = Long.MIN_VALUE;
+
+        DeltaEncoder(SegmentedLogWriter writer) {
+            this.writer = writer;
+        }
+
+        /**
+         * @return false if the frame was skipped because it cannot fit even an empty segment
+         */
+        boolean write(RecordedFrame frame) throws IOException {
+            long ts = frame.timestampMillis();
+            // After a roll the frame only needs its keyframe, its aircraft and the frame end
+            if (!writer.canHold(frame.aircraft().size() + 2)) {
+                log.warn("Skipping frame of {} aircraft: larger than a {} MB segment",
+                        frame.aircraft().size(), segmentSizeMb);
+                return false;
+            }
+            // Worst case: a full keyframe of this frame, removals of everything seen before, markers
+            int worstCase = frame.aircraft().size() + lastWritten.size() + 2;
+            boolean keyframe = ts - lastKeyframe >= keyframeIntervalMillis;
+            if (writer.needsRoll(worstCase)) {
+                writer.roll(ts);
+                keyframe = true;
+            }
+
+            if (keyframe) {
+                writer.index(ts);
+                writer.beginRecord(RecordingFormat.KEYFRAME, ts);
+                writer.endRecord();
+                lastWritten.clear();
+                lastKeyframe = ts;
+            }
+
+            present.clear();
+            for (RecordedAircraft aircraft : frame.aircraft()) {
+                present.add(aircraft.callsign());
+                RecordedAircraft previous = lastWritten.put(aircraft.callsign(), aircraft);
+                if (!aircraft.equals(previous)) {
+                    ByteBuffer buf = writer.beginRecord(RecordingFormat.UPSERT, ts);
+                    RecordingFormat.putAircraft(buf, aircraft);
+                    writer.endRecord();
+                }
+            }
+
+            Iterator<String> it = lastWritten.keySet().iterator();
+            while (it.hasNext()) {
+                String callsign = it.next();
+                if (!present.contains(callsign)) {
+                    it.remove();
+                    ByteBuffer buf = writer.beginRecord(RecordingFormat.REMOVE, ts);
+                    RecordingFormat.putString(buf, callsign);
+                    writer.endRecord();
+                }
+            }
+
+            writer.beginRecord(RecordingFormat.FRAME_END, ts);
+            writer.endRecord();
+            return true;
+        }
+    }
+}
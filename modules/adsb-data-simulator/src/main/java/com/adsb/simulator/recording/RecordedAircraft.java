@@ -0,0 +1,34 @@
+package com.adsb.simulator.recording;
+
+import com.adsb.simulator.model.Aircraft;
+
+/**
+ * Immutable copy of the replay-relevant state of one aircraft in a recorded frame.
+ */
+public record RecordedAircraft(String callsign,
+                               String hexId,
+                               String flightNumber,
+                               String squawk,
+                               double latitude,
+                               double longitude,
+                               int altitude,
+                               int speed,
+                               int heading,
+                               int verticalSpeed,
+                               boolean onGround) {
+
+    public static RecordedAircraft from(Aircraft aircraft) {
+        return new RecordedAircraft(
+                aircraft.getCallsign(),
+                aircraft.getHexId(),
+                aircraft.getFlightNumber(),
+                aircraft.getSquawk(),
+                aircraft.getLatitude(),
+                aircraft.getLongitude(),
+                aircraft.getAltitude() != null ? aircraft.getAltitude() : 0,
+                aircraft.getSpeed() != null ? aircraft.getSpeed() : 0,
+                aircraft.getHeading() != null ? aircraft.getHeading() : 0,
+                aircraft.getVerticalSpeed() != null ? aircraft.getVerticalSpeed() : 0,
+                Boolean.TRUE.equals(aircraft.getIsOnGround()));
+    }
+}
@@ -0,0 +1,107 @@
+package com.adsb.simulator.recording;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * On-disk layout of a recording.
+ * <p>
+ * A recording is a directory of fixed-size, memory-mapped segment files
+ * ({@code segment-<firstMillis>.log}) plus one sparse time index per segment
+ * ({@code segment-<firstMillis>.idx}, pairs of {@code long timestamp, int offset}).
+ * <p>
+ * Segment records are {@code int length | byte type | long timestampMillis | payload}, where
+ * {@code length} covers everything after itself and is written last, so a zero length marks
+ * the end of the valid data even after a crash. Each tick is a run of UPSERT/REMOVE deltas
+ * closed by FRAME_END; every keyframe interval the writer emits KEYFRAME followed by the
+ * full aircraft set, and index entries always point at keyframes so a reader can start
+ * from any indexed time without earlier history.
+ */
+final class RecordingFormat {
+
+    static final byte UPSERT = 1;
+    static final byte REMOVE = 2;
+    static final byte FRAME_END = 3;
+    static final byte KEYFRAME = 4;
+
+    static final int HEADER_BYTES = 4 + 1 + 8;
+    static final int INDEX_ENTRY_BYTES = 8 + 4;
+    static final int MAX_STRING_BYTES = 255;
+    static final int MAX_RECORD_BYTES = HEADER_BYTES + 8 + 8 + 4 * 4 + 1 + 4 * (2 + MAX_STRING_BYTES);
+
+    static final String SEGMENT_SUFFIX = ".log";
+    static final String INDEX_SUFFIX = ".idx";
+
+    private RecordingFormat() {
+    }
+
+    static Path segmentPath(Path directory, long firstMillis) {
+        return directory.resolve(String.format("segment-%020d%s", firstMillis, SEGMENT_SUFFIX));
+    }
+
+    static long firstMillis(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring("segment-".length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    static Path indexPath(Path segment) {
+        String name = segment.getFileName().toString();
+        return segment.resolveSibling(name.substring(0, name.length() - SEGMENT_SUFFIX.length()) + INDEX_SUFFIX);
+    }
+
+    static void putString(ByteBuffer buf, String value) {
+        if (value == null) {
+            buf.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, MAX_STRING_BYTES);
+        // Back off over continuation bytes so a truncated string never ends mid-character
+        while (length < bytes.length && (bytes[length] & 0xC0) == 0x80) {
+            length--;
+        }
+        buf.putShort((short) length);
+        buf.put(bytes, 0, length);
+    }
+
+    static String getString(ByteBuffer buf) {
+        short length = buf.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void putAircraft(ByteBuffer buf, RecordedAircraft a) {
+        buf.putDouble(a.latitude());
+        buf.putDouble(a.longitude());
+        buf.putInt(a.altitude());
+        buf.putInt(a.speed());
+        buf.putInt(a.heading());
+        buf.putInt(a.verticalSpeed());
+        buf.put((byte) (a.onGround() ? 1 : 0));
+        putString(buf, a.callsign());
+        putString(buf, a.hexId());
+        putString(buf, a.flightNumber());
+        putString(buf, a.squawk());
+    }
+
+    static RecordedAircraft getAircraft(ByteBuffer buf) {
+        double latitude = buf.getDouble();
+        double longitude = buf.getDouble();
+        int altitude = buf.getInt();
+        int speed = buf.getInt();
+        int heading = buf.getInt();
+        int verticalSpeed = buf.getInt();
+        boolean onGround = buf.get() != 0;
+        String callsign = getString(buf);
+        String hexId = getString(buf);
+        String flightNumber = getString(buf);
+        String squawk = getString(buf);
+        return new RecordedAircraft(callsign, hexId, flightNumber, squawk, latitude, longitude,
+                altitude, speed, heading, verticalSpeed, onGround);
+    }
+}
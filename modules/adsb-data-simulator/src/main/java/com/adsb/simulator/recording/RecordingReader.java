@@ -0,0 +1,215 @@
+package com.adsb.simulator.recording;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Replays a recording written by {@link FrameRecorder}, reconstructing the full aircraft
+ * set of every recorded tick from keyframes and deltas.
+ */
+public final class RecordingReader {
+
+    @FunctionalInterface
+    public interface FrameVisitor {
+
+        /**
+         * @param aircraft read-only view of the reconstructed frame, valid only during the call
+         */
+        void onFrame(long timestampMillis, Collection<RecordedAircraft> aircraft);
+    }
+
+    private RecordingReader() {
+    }
+
+    public static void replay(Path directory, FrameVisitor visitor) throws IOException {
+        replay(directory, Long.MIN_VALUE, visitor);
+    }
+
+    /**
+     * Replays all frames at or after {@code fromMillis}, using the time index to skip
+     * directly to the closest preceding keyframe.
+     */
+    public static void replay(Path directory, long fromMillis, FrameVisitor visitor) throws IOException {
+        List<Path> segments = listSegments(directory);
+        int first = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            if (RecordingFormat.firstMillis(segments.get(i)) <= fromMillis) {
+                first = i;
+            }
+        }
+
+        Map<String, RecordedAircraft> state = new LinkedHashMap<>();
+        Collection<RecordedAircraft> view = Collections.unmodifiableCollection(state.values());
+        for (int i = first; i < segments.size(); i++) {
+            Path segment = segments.get(i);
+            int offset = i == first ? seek(segment, fromMillis) : 0;
+            readSegment(segment, offset, fromMillis, state, view, visitor);
+        }
+    }
+
+    /**
+     * Opens a pull-style cursor over the recording, for playback that follows a clock
+     * instead of visiting every frame at once.
+     */
+    public static Cursor open(Path directory) throws IOException {
+        return new Cursor(listSegments(directory));
+    }
+
+    /**
+     * Walks the segments in time order, mapping one at a time and holding only the current
+     * aircraft set, so memory stays flat however long the recording is.
+     */
+    public static final class Cursor {
+
+        private final List<Path> segments;
+        private final Map<String, RecordedAircraft> state = new LinkedHashMap<>();
+        private final Collection<RecordedAircraft> view = Collections.unmodifiableCollection(state.values());
+        private int nextSegment;
+        private MappedByteBuffer buf;
+        private boolean exhausted;
+
+        private Cursor(List<Path> segments) {
+            this.segments = segments;
+            this.exhausted = segments.isEmpty();
+        }
+
+        /**
+         * Time of the first recorded frame, or {@link Long#MIN_VALUE} for an empty recording.
+         */
+        public long firstMillis() {
+            return segments.isEmpty() ? Long.MIN_VALUE : RecordingFormat.firstMillis(segments.get(0));
+        }
+
+        /**
+         * Applies every record up to {@code millis} and returns the latest frame at or before
+         * it, as a read-only view valid until the next call.
+         */
+        public Collection<RecordedAircraft> advanceTo(long millis) throws IOException {
+            while (!exhausted) {
+                if (buf == null || buf.remaining() < RecordingFormat.HEADER_BYTES) {
+                    if (nextSegment == segments.size()) {
+                        exhausted = true;
+                        break;
+                    }
+                    buf = map(segments.get(nextSegment++));
+                    continue;
+                }
+                int start = buf.position();
+                int length = buf.getInt();
+                if (length <= 0 || length > buf.remaining()) {
+                    buf = null; // end of this segment's written data
+                    continue;
+                }
+                int next = buf.position() + length;
+                byte type = buf.get();
+                long timestamp = buf.getLong();
+                if (timestamp > millis) {
+                    // Records of one frame share its timestamp, so this stops on a frame boundary
+                    buf.position(start);
+                    break;
+                }
+                apply(type, buf, state);
+                buf.position(next);
+            }
+            return view;
+        }
+
+        /**
+         * True once every segment has been read.
+         */
+        public boolean isExhausted() {
+            return exhausted;
+        }
+
+        private static MappedByteBuffer map(Path segment) throws IOException {
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                // The mapping stays valid after the channel is closed
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+    }
+
+    private static void readSegment(Path segment, int offset, long fromMillis,
+                                    Map<String, RecordedAircraft> state,
+                                    Collection<RecordedAircraft> view,
+                                    FrameVisitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buf.position(offset);
+            while (buf.remaining() >= RecordingFormat.HEADER_BYTES) {
+                int length = buf.getInt();
+                if (length <= 0 || length > buf.remaining()) {
+                    break; // end of written data (or a torn tail after a crash)
+                }
+                int next = buf.position() + length;
+                byte type = buf.get();
+                long timestamp = buf.getLong();
+                if (type == RecordingFormat.FRAME_END) {
+                    if (timestamp >= fromMillis) {
+                        visitor.onFrame(timestamp, view);
+                    }
+                } else {
+                    apply(type, buf, state);
+                }
+                buf.position(next);
+            }
+        }
+    }
+
+    private static void apply(byte type, ByteBuffer buf, Map<String, RecordedAircraft> state) {
+        switch (type) {
+            case RecordingFormat.KEYFRAME -> state.clear();
+            case RecordingFormat.UPSERT -> {
+                RecordedAircraft aircraft = RecordingFormat.getAircraft(buf);
+                state.put(aircraft.callsign(), aircraft);
+            }
+            case RecordingFormat.REMOVE -> state.remove(RecordingFormat.getString(buf));
+            default -> {
+                // FRAME_END and unknown record types carry no state; the length prefix skips them
+            }
+        }
+    }
+
+    private static int seek(Path segment, long fromMillis) throws IOException {
+        Path index = RecordingFormat.indexPath(segment);
+        if (!Files.exists(index)) {
+            return 0;
+        }
+        ByteBuffer entries = ByteBuffer.wrap(Files.readAllBytes(index));
+        int count = entries.capacity() / RecordingFormat.INDEX_ENTRY_BYTES;
+        int lo = 0;
+        int hi = count - 1;
+        int offset = 0;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int pos = mid * RecordingFormat.INDEX_ENTRY_BYTES;
+            if (entries.getLong(pos) <= fromMillis) {
+                offset = entries.getInt(pos + 8);
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return offset;
+    }
+
+    private static List<Path> listSegments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(RecordingFormat.SEGMENT_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
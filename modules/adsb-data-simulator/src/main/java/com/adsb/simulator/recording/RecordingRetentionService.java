@@ -0,0 +1,90 @@
+package com.adsb.simulator.recording;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Time-based retention for recordings. Segments are the unit of retention: a segment whose
+ * last frame is older than the window is dropped as a whole (log and index), which is a
+ * couple of unlinks instead of a row-by-row delete. Every segment starts with a keyframe,
+ * so the remaining ones still replay on their own.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RecordingRetentionService {
+
+    private final FrameRecorder frameRecorder;
+
+    @Value("${adsb.recording.retention-hours:24}")
+    private long retentionHours;
+
+    @Scheduled(cron = "0 5 * * * *") // Run every hour
+    public void dropExpiredSegments() {
+        Path base = Paths.get(frameRecorder.getBaseDirectory());
+        if (!Files.isDirectory(base)) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(retentionHours);
+        try (Stream<Path> sessions = Files.list(base)) {
+            int dropped = 0;
+            for (Path session : sessions.filter(Files::isDirectory).collect(Collectors.toList())) {
+                dropped += dropExpiredSegments(session, cutoff);
+            }
+            if (dropped > 0) {
+                log.info("Dropped {} recording segments older than {} hours", dropped, retentionHours);
+            }
+        } catch (IOException e) {
+            log.error("Error during recording retention", e);
+        }
+    }
+
+    int dropExpiredSegments(Path session, long cutoffMillis) throws IOException {
+        boolean active = frameRecorder.isRecording() && session.equals(frameRecorder.getSessionDirectory());
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(session)) {
+            segments = files.filter(p -> p.getFileName().toString().endsWith(RecordingFormat.SEGMENT_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        int dropped = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            boolean last = i == segments.size() - 1;
+            if (last && active) {
+                break; // still being appended to
+            }
+            // A segment covers frames up to the start of the next one
+            long endMillis = last
+                    ? Files.getLastModifiedTime(segments.get(i)).toMillis()
+                    : RecordingFormat.firstMillis(segments.get(i + 1));
+            if (endMillis >= cutoffMillis) {
+                break;
+            }
+            Files.deleteIfExists(RecordingFormat.indexPath(segments.get(i)));
+            Files.delete(segments.get(i));
+            dropped++;
+        }
+
+        if (!active && dropped == segments.size()) {
+            try (Stream<Path> rest = Files.list(session)) {
+                if (rest.findAny().isEmpty()) {
+                    Files.delete(session);
+                }
+            }
+        }
+        return dropped;
+    }
+}
@@ -0,0 +1,125 @@
+package com.adsb.simulator.recording;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Single-threaded appender for the segmented, memory-mapped recording log described in
+ * {@link RecordingFormat}. Appends are plain memory copies into the mapped segment;
+ * durability is handled separately through {@link #force()} so callers can batch fsyncs.
+ */
+class SegmentedLogWriter implements AutoCloseable {
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final ByteBuffer indexEntry = ByteBuffer.allocate(RecordingFormat.INDEX_ENTRY_BYTES);
+
+    private FileChannel segmentChannel;
+    private FileChannel indexChannel;
+    private MappedByteBuffer segment;
+    private int segmentCount;
+    private long bytesWritten;
+    private int recordStart = -1;
+
+    SegmentedLogWriter(Path directory, int segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * True if no segment is open or the current one cannot take {@code records} more
+     * records of maximum size; the caller then rolls and starts with a keyframe.
+     */
+    boolean needsRoll(int records) {
+        return segment == null
+                || segment.remaining() < records * RecordingFormat.MAX_RECORD_BYTES + 4;
+    }
+
+    /**
+     * True if an empty segment can take {@code records} records of maximum size.
+     */
+    boolean canHold(int records) {
+        return (long) records * RecordingFormat.MAX_RECORD_BYTES + 4 <= segmentBytes;
+    }
+
+    void roll(long firstMillis) throws IOException {
+        closeSegment();
+        Path path = RecordingFormat.segmentPath(directory, firstMillis);
+        segmentChannel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = segmentChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        segment.order(ByteOrder.BIG_ENDIAN);
+        indexChannel = FileChannel.open(RecordingFormat.indexPath(path), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE);
+        segmentCount++;
+    }
+
+    /**
+     * Adds an index entry pointing at the next record, which must be a keyframe.
+     */
+    void index(long timestampMillis) throws IOException {
+        indexEntry.clear();
+        indexEntry.putLong(timestampMillis).putInt(segment.position()).flip();
+        while (indexEntry.hasRemaining()) {
+            indexChannel.write(indexEntry);
+        }
+    }
+
+    /**
+     * Starts a record and returns the buffer to write its payload into; must be followed
+     * by {@link #endRecord()}.
+     */
+    ByteBuffer beginRecord(byte type, long timestampMillis) {
+        recordStart = segment.position();
+        segment.putInt(0);
+        segment.put(type);
+        segment.putLong(timestampMillis);
+        return segment;
+    }
+
+    void endRecord() {
+        int length = segment.position() - recordStart - 4;
+        // Publishing the length last keeps a torn record invisible to readers
+        segment.putInt(recordStart, length);
+        bytesWritten += length + 4;
+        recordStart = -1;
+    }
+
+    void force() throws IOException {
+        if (segment != null) {
+            segment.force();
+            indexChannel.force(false);
+        }
+    }
+
+    long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    int getSegmentCount() {
+        return segmentCount;
+    }
+
+    private void closeSegment() throws IOException {
+        if (segment == null) {
+            return;
+        }
+        segment.force();
+        indexChannel.force(false);
+        indexChannel.close();
+        segmentChannel.close();
+        segment = null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeSegment();
+    }
+}
@@ -1,17 +1,23 @@
 package com.adsb.simulator.repository;
 
 import com.adsb.simulator.model.Aircraft;
+import com.aircraft.spatial.ZOrderCell;
+import com.aircraft.spatial.ZOrderCellRepository;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AircraftRepository extends JpaRepository<Aircraft, Long> {
+public interface AircraftRepository extends JpaRepository<Aircraft, Long>, ZOrderCellRepository {
     
     Optional<Aircraft> findByCallsign(String callsign);
     
@@ -20,26 +26,76 @@ public interface AircraftRepository extends JpaRepository<Aircraft, Long> {
            "a.isOnGround = false")
     List<Aircraft> findActiveAircraft(@Param("threshold") LocalDateTime threshold);
     
-    @Query(value = "SELECT * FROM aircraft WHERE " +
-           "ST_DWithin(" +
-           "ST_MakePoint(longitude, latitude)::geography, " +
-           "ST_MakePoint(:lng, :lat)::geography, " +
-           ":radius * 1000" + // Convert km to meters
-           ") AND last_contact > :threshold", nativeQuery = true)
-    List<Aircraft> findAircraftWithinRadius(@Param("lat") Double latitude,
-                                          @Param("lng") Double longitude,
-                                          @Param("radius") Integer radiusKm,
-                                          @Param("threshold") LocalDateTime threshold);
+    /**
+     * Aircraft within {@code radiusKm} of a point: an indexed box lookup over the circle's
+     * bounding box, refined by great-circle distance. Replaces the PostGIS-only query.
+     */
+    default List<Aircraft> findAircraftWithinRadius(Double latitude, Double longitude, Integer radiusKm,
+                                                    LocalDateTime threshold) {
+        double latDelta = radiusKm / 111.32;
+        double lngDelta = radiusKm / (111.32 * Math.max(Math.cos(Math.toRadians(latitude)), 0.01));
+        List<Aircraft> candidates = findAircraftInBoundingBox(latitude - latDelta, latitude + latDelta,
+                longitude - lngDelta, longitude + lngDelta, threshold);
+        List<Aircraft> result = new ArrayList<>(candidates.size());
+        for (Aircraft aircraft : candidates) {
+            if (distanceKm(latitude, longitude, aircraft.getLatitude(), aircraft.getLongitude()) <= radiusKm) {
+                result.add(aircraft);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Bounding-box lookup driven by the {@code (cell, last_contact)} index: the box is turned
+     * into a few Z-order cell ranges, each scanned with an exact coordinate filter.
+     */
+    default List<Aircraft> findAircraftInBoundingBox(Double minLat, Double maxLat, Double minLng, Double maxLng,
+                                                     LocalDateTime threshold) {
+        List<Aircraft> result = new ArrayList<>();
+        for (long[] range : ZOrderCell.coveringRanges(minLat, maxLat, minLng, maxLng, ZOrderCell.DEFAULT_MAX_RANGES)) {
+            result.addAll(findAircraftInCellRange(range[0], range[1], minLat, maxLat, minLng, maxLng, threshold));
+        }
+        return result;
+    }
     
     @Query("SELECT a FROM Aircraft a WHERE " +
+           "a.cell BETWEEN :minCell AND :maxCell AND " +
            "a.latitude BETWEEN :minLat AND :maxLat AND " +
            "a.longitude BETWEEN :minLng AND :maxLng AND " +
            "a.lastContact > :threshold")
-    List<Aircraft> findAircraftInBoundingBox(@Param("minLat") Double minLat,
+    List<Aircraft> findAircraftInCellRange(@Param("minCell") Long minCell,
+                                           @Param("maxCell") Long maxCell,
+                                           @Param("minLat") Double minLat,
                                            @Param("maxLat") Double maxLat,
                                            @Param("minLng") Double minLng,
                                            @Param("maxLng") Double maxLng,
                                            @Param("threshold") LocalDateTime threshold);
     
     void deleteByLastContactBefore(LocalDateTime threshold);
-}
\ No newline at end of file
+    
+    @Query("SELECT a.id, a.latitude, a.longitude FROM Aircraft a WHERE a.cell IS NULL AND " +
+           "a.latitude IS NOT NULL AND a.longitude IS NOT NULL ORDER BY a.id")
+    List<Object[]> findCoordinatesWithoutCell(Pageable pageable);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Aircraft a SET a.cell = :cell WHERE a.id = :id AND a.cell IS NULL")
+    int setCellIfMissing(@Param("id") Long id, @Param("cell") Long cell);
+    
+    @Query("SELECT a.id FROM Aircraft a WHERE a.lastContact < :threshold ORDER BY a.id")
+    List<Long> findIdsByLastContactBefore(@Param("threshold") LocalDateTime threshold, Pageable pageable);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Aircraft a WHERE a.id IN :ids AND a.lastContact < :threshold")
+    int deleteByIdsAndLastContactBefore(@Param("ids") List<Long> ids, @Param("threshold") LocalDateTime threshold);
+    
+    private static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 6371.0 * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
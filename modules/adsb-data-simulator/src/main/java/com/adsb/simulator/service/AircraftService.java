@@ -161,6 +161,7 @@ public class AircraftService {
         return AircraftDto.builder()
                 .id(aircraft.getId())
                 .callsign(aircraft.getCallsign())
+                .hexId(aircraft.getHexId())
                 .flightNumber(aircraft.getFlightNumber())
                 .latitude(aircraft.getLatitude())
                 .longitude(aircraft.getLongitude())
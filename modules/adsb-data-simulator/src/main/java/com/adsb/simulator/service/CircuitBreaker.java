@@ -0,0 +1,84 @@
+package com.adsb.simulator.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Minimal consecutive-failure circuit breaker for outbound API calls.
+ * <p>
+ * CLOSED lets every call through. After {@code failureThreshold} consecutive failures it
+ * goes OPEN and rejects calls for {@code openMillis}; the first call after that runs as a
+ * HALF_OPEN probe whose outcome closes or re-opens the circuit.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    public CircuitBreaker(String name, int failureThreshold, long openMillis) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.currentTimeMillis() - openedAt >= openMillis) {
+                    state = State.HALF_OPEN;
+                    return true;
+                }
+                return false;
+            default:
+                // Only one probe at a time while half open
+                return false;
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        if (state != State.CLOSED) {
+            log.info("Circuit {} closed", name);
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            open();
+        }
+    }
+
+    /**
+     * Opens the circuit immediately, e.g. when the remote side signals rate limiting.
+     */
+    public synchronized void forceOpen() {
+        open();
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void open() {
+        if (state != State.OPEN) {
+            log.warn("Circuit {} opened after {} consecutive failures", name, consecutiveFailures);
+        }
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+    }
+}
@@ -3,31 +3,45 @@ package com.adsb.simulator.service;
 import com.adsb.simulator.repository.AircraftRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class DataCleanupService {
-    
+
     private final AircraftRepository aircraftRepository;
-    
+
     private static final int CLEANUP_THRESHOLD_HOURS = 24;
-    
+    private static final int DELETE_BATCH_SIZE = 1000;
+
+    /**
+     * Deletes stale aircraft in bounded chunks. Each chunk is a single bulk JPQL delete in
+     * its own short transaction, so the job never loads entities or holds row locks across
+     * the whole table while playback keeps writing. The delete repeats the staleness check,
+     * so an aircraft that reported again after its id was selected is kept.
+     */
     @Scheduled(cron = "0 0 * * * *") // Run every hour
-    @Transactional
     public void cleanupOldAircraftData() {
         LocalDateTime threshold = LocalDateTime.now().minusHours(CLEANUP_THRESHOLD_HOURS);
-        
+
         try {
-            aircraftRepository.deleteByLastContactBefore(threshold);
-            log.info("Cleaned up aircraft data older than {}", threshold);
+            int deleted = 0;
+            List<Long> ids;
+            do {
+                ids = aircraftRepository.findIdsByLastContactBefore(threshold, PageRequest.of(0, DELETE_BATCH_SIZE));
+                if (!ids.isEmpty()) {
+                    deleted += aircraftRepository.deleteByIdsAndLastContactBefore(ids, threshold);
+                }
+            } while (ids.size() == DELETE_BATCH_SIZE);
+            log.info("Cleaned up {} aircraft older than {}", deleted, threshold);
         } catch (Exception e) {
             log.error("Error during data cleanup", e);
         }
     }
-}
\ No newline at end of file
+}
@@ -1,46 +1,278 @@
 package com.adsb.simulator.service;
 
 import com.adsb.simulator.dto.AircraftDto;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Cached, non-blocking access to the FlightRadar24 feed.
+ * <p>
+ * Callers never wait on the remote API: {@link #fetchRealTimeData} only reads the cached
+ * snapshot for an area and, when that snapshot is older than {@code fresh-ms}, schedules a
+ * background revalidation (stale-while-revalidate). A scheduled poller keeps every area
+ * that was requested recently up to date. Refreshes are single-flight per area, use
+ * conditional requests (ETag / Last-Modified), are bounded by a timeout and go through a
+ * circuit breaker so a rate limited or failing API is backed off instead of hammered.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class FlightRadar24Service {
-    
+
     private final WebClient.Builder webClientBuilder;
-    
+
     @Value("${adsb.flightradar24.api-url}")
     private String apiUrl;
-    
+
     @Value("${adsb.flightradar24.enabled}")
     private boolean enabled;
-    
+
+    @Value("${adsb.flightradar24.feed-path:zones/fcgi/feed.js}")
+    private String feedPath;
+
+    @Value("${adsb.flightradar24.timeout-ms:3000}")
+    private long timeoutMillis;
+
+    @Value("${adsb.flightradar24.connect-timeout-ms:2000}")
+    private int connectTimeoutMillis;
+
+    @Value("${adsb.flightradar24.fresh-ms:10000}")
+    private long freshMillis;
+
+    @Value("${adsb.flightradar24.max-stale-ms:120000}")
+    private long maxStaleMillis;
+
+    @Value("${adsb.flightradar24.area-idle-ms:600000}")
+    private long areaIdleMillis;
+
+    @Value("${adsb.flightradar24.circuit-breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${adsb.flightradar24.circuit-breaker.open-ms:30000}")
+    private long circuitOpenMillis;
+
+    private final Map<AreaKey, CachedArea> areas = new ConcurrentHashMap<>();
+    private WebClient webClient;
+    private CircuitBreaker circuitBreaker;
+
+    @PostConstruct
+    void init() {
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis);
+        webClient = webClientBuilder.baseUrl(apiUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        circuitBreaker = new CircuitBreaker("flightradar24", failureThreshold, circuitOpenMillis);
+    }
+
+    /**
+     * Returns the cached aircraft for the area, never blocking on the remote API. The first
+     * call for a new area returns an empty list and starts the initial fetch.
+     */
     public List<AircraftDto> fetchRealTimeData(double latitude, double longitude, int radiusKm) {
         if (!enabled) {
             log.debug("FlightRadar24 integration is disabled");
             return Collections.emptyList();
         }
-        
-        try {
-            // Note: This is a placeholder implementation
-            // Actual FlightRadar24 API integration requires valid API key and endpoints
-            log.info("Fetching real-time data from FlightRadar24 API");
-            
-            // For now, return empty list as we don't have actual API access
-            return Collections.emptyList();
-            
-        } catch (Exception e) {
-            log.error("Error fetching data from FlightRadar24", e);
+
+        AreaKey key = AreaKey.of(latitude, longitude, radiusKm);
+        CachedArea area = areas.computeIfAbsent(key, k -> new CachedArea());
+        long now = System.currentTimeMillis();
+        area.lastRequested = now;
+
+        long age = now - area.fetchedAt;
+        if (age > freshMillis) {
+            refreshArea(key).subscribe();
+        }
+        if (age > maxStaleMillis) {
             return Collections.emptyList();
         }
+        return area.aircraft;
+    }
+
+    @Scheduled(fixedDelayString = "${adsb.flightradar24.poll-interval-ms:5000}")
+    public void pollAreas() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<AreaKey, CachedArea>> it = areas.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<AreaKey, CachedArea> entry = it.next();
+            if (now - entry.getValue().lastRequested > areaIdleMillis) {
+                it.remove();
+                log.debug("Stopped polling idle FlightRadar24 area {}", entry.getKey());
+            } else if (now - entry.getValue().fetchedAt > freshMillis) {
+                refreshArea(entry.getKey()).subscribe();
+            }
+        }
+    }
+
+    /**
+     * Revalidates one area in the background. Completes empty when a refresh for the same
+     * area is already running or the circuit is open. Every call that got through the
+     * breaker settles it: an empty response and a cancelled call count as failures, so a
+     * half-open probe can never be left unresolved.
+     */
+    Mono<Void> refreshArea(AreaKey key) {
+        return Mono.defer(() -> {
+            CachedArea area = areas.computeIfAbsent(key, k -> new CachedArea());
+            if (!area.refreshing.compareAndSet(false, true)) {
+                return Mono.empty();
+            }
+            if (!circuitBreaker.tryAcquire()) {
+                area.refreshing.set(false);
+                log.debug("FlightRadar24 circuit open, serving cached data for {}", key);
+                return Mono.empty();
+            }
+
+            AtomicBoolean settled = new AtomicBoolean();
+            return webClient.get()
+                    .uri(uri -> uri.path(feedPath).queryParam("bounds", key.bounds()).build())
+                    .headers(headers -> {
+                        if (area.etag != null) {
+                            headers.setIfNoneMatch(area.etag);
+                        }
+                        if (area.lastModified != null) {
+                            headers.set(HttpHeaders.IF_MODIFIED_SINCE, area.lastModified);
+                        }
+                    })
+                    .exchangeToMono(response -> {
+                        if (response.statusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+                            return response.releaseBody()
+                                    .thenReturn(new FeedSnapshot(area.aircraft, area.etag, area.lastModified));
+                        }
+                        if (response.statusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                            circuitBreaker.forceOpen();
+                        }
+                        if (!response.statusCode().is2xxSuccessful()) {
+                            return response.createError();
+                        }
+                        HttpHeaders headers = response.headers().asHttpHeaders();
+                        return response.bodyToMono(JsonNode.class)
+                                .map(body -> new FeedSnapshot(parseFeed(body), headers.getETag(),
+                                        headers.getFirst(HttpHeaders.LAST_MODIFIED)));
+                    })
+                    .switchIfEmpty(Mono.error(() -> new IllegalStateException("Empty FlightRadar24 response")))
+                    .timeout(Duration.ofMillis(timeoutMillis))
+                    .doOnNext(snapshot -> {
+                        area.aircraft = snapshot.aircraft();
+                        area.etag = snapshot.etag();
+                        area.lastModified = snapshot.lastModified();
+                        area.fetchedAt = System.currentTimeMillis();
+                        settled.set(true);
+                        circuitBreaker.recordSuccess();
+                        log.debug("Refreshed FlightRadar24 area {}: {} aircraft", key, snapshot.aircraft().size());
+                    })
+                    .doOnError(e -> {
+                        settled.set(true);
+                        circuitBreaker.recordFailure();
+                        log.warn("FlightRadar24 refresh failed for {}: {}", key, e.toString());
+                    })
+                    .onErrorResume(e -> Mono.empty())
+                    .doOnTerminate(() -> area.refreshing.set(false))
+                    .doOnCancel(() -> {
+                        if (settled.compareAndSet(false, true)) {
+                            circuitBreaker.recordFailure();
+                            log.warn("FlightRadar24 refresh cancelled for {}", key);
+                        }
+                        area.refreshing.set(false);
+                    })
+                    .then();
+        });
+    }
+
+    CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    /**
+     * Maps the FR24 feed object ({@code id -> [hex, lat, lon, track, alt, speed, squawk,
+     * radar, type, registration, epochSeconds, origin, destination, flight, onGround,
+     * verticalSpeed, callsign, ...]}) to DTOs, skipping metadata entries.
+     */
+    private List<AircraftDto> parseFeed(JsonNode body) {
+        List<AircraftDto> aircraft = new ArrayList<>();
+        body.fields().forEachRemaining(field -> {
+            JsonNode row = field.getValue();
+            if (!row.isArray() || row.size() < 17) {
+                return;
+            }
+            String callsign = row.get(16).asText("").trim();
+            if (callsign.isEmpty()) {
+                return;
+            }
+            aircraft.add(AircraftDto.builder()
+                    .callsign(callsign)
+                    .latitude(row.get(1).asDouble())
+                    .longitude(row.get(2).asDouble())
+                    .heading(row.get(3).asInt())
+                    .altitude(row.get(4).asInt())
+                    .speed(row.get(5).asInt())
+                    .squawk(row.get(6).asText(null))
+                    .aircraftType(row.get(8).asText(null))
+                    .registration(row.get(9).asText(null))
+                    .lastContact(LocalDateTime.ofInstant(
+                            Instant.ofEpochSecond(row.get(10).asLong()), ZoneId.systemDefault()))
+                    .origin(row.get(11).asText(null))
+                    .destination(row.get(12).asText(null))
+                    .flightNumber(row.get(13).asText(null))
+                    .isOnGround(row.get(14).asInt() == 1)
+                    .verticalSpeed(row.get(15).asInt())
+                    .build());
+        });
+        return List.copyOf(aircraft);
+    }
+
+    record AreaKey(double latitude, double longitude, int radiusKm) {
+
+        static AreaKey of(double latitude, double longitude, int radiusKm) {
+            // Round to ~1 km so callers asking for nearly the same area share one cache entry
+            return new AreaKey(Math.round(latitude * 100) / 100.0, Math.round(longitude * 100) / 100.0, radiusKm);
+        }
+
+        String bounds() {
+            double latChange = radiusKm / 111.32;
+            double lngChange = radiusKm / (111.32 * Math.cos(Math.toRadians(latitude)));
+            return String.format(Locale.ROOT, "%.3f,%.3f,%.3f,%.3f",
+                    latitude + latChange, latitude - latChange, longitude - lngChange, longitude + lngChange);
+        }
+    }
+
+    private record FeedSnapshot(List<AircraftDto> aircraft, String etag, String lastModified) {
+    }
+
+    private static final class CachedArea {
+        final AtomicBoolean refreshing = new AtomicBoolean();
+        volatile List<AircraftDto> aircraft = Collections.emptyList();
+        volatile long fetchedAt;
+        volatile long lastRequested = System.currentTimeMillis();
+        volatile String etag;
+        volatile String lastModified;
     }
-}
\ No newline at end of file
+}
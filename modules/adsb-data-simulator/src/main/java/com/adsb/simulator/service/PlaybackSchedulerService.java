@@ -1,6 +1,7 @@
 package com.adsb.simulator.service;
 
 import com.adsb.simulator.model.Aircraft;
+import com.adsb.simulator.recording.FrameRecorder;
 import com.adsb.simulator.repository.AircraftRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,6 +25,7 @@ public class PlaybackSchedulerService {
     private final AircraftRepository aircraftRepository;
     private final SimpMessagingTemplate messagingTemplate;
     private final AircraftService aircraftService;
+    private final FrameRecorder frameRecorder;
     private boolean playbackActive = false;
     private int consecutiveErrors = 0;
     private static final int MAX_CONSECUTIVE_ERRORS = 5;
@@ -51,6 +53,7 @@ public class PlaybackSchedulerService {
         try {
             // Get next frame of data
             List<Aircraft> nextFrame = rkssDataService.getNextPlaybackFrame();
+            frameRecorder.record(nextFrame);
             
             // Get current callsigns from next frame
             Set<String> currentCallsigns = nextFrame.stream()
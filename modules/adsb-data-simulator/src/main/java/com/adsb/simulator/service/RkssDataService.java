@@ -1,6 +1,8 @@
 package com.adsb.simulator.service;
 
 import com.adsb.simulator.model.Aircraft;
+import com.adsb.simulator.recording.RecordedAircraft;
+import com.adsb.simulator.recording.RecordingReader;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -10,6 +12,7 @@ import org.springframework.stereotype.Service;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -36,10 +39,14 @@ public class RkssDataService {
     private LocalDateTime lastSpeedChangeTime; // Track when speed was last changed
     private Set<String> spawnedCallsigns = new HashSet<>(); // Track which aircraft have been spawned
     private Map<String, RkssTrackData> previousPositions = new HashMap<>(); // For interpolation
+    private Path recordingDirectory; // Recording played back instead of the RKSS data, if any
+    private RecordingReader.Cursor recordingCursor;
     
     private static final String RKSS_DATA_PATH = "/Users/dykim/dev/auto-dev-system/modules/adsb-data-simulator/src/main/resources/data/RKSS_20250502_track_data_interpolated.json";
     
     public void loadRkssData() {
+        recordingDirectory = null;
+        recordingCursor = null;
         try {
             log.info("Loading RKSS track data from: {}", RKSS_DATA_PATH);
             rkssData = objectMapper.readValue(new File(RKSS_DATA_PATH), new TypeReference<List<RkssTrackData>>() {});
@@ -52,8 +59,67 @@ public class RkssDataService {
         }
     }
     
+    /**
+     * Switches playback to a recording captured by {@code FrameRecorder}. Frames are read from
+     * the segments as the playback clock reaches them, so a long recording is never held in
+     * memory; loading the RKSS data switches back.
+     */
+    public void loadRecording(Path directory) throws IOException {
+        log.info("Loading recorded frames from: {}", directory);
+        recordingCursor = RecordingReader.open(directory);
+        recordingDirectory = directory;
+        simulationStartTime = LocalDateTime.now();
+        currentDataIndex = 0;
+    }
+    
+    private List<Aircraft> getNextRecordedFrame() {
+        if (recordingCursor == null) {
+            return new ArrayList<>();
+        }
+        long realElapsedSinceSpeedChange = java.time.Duration.between(lastSpeedChangeTime, LocalDateTime.now()).toMillis();
+        long elapsedMillis = accumulatedSimulationMillis + (long)(realElapsedSinceSpeedChange * playbackSpeed);
+        
+        List<Aircraft> aircraftList = new ArrayList<>();
+        try {
+            for (RecordedAircraft recorded : recordingCursor.advanceTo(recordingCursor.firstMillis() + elapsedMillis)) {
+                aircraftList.add(convertRecordedToAircraft(recorded));
+            }
+        } catch (IOException e) {
+            log.error("Failed to read recording {}", recordingDirectory, e);
+        }
+        
+        // Loop at the end of the recording, as the RKSS playback does
+        if (recordingCursor.isExhausted()) {
+            log.info("Restarting recording playback - elapsed: {}s", elapsedMillis / 1000.0);
+            startPlayback();
+            return new ArrayList<>();
+        }
+        return aircraftList;
+    }
+    
+    private Aircraft convertRecordedToAircraft(RecordedAircraft recorded) {
+        RkssTrackData data = new RkssTrackData();
+        data.setCallsign(recorded.callsign());
+        data.setHexid(recorded.hexId());
+        data.setFlight(recorded.flightNumber());
+        data.setSquawk(recorded.squawk());
+        data.setLat(recorded.latitude());
+        data.setLon(recorded.longitude());
+        data.setAlt(recorded.altitude());
+        data.setGspeed(recorded.speed());
+        data.setTrack(recorded.heading());
+        data.setVspeed(recorded.verticalSpeed());
+        data.setSource("recording");
+        
+        Aircraft aircraft = convertRkssToAircraft(data);
+        aircraft.setIsOnGround(recorded.onGround()); // Recorded as reported, not inferred from altitude
+        return aircraft;
+    }
+    
     public void startPlayback() {
-        if (rkssData == null || rkssData.isEmpty()) {
+        if (recordingDirectory != null) {
+            rewindRecording();
+        } else if (rkssData == null || rkssData.isEmpty()) {
             loadRkssData();
         }
         simulationStartTime = LocalDateTime.now();
@@ -65,6 +131,9 @@ public class RkssDataService {
     }
     
     public List<Aircraft> getNextPlaybackFrame() {
+        if (recordingDirectory != null) {
+            return getNextRecordedFrame();
+        }
         if (rkssData == null || rkssData.isEmpty()) {
             return new ArrayList<>();
         }
@@ -113,11 +182,11 @@ public class RkssDataService {
                 })
                 .collect(Collectors.toList());
         
-        // Group by callsign and get latest position for each aircraft
+        // Group by callsign (hex id for rows without one) and get latest position for each aircraft
         Map<String, RkssTrackData> latestByCallsign = currentFrame.stream()
-                .filter(data -> data.getCallsign() != null && !data.getCallsign().trim().isEmpty())
+                .filter(data -> trackKey(data) != null)
                 .collect(Collectors.toMap(
-                    RkssTrackData::getCallsign,
+                    RkssDataService::trackKey,
                     data -> data,
                     (existing, replacement) -> {
                         try {
@@ -190,7 +259,19 @@ public class RkssDataService {
         return aircraftList;
     }
     
+    private void rewindRecording() {
+        try {
+            recordingCursor = RecordingReader.open(recordingDirectory);
+        } catch (IOException e) {
+            log.error("Failed to reopen recording {}, falling back to RKSS data", recordingDirectory, e);
+            loadRkssData();
+        }
+    }
+    
     public List<Aircraft> getCurrentAircraftFromRkssData(int maxAircraft) {
+        if (recordingDirectory != null) {
+            return new ArrayList<>();
+        }
         if (rkssData == null || rkssData.isEmpty()) {
             loadRkssData();
         }
@@ -201,10 +282,26 @@ public class RkssDataService {
         return new ArrayList<>();
     }
     
+    /**
+     * Key of the aircraft a row belongs to: its callsign, or the ICAO hex id for rows
+     * received without one. Rows with neither are dropped.
+     */
+    static String trackKey(RkssTrackData data) {
+        if (data.getCallsign() != null && !data.getCallsign().trim().isEmpty()) {
+            return data.getCallsign();
+        }
+        if (data.getHexid() != null && !data.getHexid().trim().isEmpty()) {
+            return data.getHexid().trim().toUpperCase();
+        }
+        return null;
+    }
+    
     private Aircraft convertRkssToAircraft(RkssTrackData rkssData) {
         Aircraft aircraft = new Aircraft();
         
-        aircraft.setCallsign(rkssData.getCallsign());
+        aircraft.setCallsign(trackKey(rkssData));
+        aircraft.setHexId(rkssData.getHexid() != null && !rkssData.getHexid().isBlank()
+                ? rkssData.getHexid().trim().toUpperCase() : null);
         aircraft.setFlightNumber(rkssData.getFlight() != null ? rkssData.getFlight() : rkssData.getCallsign());
         aircraft.setLatitude(rkssData.getLat());
         aircraft.setLongitude(rkssData.getLon());
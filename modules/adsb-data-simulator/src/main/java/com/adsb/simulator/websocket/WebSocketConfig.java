@@ -6,6 +6,7 @@ import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
@@ -27,4 +28,10 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOrigins("http://localhost:3100", "http://localhost:3000", "http://localhost:3001", "http://localhost:3002", "http://localhost:3003")
                 .withSockJS();
     }
-}
\ No newline at end of file
+    
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // Full-area frames on /topic/aircraft are consumed by aircraft-tracking and can be several MB
+        registration.setSendBufferSizeLimit(16 * 1024 * 1024);
+    }
+}
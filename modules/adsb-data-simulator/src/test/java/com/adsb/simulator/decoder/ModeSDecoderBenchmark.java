@@ -0,0 +1,115 @@
+package com.adsb.simulator.decoder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single core decoder throughput on a synthetic mix of identification, position and
+ * velocity frames for 500 aircraft around Gimpo.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.adsb.simulator.decoder.ModeSDecoderBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModeSDecoderBenchmark {
+
+    private static final int FRAME_COUNT = 4096;
+
+    private byte[][] frames;
+    private byte[] beastStream;
+    private byte[] avrStream;
+    private ModeSDecoder decoder;
+    private ModeSMessage message;
+    private BeastFrameReader beastReader;
+    private AvrFrameReader avrReader;
+    private int next;
+    private long clock;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        frames = new byte[FRAME_COUNT][];
+        ByteArrayOutputStream beast = new ByteArrayOutputStream();
+        StringBuilder avr = new StringBuilder();
+
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            int icao = 0x710000 + random.nextInt(500);
+            double lat = 37.5583 + (random.nextDouble() - 0.5);
+            double lon = 126.7906 + (random.nextDouble() - 0.5);
+            byte[] frame = switch (i % 4) {
+                case 0 -> ModeSMessageGenerator.identification(icao, "KAL" + (100 + random.nextInt(900)));
+                case 1 -> ModeSMessageGenerator.airbornePosition(icao, lat, lon, 1000 + random.nextInt(30000), false);
+                case 2 -> ModeSMessageGenerator.airbornePosition(icao, lat, lon, 1000 + random.nextInt(30000), true);
+                default -> ModeSMessageGenerator.velocity(icao, random.nextInt(400) - 200, random.nextInt(400) - 200,
+                        random.nextInt(4000) - 2000);
+            };
+            frames[i] = frame;
+            beast.writeBytes(ModeSMessageGenerator.toBeast(frame, i, 100));
+            avr.append(ModeSMessageGenerator.toAvr(frame));
+        }
+        beastStream = beast.toByteArray();
+        avrStream = avr.toString().getBytes(StandardCharsets.US_ASCII);
+
+        decoder = new ModeSDecoder(new CprPositionTable(1024, 60_000), 37.5583, 126.7906);
+        message = new ModeSMessage();
+        ModeSFeedDecoder feed = new ModeSFeedDecoder(37.5583, 126.7906, m -> { }, () -> clock);
+        beastReader = new BeastFrameReader(feed);
+        avrReader = new AvrFrameReader(feed);
+    }
+
+    @Benchmark
+    public boolean decodeFrame() {
+        byte[] frame = frames[next];
+        next = (next + 1) & (FRAME_COUNT - 1);
+        clock += 2;
+        return decoder.decode(frame, 0, clock, message);
+    }
+
+    /**
+     * Whole Beast stream per invocation; divide the score by {@value #FRAME_COUNT} for messages/sec.
+     */
+    @Benchmark
+    public void parseAndDecodeBeastStream(Blackhole bh) {
+        clock += 1_000;
+        beastReader.feed(beastStream, 0, beastStream.length);
+        bh.consume(beastReader.getFramesRead());
+    }
+
+    /**
+     * Whole AVR stream per invocation; divide the score by {@value #FRAME_COUNT} for messages/sec.
+     */
+    @Benchmark
+    public void parseAndDecodeAvrStream(Blackhole bh) {
+        clock += 1_000;
+        avrReader.feed(avrStream, 0, avrStream.length);
+        bh.consume(avrReader.getFramesRead());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ModeSDecoderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
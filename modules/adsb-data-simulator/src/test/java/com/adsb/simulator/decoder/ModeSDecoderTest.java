@@ -0,0 +1,139 @@
+package com.adsb.simulator.decoder;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ModeSDecoderTest {
+
+    private static final double GIMPO_LAT = 37.5583;
+    private static final double GIMPO_LON = 126.7906;
+
+    private ModeSDecoder decoder;
+    private ModeSMessage message;
+
+    @BeforeEach
+    void setUp() {
+        decoder = new ModeSDecoder(new CprPositionTable(64, 60_000), GIMPO_LAT, GIMPO_LON);
+        message = new ModeSMessage();
+    }
+
+    @Test
+    void decode_Identification_ShouldReturnCallsign() {
+        assertThat(decoder.decode(hex("8D4840D6202CC371C32CE0576098"), 0, 0, message)).isTrue();
+
+        assertThat(message.getKind()).isEqualTo(ModeSMessage.Kind.IDENTIFICATION);
+        assertThat(message.getIcaoHex()).isEqualTo("4840D6");
+        assertThat(message.getCallsign()).isEqualTo("KLM1023");
+    }
+
+    @Test
+    void decode_WithCorruptedBit_ShouldFailCrc() {
+        byte[] frame = hex("8D4840D6202CC371C32CE0576098");
+        frame[6] ^= 0x04;
+
+        assertThat(decoder.decode(frame, 0, 0, message)).isFalse();
+    }
+
+    @Test
+    void decode_AirbornePositionPair_ShouldResolveGlobalPosition() {
+        assertThat(decoder.decode(hex("8D40621D58C386435CC412692AD6"), 0, 1_000, message)).isTrue();
+        assertThat(message.isPositionValid()).isFalse();
+
+        assertThat(decoder.decode(hex("8D40621D58C382D690C8AC2863A7"), 0, 2_000, message)).isTrue();
+
+        assertThat(message.getKind()).isEqualTo(ModeSMessage.Kind.AIRBORNE_POSITION);
+        assertThat(message.getAltitudeFt()).isEqualTo(38000);
+        assertThat(message.isPositionValid()).isTrue();
+        assertThat(message.getLatitude()).isCloseTo(52.2572, within(0.0001));
+        assertThat(message.getLongitude()).isCloseTo(3.9194, within(0.0001));
+    }
+
+    @Test
+    void decode_Velocity_ShouldReturnSpeedHeadingAndVerticalRate() {
+        assertThat(decoder.decode(hex("8D485020994409940838175B284F"), 0, 0, message)).isTrue();
+
+        assertThat(message.getKind()).isEqualTo(ModeSMessage.Kind.AIRBORNE_VELOCITY);
+        assertThat(message.getGroundSpeedKt()).isCloseTo(159.2, within(0.1));
+        assertThat(message.getHeadingDeg()).isCloseTo(182.88, within(0.01));
+        assertThat(message.getVerticalRateFpm()).isEqualTo(-832);
+    }
+
+    @Test
+    void decode_GeneratedPositionsNearGimpo_ShouldRoundTrip() {
+        int icao = 0x71BE01;
+        decoder.decode(ModeSMessageGenerator.airbornePosition(icao, 37.61, 126.95, 4500, false), 0, 0, message);
+        decoder.decode(ModeSMessageGenerator.airbornePosition(icao, 37.62, 126.96, 4400, true), 0, 500, message);
+
+        assertThat(message.isPositionValid()).isTrue();
+        assertThat(message.getAltitudeFt()).isEqualTo(4400);
+        assertThat(message.getLatitude()).isCloseTo(37.62, within(0.001));
+        assertThat(message.getLongitude()).isCloseTo(126.96, within(0.001));
+
+        // Once the even/odd pair is stale, frames decode locally against the last fix
+        decoder.decode(ModeSMessageGenerator.airbornePosition(icao, 37.63, 126.97, 4300, false), 0, 20_000, message);
+        assertThat(message.isPositionValid()).isTrue();
+        assertThat(message.getLatitude()).isCloseTo(37.63, within(0.001));
+    }
+
+    @Test
+    void decode_SurfaceMovement_ShouldStartEachBandAtItsLowerBound() {
+        int[] codes = {1, 2, 9, 13, 39, 94, 109, 124};
+        double[] knots = {0, 0.125, 1.0, 2.0, 15, 70, 100, 175};
+        for (int i = 0; i < codes.length; i++) {
+            decoder.decode(ModeSMessageGenerator.surfacePosition(0x71BE02, 37.5571, 126.7990, codes[i], 142.0, false),
+                    0, 0, message);
+            assertThat(message.getGroundSpeedKt()).as("movement %d", codes[i]).isEqualTo(knots[i]);
+        }
+    }
+
+    @Test
+    void decode_GeneratedSurfacePosition_ShouldResolveQuadrantFromReceiver() {
+        decoder.decode(ModeSMessageGenerator.surfacePosition(0x71BE02, 37.5571, 126.7990, 20, 142.0, false), 0, 0, message);
+
+        assertThat(message.getKind()).isEqualTo(ModeSMessage.Kind.SURFACE_POSITION);
+        assertThat(message.getGroundSpeedKt()).isEqualTo(5.5);
+        assertThat(message.getHeadingDeg()).isCloseTo(142.0, within(2.0));
+        assertThat(message.getLatitude()).isCloseTo(37.5571, within(0.0001));
+        assertThat(message.getLongitude()).isCloseTo(126.7990, within(0.0001));
+    }
+
+    @Test
+    void feed_BeastAndAvrStreams_ShouldDeliverSameMessages() {
+        List<String> fromBeast = new ArrayList<>();
+        List<String> fromAvr = new ArrayList<>();
+        ModeSFeedDecoder beastFeed = new ModeSFeedDecoder(GIMPO_LAT, GIMPO_LON, m -> fromBeast.add(m.getCallsign()));
+        ModeSFeedDecoder avrFeed = new ModeSFeedDecoder(GIMPO_LAT, GIMPO_LON, m -> fromAvr.add(m.getCallsign()));
+        BeastFrameReader beast = new BeastFrameReader(beastFeed);
+        AvrFrameReader avr = new AvrFrameReader(avrFeed);
+
+        for (String callsign : new String[]{"KAL1201", "AAR8911", "JNA1A1A"}) {
+            byte[] frame = ModeSMessageGenerator.identification(0x1A1A1A, callsign);
+            // Timestamp and payload both contain 0x1a bytes that must be unescaped
+            byte[] beastBytes = ModeSMessageGenerator.toBeast(frame, 0x1A0000001AL, 0x1A);
+            beast.feed(beastBytes, 0, 5);
+            beast.feed(beastBytes, 5, beastBytes.length - 5);
+
+            byte[] avrBytes = ModeSMessageGenerator.toAvr(frame).getBytes(StandardCharsets.US_ASCII);
+            avr.feed(avrBytes, 0, avrBytes.length);
+        }
+
+        assertThat(fromBeast).containsExactly("KAL1201", "AAR8911", "JNA1A1A");
+        assertThat(fromAvr).isEqualTo(fromBeast);
+        assertThat(beastFeed.getRejected()).isZero();
+    }
+
+    private static byte[] hex(String s) {
+        byte[] out = new byte[s.length() / 2];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = (byte) Integer.parseInt(s.substring(2 * i, 2 * i + 2), 16);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,125 @@
+package com.adsb.simulator.decoder;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Builds synthetic DF17 frames (with valid CRC) for decoder tests and benchmarks.
+ */
+public final class ModeSMessageGenerator {
+
+    private static final String CHARSET =
+            "#ABCDEFGHIJKLMNOPQRSTUVWXYZ##### ###############0123456789######";
+
+    private ModeSMessageGenerator() {
+    }
+
+    public static byte[] identification(int icao, String callsign) {
+        long me = 4L << 51; // TC 4, category 0
+        String padded = String.format("%-8s", callsign);
+        for (int i = 0; i < 8; i++) {
+            long code = CHARSET.indexOf(padded.charAt(i));
+            me |= code << (42 - 6 * i);
+        }
+        return frame(icao, me);
+    }
+
+    public static byte[] airbornePosition(int icao, double lat, double lon, int altitudeFt, boolean odd) {
+        int n = (altitudeFt + 1000) / 25;
+        int alt = ((n & 0x7F0) << 1) | 0x10 | (n & 0x0F);
+        int[] cpr = encodeCpr(lat, lon, odd, false);
+        long me = (11L << 51)
+                | ((long) alt << 36)
+                | ((odd ? 1L : 0L) << 34)
+                | ((long) cpr[0] << 17)
+                | cpr[1];
+        return frame(icao, me);
+    }
+
+    public static byte[] surfacePosition(int icao, double lat, double lon, int movement, double track, boolean odd) {
+        int[] cpr = encodeCpr(lat, lon, odd, true);
+        long trackBits = Math.round(track * 128 / 360.0) & 0x7F;
+        long me = (7L << 51)
+                | ((long) movement << 44)
+                | (1L << 43)
+                | (trackBits << 36)
+                | ((odd ? 1L : 0L) << 34)
+                | ((long) cpr[0] << 17)
+                | cpr[1];
+        return frame(icao, me);
+    }
+
+    /**
+     * Ground speed velocity (subtype 1). East/north components in knots, vertical rate in fpm.
+     */
+    public static byte[] velocity(int icao, int eastKt, int northKt, int verticalRateFpm) {
+        long me = (19L << 51) | (1L << 48);
+        me |= (eastKt < 0 ? 1L : 0L) << 42;
+        me |= (long) (Math.abs(eastKt) + 1) << 32;
+        me |= (northKt < 0 ? 1L : 0L) << 31;
+        me |= (long) (Math.abs(northKt) + 1) << 21;
+        me |= (verticalRateFpm < 0 ? 1L : 0L) << 19;
+        me |= (long) (Math.abs(verticalRateFpm) / 64 + 1) << 10;
+        return frame(icao, me);
+    }
+
+    public static String toAvr(byte[] frame) {
+        StringBuilder sb = new StringBuilder("*");
+        for (byte b : frame) {
+            sb.append(String.format("%02X", b & 0xFF));
+        }
+        return sb.append(";\n").toString();
+    }
+
+    public static byte[] toBeast(byte[] frame, long mlatTimestamp, int signal) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(0x1A);
+        out.write(0x33);
+        for (int i = 5; i >= 0; i--) {
+            writeEscaped(out, (int) (mlatTimestamp >>> (8 * i)) & 0xFF);
+        }
+        writeEscaped(out, signal);
+        for (byte b : frame) {
+            writeEscaped(out, b & 0xFF);
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeEscaped(ByteArrayOutputStream out, int b) {
+        out.write(b);
+        if (b == 0x1A) {
+            out.write(b);
+        }
+    }
+
+    static int[] encodeCpr(double lat, double lon, boolean odd, boolean surface) {
+        double span = surface ? 90.0 : 360.0;
+        int i = odd ? 1 : 0;
+        double dLat = span / (60 - i);
+        double yz = Math.floor(CprDecoder.CPR_SCALE * mod(lat, dLat) / dLat + 0.5);
+        double rlat = dLat * (yz / CprDecoder.CPR_SCALE + Math.floor(lat / dLat));
+        double dLon = span / Math.max(CprDecoder.nl(rlat) - i, 1);
+        double xz = Math.floor(CprDecoder.CPR_SCALE * mod(lon, dLon) / dLon + 0.5);
+        return new int[]{(int) yz & 0x1FFFF, (int) xz & 0x1FFFF};
+    }
+
+    private static byte[] frame(int icao, long me) {
+        byte[] frame = new byte[ModeSDecoder.LONG_FRAME_BYTES];
+        frame[0] = (byte) ((17 << 3) | 5);
+        frame[1] = (byte) (icao >>> 16);
+        frame[2] = (byte) (icao >>> 8);
+        frame[3] = (byte) icao;
+        for (int i = 0; i < 7; i++) {
+            frame[4 + i] = (byte) (me >>> (48 - 8 * i));
+        }
+        int crc = ModeSCrc.compute(frame, 0, 11);
+        frame[11] = (byte) (crc >>> 16);
+        frame[12] = (byte) (crc >>> 8);
+        frame[13] = (byte) crc;
+        return frame;
+    }
+
+    private static double mod(double a, double b) {
+        double r = a % b;
+        return r < 0 ? r + b : r;
+    }
+}
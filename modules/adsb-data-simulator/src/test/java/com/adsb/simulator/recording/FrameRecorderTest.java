@@ -0,0 +1,190 @@
+package com.adsb.simulator.recording;
+
+import com.adsb.simulator.model.Aircraft;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FrameRecorderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FrameRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        recorder = new FrameRecorder();
+        ReflectionTestUtils.setField(recorder, "baseDirectory", tempDir.toString());
+        ReflectionTestUtils.setField(recorder, "segmentSizeMb", 1);
+        ReflectionTestUtils.setField(recorder, "keyframeIntervalMillis", 0L);
+        ReflectionTestUtils.setField(recorder, "fsyncIntervalMillis", 10L);
+        ReflectionTestUtils.setField(recorder, "queueCapacity", 16);
+    }
+
+    @Test
+    void record_ThenReplay_ShouldReconstructEveryFrame() throws Exception {
+        ReflectionTestUtils.setField(recorder, "keyframeIntervalMillis", 60_000L);
+        Path directory = recorder.start();
+
+        recorder.record(List.of(aircraft("KAL123", 37.55, 1000), aircraft("AAR456", 37.60, 2000)));
+        awaitRecorded(1);
+        recorder.record(List.of(aircraft("KAL123", 37.56, 1100), aircraft("AAR456", 37.60, 2000)));
+        awaitRecorded(2);
+        recorder.record(List.of(aircraft("KAL123", 37.57, 1200)));
+        awaitRecorded(3);
+        recorder.stop();
+
+        List<Map<String, Integer>> replayed = new ArrayList<>();
+        RecordingReader.replay(directory, (ts, frame) -> replayed.add(
+                frame.stream().collect(Collectors.toMap(RecordedAircraft::callsign, RecordedAircraft::altitude))));
+
+        assertThat(replayed).containsExactly(
+                Map.of("KAL123", 1000, "AAR456", 2000),
+                Map.of("KAL123", 1100, "AAR456", 2000),
+                Map.of("KAL123", 1200));
+        assertThat(recorder.getStatus()).containsEntry("framesDropped", 0L);
+    }
+
+    @Test
+    void replay_FromTimestamp_ShouldStartAtIndexedKeyframe() throws Exception {
+        Path directory = recorder.start();
+        for (int i = 0; i < 5; i++) {
+            recorder.record(List.of(aircraft("KAL123", 37.55, 1000 + i * 100)));
+            awaitRecorded(i + 1);
+            Thread.sleep(5);
+        }
+        recorder.stop();
+
+        List<Long> all = new ArrayList<>();
+        RecordingReader.replay(directory, (ts, frame) -> all.add(ts));
+        List<Integer> fromThird = new ArrayList<>();
+        RecordingReader.replay(directory, all.get(2),
+                (ts, frame) -> fromThird.add(frame.iterator().next().altitude()));
+
+        assertThat(all).hasSize(5);
+        assertThat(fromThird).containsExactly(1200, 1300, 1400);
+        assertThat(Files.size(directory.resolve(Files.list(directory)
+                .filter(p -> p.toString().endsWith(".idx")).findFirst().orElseThrow())))
+                .isEqualTo(5L * 12);
+    }
+
+    @Test
+    void record_ShouldKeepHexIdAndGroundState() throws Exception {
+        Path directory = recorder.start();
+        Aircraft taxiing = aircraft("KAL123", 37.55, 0);
+        taxiing.setHexId("71BE12");
+        taxiing.setIsOnGround(true);
+        recorder.record(List.of(taxiing));
+        awaitRecorded(1);
+        recorder.stop();
+
+        List<RecordedAircraft> replayed = new ArrayList<>();
+        RecordingReader.replay(directory, (ts, frame) -> replayed.addAll(frame));
+
+        assertThat(replayed).singleElement().satisfies(recorded -> {
+            assertThat(recorded.hexId()).isEqualTo("71BE12");
+            assertThat(recorded.onGround()).isTrue();
+        });
+    }
+
+    @Test
+    void record_ShouldSkipAFrameLargerThanASegment() throws Exception {
+        Path directory = recorder.start();
+        List<Aircraft> huge = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            huge.add(aircraft("T" + i, 37.55, 1000));
+        }
+        recorder.record(huge);
+        recorder.record(List.of(aircraft("KAL123", 37.55, 1000)));
+        awaitRecorded(1);
+        recorder.stop();
+
+        List<Integer> sizes = new ArrayList<>();
+        RecordingReader.replay(directory, (ts, frame) -> sizes.add(frame.size()));
+
+        assertThat(sizes).containsExactly(1);
+        assertThat(recorder.getStatus()).containsEntry("framesOversize", 1L);
+    }
+
+    @Test
+    void putString_ShouldTruncateOnACharacterBoundary() {
+        // 100 three-byte characters: the 255-byte limit falls on a character boundary only at 85
+        String value = "가".repeat(100);
+        ByteBuffer buf = ByteBuffer.allocate(RecordingFormat.MAX_RECORD_BYTES);
+        RecordingFormat.putString(buf, value);
+        buf.flip();
+
+        assertThat(RecordingFormat.getString(buf)).isEqualTo("가".repeat(85));
+
+        buf.clear();
+        RecordingFormat.putString(buf, "x" + value);
+        buf.flip();
+        assertThat(RecordingFormat.getString(buf)).isEqualTo("x" + "가".repeat(84));
+    }
+
+    @Test
+    void cursor_ShouldFollowThePlaybackClock() throws Exception {
+        ReflectionTestUtils.setField(recorder, "keyframeIntervalMillis", 60_000L);
+        Path directory = recorder.start();
+        for (int i = 0; i < 3; i++) {
+            recorder.record(List.of(aircraft("KAL123", 37.55, 1000 + i * 100)));
+            awaitRecorded(i + 1);
+            Thread.sleep(5);
+        }
+        recorder.stop();
+        List<Long> times = new ArrayList<>();
+        RecordingReader.replay(directory, (ts, frame) -> times.add(ts));
+
+        RecordingReader.Cursor cursor = RecordingReader.open(directory);
+        assertThat(cursor.firstMillis()).isEqualTo(times.get(0));
+        assertThat(cursor.advanceTo(times.get(1)).iterator().next().altitude()).isEqualTo(1100);
+        assertThat(cursor.advanceTo(times.get(1)).iterator().next().altitude()).isEqualTo(1100);
+        assertThat(cursor.isExhausted()).isFalse();
+        assertThat(cursor.advanceTo(times.get(2) + 1).iterator().next().altitude()).isEqualTo(1200);
+        assertThat(cursor.isExhausted()).isTrue();
+    }
+
+    @Test
+    void resolveRecording_ShouldRejectPathsOutsideTheRecordingDirectory() {
+        assertThat(recorder.resolveRecording("recording-20250502-040815"))
+                .isEqualTo(tempDir.toAbsolutePath().normalize().resolve("recording-20250502-040815"));
+        assertThatThrownBy(() -> recorder.resolveRecording("../etc")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> recorder.resolveRecording("a/../../etc")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> recorder.resolveRecording("/etc")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> recorder.resolveRecording(".")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void awaitRecorded(long frames) throws InterruptedException {
+        for (int i = 0; i < 200 && (long) recorder.getStatus().get("framesRecorded") < frames; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static Aircraft aircraft(String callsign, double latitude, int altitude) {
+        return Aircraft.builder()
+                .callsign(callsign)
+                .flightNumber(callsign)
+                .latitude(latitude)
+                .longitude(126.79)
+                .altitude(altitude)
+                .speed(250)
+                .heading(90)
+                .verticalSpeed(0)
+                .squawk("1200")
+                .isOnGround(false)
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package com.adsb.simulator.recording;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecordingRetentionServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private RecordingRetentionService retentionService;
+
+    @BeforeEach
+    void setUp() {
+        FrameRecorder recorder = new FrameRecorder();
+        ReflectionTestUtils.setField(recorder, "baseDirectory", tempDir.toString());
+        retentionService = new RecordingRetentionService(recorder);
+        ReflectionTestUtils.setField(retentionService, "retentionHours", 24L);
+    }
+
+    @Test
+    void dropExpiredSegments_ShouldDropWholeSegmentsEndingBeforeCutoff() throws Exception {
+        Path session = Files.createDirectory(tempDir.resolve("recording-1"));
+        Path first = segment(session, 1_000, 5_000);
+        Path second = segment(session, 2_000, 5_000);
+        Path third = segment(session, 3_000, 5_000);
+
+        // Cutoff inside the second segment: only the first one has fully expired
+        int dropped = retentionService.dropExpiredSegments(session, 2_500);
+
+        assertThat(dropped).isEqualTo(1);
+        assertThat(first).doesNotExist();
+        assertThat(RecordingFormat.indexPath(first)).doesNotExist();
+        assertThat(second).exists();
+        assertThat(third).exists();
+    }
+
+    @Test
+    void dropExpiredSegments_ShouldRemoveFinishedSessionOnceEmpty() throws Exception {
+        Path session = Files.createDirectory(tempDir.resolve("recording-2"));
+        segment(session, 1_000, 1_500);
+        segment(session, 2_000, 2_500);
+
+        int dropped = retentionService.dropExpiredSegments(session, 10_000);
+
+        assertThat(dropped).isEqualTo(2);
+        assertThat(session).doesNotExist();
+    }
+
+    private static Path segment(Path session, long firstMillis, long lastModifiedMillis) throws Exception {
+        Path segment = Files.createFile(RecordingFormat.segmentPath(session, firstMillis));
+        Files.createFile(RecordingFormat.indexPath(segment));
+        Files.setLastModifiedTime(segment, FileTime.fromMillis(lastModifiedMillis));
+        return segment;
+    }
+}
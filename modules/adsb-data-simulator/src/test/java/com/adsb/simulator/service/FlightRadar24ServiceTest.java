@@ -0,0 +1,130 @@
+package com.adsb.simulator.service;
+
+import com.adsb.simulator.dto.AircraftDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlightRadar24ServiceTest {
+
+    private static final String FEED = "{\"full_count\":1,\"version\":4,"
+            + "\"3a1f\":[\"71BE01\",37.61,126.95,140,4500,210,\"2301\",\"RKSS\",\"A321\",\"HL8001\","
+            + "1746158895,\"GMP\",\"CJU\",\"KE1201\",0,-832,\"KAL1201\",0,\"KAL\"]}";
+
+    private FlightRadar24StubServer stub;
+    private FlightRadar24Service service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new FlightRadar24StubServer();
+        service = new FlightRadar24Service(WebClient.builder());
+        ReflectionTestUtils.setField(service, "apiUrl", stub.baseUrl());
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "feedPath", "zones/fcgi/feed.js");
+        ReflectionTestUtils.setField(service, "timeoutMillis", 2_000L);
+        ReflectionTestUtils.setField(service, "connectTimeoutMillis", 1_000);
+        ReflectionTestUtils.setField(service, "freshMillis", 10_000L);
+        ReflectionTestUtils.setField(service, "maxStaleMillis", 120_000L);
+        ReflectionTestUtils.setField(service, "areaIdleMillis", 600_000L);
+        ReflectionTestUtils.setField(service, "failureThreshold", 2);
+        ReflectionTestUtils.setField(service, "circuitOpenMillis", 60_000L);
+        ReflectionTestUtils.invokeMethod(service, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    void fetchRealTimeData_ShouldServeCachedSnapshotAfterRefresh() {
+        stub.respond(200, FEED);
+        FlightRadar24Service.AreaKey key = FlightRadar24Service.AreaKey.of(37.5583, 126.7906, 50);
+
+        service.refreshArea(key).block(Duration.ofSeconds(5));
+        List<AircraftDto> aircraft = service.fetchRealTimeData(37.5583, 126.7906, 50);
+
+        assertThat(aircraft).hasSize(1);
+        assertThat(aircraft.get(0).getCallsign()).isEqualTo("KAL1201");
+        assertThat(aircraft.get(0).getAltitude()).isEqualTo(4500);
+        assertThat(aircraft.get(0).getVerticalSpeed()).isEqualTo(-832);
+        // Fresh cache hit: no second request reaches the API
+        assertThat(stub.requests()).hasSize(1);
+    }
+
+    @Test
+    void refreshArea_WithMatchingETag_ShouldSendConditionalRequestAndKeepData() {
+        stub.respond(200, FEED).withETag("\"v1\"");
+        FlightRadar24Service.AreaKey key = FlightRadar24Service.AreaKey.of(37.5583, 126.7906, 50);
+
+        service.refreshArea(key).block(Duration.ofSeconds(5));
+        service.refreshArea(key).block(Duration.ofSeconds(5));
+
+        assertThat(stub.requests()).hasSize(2);
+        assertThat(stub.requests().get(1).get("If-none-match")).containsExactly("\"v1\"");
+        assertThat(service.fetchRealTimeData(37.5583, 126.7906, 50)).hasSize(1);
+    }
+
+    @Test
+    void refreshArea_WhenApiSlowOrFailing_ShouldOpenCircuitAndKeepServingStaleData() {
+        stub.respond(200, FEED);
+        FlightRadar24Service.AreaKey key = FlightRadar24Service.AreaKey.of(37.5583, 126.7906, 50);
+        service.refreshArea(key).block(Duration.ofSeconds(5));
+
+        stub.respond(200, FEED).withDelay(2_500);
+        service.refreshArea(key).block(Duration.ofSeconds(5));
+        stub.respond(500, "{}").withDelay(0);
+        service.refreshArea(key).block(Duration.ofSeconds(5));
+
+        assertThat(service.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        int requestsBefore = stub.requests().size();
+        service.refreshArea(key).block(Duration.ofSeconds(5));
+        assertThat(stub.requests()).hasSize(requestsBefore);
+        assertThat(service.fetchRealTimeData(37.5583, 126.7906, 50)).hasSize(1);
+    }
+
+    @Test
+    void fetchRealTimeData_WhenRateLimited_ShouldOpenCircuitImmediately() {
+        stub.respond(429, "{}");
+
+        service.refreshArea(FlightRadar24Service.AreaKey.of(37.5583, 126.7906, 50)).block(Duration.ofSeconds(5));
+
+        assertThat(service.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(service.fetchRealTimeData(37.5583, 126.7906, 50)).isEmpty();
+    }
+
+    @Test
+    void refreshArea_WhenProbeGetsNoResult_ShouldStillSettleTheCircuit() throws Exception {
+        ReflectionTestUtils.setField(service, "circuitOpenMillis", 0L);
+        ReflectionTestUtils.invokeMethod(service, "init");
+        FlightRadar24Service.AreaKey key = FlightRadar24Service.AreaKey.of(37.5583, 126.7906, 50);
+        stub.respond(429, "{}");
+        service.refreshArea(key).block(Duration.ofSeconds(5));
+
+        // An empty 2xx body fails the probe instead of leaving the circuit half open
+        stub.respond(200, "");
+        service.refreshArea(key).block(Duration.ofSeconds(5));
+        assertThat(service.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        // So does a probe cancelled before the response arrives
+        stub.respond(200, FEED).withDelay(1_000);
+        Disposable probe = service.refreshArea(key).subscribe();
+        Thread.sleep(200);
+        probe.dispose();
+        assertThat(service.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        stub.respond(200, FEED).withDelay(0);
+        service.refreshArea(key).block(Duration.ofSeconds(5));
+        assertThat(service.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(service.fetchRealTimeData(37.5583, 126.7906, 50)).hasSize(1);
+    }
+}
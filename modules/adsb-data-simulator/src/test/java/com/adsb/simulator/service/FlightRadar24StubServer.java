@@ -0,0 +1,92 @@
+package com.adsb.simulator.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+/**
+ * WireMock-style local stand-in for the FlightRadar24 feed, built on the JDK HTTP server.
+ * Tests stub the next response (status, body, ETag, delay) and inspect recorded requests.
+ */
+class FlightRadar24StubServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final List<Map<String, List<String>>> requests = new CopyOnWriteArrayList<>();
+
+    private volatile int status = 200;
+    private volatile String body = "{}";
+    private volatile String etag;
+    private volatile long delayMillis;
+
+    FlightRadar24StubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    FlightRadar24StubServer respond(int status, String body) {
+        this.status = status;
+        this.body = body;
+        return this;
+    }
+
+    FlightRadar24StubServer withETag(String etag) {
+        this.etag = etag;
+        return this;
+    }
+
+    FlightRadar24StubServer withDelay(long delayMillis) {
+        this.delayMillis = delayMillis;
+        return this;
+    }
+
+    List<Map<String, List<String>>> requests() {
+        return requests;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.add(Map.copyOf(exchange.getRequestHeaders()));
+        try {
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (etag != null) {
+            exchange.getResponseHeaders().set("ETag", etag);
+            if (etag.equals(ifNoneMatch)) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
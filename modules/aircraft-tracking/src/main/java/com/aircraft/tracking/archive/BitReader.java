@@ -0,0 +1,32 @@
+package com.aircraft.tracking.archive;
+
+/**
+ * Reads values written by {@link BitWriter}.
+ */
+final class BitReader {
+
+    private final byte[] buffer;
+    private long position;
+
+    BitReader(byte[] buffer) {
+        this.buffer = buffer;
+    }
+
+    boolean readBit() {
+        int index = (int) (position >>> 3);
+        if (index >= buffer.length) {
+            throw new IllegalStateException("Read past end of archive block");
+        }
+        boolean bit = (buffer[index] & (0x80 >>> (position & 7))) != 0;
+        position++;
+        return bit;
+    }
+
+    long read(int bits) {
+        long value = 0;
+        for (int i = 0; i < bits; i++) {
+            value = (value << 1) | (readBit() ? 1L : 0L);
+        }
+        return value;
+    }
+}
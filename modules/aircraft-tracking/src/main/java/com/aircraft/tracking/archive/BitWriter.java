@@ -0,0 +1,36 @@
+package com.aircraft.tracking.archive;
+
+import java.util.Arrays;
+
+/**
+ * Appends values of arbitrary bit width, most significant bit first.
+ */
+final class BitWriter {
+
+    private byte[] buffer = new byte[256];
+    private long bitLength;
+
+    void writeBit(boolean bit) {
+        int index = (int) (bitLength >>> 3);
+        if (index == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        if (bit) {
+            buffer[index] |= (byte) (0x80 >>> (bitLength & 7));
+        }
+        bitLength++;
+    }
+
+    /**
+     * Writes the low {@code bits} bits of {@code value}.
+     */
+    void write(long value, int bits) {
+        for (int i = bits - 1; i >= 0; i--) {
+            writeBit(((value >>> i) & 1L) != 0);
+        }
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, (int) ((bitLength + 7) >>> 3));
+    }
+}
@@ -0,0 +1,91 @@
+package com.aircraft.tracking.archive;
+
+import com.aircraft.tracking.dto.TrafficSnapshotDto;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Encoding of a traffic keyframe: one record per aircraft, deflated as a whole.
+ * Sample times are stored as millisecond offsets before the frame time and coordinates
+ * quantized to 1e-7 degrees like {@link TrajectoryCodec}; a frame of a few hundred aircraft
+ * takes a few kilobytes.
+ */
+public final class KeyframeCodec {
+
+    private static final double COORDINATE_SCALE = 1e7;
+    private static final int NO_VERTICAL_SPEED = Integer.MIN_VALUE;
+
+    private KeyframeCodec() {
+    }
+
+    public static byte[] encode(LocalDateTime frameTime, List<TrafficSnapshotDto.AircraftState> states) {
+        long frameMillis = toMillis(frameTime);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + states.size() * 24);
+        try (DataOutputStream out = new DataOutputStream(
+                new DeflaterOutputStream(bytes, new Deflater(Deflater.BEST_SPEED)))) {
+            out.writeInt(states.size());
+            for (TrafficSnapshotDto.AircraftState state : states) {
+                out.writeUTF(state.getCallsign());
+                out.writeLong(frameMillis - toMillis(state.getSampleTime()));
+                out.writeInt((int) Math.round(state.getLatitude() * COORDINATE_SCALE));
+                out.writeInt((int) Math.round(state.getLongitude() * COORDINATE_SCALE));
+                out.writeInt(state.getAltitude());
+                out.writeShort(state.getSpeed());
+                out.writeShort(state.getHeading());
+                out.writeInt(state.getVerticalSpeed() != null ? state.getVerticalSpeed() : NO_VERTICAL_SPEED);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static List<TrafficSnapshotDto.AircraftState> decode(LocalDateTime frameTime, byte[] data) {
+        long frameMillis = toMillis(frameTime);
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(data)))) {
+            int count = in.readInt();
+            List<TrafficSnapshotDto.AircraftState> states = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String callsign = in.readUTF();
+                long sampleMillis = frameMillis - in.readLong();
+                double latitude = in.readInt() / COORDINATE_SCALE;
+                double longitude = in.readInt() / COORDINATE_SCALE;
+                int altitude = in.readInt();
+                int speed = in.readShort();
+                int heading = in.readShort();
+                int verticalSpeed = in.readInt();
+                states.add(TrafficSnapshotDto.AircraftState.builder()
+                        .callsign(callsign)
+                        .sampleTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(sampleMillis), ZoneId.systemDefault()))
+                        .latitude(latitude)
+                        .longitude(longitude)
+                        .altitude(altitude)
+                        .speed(speed)
+                        .heading(heading)
+                        .verticalSpeed(verticalSpeed != NO_VERTICAL_SPEED ? verticalSpeed : null)
+                        .interpolated(false)
+                        .build());
+            }
+            return states;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long toMillis(LocalDateTime timestamp) {
+        return timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
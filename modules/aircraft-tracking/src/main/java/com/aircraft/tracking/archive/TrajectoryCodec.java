@@ -0,0 +1,199 @@
+package com.aircraft.tracking.archive;
+
+import com.aircraft.tracking.dto.TrajectoryDto;
+import com.aircraft.tracking.model.TrajectoryPoint;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gorilla-style block encoding of a time-ordered run of trajectory points.
+ * <p>
+ * The first point is written in full. After that, timestamps and coordinates are stored
+ * as delta-of-delta, which is zero or close to it for steady sampling and straight
+ * flight. Altitude, speed, heading and vertical speed are stored as plain deltas. Each
+ * value is zigzag-encoded and prefixed with a short control code selecting a 0, 7, 12,
+ * 20 or 64 bit payload, so a typical point takes a few bytes.
+ * <p>
+ * Coordinates are quantized to 1e-7 degrees (about 1 cm), well below ADS-B position
+ * resolution, and timestamps are truncated to the millisecond; everything else is
+ * lossless.
+ */
+public final class TrajectoryCodec {
+
+    private static final double COORDINATE_SCALE = 1e7;
+    private static final int[] PAYLOAD_BITS = {7, 12, 20};
+
+    private TrajectoryCodec() {
+    }
+
+    public static byte[] encode(List<TrajectoryDto.TrajectoryPointDto> points) {
+        BitWriter out = new BitWriter();
+        out.write(points.size(), 32);
+        if (points.isEmpty()) {
+            return out.toByteArray();
+        }
+
+        TrajectoryDto.TrajectoryPointDto first = points.get(0);
+        long time = toMillis(first.getTimestamp());
+        long lat = quantize(first.getLatitude());
+        long lon = quantize(first.getLongitude());
+        int alt = first.getAltitude();
+        int speed = first.getSpeed();
+        int heading = first.getHeading();
+        int vs = 0;
+        out.write(time, 64);
+        out.write(lat, 64);
+        out.write(lon, 64);
+        out.write(alt, 32);
+        out.write(speed, 32);
+        out.write(heading, 32);
+        vs = writeVerticalSpeed(out, first.getVerticalSpeed(), vs);
+
+        long timeDelta = 0;
+        long latDelta = 0;
+        long lonDelta = 0;
+        for (int i = 1; i < points.size(); i++) {
+            TrajectoryDto.TrajectoryPointDto point = points.get(i);
+            long t = toMillis(point.getTimestamp());
+            long la = quantize(point.getLatitude());
+            long lo = quantize(point.getLongitude());
+            writeSigned(out, (t - time) - timeDelta);
+            writeSigned(out, (la - lat) - latDelta);
+            writeSigned(out, (lo - lon) - lonDelta);
+            writeSigned(out, point.getAltitude() - alt);
+            writeSigned(out, point.getSpeed() - speed);
+            writeSigned(out, point.getHeading() - heading);
+            vs = writeVerticalSpeed(out, point.getVerticalSpeed(), vs);
+
+            timeDelta = t - time;
+            latDelta = la - lat;
+            lonDelta = lo - lon;
+            time = t;
+            lat = la;
+            lon = lo;
+            alt = point.getAltitude();
+            speed = point.getSpeed();
+            heading = point.getHeading();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Number of points in a block, without decoding it.
+     */
+    public static int decodeCount(byte[] block) {
+        return (int) new BitReader(block).read(32);
+    }
+
+    public static List<TrajectoryDto.TrajectoryPointDto> decode(byte[] block) {
+        BitReader in = new BitReader(block);
+        int count = (int) in.read(32);
+        List<TrajectoryDto.TrajectoryPointDto> points = new ArrayList<>(count);
+        if (count == 0) {
+            return points;
+        }
+
+        long time = in.read(64);
+        long lat = in.read(64);
+        long lon = in.read(64);
+        int alt = (int) in.read(32);
+        int speed = (int) in.read(32);
+        int heading = (int) in.read(32);
+        int vs = 0;
+        Integer verticalSpeed = null;
+        if (in.readBit()) {
+            vs += (int) readSigned(in);
+            verticalSpeed = vs;
+        }
+        points.add(point(time, lat, lon, alt, speed, heading, verticalSpeed));
+
+        long timeDelta = 0;
+        long latDelta = 0;
+        long lonDelta = 0;
+        for (int i = 1; i < count; i++) {
+            timeDelta += readSigned(in);
+            latDelta += readSigned(in);
+            lonDelta += readSigned(in);
+            time += timeDelta;
+            lat += latDelta;
+            lon += lonDelta;
+            alt += (int) readSigned(in);
+            speed += (int) readSigned(in);
+            heading += (int) readSigned(in);
+            verticalSpeed = null;
+            if (in.readBit()) {
+                vs += (int) readSigned(in);
+                verticalSpeed = vs;
+            }
+            points.add(point(time, lat, lon, alt, speed, heading, verticalSpeed));
+        }
+        return points;
+    }
+
+    private static int writeVerticalSpeed(BitWriter out, Integer verticalSpeed, int previous) {
+        // Presence bit, then a delta against the last present value
+        if (verticalSpeed == null) {
+            out.writeBit(false);
+            return previous;
+        }
+        out.writeBit(true);
+        writeSigned(out, verticalSpeed - previous);
+        return verticalSpeed;
+    }
+
+    private static void writeSigned(BitWriter out, long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        if (zigzag == 0) {
+            out.writeBit(false);
+            return;
+        }
+        for (int bucket = 0; bucket < PAYLOAD_BITS.length; bucket++) {
+            if (zigzag >>> PAYLOAD_BITS[bucket] == 0) {
+                out.write(~0L, bucket + 1);
+                out.writeBit(false);
+                out.write(zigzag, PAYLOAD_BITS[bucket]);
+                return;
+            }
+        }
+        out.write(~0L, PAYLOAD_BITS.length + 1);
+        out.write(zigzag, 64);
+    }
+
+    private static long readSigned(BitReader in) {
+        int ones = 0;
+        while (ones <= PAYLOAD_BITS.length && in.readBit()) {
+            ones++;
+        }
+        if (ones == 0) {
+            return 0;
+        }
+        long zigzag = in.read(ones <= PAYLOAD_BITS.length ? PAYLOAD_BITS[ones - 1] : 64);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    private static TrajectoryDto.TrajectoryPointDto point(long time, long lat, long lon, int alt, int speed,
+                                                          int heading, Integer verticalSpeed) {
+        return TrajectoryDto.TrajectoryPointDto.builder()
+                .timestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneId.systemDefault()))
+                .latitude(lat / COORDINATE_SCALE)
+                .longitude(lon / COORDINATE_SCALE)
+                .altitude(alt)
+                .speed(speed)
+                .heading(heading)
+                .verticalSpeed(verticalSpeed)
+                .pointType(TrajectoryPoint.PointType.ACTUAL)
+                .build();
+    }
+
+    private static long quantize(double degrees) {
+        return Math.round(degrees * COORDINATE_SCALE);
+    }
+
+    private static long toMillis(LocalDateTime timestamp) {
+        return timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,43 @@
+package com.aircraft.tracking.config;
+
+import com.aircraft.tracking.service.TrackingCacheService;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Bounded Caffeine caches for the read endpoints. Aircraft entries expire after
+ * {@code tracking.cache.ttl-seconds} and are evicted early by {@link TrackingCacheService}
+ * whenever an aircraft changes. The active aircraft list changes with every position
+ * report, so it only lives for {@code tracking.cache.list-ttl-ms} and is evicted early
+ * when aircraft join or leave it.
+ */
+@Configuration
+public class CacheConfig {
+    
+    @Bean
+    public CacheManager cacheManager(@Value("${tracking.cache.ttl-seconds:300}") long ttlSeconds,
+                                     @Value("${tracking.cache.max-entries:10000}") long maxEntries,
+                                     @Value("${tracking.cache.list-ttl-ms:1000}") long listTtlMillis) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxEntries)
+                .recordStats());
+        cacheManager.setAllowNullValues(false);
+        // Fixed set of caches; an unknown name is a programming error, not a new cache
+        cacheManager.setCacheNames(List.of(TrackingCacheService.AIRCRAFT));
+        cacheManager.registerCustomCache(TrackingCacheService.AIRCRAFT_LIST, Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(listTtlMillis))
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,60 @@
+package com.aircraft.tracking.config;
+
+import com.aircraft.tracking.model.Runway;
+import com.aircraft.tracking.repository.RunwayRepository;
+import com.aircraft.tracking.service.ApproachSequencingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Registers the Gimpo (RKSS) landing directions when the runway table is empty, so
+ * approach sequencing works out of the box. Each row is one landing direction, from its
+ * threshold to the opposite one.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RunwayDataInitializer {
+
+    private final RunwayRepository runwayRepository;
+    private final ApproachSequencingService approachSequencingService;
+
+    @Value("${tracking.runway.seed-defaults:true}")
+    private boolean seedDefaults;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (seedDefaults && runwayRepository.count() == 0) {
+            // Approximate threshold positions of 14L/32R (3200 m) and 14R/32L (3600 m)
+            List<Runway> runways = List.of(
+                    runway("14L", 37.5705, 126.7783, 37.5473, 126.8007, 143, 3200, 60),
+                    runway("32R", 37.5473, 126.8007, 37.5705, 126.7783, 323, 3200, 60),
+                    runway("14R", 37.5687, 126.7745, 37.5430, 126.7993, 143, 3600, 45),
+                    runway("32L", 37.5430, 126.7993, 37.5687, 126.7745, 323, 3600, 45));
+            runwayRepository.saveAll(runways);
+            log.info("Registered {} default RKSS runway directions", runways.size());
+        }
+        approachSequencingService.refreshRunways();
+    }
+
+    private static Runway runway(String id, double startLatitude, double startLongitude,
+                                 double endLatitude, double endLongitude, int heading, int length, int width) {
+        return Runway.builder()
+                .runwayId(id)
+                .name("RKSS RWY " + id)
+                .startLatitude(startLatitude)
+                .startLongitude(startLongitude)
+                .endLatitude(endLatitude)
+                .endLongitude(endLongitude)
+                .heading(heading)
+                .length(length)
+                .width(width)
+                .build();
+    }
+}
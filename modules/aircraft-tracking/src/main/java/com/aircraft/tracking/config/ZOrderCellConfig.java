@@ -0,0 +1,20 @@
+package com.aircraft.tracking.config;
+
+import com.aircraft.spatial.ZOrderCellBackfill;
+import com.aircraft.tracking.repository.TrackedAircraftRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Backfills the Z-order cell of tracked aircraft rows at startup.
+ */
+@Configuration
+public class ZOrderCellConfig {
+    
+    @Bean
+    public ZOrderCellBackfill zOrderCellBackfill(TrackedAircraftRepository aircraftRepository,
+                                                 TransactionTemplate transactionTemplate) {
+        return new ZOrderCellBackfill(aircraftRepository, transactionTemplate);
+    }
+}
@@ -1,17 +1,58 @@
 package com.aircraft.tracking.controller;
 
+import com.aircraft.tracking.dto.AircraftBatchUpdateDto;
 import com.aircraft.tracking.dto.AircraftUpdateDto;
+import com.aircraft.tracking.dto.BatchUpdateResultDto;
+import com.aircraft.tracking.dto.FeedAircraftDto;
+import com.aircraft.tracking.dto.GeofenceDto;
+import com.aircraft.tracking.dto.SpaceTimeMatchDto;
+import com.aircraft.tracking.dto.SpaceTimeQueryDto;
 import com.aircraft.tracking.dto.TrackedAircraftDto;
+import com.aircraft.tracking.dto.TrafficSnapshotDto;
 import com.aircraft.tracking.dto.TrajectoryDto;
+import com.aircraft.tracking.dto.TrajectoryPageDto;
+import com.aircraft.tracking.fusion.ReportSource;
+import com.aircraft.tracking.model.TrackedAircraft;
+import com.aircraft.tracking.service.BatchPredictionService;
+import com.aircraft.tracking.service.FlightPhaseService;
+import com.aircraft.tracking.service.GeofenceService;
+import com.aircraft.tracking.service.ImplausibleUpdateException;
+import com.aircraft.tracking.service.SpaceTimeIndexService;
+import com.aircraft.tracking.service.SupersededUpdateException;
+import com.aircraft.tracking.service.TrackIngestService;
+import com.aircraft.tracking.service.TrackQualityService;
+import com.aircraft.tracking.service.TrackingCacheService;
 import com.aircraft.tracking.service.TrackingService;
+import com.aircraft.tracking.service.TrafficSnapshotService;
+import com.aircraft.tracking.service.TrajectoryArchiveService;
+import com.aircraft.tracking.service.TrajectoryExportService;
+import com.aircraft.tracking.service.TrajectoryWriteBehindService;
+import com.aircraft.tracking.websocket.TrackingWebSocketService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/api/tracking")
@@ -19,7 +60,23 @@ import java.util.List;
 @Slf4j
 public class TrackingController {
     
+    /** NDJSON items parsed and applied together, so a long body is never held as a whole. */
+    private static final int NDJSON_CHUNK_SIZE = 500;
+    
     private final TrackingService trackingService;
+    private final BatchPredictionService batchPredictionService;
+    private final TrajectoryWriteBehindService writeBehindService;
+    private final TrajectoryExportService exportService;
+    private final TrackingCacheService cacheService;
+    private final TrajectoryArchiveService archiveService;
+    private final TrackIngestService ingestService;
+    private final FlightPhaseService flightPhaseService;
+    private final TrafficSnapshotService snapshotService;
+    private final SpaceTimeIndexService spaceTimeIndexService;
+    private final GeofenceService geofenceService;
+    private final TrackQualityService trackQualityService;
+    private final TrackingWebSocketService webSocketService;
+    private final ObjectMapper objectMapper;
     
     @GetMapping("/aircraft")
     public ResponseEntity<List<TrackedAircraftDto>> getAllTrackedAircraft() {
@@ -37,9 +94,17 @@ public class TrackingController {
     }
     
     @GetMapping("/aircraft/{callsign}/trajectory")
-    public ResponseEntity<TrajectoryDto> getAircraftTrajectory(@PathVariable String callsign) {
+    public ResponseEntity<TrajectoryDto> getAircraftTrajectory(
+            @PathVariable String callsign,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Double tolerance,
+            @RequestParam(required = false) Integer zoom,
+            @RequestParam(required = false) Integer maxPoints,
+            @RequestParam(defaultValue = "true") boolean includePredicted) {
         log.debug("Fetching trajectory for aircraft: {}", callsign);
-        TrajectoryDto trajectory = trackingService.getAircraftTrajectory(callsign);
+        TrajectoryDto trajectory = trackingService.getAircraftTrajectory(
+                callsign, from, to, tolerance, zoom, maxPoints, includePredicted);
         
         if (trajectory.getPoints().isEmpty()) {
             return ResponseEntity.notFound().build();
@@ -48,8 +113,38 @@ public class TrackingController {
         return ResponseEntity.ok(trajectory);
     }
     
+    @GetMapping("/aircraft/{callsign}/trajectory/page")
+    public ResponseEntity<TrajectoryPageDto> getAircraftTrajectoryPage(
+            @PathVariable String callsign,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(exportService.getPage(callsign, from, to, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping(value = "/aircraft/{callsign}/trajectory/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAircraftTrajectory(
+            @PathVariable String callsign,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ndjson(out -> exportService.stream(callsign, from, to, row -> writeLine(out, row)));
+    }
+    
+    @GetMapping(value = "/trajectories/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTrajectories(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.debug("Exporting all trajectories from {} to {}", from, to);
+        return ndjson(out -> exportService.stream(null, from, to, row -> writeLine(out, row)));
+    }
+    
     @PostMapping("/aircraft/{callsign}/update")
-    public ResponseEntity<TrackedAircraftDto> updateAircraftPosition(
+    public ResponseEntity<?> updateAircraftPosition(
             @PathVariable String callsign,
             @Valid @RequestBody AircraftUpdateDto updateDto) {
         
@@ -58,15 +153,242 @@ public class TrackingController {
         try {
             TrackedAircraftDto updatedAircraft = trackingService.updateAircraftPosition(callsign, updateDto);
             return ResponseEntity.ok(updatedAircraft);
+        } catch (ImplausibleUpdateException e) {
+            // Same shape as an IMPLAUSIBLE batch item, so clients handle both alike
+            return ResponseEntity.unprocessableEntity().body(BatchUpdateResultDto.ItemResult.builder()
+                    .index(0)
+                    .callsign(callsign)
+                    .status(BatchUpdateResultDto.Status.IMPLAUSIBLE)
+                    .message("Implausible update: " + e.getRejection())
+                    .build());
+        } catch (SupersededUpdateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(BatchUpdateResultDto.ItemResult.builder()
+                    .index(0)
+                    .callsign(callsign)
+                    .status(BatchUpdateResultDto.Status.SUPERSEDED)
+                    .message("Position held by a feed")
+                    .build());
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
         }
     }
     
+    @PostMapping(value = "/aircraft/batch-update", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BatchUpdateResultDto> updateAircraftPositions(
+            @RequestBody List<AircraftBatchUpdateDto> updates) {
+        log.debug("Applying batch update of {} items", updates.size());
+        return ResponseEntity.ok(trackingService.updateAircraftPositions(updates));
+    }
+    
+    @PostMapping(value = "/aircraft/batch-update", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BatchUpdateResultDto> updateAircraftPositionsNdjson(InputStream body) throws IOException {
+        BatchUpdateResultDto total = BatchUpdateResultDto.builder().results(new ArrayList<>()).build();
+        List<AircraftBatchUpdateDto> chunk = new ArrayList<>(NDJSON_CHUNK_SIZE);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                chunk.add(objectMapper.readValue(line, AircraftBatchUpdateDto.class));
+            } catch (JsonProcessingException e) {
+                chunk.add(null); // reported as INVALID at this index
+            }
+            if (chunk.size() == NDJSON_CHUNK_SIZE) {
+                applyChunk(chunk, total);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            applyChunk(chunk, total);
+        }
+        log.debug("Applied NDJSON batch update of {} items", total.getReceived());
+        return ResponseEntity.ok(total);
+    }
+    
+    /**
+     * Applies one chunk of an NDJSON batch and adds its counts and results to {@code total},
+     * shifting item indices to their line position in the whole body.
+     */
+    private void applyChunk(List<AircraftBatchUpdateDto> chunk, BatchUpdateResultDto total) {
+        BatchUpdateResultDto result = trackingService.updateAircraftPositions(chunk);
+        int offset = total.getReceived();
+        for (BatchUpdateResultDto.ItemResult item : result.getResults()) {
+            item.setIndex(item.getIndex() + offset);
+            total.getResults().add(item);
+        }
+        total.setReceived(offset + result.getReceived());
+        total.setUpdated(total.getUpdated() + result.getUpdated());
+        total.setRejected(total.getRejected() + result.getRejected());
+        total.setTrajectoryPointsDropped(total.getTrajectoryPointsDropped() + result.getTrajectoryPointsDropped());
+    }
+    
     @GetMapping("/runway/{runway_id}/approaching")
     public ResponseEntity<List<TrackedAircraftDto>> getAircraftApproachingRunway(@PathVariable("runway_id") String runwayId) {
         log.debug("Fetching aircraft approaching runway: {}", runwayId);
         List<TrackedAircraftDto> aircraft = trackingService.getAircraftApproachingRunway(runwayId);
         return ResponseEntity.ok(aircraft);
     }
-}
\ No newline at end of file
+    
+    @GetMapping("/phase/{phase}")
+    public ResponseEntity<List<TrackedAircraftDto>> getAircraftByFlightPhase(@PathVariable TrackedAircraft.FlightPhase phase) {
+        log.debug("Fetching aircraft in flight phase: {}", phase);
+        return ResponseEntity.ok(trackingService.getAircraftByFlightPhase(phase));
+    }
+    
+    @GetMapping("/phase/stats")
+    public ResponseEntity<Map<String, Object>> getFlightPhaseStats() {
+        return ResponseEntity.ok(flightPhaseService.getStats());
+    }
+    
+    /**
+     * Traffic picture at a past instant, rebuilt from the nearest keyframes and the reports between them.
+     */
+    @GetMapping("/snapshot")
+    public ResponseEntity<TrafficSnapshotDto> getTrafficSnapshot(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return ResponseEntity.ok(snapshotService.snapshotAt(at));
+    }
+    
+    @GetMapping("/snapshot/stats")
+    public ResponseEntity<Map<String, Object>> getSnapshotStats() {
+        return ResponseEntity.ok(snapshotService.getStats());
+    }
+    
+    /**
+     * Aircraft that crossed a polygon within a time window, with the times of each pass.
+     */
+    @PostMapping("/spacetime/query")
+    public ResponseEntity<List<SpaceTimeMatchDto>> querySpaceTime(@Valid @RequestBody SpaceTimeQueryDto query) {
+        if (query.getTo().isBefore(query.getFrom())) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(spaceTimeIndexService.query(query));
+    }
+    
+    @GetMapping("/spacetime/stats")
+    public ResponseEntity<Map<String, Object>> getSpaceTimeStats() {
+        return ResponseEntity.ok(spaceTimeIndexService.getStats());
+    }
+    
+    @GetMapping("/geofences")
+    public ResponseEntity<List<GeofenceDto>> getGeofences() {
+        return ResponseEntity.ok(geofenceService.getGeofences());
+    }
+    
+    /**
+     * Defines a geofence; ENTER/EXIT/DWELL events for it are published on {@code /topic/tracking/geofence}.
+     */
+    @PostMapping("/geofences")
+    public ResponseEntity<GeofenceDto> createGeofence(@Valid @RequestBody GeofenceDto geofence) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(geofenceService.create(geofence));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+    
+    @DeleteMapping("/geofences/{id}")
+    public ResponseEntity<Void> deleteGeofence(@PathVariable Long id) {
+        return geofenceService.delete(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+    
+    @GetMapping("/geofences/{id}/aircraft")
+    public ResponseEntity<List<String>> getGeofenceOccupants(@PathVariable Long id) {
+        return ResponseEntity.ok(geofenceService.getOccupants(id));
+    }
+    
+    @GetMapping("/geofences/stats")
+    public ResponseEntity<Map<String, Object>> getGeofenceStats() {
+        return ResponseEntity.ok(geofenceService.getStats());
+    }
+    
+    /**
+     * Plausibility score and rejection counts of one track's recent updates.
+     */
+    @GetMapping("/quality/{callsign}")
+    public ResponseEntity<Map<String, Object>> getTrackQuality(@PathVariable String callsign) {
+        return trackQualityService.getQuality(callsign)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/quality/stats")
+    public ResponseEntity<Map<String, Object>> getTrackQualityStats() {
+        return ResponseEntity.ok(trackQualityService.getStats());
+    }
+    
+    @GetMapping("/predictions/{callsign}")
+    public ResponseEntity<TrajectoryDto> getPredictedTrajectory(@PathVariable String callsign) {
+        return batchPredictionService.getPredictedTrajectory(callsign)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/predictions/stats")
+    public ResponseEntity<Map<String, Object>> getPredictionStats() {
+        return ResponseEntity.ok(batchPredictionService.getStats());
+    }
+    
+    @GetMapping("/persistence/stats")
+    public ResponseEntity<Map<String, Object>> getPersistenceStats() {
+        return ResponseEntity.ok(writeBehindService.getStats());
+    }
+    
+    /**
+     * Reports from a source other than the simulator feed, e.g. an SBS decoder or manual entry.
+     */
+    @PostMapping("/ingest/{source}")
+    public ResponseEntity<Void> ingestReports(@PathVariable ReportSource source,
+                                              @RequestBody List<FeedAircraftDto> reports) {
+        ingestService.submit(source, reports);
+        return ResponseEntity.accepted().build();
+    }
+    
+    @GetMapping("/ingest/stats")
+    public ResponseEntity<Map<String, Object>> getIngestStats() {
+        return ResponseEntity.ok(ingestService.getStats());
+    }
+    
+    @GetMapping("/archive/stats")
+    public ResponseEntity<Map<String, Object>> getArchiveStats() {
+        return ResponseEntity.ok(archiveService.getStats());
+    }
+    
+    @GetMapping("/websocket/stats")
+    public ResponseEntity<Map<String, Object>> getWebSocketStats() {
+        return ResponseEntity.ok(webSocketService.getStats());
+    }
+    
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(cacheService.getStats());
+    }
+    
+    private ResponseEntity<StreamingResponseBody> ndjson(Consumer<OutputStream> writer) {
+        StreamingResponseBody body = response -> {
+            OutputStream out = new BufferedOutputStream(response, 64 * 1024);
+            try {
+                writer.accept(out);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+    
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
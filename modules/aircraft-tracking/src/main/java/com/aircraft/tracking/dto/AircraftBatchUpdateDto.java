@@ -0,0 +1,29 @@
+package com.aircraft.tracking.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One item of a batch position update: the callsign plus the usual update fields, which
+ * are unwrapped so each item is a flat JSON object (one per line in NDJSON).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AircraftBatchUpdateDto {
+    
+    @NotBlank(message = "Callsign is required")
+    private String callsign;
+    
+    @Valid
+    @NotNull
+    @JsonUnwrapped
+    private AircraftUpdateDto update;
+}
@@ -9,6 +9,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -53,4 +55,6 @@ public class AircraftUpdateDto {
     private Integer approachSequence;
     
     private Boolean isEmergency;
+    
+    private LocalDateTime timestamp; // measurement time; the time of arrival when absent
 }
\ No newline at end of file
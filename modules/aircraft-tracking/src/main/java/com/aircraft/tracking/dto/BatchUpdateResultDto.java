@@ -0,0 +1,41 @@
+package com.aircraft.tracking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchUpdateResultDto {
+    
+    private int received;
+    private int updated;
+    private int rejected;
+    private int trajectoryPointsDropped;
+    private List<ItemResult> results;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        private int index;
+        private String callsign;
+        private Status status;
+        private String message;
+    }
+    
+    public enum Status {
+        UPDATED,
+        INVALID,
+        NOT_FOUND,
+        IMPLAUSIBLE,
+        LATE,
+        SUPERSEDED
+    }
+}
@@ -0,0 +1,40 @@
+package com.aircraft.tracking.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aircraft report as published by adsb-data-simulator on {@code /topic/aircraft}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class FeedAircraftDto {
+    
+    private String callsign;
+    private String hexId;
+    private String flightNumber;
+    private Double latitude;
+    private Double longitude;
+    private Integer altitude;
+    private Integer speed;
+    private Integer heading;
+    private Integer verticalSpeed;
+    private String squawk;
+    private String aircraftType;
+    private String registration;
+    private String origin;
+    private String destination;
+    private Boolean isOnGround;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime lastContact;
+}
@@ -0,0 +1,38 @@
+package com.aircraft.tracking.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeofenceDto {
+    
+    private Long id;
+    
+    @NotBlank(message = "Name is required")
+    private String name;
+    
+    @NotNull(message = "Polygon is required")
+    @Size(min = 3, message = "Polygon needs at least 3 vertices")
+    @Valid
+    private List<GeoVertexDto> polygon;
+    
+    private Integer minAltitude;
+    private Integer maxAltitude;
+    
+    @Min(value = 1, message = "Dwell time must be positive")
+    private Integer dwellSeconds;
+    
+    private Integer occupants; // aircraft currently inside; read-only
+}
@@ -0,0 +1,37 @@
+package com.aircraft.tracking.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Membership transition of one aircraft for one geofence, published on
+ * {@code /topic/tracking/geofence}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeofenceEventDto {
+    
+    private Type type;
+    private Long geofenceId;
+    private String geofenceName;
+    private String callsign;
+    private Double latitude;
+    private Double longitude;
+    private Integer altitude;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
+    private LocalDateTime timestamp;
+    
+    private Long secondsInside; // for DWELL and EXIT
+    
+    public enum Type {
+        ENTER, EXIT, DWELL
+    }
+}
@@ -0,0 +1,34 @@
+package com.aircraft.tracking.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Region and time window of a space-time query. The region is a polygon given by its
+ * vertices in order.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpaceTimeQueryDto {
+    
+    @NotNull(message = "Polygon is required")
+    @Size(min = 3, message = "Polygon needs at least 3 vertices")
+    @Valid
+    private List<GeoVertexDto> polygon;
+    
+    @NotNull(message = "Start time is required")
+    private LocalDateTime from;
+    
+    @NotNull(message = "End time is required")
+    private LocalDateTime to;
+}
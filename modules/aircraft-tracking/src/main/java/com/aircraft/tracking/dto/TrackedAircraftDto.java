@@ -17,6 +17,7 @@ public class TrackedAircraftDto {
     
     private Long id;
     private String callsign;
+    private String hexId;
     private String flightNumber;
     private Double latitude;
     private Double longitude;
@@ -32,6 +33,8 @@ public class TrackedAircraftDto {
     private TrackedAircraft.FlightPhase flightPhase;
     private String assignedRunway;
     private Integer approachSequence;
+    private Double distanceToThreshold; // meters, set on approach sequence listings
+    private Double etaSeconds;
     private Boolean isEmergency;
     private Boolean isActive;
     
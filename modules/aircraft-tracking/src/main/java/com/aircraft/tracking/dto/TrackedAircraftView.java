@@ -0,0 +1,18 @@
+package com.aircraft.tracking.dto;
+
+import com.aircraft.tracking.model.TrackedAircraft;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only aircraft row selected by a JPQL constructor expression: only the columns the
+ * read endpoints return, with no managed entity or persistence-context snapshot behind it.
+ */
+public record TrackedAircraftView(Long id, String callsign, String hexId, String flightNumber,
+                                  Double latitude, Double longitude, Integer altitude, Integer speed,
+                                  Integer heading, Integer verticalSpeed, String squawk,
+                                  String aircraftType, String registration, String origin,
+                                  String destination, TrackedAircraft.FlightPhase flightPhase,
+                                  String assignedRunway, Integer approachSequence, Boolean isEmergency,
+                                  Boolean isActive, LocalDateTime lastRadarContact, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,45 @@
+package com.aircraft.tracking.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Traffic picture at one instant: the state of every aircraft with a report close enough
+ * to that instant, interpolated between the reports around it where both exist.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrafficSnapshotDto {
+    
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
+    private LocalDateTime at;
+    
+    private List<AircraftState> aircraft;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AircraftState {
+        private String callsign;
+        private Double latitude;
+        private Double longitude;
+        private Integer altitude;
+        private Integer speed;
+        private Integer heading;
+        private Integer verticalSpeed;
+        
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
+        private LocalDateTime sampleTime; // latest report at or before the instant
+        
+        private Boolean interpolated;
+    }
+}
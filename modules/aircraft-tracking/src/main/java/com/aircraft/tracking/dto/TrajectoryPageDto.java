@@ -0,0 +1,19 @@
+package com.aircraft.tracking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrajectoryPageDto {
+    
+    private String callsign;
+    private List<TrajectoryDto.TrajectoryPointDto> points;
+    private String nextCursor; // null on the last page
+}
@@ -0,0 +1,36 @@
+package com.aircraft.tracking.dto;
+
+import com.aircraft.tracking.model.TrajectoryPoint;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat trajectory point read straight from the database by a JPQL constructor expression,
+ * without materializing entities. Used for paging and streaming exports.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrajectoryPointRowDto {
+    
+    private Long id;
+    private String callsign;
+    private Double latitude;
+    private Double longitude;
+    private Integer altitude;
+    private Integer speed;
+    private Integer heading;
+    private Integer verticalSpeed;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
+    private LocalDateTime timestamp;
+    
+    private TrajectoryPoint.PointType pointType;
+    private Double confidenceScore;
+}
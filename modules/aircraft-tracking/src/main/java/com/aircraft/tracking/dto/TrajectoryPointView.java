@@ -0,0 +1,14 @@
+package com.aircraft.tracking.dto;
+
+import com.aircraft.tracking.model.TrajectoryPoint;
+
+import java.time.LocalDateTime;
+
+/**
+ * Trajectory sample selected by a JPQL constructor expression filtered on the aircraft
+ * foreign key, so reading a trajectory neither joins nor loads the aircraft.
+ */
+public record TrajectoryPointView(Double latitude, Double longitude, Integer altitude, Integer speed,
+                                  Integer heading, Integer verticalSpeed, LocalDateTime timestamp,
+                                  TrajectoryPoint.PointType pointType, Double confidenceScore) {
+}
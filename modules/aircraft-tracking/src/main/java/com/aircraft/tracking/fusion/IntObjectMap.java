@@ -0,0 +1,155 @@
+package com.aircraft.tracking.fusion;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Open-addressing hash map from {@code int} keys to objects, with linear probing and
+ * backward-shift deletion. Keys are stored unboxed, so lookups allocate nothing and cost
+ * one hash plus a short probe. Not thread-safe.
+ */
+public final class IntObjectMap<V> {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+
+    public IntObjectMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        for (int i = slot(key); values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return (V) values[i];
+            }
+        }
+        return null;
+    }
+
+    public V computeIfAbsent(int key, IntFunction<V> factory) {
+        V value = get(key);
+        if (value == null) {
+            value = factory.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * @return the previous value, or null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("null values are not supported");
+        }
+        int i = slot(key);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                V previous = (V) values[i];
+                values[i] = value;
+                return previous;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > (mask + 1) * LOAD_FACTOR) {
+            resize();
+        }
+        return null;
+    }
+
+    /**
+     * @return the removed value, or null
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int i = slot(key);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                V removed = (V) values[i];
+                shiftBack(i);
+                size--;
+                return removed;
+            }
+        }
+        return null;
+    }
+
+    public interface Visitor<V> {
+        /**
+         * @return true to remove the entry
+         */
+        boolean visit(int key, V value);
+    }
+
+    /**
+     * Visits every entry, removing those the visitor asks for.
+     */
+    @SuppressWarnings("unchecked")
+    public void removeIf(Visitor<V> visitor) {
+        int i = 0;
+        while (i <= mask) {
+            // A removal shifts a later entry into slot i, so only advance when nothing moved
+            if (values[i] != null && visitor.visit(keys[i], (V) values[i])) {
+                shiftBack(i);
+                size--;
+            } else {
+                i++;
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    private void shiftBack(int hole) {
+        int i = (hole + 1) & mask;
+        while (values[i] != null) {
+            int home = slot(keys[i]);
+            // Move the entry into the hole unless its home slot lies cyclically in (hole, i]
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = keys[i];
+                values[hole] = values[i];
+                hole = i;
+            }
+            i = (i + 1) & mask;
+        }
+        values[hole] = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void resize() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new Object[oldValues.length * 2];
+        mask = keys.length - 1;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                put(oldKeys[i], (V) oldValues[i]);
+            }
+        }
+    }
+
+    private int slot(int key) {
+        // Fibonacci hashing spreads sequential ICAO addresses across the table
+        int h = key * 0x9E3779B9;
+        return (h ^ h >>> 16) & mask;
+    }
+}
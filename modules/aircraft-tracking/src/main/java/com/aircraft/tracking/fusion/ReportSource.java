@@ -0,0 +1,22 @@
+package com.aircraft.tracking.fusion;
+
+/**
+ * Origin of a surveillance report. A field is taken from the most accurate source that
+ * has reported it recently; a less accurate source only takes over once the better one
+ * has gone quiet.
+ */
+public enum ReportSource {
+    MANUAL(0),
+    SIMULATOR(1),
+    SBS(2);
+
+    private final int accuracy;
+
+    ReportSource(int accuracy) {
+        this.accuracy = accuracy;
+    }
+
+    public int getAccuracy() {
+        return accuracy;
+    }
+}
@@ -0,0 +1,41 @@
+package com.aircraft.tracking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Named polygon whose entries, exits and dwells are reported as events, e.g. a runway
+ * protection zone, a restricted area or a ground hot spot. Vertices are stored as
+ * {@code "lat,lon;lat,lon;..."} in order; the altitude band and dwell threshold are optional.
+ */
+@Entity
+@Table(name = "geofences")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Geofence {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(unique = true, nullable = false)
+    private String name;
+    
+    @Lob
+    @Column(nullable = false)
+    private String vertices;
+    
+    @Column(name = "min_altitude")
+    private Integer minAltitude; // feet, inclusive
+    
+    @Column(name = "max_altitude")
+    private Integer maxAltitude; // feet, inclusive
+    
+    @Column(name = "dwell_seconds")
+    private Integer dwellSeconds; // DWELL is reported once per visit after this long inside
+}
@@ -1,5 +1,6 @@
 package com.aircraft.tracking.model;
 
+import com.aircraft.spatial.ZOrderCell;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -9,7 +10,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tracked_aircraft")
+@Table(name = "tracked_aircraft", indexes = {
+        @Index(name = "idx_tracked_aircraft_cell_contact", columnList = "cell, last_radar_contact"),
+        @Index(name = "idx_tracked_aircraft_contact", columnList = "last_radar_contact")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -23,6 +27,9 @@ public class TrackedAircraft {
     @Column(unique = true, nullable = false)
     private String callsign;
     
+    @Column(name = "hex_id")
+    private String hexId; // ICAO 24-bit address, when known
+    
     @Column(name = "flight_number")
     private String flightNumber;
     
@@ -32,6 +39,9 @@ public class TrackedAircraft {
     @Column(nullable = false)
     private Double longitude;
     
+    @Column(name = "cell")
+    private Long cell; // Z-order cell of latitude/longitude, see ZOrderCell
+    
     @Column(nullable = false)
     private Integer altitude; // feet
     
@@ -76,6 +86,9 @@ public class TrackedAircraft {
     @Column(name = "last_radar_contact")
     private LocalDateTime lastRadarContact;
     
+    @Transient
+    private LocalDateTime measuredAt; // measurement time of the report the live state came from
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
@@ -86,13 +99,23 @@ public class TrackedAircraft {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
-        lastRadarContact = LocalDateTime.now();
+        if (lastRadarContact == null) {
+            lastRadarContact = createdAt;
+        }
+        updateCell();
     }
     
+    // lastRadarContact is the measurement time set by the tracking service, not the write time
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
-        lastRadarContact = LocalDateTime.now();
+        updateCell();
+    }
+    
+    private void updateCell() {
+        if (latitude != null && longitude != null) {
+            cell = ZOrderCell.encode(latitude, longitude);
+        }
     }
     
     public enum FlightPhase {
@@ -0,0 +1,41 @@
+package com.aircraft.tracking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Latest state of every active aircraft at one instant, encoded with
+ * {@link com.aircraft.tracking.archive.KeyframeCodec}. Keyframes are written at a fixed
+ * interval and serve as the base for time-travel queries; trajectory points between two
+ * keyframes are the deltas.
+ */
+@Entity
+@Table(name = "traffic_keyframes", indexes = @Index(name = "idx_traffic_keyframe_time", columnList = "frame_time", unique = true))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrafficKeyframe {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "frame_time", nullable = false)
+    private LocalDateTime frameTime;
+    
+    @Column(name = "aircraft_count", nullable = false)
+    private Integer aircraftCount;
+    
+    @Column(name = "size_bytes", nullable = false)
+    private Integer sizeBytes;
+    
+    @Lob
+    @Column(nullable = false)
+    private byte[] data;
+}
@@ -0,0 +1,79 @@
+package com.aircraft.tracking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One hour of an aircraft's trajectory, compacted from {@link TrajectoryPoint} rows into a
+ * {@link com.aircraft.tracking.archive.TrajectoryCodec} block. Each hour is stored at full
+ * resolution and as 10 s and 1 min rollups.
+ */
+@Entity
+@Table(name = "trajectory_archive",
+        uniqueConstraints = @UniqueConstraint(name = "uk_trajectory_archive_hour",
+                columnNames = {"callsign", "hour_start", "resolution"}),
+        indexes = @Index(name = "idx_trajectory_archive_hour", columnList = "hour_start, callsign"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrajectoryArchive {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String callsign;
+    
+    @Column(name = "hour_start", nullable = false)
+    private LocalDateTime hourStart;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Resolution resolution;
+    
+    @Column(name = "point_count", nullable = false)
+    private Integer pointCount;
+    
+    @Column(name = "size_bytes", nullable = false)
+    private Integer sizeBytes;
+    
+    @Lob
+    @Column(nullable = false)
+    private byte[] data;
+    
+    public enum Resolution {
+        RAW(0),
+        TEN_SECONDS(10_000),
+        ONE_MINUTE(60_000);
+        
+        private final long bucketMillis;
+        
+        Resolution(long bucketMillis) {
+            this.bucketMillis = bucketMillis;
+        }
+        
+        public long getBucketMillis() {
+            return bucketMillis;
+        }
+        
+        /**
+         * The coarsest resolution whose samples are no further apart than {@code spacingMillis}.
+         */
+        public static Resolution forSpacing(long spacingMillis) {
+            Resolution best = RAW;
+            for (Resolution resolution : values()) {
+                if (resolution.bucketMillis <= spacingMillis) {
+                    best = resolution;
+                }
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.aircraft.tracking.model;
+
+import com.aircraft.spatial.ZOrderCell;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Time span during which an aircraft's trajectory segments touched one coarse
+ * {@link ZOrderCell}. Visits are the entries of the space-time index: a region and time
+ * window query scans the {@code (cell, first_time)} index for the cells covering the
+ * region and only reads the trajectories of the aircraft it finds.
+ */
+@Entity
+@Table(name = "trajectory_cell_visits", indexes = {
+        @Index(name = "idx_cell_visit_cell_time", columnList = "cell, first_time"),
+        @Index(name = "idx_cell_visit_first_time", columnList = "first_time")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrajectoryCellVisit {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String callsign;
+
+    @Column(nullable = false)
+    private Long cell;
+
+    @Column(name = "first_time", nullable = false)
+    private LocalDateTime firstTime;
+
+    @Column(name = "last_time", nullable = false)
+    private LocalDateTime lastTime;
+}
@@ -9,7 +9,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "trajectory_points")
+@Table(name = "trajectory_points", indexes = {
+        @Index(name = "idx_trajectory_aircraft_time", columnList = "aircraft_id, timestamp, id"),
+        @Index(name = "idx_trajectory_time", columnList = "timestamp, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -17,7 +20,8 @@ import java.time.LocalDateTime;
 public class TrajectoryPoint {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trajectory_point_seq")
+    @SequenceGenerator(name = "trajectory_point_seq", sequenceName = "trajectory_point_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,11 @@
+package com.aircraft.tracking.repository;
+
+import com.aircraft.tracking.model.Geofence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface GeofenceRepository extends JpaRepository<Geofence, Long> {
+    
+    boolean existsByName(String name);
+}
@@ -1,20 +1,29 @@
 package com.aircraft.tracking.repository;
 
+import com.aircraft.spatial.ZOrderCell;
+import com.aircraft.spatial.ZOrderCellRepository;
+import com.aircraft.tracking.dto.TrackedAircraftView;
 import com.aircraft.tracking.model.TrackedAircraft;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TrackedAircraftRepository extends JpaRepository<TrackedAircraft, Long> {
+public interface TrackedAircraftRepository extends JpaRepository<TrackedAircraft, Long>, ZOrderCellRepository {
     
     Optional<TrackedAircraft> findByCallsign(String callsign);
     
+    List<TrackedAircraft> findByCallsignIn(Collection<String> callsigns);
+    
     List<TrackedAircraft> findByIsActiveTrue();
     
     List<TrackedAircraft> findByAssignedRunway(String runwayId);
@@ -28,6 +37,35 @@ public interface TrackedAircraftRepository extends JpaRepository<TrackedAircraft
            "a.lastRadarContact > :threshold")
     List<TrackedAircraft> findActiveAircraftSince(@Param("threshold") LocalDateTime threshold);
     
+    String VIEW_PROJECTION = "SELECT new com.aircraft.tracking.dto.TrackedAircraftView(" +
+            "a.id, a.callsign, a.hexId, a.flightNumber, a.latitude, a.longitude, a.altitude, a.speed, " +
+            "a.heading, a.verticalSpeed, a.squawk, a.aircraftType, a.registration, a.origin, a.destination, " +
+            "a.flightPhase, a.assignedRunway, a.approachSequence, a.isEmergency, a.isActive, " +
+            "a.lastRadarContact, a.updatedAt) " +
+            "FROM TrackedAircraft a ";
+    
+    @Query(VIEW_PROJECTION +
+           "WHERE a.isActive = true AND " +
+           "a.lastRadarContact > :threshold")
+    List<TrackedAircraftView> findActiveViewsSince(@Param("threshold") LocalDateTime threshold);
+    
+    @Query(VIEW_PROJECTION + "WHERE a.callsign = :callsign")
+    Optional<TrackedAircraftView> findViewByCallsign(@Param("callsign") String callsign);
+    
+    @Query("SELECT a.id FROM TrackedAircraft a WHERE a.callsign = :callsign")
+    Optional<Long> findIdByCallsign(@Param("callsign") String callsign);
+    
+    @Query("SELECT a.callsign, a.id FROM TrackedAircraft a WHERE a.callsign IN :callsigns")
+    List<Object[]> findIdsByCallsignIn(@Param("callsigns") Collection<String> callsigns);
+    
+    @Query("SELECT a.id, a.latitude, a.longitude FROM TrackedAircraft a WHERE a.cell IS NULL AND " +
+           "a.latitude IS NOT NULL AND a.longitude IS NOT NULL ORDER BY a.id")
+    List<Object[]> findCoordinatesWithoutCell(Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE TrackedAircraft a SET a.cell = :cell WHERE a.id = :id AND a.cell IS NULL")
+    int setCellIfMissing(@Param("id") Long id, @Param("cell") Long cell);
+    
     @Query("SELECT a FROM TrackedAircraft a WHERE " +
            "a.assignedRunway = :runwayId AND " +
            "a.flightPhase IN ('APPROACH', 'DESCENT') AND " +
@@ -35,16 +73,32 @@ public interface TrackedAircraftRepository extends JpaRepository<TrackedAircraft
            "ORDER BY a.approachSequence ASC")
     List<TrackedAircraft> findAircraftApproachingRunway(@Param("runwayId") String runwayId);
     
+    /**
+     * Area lookup driven by the {@code (cell, last_radar_contact)} index: the box is turned
+     * into a few Z-order cell ranges, each scanned with an exact coordinate filter.
+     */
+    default List<TrackedAircraft> findAircraftInArea(Double minLat, Double maxLat, Double minLng, Double maxLng,
+                                                     LocalDateTime threshold) {
+        List<TrackedAircraft> result = new ArrayList<>();
+        for (long[] range : ZOrderCell.coveringRanges(minLat, maxLat, minLng, maxLng, ZOrderCell.DEFAULT_MAX_RANGES)) {
+            result.addAll(findAircraftInCellRange(range[0], range[1], minLat, maxLat, minLng, maxLng, threshold));
+        }
+        return result;
+    }
+    
     @Query("SELECT a FROM TrackedAircraft a WHERE " +
+           "a.cell BETWEEN :minCell AND :maxCell AND " +
            "a.latitude BETWEEN :minLat AND :maxLat AND " +
            "a.longitude BETWEEN :minLng AND :maxLng AND " +
            "a.isActive = true AND " +
            "a.lastRadarContact > :threshold")
-    List<TrackedAircraft> findAircraftInArea(@Param("minLat") Double minLat,
-                                            @Param("maxLat") Double maxLat,
-                                            @Param("minLng") Double minLng,
-                                            @Param("maxLng") Double maxLng,
-                                            @Param("threshold") LocalDateTime threshold);
+    List<TrackedAircraft> findAircraftInCellRange(@Param("minCell") Long minCell,
+                                                  @Param("maxCell") Long maxCell,
+                                                  @Param("minLat") Double minLat,
+                                                  @Param("maxLat") Double maxLat,
+                                                  @Param("minLng") Double minLng,
+                                                  @Param("maxLng") Double maxLng,
+                                                  @Param("threshold") LocalDateTime threshold);
     
     void deleteByLastRadarContactBeforeAndIsActiveFalse(LocalDateTime threshold);
 }
\ No newline at end of file
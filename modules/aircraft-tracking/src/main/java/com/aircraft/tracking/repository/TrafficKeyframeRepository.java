@@ -0,0 +1,23 @@
+package com.aircraft.tracking.repository;
+
+import com.aircraft.tracking.model.TrafficKeyframe;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface TrafficKeyframeRepository extends JpaRepository<TrafficKeyframe, Long> {
+    
+    Optional<TrafficKeyframe> findFirstByFrameTimeLessThanEqualOrderByFrameTimeDesc(LocalDateTime at);
+    
+    Optional<TrafficKeyframe> findFirstByFrameTimeGreaterThanOrderByFrameTimeAsc(LocalDateTime at);
+    
+    @Modifying
+    @Query("DELETE FROM TrafficKeyframe k WHERE k.frameTime < :cutoff")
+    int deleteByFrameTimeBefore(@Param("cutoff") LocalDateTime cutoff);
+}
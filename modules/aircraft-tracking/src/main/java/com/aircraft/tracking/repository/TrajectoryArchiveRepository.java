@@ -0,0 +1,44 @@
+package com.aircraft.tracking.repository;
+
+import com.aircraft.tracking.model.TrajectoryArchive;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+@Repository
+public interface TrajectoryArchiveRepository extends JpaRepository<TrajectoryArchive, Long> {
+    
+    List<TrajectoryArchive> findByCallsignAndHourStart(String callsign, LocalDateTime hourStart);
+    
+    List<TrajectoryArchive> findByCallsignAndResolutionAndHourStartBetweenOrderByHourStartAsc(
+            String callsign, TrajectoryArchive.Resolution resolution, LocalDateTime from, LocalDateTime to);
+    
+    Optional<TrajectoryArchive> findFirstByCallsignAndResolutionAndHourStartBetweenOrderByHourStartAsc(
+            String callsign, TrajectoryArchive.Resolution resolution, LocalDateTime from, LocalDateTime to);
+    
+    Optional<TrajectoryArchive> findFirstByCallsignAndResolutionOrderByHourStartAsc(
+            String callsign, TrajectoryArchive.Resolution resolution);
+    
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "16"))
+    @Query("SELECT a FROM TrajectoryArchive a WHERE " +
+           "a.resolution = :resolution AND " +
+           "a.hourStart BETWEEN :from AND :to " +
+           "ORDER BY a.hourStart ASC, a.callsign ASC")
+    Stream<TrajectoryArchive> streamByResolutionAndHourRange(@Param("resolution") TrajectoryArchive.Resolution resolution,
+                                                             @Param("from") LocalDateTime from,
+                                                             @Param("to") LocalDateTime to);
+    
+    @Query("SELECT a.resolution, COUNT(a), COALESCE(SUM(a.pointCount), 0), COALESCE(SUM(a.sizeBytes), 0) " +
+           "FROM TrajectoryArchive a GROUP BY a.resolution")
+    List<Object[]> summarizeByResolution();
+}
@@ -0,0 +1,44 @@
+package com.aircraft.tracking.repository;
+
+import com.aircraft.tracking.model.TrajectoryCellVisit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+public interface TrajectoryCellVisitRepository extends JpaRepository<TrajectoryCellVisit, Long> {
+
+    /**
+     * Visits to any of the cell ranges overlapping {@code [from, to]}. Visits last at most
+     * {@code from - earliestStart}, so each range is one bounded scan of the
+     * {@code (cell, first_time)} index.
+     */
+    default List<TrajectoryCellVisit> findOverlapping(List<long[]> cellRanges, LocalDateTime earliestStart,
+                                                      LocalDateTime from, LocalDateTime to) {
+        List<TrajectoryCellVisit> result = new ArrayList<>();
+        for (long[] range : cellRanges) {
+            result.addAll(findOverlappingInCellRange(range[0], range[1], earliestStart, from, to));
+        }
+        return result;
+    }
+
+    @Query("SELECT v FROM TrajectoryCellVisit v WHERE " +
+           "v.cell BETWEEN :minCell AND :maxCell AND " +
+           "v.firstTime BETWEEN :earliestStart AND :to AND " +
+           "v.lastTime >= :from")
+    List<TrajectoryCellVisit> findOverlappingInCellRange(@Param("minCell") long minCell,
+                                                         @Param("maxCell") long maxCell,
+                                                         @Param("earliestStart") LocalDateTime earliestStart,
+                                                         @Param("from") LocalDateTime from,
+                                                         @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM TrajectoryCellVisit v WHERE v.firstTime < :cutoff")
+    int deleteByFirstTimeBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,14 +1,24 @@
 package com.aircraft.tracking.repository;
 
+import com.aircraft.tracking.dto.TrajectoryPointRowDto;
+import com.aircraft.tracking.dto.TrajectoryPointView;
 import com.aircraft.tracking.model.TrackedAircraft;
 import com.aircraft.tracking.model.TrajectoryPoint;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface TrajectoryPointRepository extends JpaRepository<TrajectoryPoint, Long> {
@@ -38,6 +48,94 @@ public interface TrajectoryPointRepository extends JpaRepository<TrajectoryPoint
            "LIMIT 1")
     TrajectoryPoint findLatestPointByCallsign(@Param("callsign") String callsign);
     
+    String ROW_PROJECTION = "SELECT new com.aircraft.tracking.dto.TrajectoryPointRowDto(" +
+            "tp.id, a.callsign, tp.latitude, tp.longitude, tp.altitude, tp.speed, tp.heading, " +
+            "tp.verticalSpeed, tp.timestamp, tp.pointType, tp.confidenceScore) " +
+            "FROM TrajectoryPoint tp JOIN tp.aircraft a ";
+    
+    /**
+     * Keyset page: points of the range strictly after the cursor {@code (afterTime, afterId)}
+     * in {@code (timestamp, id)} order.
+     */
+    @Query(ROW_PROJECTION +
+           "WHERE a.callsign = :callsign AND " +
+           "tp.timestamp BETWEEN :startTime AND :endTime AND " +
+           "(tp.timestamp > :afterTime OR (tp.timestamp = :afterTime AND tp.id > :afterId)) " +
+           "ORDER BY tp.timestamp ASC, tp.id ASC")
+    List<TrajectoryPointRowDto> findPageByCallsign(@Param("callsign") String callsign,
+                                                   @Param("startTime") LocalDateTime startTime,
+                                                   @Param("endTime") LocalDateTime endTime,
+                                                   @Param("afterTime") LocalDateTime afterTime,
+                                                   @Param("afterId") long afterId,
+                                                   Limit limit);
+    
+    /**
+     * Streams the range through a forward-only cursor; must be consumed inside a
+     * transaction and closed.
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query(ROW_PROJECTION +
+           "WHERE a.callsign = :callsign AND " +
+           "tp.timestamp BETWEEN :startTime AND :endTime " +
+           "ORDER BY tp.timestamp ASC, tp.id ASC")
+    Stream<TrajectoryPointRowDto> streamByCallsign(@Param("callsign") String callsign,
+                                                   @Param("startTime") LocalDateTime startTime,
+                                                   @Param("endTime") LocalDateTime endTime);
+    
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query(ROW_PROJECTION +
+           "WHERE tp.timestamp BETWEEN :startTime AND :endTime " +
+           "ORDER BY tp.timestamp ASC, tp.id ASC")
+    Stream<TrajectoryPointRowDto> streamAll(@Param("startTime") LocalDateTime startTime,
+                                            @Param("endTime") LocalDateTime endTime);
+    
+    /**
+     * Reported points of all aircraft in {@code (startTime, endTime]}, read through the
+     * time index; the deltas between two traffic keyframes.
+     */
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    @Query(ROW_PROJECTION +
+           "WHERE tp.timestamp > :startTime AND tp.timestamp <= :endTime AND " +
+           "tp.pointType = com.aircraft.tracking.model.TrajectoryPoint$PointType.ACTUAL " +
+           "ORDER BY tp.timestamp ASC, tp.id ASC")
+    List<TrajectoryPointRowDto> findActualRowsBetween(@Param("startTime") LocalDateTime startTime,
+                                                      @Param("endTime") LocalDateTime endTime);
+    
+    /**
+     * Points of one aircraft in a time range, filtered on the foreign key so the aircraft
+     * table is never joined.
+     */
+    @Query("SELECT new com.aircraft.tracking.dto.TrajectoryPointView(" +
+           "tp.latitude, tp.longitude, tp.altitude, tp.speed, tp.heading, tp.verticalSpeed, " +
+           "tp.timestamp, tp.pointType, tp.confidenceScore) " +
+           "FROM TrajectoryPoint tp WHERE " +
+           "tp.aircraft.id = :aircraftId AND " +
+           "tp.timestamp BETWEEN :startTime AND :endTime " +
+           "ORDER BY tp.timestamp ASC, tp.id ASC")
+    List<TrajectoryPointView> findViewsByAircraftIdAndTimeRange(@Param("aircraftId") Long aircraftId,
+                                                                @Param("startTime") LocalDateTime startTime,
+                                                                @Param("endTime") LocalDateTime endTime);
+    
+    @Query("SELECT DISTINCT a.callsign FROM TrajectoryPoint tp JOIN tp.aircraft a WHERE " +
+           "tp.timestamp < :cutoff AND tp.pointType = com.aircraft.tracking.model.TrajectoryPoint$PointType.ACTUAL")
+    List<String> findCallsignsWithActualPointsBefore(@Param("cutoff") LocalDateTime cutoff);
+    
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query(ROW_PROJECTION +
+           "WHERE a.callsign = :callsign AND " +
+           "tp.timestamp < :cutoff AND tp.pointType = com.aircraft.tracking.model.TrajectoryPoint$PointType.ACTUAL " +
+           "ORDER BY tp.timestamp ASC, tp.id ASC")
+    Stream<TrajectoryPointRowDto> streamActualBefore(@Param("callsign") String callsign,
+                                                     @Param("cutoff") LocalDateTime cutoff);
+    
+    @Modifying
+    @Query("DELETE FROM TrajectoryPoint tp WHERE tp.id IN :ids AND " +
+           "tp.aircraft.id IN (SELECT a.id FROM TrackedAircraft a WHERE a.callsign = :callsign) AND " +
+           "tp.timestamp < :cutoff AND tp.pointType = com.aircraft.tracking.model.TrajectoryPoint$PointType.ACTUAL")
+    int deleteActualBeforeByIds(@Param("ids") List<Long> ids,
+                                @Param("callsign") String callsign,
+                                @Param("cutoff") LocalDateTime cutoff);
+    
     void deleteByAircraftAndTimestampBefore(TrackedAircraft aircraft, LocalDateTime threshold);
     
     void deleteByTimestampBefore(LocalDateTime threshold);
@@ -0,0 +1,56 @@
+package com.aircraft.tracking.service;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Kinematic envelope per ICAO type designator, coarse enough to catch corrupt reports
+ * rather than to model performance. Unknown or missing types get the jet envelope.
+ */
+public final class AircraftPerformance {
+
+    /**
+     * Upper bounds a genuine track of the category stays within.
+     */
+    public record Limits(int maxSpeedKts, int maxClimbFpm, double maxTurnRateDegPerSec) {
+    }
+
+    public static final Limits HEAVY_JET = new Limits(620, 6000, 4.0);
+    public static final Limits JET = new Limits(600, 8000, 6.0);
+    public static final Limits TURBOPROP = new Limits(380, 4000, 8.0);
+    public static final Limits PISTON = new Limits(220, 2000, 12.0);
+    public static final Limits HELICOPTER = new Limits(200, 4000, 20.0);
+
+    private static final Map<String, Limits> BY_TYPE = new HashMap<>();
+
+    static {
+        register(HEAVY_JET, "A332", "A333", "A339", "A343", "A346", "A359", "A35K", "A388",
+                "B744", "B748", "B762", "B763", "B764", "B772", "B77L", "B77W", "B778", "B779",
+                "B788", "B789", "B78X", "MD11");
+        register(JET, "A19N", "A20N", "A21N", "A318", "A319", "A320", "A321", "B736", "B737",
+                "B738", "B739", "B37M", "B38M", "B39M", "B752", "B753", "BCS1", "BCS3", "CRJ7",
+                "CRJ9", "E170", "E175", "E190", "E195", "E290", "E295");
+        register(TURBOPROP, "AT43", "AT45", "AT72", "AT75", "AT76", "DH8A", "DH8B", "DH8C",
+                "DH8D", "B350", "C208", "PC12", "SF34");
+        register(PISTON, "C150", "C152", "C172", "C182", "DA40", "DA42", "P28A", "PA34", "SR20", "SR22");
+        register(HELICOPTER, "A109", "A139", "AS32", "AS50", "AS65", "B06", "B412", "EC30",
+                "EC35", "EC45", "EC55", "H60", "S76", "S92");
+    }
+
+    private AircraftPerformance() {
+    }
+
+    public static Limits forType(String aircraftType) {
+        if (aircraftType == null) {
+            return JET;
+        }
+        return BY_TYPE.getOrDefault(aircraftType.trim().toUpperCase(Locale.ROOT), JET);
+    }
+
+    private static void register(Limits limits, String... types) {
+        for (String type : types) {
+            BY_TYPE.put(type, limits);
+        }
+    }
+}
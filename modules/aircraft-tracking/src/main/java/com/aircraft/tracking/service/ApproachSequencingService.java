@@ -0,0 +1,178 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.tracking.model.Runway;
+import com.aircraft.tracking.repository.RunwayRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Projects every airborne track onto the extended centerline of each active runway and
+ * orders the aircraft on final per runway by time to threshold.
+ * <p>
+ * A track is on approach to a runway when it is within {@code tracking.runway.approach-distance-km}
+ * before the threshold, inside a capture wedge around the centerline, heading roughly
+ * along the runway course and not far above a 3° glide path. An aircraft that qualifies
+ * for several runways keeps the one it was sequenced to last cycle, otherwise gets the one
+ * it reaches first. Runway geometry is turned into {@link RunwayFrame}s when runways are
+ * reloaded, so a cycle costs O(aircraft × runways) plus a sort per runway.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ApproachSequencingService {
+
+    private static final double KNOTS_TO_MPS = 0.514444;
+    private static final double FEET_TO_M = 0.3048;
+    private static final double GLIDE_SLOPE_TAN = Math.tan(Math.toRadians(3.0));
+
+    private final RunwayRepository runwayRepository;
+
+    @Value("${tracking.runway.approach-distance-km:20}")
+    private double approachDistanceKm;
+
+    @Value("${tracking.runway.capture-half-angle-deg:10}")
+    private double captureHalfAngleDeg;
+
+    @Value("${tracking.runway.capture-min-width-m:300}")
+    private double captureMinWidthMeters;
+
+    @Value("${tracking.runway.max-heading-offset-deg:30}")
+    private double maxHeadingOffsetDeg;
+
+    @Value("${tracking.runway.max-height-above-glidepath-ft:3000}")
+    private double maxHeightAboveGlidepathFt;
+
+    @Value("${tracking.runway.min-speed-kts:60}")
+    private int minSpeedKnots;
+
+    private volatile List<RunwayFrame> frames = List.of();
+    private volatile ApproachSequence current = ApproachSequence.EMPTY;
+
+    /**
+     * Position and velocity of one track, read under its lock by the caller.
+     */
+    public record TrackState(String callsign, double latitude, double longitude,
+                             int altitude, int speed, int heading) {
+    }
+
+    public record Entry(String callsign, String runwayId, int sequence,
+                        double distanceToThresholdMeters, double etaSeconds) {
+    }
+
+    /**
+     * Immutable result of one sequencing cycle.
+     */
+    public record ApproachSequence(Map<String, List<Entry>> byRunway, Map<String, Entry> byCallsign) {
+
+        public static final ApproachSequence EMPTY = new ApproachSequence(Map.of(), Map.of());
+
+        public List<Entry> forRunway(String runwayId) {
+            return byRunway.getOrDefault(runwayId, List.of());
+        }
+    }
+
+    public ApproachSequence getCurrent() {
+        return current;
+    }
+
+    /**
+     * Frames of the runways loaded by the last refresh.
+     */
+    List<RunwayFrame> getRunwayFrames() {
+        return frames;
+    }
+
+    @Scheduled(fixedDelayString = "${tracking.runway.refresh-ms:60000}")
+    public void refreshRunways() {
+        List<RunwayFrame> loaded = new ArrayList<>();
+        for (Runway runway : runwayRepository.findByIsActiveTrue()) {
+            if (runway.getStatus() == Runway.RunwayStatus.OPERATIONAL) {
+                loaded.add(RunwayFrame.of(runway));
+            }
+        }
+        if (loaded.size() != frames.size()) {
+            log.info("Sequencing approaches to {} runways", loaded.size());
+        }
+        frames = List.copyOf(loaded);
+    }
+
+    /**
+     * Runs one cycle over the given tracks and publishes the result.
+     */
+    public ApproachSequence sequence(List<TrackState> tracks) {
+        List<RunwayFrame> runways = frames;
+        ApproachSequence previous = current;
+        double maxDistance = approachDistanceKm * 1000;
+        double captureTan = Math.tan(Math.toRadians(captureHalfAngleDeg));
+
+        Map<String, List<Entry>> candidates = new HashMap<>();
+        for (TrackState track : tracks) {
+            if (track.speed() < minSpeedKnots) {
+                continue;
+            }
+            Entry last = previous.byCallsign().get(track.callsign());
+            RunwayFrame best = null;
+            double bestDistance = 0;
+            double bestEta = Double.POSITIVE_INFINITY;
+            for (RunwayFrame runway : runways) {
+                double distance = runway.distanceToThreshold(track.latitude(), track.longitude());
+                if (distance <= 0 || distance > maxDistance) {
+                    continue;
+                }
+                if (runway.crossTrack(track.latitude(), track.longitude()) > captureMinWidthMeters + distance * captureTan) {
+                    continue;
+                }
+                double offset = Math.abs(((track.heading() - runway.getCourse()) % 360 + 540) % 360 - 180);
+                if (offset > maxHeadingOffsetDeg) {
+                    continue;
+                }
+                if (track.altitude() * FEET_TO_M > distance * GLIDE_SLOPE_TAN + maxHeightAboveGlidepathFt * FEET_TO_M) {
+                    continue;
+                }
+                double eta = distance / (track.speed() * KNOTS_TO_MPS * Math.cos(Math.toRadians(offset)));
+                boolean sticky = last != null && last.runwayId().equals(runway.getRunwayId());
+                if (sticky || eta < bestEta) {
+                    best = runway;
+                    bestDistance = distance;
+                    bestEta = eta;
+                    if (sticky) {
+                        break;
+                    }
+                }
+            }
+            if (best != null) {
+                candidates.computeIfAbsent(best.getRunwayId(), r -> new ArrayList<>())
+                        .add(new Entry(track.callsign(), best.getRunwayId(), 0, bestDistance, bestEta));
+            }
+        }
+
+        Map<String, List<Entry>> byRunway = new LinkedHashMap<>();
+        Map<String, Entry> byCallsign = new HashMap<>();
+        for (Map.Entry<String, List<Entry>> runway : candidates.entrySet()) {
+            List<Entry> entries = runway.getValue();
+            entries.sort(Comparator.comparingDouble(Entry::etaSeconds));
+            List<Entry> sequenced = new ArrayList<>(entries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                Entry entry = entries.get(i);
+                Entry numbered = new Entry(entry.callsign(), entry.runwayId(), i + 1,
+                        entry.distanceToThresholdMeters(), entry.etaSeconds());
+                sequenced.add(numbered);
+                byCallsign.put(numbered.callsign(), numbered);
+            }
+            byRunway.put(runway.getKey(), List.copyOf(sequenced));
+        }
+        ApproachSequence next = new ApproachSequence(byRunway, byCallsign);
+        current = next;
+        return next;
+    }
+}
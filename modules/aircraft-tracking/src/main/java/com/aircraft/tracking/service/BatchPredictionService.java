@@ -0,0 +1,176 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.tracking.dto.TrajectoryDto;
+import com.aircraft.tracking.model.TrajectoryPoint;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * Once per cycle, predicts every active track at the same future time steps and publishes
+ * the result as an immutable {@link PredictionTable}. Consumers such as conflict detection
+ * read the latest table without locking and look aircraft up in O(1).
+ * <p>
+ * Tracks are split into contiguous chunks processed in parallel; each chunk writes its own
+ * disjoint slice of the output arrays, so the workers share nothing but the inputs.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BatchPredictionService {
+
+    private static final int MIN_CHUNK = 64;
+
+    private final TrackHistoryService trackHistoryService;
+    private final PredictionService predictionService;
+
+    @Value("${tracking.prediction.enabled}")
+    private boolean predictionEnabled;
+
+    @Value("${tracking.prediction.batch.step-seconds:30}")
+    private int stepSeconds;
+
+    @Value("${tracking.prediction.batch.steps:20}")
+    private int steps;
+
+    @Value("${tracking.prediction.batch.active-window-seconds:300}")
+    private int activeWindowSeconds;
+
+    private volatile PredictionTable table = PredictionTable.EMPTY;
+    private volatile long lastCycleMicros;
+
+    public PredictionTable getTable() {
+        return table;
+    }
+
+    @Scheduled(fixedDelayString = "${tracking.prediction.batch.interval-ms:1000}")
+    public void runCycle() {
+        if (!predictionEnabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        table = predictAll(System.currentTimeMillis());
+        lastCycleMicros = (System.nanoTime() - start) / 1000;
+    }
+
+    PredictionTable predictAll(long nowMillis) {
+        List<Map.Entry<String, TrackFilter>> tracks =
+                trackHistoryService.activeFilters(nowMillis - activeWindowSeconds * 1000L);
+        int n = tracks.size();
+        int stepCount = steps;
+        long stepMillis = stepSeconds * 1000L;
+
+        List<String> callsigns = new ArrayList<>(n);
+        TrackFilter[] filters = new TrackFilter[n];
+        for (int i = 0; i < n; i++) {
+            callsigns.add(tracks.get(i).getKey());
+            filters[i] = tracks.get(i).getValue();
+        }
+
+        double[] latitude = new double[n * stepCount];
+        double[] longitude = new double[n * stepCount];
+        float[] altitude = new float[n * stepCount];
+        float[] heading = new float[n * stepCount];
+        float[] sigma = new float[n * stepCount];
+
+        boolean[] reset = new boolean[n];
+
+        int workers = Runtime.getRuntime().availableProcessors();
+        int chunk = Math.max(MIN_CHUNK, (n + workers - 1) / Math.max(1, workers));
+        int chunks = (n + chunk - 1) / chunk;
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            double[] state = new double[7];
+            int to = Math.min(n, (c + 1) * chunk);
+            for (int a = c * chunk; a < to; a++) {
+                int row = a * stepCount;
+                for (int s = 0; s < stepCount; s++) {
+                    if (!filters[a].predict(nowMillis + (s + 1) * stepMillis, state)) {
+                        // Reset since it was listed; left out below rather than given stale values
+                        reset[a] = true;
+                        break;
+                    }
+                    latitude[row + s] = state[0];
+                    longitude[row + s] = state[1];
+                    altitude[row + s] = (float) state[2];
+                    heading[row + s] = (float) state[4];
+                    sigma[row + s] = (float) state[6];
+                }
+            }
+        });
+
+        int kept = 0;
+        for (int a = 0; a < n; a++) {
+            if (reset[a]) {
+                continue;
+            }
+            if (kept < a) {
+                callsigns.set(kept, callsigns.get(a));
+                System.arraycopy(latitude, a * stepCount, latitude, kept * stepCount, stepCount);
+                System.arraycopy(longitude, a * stepCount, longitude, kept * stepCount, stepCount);
+                System.arraycopy(altitude, a * stepCount, altitude, kept * stepCount, stepCount);
+                System.arraycopy(heading, a * stepCount, heading, kept * stepCount, stepCount);
+                System.arraycopy(sigma, a * stepCount, sigma, kept * stepCount, stepCount);
+            }
+            kept++;
+        }
+        if (kept < n) {
+            int length = kept * stepCount;
+            return new PredictionTable(nowMillis, stepMillis, stepCount, new ArrayList<>(callsigns.subList(0, kept)),
+                    Arrays.copyOf(latitude, length), Arrays.copyOf(longitude, length), Arrays.copyOf(altitude, length),
+                    Arrays.copyOf(heading, length), Arrays.copyOf(sigma, length));
+        }
+        return new PredictionTable(nowMillis, stepMillis, stepCount, callsigns,
+                latitude, longitude, altitude, heading, sigma);
+    }
+
+    /**
+     * The aircraft's row of the latest table as a predicted trajectory.
+     */
+    public Optional<TrajectoryDto> getPredictedTrajectory(String callsign) {
+        PredictionTable current = table;
+        int a = current.indexOf(callsign);
+        if (a < 0) {
+            return Optional.empty();
+        }
+        List<TrajectoryDto.TrajectoryPointDto> points = new ArrayList<>(current.getSteps());
+        for (int s = 0; s < current.getSteps(); s++) {
+            points.add(TrajectoryDto.TrajectoryPointDto.builder()
+                    .latitude(current.latitude(a, s))
+                    .longitude(current.longitude(a, s))
+                    .altitude(Math.round(current.altitude(a, s)))
+                    .heading(Math.round(current.heading(a, s)) % 360)
+                    .timestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(current.timeMillis(s)), ZoneId.systemDefault()))
+                    .pointType(TrajectoryPoint.PointType.PREDICTED)
+                    .confidenceScore(predictionService.confidenceFromSigma(current.sigma(a, s)))
+                    .build());
+        }
+        return Optional.of(TrajectoryDto.builder()
+                .callsign(callsign)
+                .points(points)
+                .build());
+    }
+
+    public Map<String, Object> getStats() {
+        PredictionTable current = table;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("aircraft", current.size());
+        stats.put("steps", current.getSteps());
+        stats.put("stepSeconds", current.getStepMillis() / 1000);
+        stats.put("baseMillis", current.getBaseMillis());
+        stats.put("lastCycleMicros", lastCycleMicros);
+        return stats;
+    }
+}
@@ -0,0 +1,214 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.tracking.model.TrackedAircraft.FlightPhase;
+
+import java.util.List;
+
+/**
+ * Incremental flight-phase state machine for one aircraft. Each sample is turned into a
+ * candidate phase from ground speed, altitude, vertical rate, turn rate and the position
+ * relative to the runways; the reported phase only changes once the same
+ * candidate has been seen {@code confirmSamples} times in a row. Climb and descent use a
+ * wider band to stay in a phase than to enter it, so a track hovering around a threshold
+ * does not flap. Ambiguous ground movement (taxi, runway roll) is resolved by the phase
+ * the aircraft came from.
+ * <p>
+ * An update is a fixed amount of arithmetic plus one pass over the runway frames.
+ */
+public final class FlightPhaseClassifier {
+
+    /**
+     * Classification thresholds, shared by all aircraft.
+     */
+    public record Thresholds(int groundAltitudeFt, int parkedMaxSpeedKts, long parkedAfterMillis,
+                             int runwayRollMinSpeedKts, double runwayMarginMeters,
+                             int climbRateFpm, int initialClimbFt, int cruiseMinAltitudeFt,
+                             int approachMaxAltitudeFt, double approachDistanceMeters,
+                             double landingDistanceMeters, double captureHalfAngleDeg,
+                             double maxHeadingOffsetDeg, double maxApproachTurnRateDegPerSec,
+                             int confirmSamples) {
+    }
+
+    private final Thresholds thresholds;
+    private final double captureTan;
+
+    private FlightPhase phase;
+    private FlightPhase pending;
+    private int pendingCount;
+
+    private long lastTimeMillis;
+    private int lastHeading;
+    private long stoppedSinceMillis = -1;
+    private int samples;
+
+    public FlightPhaseClassifier(Thresholds thresholds) {
+        this.thresholds = thresholds;
+        this.captureTan = Math.tan(Math.toRadians(thresholds.captureHalfAngleDeg()));
+    }
+
+    /**
+     * Feeds one sample and returns the phase after it. The vertical rate is supplied by the
+     * caller, which derives it from the track history when the report carries none.
+     */
+    public synchronized FlightPhase update(long timeMillis, double latitude, double longitude, int altitude,
+                                           int speed, int heading, double verticalRate,
+                                           List<RunwayFrame> runways) {
+        double dt = samples > 0 ? (timeMillis - lastTimeMillis) / 1000.0 : 0;
+        double turnRate = dt > 0 ? Math.abs(headingDifference(heading, lastHeading)) / dt : 0;
+
+        if (speed <= thresholds.parkedMaxSpeedKts()) {
+            if (stoppedSinceMillis < 0) {
+                stoppedSinceMillis = timeMillis;
+            }
+        } else {
+            stoppedSinceMillis = -1;
+        }
+
+        FlightPhase candidate = candidate(timeMillis, latitude, longitude, altitude, speed, heading, verticalRate,
+                turnRate, runways);
+        if (phase == null) {
+            phase = candidate;
+        } else if (candidate == phase) {
+            pending = null;
+            pendingCount = 0;
+        } else {
+            if (candidate == pending) {
+                pendingCount++;
+            } else {
+                pending = candidate;
+                pendingCount = 1;
+            }
+            if (pendingCount >= thresholds.confirmSamples()) {
+                phase = candidate;
+                pending = null;
+                pendingCount = 0;
+            }
+        }
+
+        lastTimeMillis = timeMillis;
+        lastHeading = heading;
+        samples++;
+        return phase;
+    }
+
+    /**
+     * Forces the phase, e.g. when a controller sets it explicitly. Later samples continue
+     * from it with the usual hysteresis.
+     */
+    public synchronized void override(FlightPhase forced) {
+        phase = forced;
+        pending = null;
+        pendingCount = 0;
+    }
+
+    public synchronized FlightPhase getPhase() {
+        return phase;
+    }
+
+    private FlightPhase candidate(long timeMillis, double latitude, double longitude, int altitude,
+                                  int speed, int heading, double verticalRate, double turnRate,
+                                  List<RunwayFrame> runways) {
+        if (altitude <= thresholds.groundAltitudeFt()) {
+            return groundCandidate(timeMillis, latitude, longitude, speed, heading, runways);
+        }
+
+        double finalDistance = finalDistance(latitude, longitude, heading, runways);
+        if (finalDistance >= 0 && altitude <= thresholds.approachMaxAltitudeFt()
+                && verticalRate < thresholds.climbRateFpm() / 2.0
+                && turnRate <= thresholds.maxApproachTurnRateDegPerSec()) {
+            return finalDistance <= thresholds.landingDistanceMeters() ? FlightPhase.LANDING : FlightPhase.APPROACH;
+        }
+        if (phase == FlightPhase.TAKEOFF && altitude < thresholds.initialClimbFt() && verticalRate >= 0) {
+            return FlightPhase.TAKEOFF;
+        }
+        double climbBand = phase == FlightPhase.CLIMB ? thresholds.climbRateFpm() / 2.0 : thresholds.climbRateFpm();
+        if (verticalRate >= climbBand) {
+            return FlightPhase.CLIMB;
+        }
+        double descentBand = phase == FlightPhase.DESCENT ? thresholds.climbRateFpm() / 2.0 : thresholds.climbRateFpm();
+        if (verticalRate <= -descentBand) {
+            return FlightPhase.DESCENT;
+        }
+        if (altitude >= thresholds.cruiseMinAltitudeFt()) {
+            return FlightPhase.CRUISE;
+        }
+        // Level below cruise altitude: an intermediate level-off keeps the current airborne phase
+        if (phase == FlightPhase.CLIMB || phase == FlightPhase.CRUISE || phase == FlightPhase.DESCENT
+                || phase == FlightPhase.APPROACH) {
+            return phase;
+        }
+        return phase == FlightPhase.TAKEOFF || isDeparture(phase) ? FlightPhase.CLIMB : FlightPhase.DESCENT;
+    }
+
+    private FlightPhase groundCandidate(long timeMillis, double latitude, double longitude, int speed, int heading,
+                                       List<RunwayFrame> runways) {
+        if (speed >= thresholds.runwayRollMinSpeedKts() && onRunway(latitude, longitude, heading, runways)) {
+            return isInbound(phase) ? FlightPhase.LANDING : FlightPhase.TAKEOFF;
+        }
+        if (stoppedSinceMillis >= 0 && timeMillis - stoppedSinceMillis >= thresholds.parkedAfterMillis()) {
+            return FlightPhase.PARKED;
+        }
+        if (isInbound(phase)) {
+            return FlightPhase.TAXI_IN;
+        }
+        if (phase == null) {
+            return speed <= thresholds.parkedMaxSpeedKts() ? FlightPhase.PARKED : FlightPhase.TAXI_OUT;
+        }
+        return FlightPhase.TAXI_OUT;
+    }
+
+    /**
+     * Distance to the threshold of the closest runway whose final the aircraft is
+     * established on, or -1 when it is on none.
+     */
+    private double finalDistance(double latitude, double longitude, int heading, List<RunwayFrame> runways) {
+        double best = -1;
+        for (RunwayFrame runway : runways) {
+            double distance = runway.distanceToThreshold(latitude, longitude);
+            if (distance < 0 || distance > thresholds.approachDistanceMeters()) {
+                continue;
+            }
+            if (runway.crossTrack(latitude, longitude) > thresholds.runwayMarginMeters() + distance * captureTan) {
+                continue;
+            }
+            if (Math.abs(headingDifference(heading, runway.getCourse())) > thresholds.maxHeadingOffsetDeg()) {
+                continue;
+            }
+            if (best < 0 || distance < best) {
+                best = distance;
+            }
+        }
+        return best;
+    }
+
+    private boolean onRunway(double latitude, double longitude, int heading, List<RunwayFrame> runways) {
+        for (RunwayFrame runway : runways) {
+            if (runway.isOnRunway(latitude, longitude, thresholds.runwayMarginMeters())
+                    && Math.abs(headingDifference(heading, runway.getCourse())) <= thresholds.maxHeadingOffsetDeg()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Phases after which movement on the ground is an arrival: reaching the ground from
+     * any airborne phase other than the takeoff means the aircraft has landed.
+     */
+    private static boolean isInbound(FlightPhase phase) {
+        return phase == FlightPhase.DESCENT || phase == FlightPhase.APPROACH
+                || phase == FlightPhase.LANDING || phase == FlightPhase.TAXI_IN
+                || phase == FlightPhase.CRUISE || phase == FlightPhase.CLIMB;
+    }
+
+    private static boolean isDeparture(FlightPhase phase) {
+        return phase == FlightPhase.PARKED || phase == FlightPhase.TAXI_OUT;
+    }
+
+    /**
+     * Signed smallest difference {@code a - b} in degrees, in [-180, 180).
+     */
+    static double headingDifference(double a, double b) {
+        return ((a - b) % 360 + 540) % 360 - 180;
+    }
+}
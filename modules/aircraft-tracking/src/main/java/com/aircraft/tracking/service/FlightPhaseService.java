@@ -0,0 +1,174 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.tracking.model.TrackedAircraft.FlightPhase;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a {@link FlightPhaseClassifier} per callsign, fed by every position update, and an
+ * in-memory index from phase to callsigns so phase queries never scan the aircraft table.
+ * The index is moved only when a classifier confirms a transition.
+ */
+@Service
+@RequiredArgsConstructor
+public class FlightPhaseService {
+
+    private final ApproachSequencingService approachSequencingService;
+    private final TrackHistoryService trackHistoryService;
+
+    @Value("${tracking.phase.ground-altitude-ft:100}")
+    private int groundAltitudeFt;
+
+    @Value("${tracking.phase.parked-max-speed-kts:3}")
+    private int parkedMaxSpeedKts;
+
+    @Value("${tracking.phase.parked-after-seconds:60}")
+    private long parkedAfterSeconds;
+
+    @Value("${tracking.phase.runway-roll-min-speed-kts:40}")
+    private int runwayRollMinSpeedKts;
+
+    @Value("${tracking.phase.runway-margin-m:50}")
+    private double runwayMarginMeters;
+
+    @Value("${tracking.phase.climb-rate-fpm:500}")
+    private int climbRateFpm;
+
+    @Value("${tracking.phase.initial-climb-ft:1000}")
+    private int initialClimbFt;
+
+    @Value("${tracking.phase.cruise-min-altitude-ft:10000}")
+    private int cruiseMinAltitudeFt;
+
+    @Value("${tracking.phase.approach-max-altitude-ft:5000}")
+    private int approachMaxAltitudeFt;
+
+    @Value("${tracking.runway.approach-distance-km:20}")
+    private double approachDistanceKm;
+
+    @Value("${tracking.phase.landing-distance-m:1500}")
+    private double landingDistanceMeters;
+
+    @Value("${tracking.runway.capture-half-angle-deg:10}")
+    private double captureHalfAngleDeg;
+
+    @Value("${tracking.runway.max-heading-offset-deg:30}")
+    private double maxHeadingOffsetDeg;
+
+    @Value("${tracking.phase.approach-max-turn-rate-deg-s:3}")
+    private double maxApproachTurnRate;
+
+    @Value("${tracking.phase.confirm-samples:3}")
+    private int confirmSamples;
+
+    @Value("${tracking.phase.vertical-rate-window-ms:10000}")
+    private long verticalRateWindowMillis;
+
+    private volatile FlightPhaseClassifier.Thresholds thresholds;
+
+    private final Map<String, FlightPhaseClassifier> classifiers = new ConcurrentHashMap<>();
+    private final Map<FlightPhase, Set<String>> index = newIndex();
+    private final AtomicLong transitions = new AtomicLong();
+
+    /**
+     * Classifies one position sample and returns the aircraft's phase after it. Without a
+     * reported vertical speed the rate is the altitude trend of the track history, which
+     * already holds the sample and any late reports merged before it. Callers serialize
+     * updates per callsign.
+     */
+    public FlightPhase classify(String callsign, LocalDateTime timestamp, double latitude, double longitude,
+                                int altitude, int speed, int heading, Integer verticalSpeed) {
+        FlightPhaseClassifier classifier = classifiers.computeIfAbsent(callsign,
+                c -> new FlightPhaseClassifier(getThresholds()));
+        FlightPhase previous = classifier.getPhase();
+        double verticalRate = verticalSpeed != null ? verticalSpeed
+                : trackHistoryService.get(callsign).altitudeTrend(verticalRateWindowMillis);
+        FlightPhase phase = classifier.update(TrackHistoryService.toMillis(timestamp), latitude, longitude,
+                altitude, speed, heading, verticalRate, approachSequencingService.getRunwayFrames());
+        if (phase != previous) {
+            move(callsign, previous, phase);
+        }
+        return phase;
+    }
+
+    /**
+     * Sets the phase explicitly, e.g. from a controller update; classification continues
+     * from it.
+     */
+    public void override(String callsign, FlightPhase phase) {
+        FlightPhaseClassifier classifier = classifiers.computeIfAbsent(callsign,
+                c -> new FlightPhaseClassifier(getThresholds()));
+        FlightPhase previous = classifier.getPhase();
+        classifier.override(phase);
+        if (phase != previous) {
+            move(callsign, previous, phase);
+        }
+    }
+
+    /**
+     * Live view of the callsigns currently in a phase.
+     */
+    public Set<String> callsigns(FlightPhase phase) {
+        return Collections.unmodifiableSet(index.get(phase));
+    }
+
+    public void remove(String callsign) {
+        FlightPhaseClassifier classifier = classifiers.remove(callsign);
+        if (classifier != null && classifier.getPhase() != null) {
+            index.get(classifier.getPhase()).remove(callsign);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> counts = new LinkedHashMap<>();
+        for (Map.Entry<FlightPhase, Set<String>> entry : index.entrySet()) {
+            counts.put(entry.getKey().name(), entry.getValue().size());
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("tracks", classifiers.size());
+        stats.put("transitions", transitions.get());
+        stats.put("phases", counts);
+        return stats;
+    }
+
+    private void move(String callsign, FlightPhase from, FlightPhase to) {
+        if (from != null) {
+            index.get(from).remove(callsign);
+        }
+        if (to != null) {
+            index.get(to).add(callsign);
+        }
+        transitions.incrementAndGet();
+    }
+
+    private FlightPhaseClassifier.Thresholds getThresholds() {
+        FlightPhaseClassifier.Thresholds current = thresholds;
+        if (current == null) {
+            current = new FlightPhaseClassifier.Thresholds(groundAltitudeFt, parkedMaxSpeedKts,
+                    parkedAfterSeconds * 1000, runwayRollMinSpeedKts, runwayMarginMeters, climbRateFpm,
+                    initialClimbFt, cruiseMinAltitudeFt, approachMaxAltitudeFt, approachDistanceKm * 1000,
+                    landingDistanceMeters, captureHalfAngleDeg, maxHeadingOffsetDeg, maxApproachTurnRate,
+                    confirmSamples);
+            thresholds = current;
+        }
+        return current;
+    }
+
+    private static Map<FlightPhase, Set<String>> newIndex() {
+        Map<FlightPhase, Set<String>> index = new EnumMap<>(FlightPhase.class);
+        for (FlightPhase phase : FlightPhase.values()) {
+            index.put(phase, ConcurrentHashMap.newKeySet());
+        }
+        return index;
+    }
+}
@@ -0,0 +1,134 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.tracking.dto.GeoVertexDto;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Simple polygon in latitude/longitude treated as planar, which is accurate enough for
+ * the terminal-area regions it describes. Vertices are kept as primitive arrays with the
+ * bounding box precomputed, so the tests are allocation-free.
+ */
+public final class GeoPolygon {
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double minLat;
+    private final double maxLat;
+    private final double minLng;
+    private final double maxLng;
+
+    public GeoPolygon(double[] latitudes, double[] longitudes) {
+        if (latitudes.length < 3 || latitudes.length != longitudes.length) {
+            throw new IllegalArgumentException("A polygon needs at least 3 vertices");
+        }
+        this.latitudes = latitudes.clone();
+        this.longitudes = longitudes.clone();
+        double minLat = Double.POSITIVE_INFINITY;
+        double maxLat = Double.NEGATIVE_INFINITY;
+        double minLng = Double.POSITIVE_INFINITY;
+        double maxLng = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < latitudes.length; i++) {
+            minLat = Math.min(minLat, latitudes[i]);
+            maxLat = Math.max(maxLat, latitudes[i]);
+            minLng = Math.min(minLng, longitudes[i]);
+            maxLng = Math.max(maxLng, longitudes[i]);
+        }
+        this.minLat = minLat;
+        this.maxLat = maxLat;
+        this.minLng = minLng;
+        this.maxLng = maxLng;
+    }
+
+    /**
+     * True if both polygons have the same vertices in the same order.
+     */
+    public boolean sameVertices(GeoPolygon other) {
+        return Arrays.equals(latitudes, other.latitudes) && Arrays.equals(longitudes, other.longitudes);
+    }
+
+    public static GeoPolygon of(List<GeoVertexDto> vertices) {
+        double[] latitudes = new double[vertices.size()];
+        double[] longitudes = new double[vertices.size()];
+        for (int i = 0; i < vertices.size(); i++) {
+            latitudes[i] = vertices.get(i).getLatitude();
+            longitudes[i] = vertices.get(i).getLongitude();
+        }
+        return new GeoPolygon(latitudes, longitudes);
+    }
+
+    public double minLat() {
+        return minLat;
+    }
+
+    public double maxLat() {
+        return maxLat;
+    }
+
+    public double minLng() {
+        return minLng;
+    }
+
+    public double maxLng() {
+        return maxLng;
+    }
+
+    public boolean contains(double lat, double lng) {
+        if (lat < minLat || lat > maxLat || lng < minLng || lng > maxLng) {
+            return false;
+        }
+        // Even-odd ray cast along the latitude axis
+        boolean inside = false;
+        for (int i = 0, j = latitudes.length - 1; i < latitudes.length; j = i++) {
+            if ((latitudes[i] > lat) != (latitudes[j] > lat)
+                    && lng < (longitudes[j] - longitudes[i]) * (lat - latitudes[i]) / (latitudes[j] - latitudes[i]) + longitudes[i]) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Whether the segment from {@code (lat1, lng1)} to {@code (lat2, lng2)} has any point
+     * inside the polygon or on its boundary.
+     */
+    public boolean intersectsSegment(double lat1, double lng1, double lat2, double lng2) {
+        if (Math.max(lat1, lat2) < minLat || Math.min(lat1, lat2) > maxLat
+                || Math.max(lng1, lng2) < minLng || Math.min(lng1, lng2) > maxLng) {
+            return false;
+        }
+        if (contains(lat1, lng1) || contains(lat2, lng2)) {
+            return true;
+        }
+        for (int i = 0, j = latitudes.length - 1; i < latitudes.length; j = i++) {
+            if (segmentsIntersect(lat1, lng1, lat2, lng2, latitudes[j], longitudes[j], latitudes[i], longitudes[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean segmentsIntersect(double ax, double ay, double bx, double by,
+                                             double cx, double cy, double dx, double dy) {
+        double d1 = cross(cx, cy, dx, dy, ax, ay);
+        double d2 = cross(cx, cy, dx, dy, bx, by);
+        double d3 = cross(ax, ay, bx, by, cx, cy);
+        double d4 = cross(ax, ay, bx, by, dx, dy);
+        if (((d1 > 0 && d2 < 0) || (d1 < 0 && d2 > 0)) && ((d3 > 0 && d4 < 0) || (d3 < 0 && d4 > 0))) {
+            return true;
+        }
+        return (d1 == 0 && onSegment(cx, cy, dx, dy, ax, ay))
+                || (d2 == 0 && onSegment(cx, cy, dx, dy, bx, by))
+                || (d3 == 0 && onSegment(ax, ay, bx, by, cx, cy))
+                || (d4 == 0 && onSegment(ax, ay, bx, by, dx, dy));
+    }
+
+    private static double cross(double ox, double oy, double ax, double ay, double bx, double by) {
+        return (ax - ox) * (by - oy) - (ay - oy) * (bx - ox);
+    }
+
+    private static boolean onSegment(double ax, double ay, double bx, double by, double px, double py) {
+        return Math.min(ax, bx) <= px && px <= Math.max(ax, bx) && Math.min(ay, by) <= py && py <= Math.max(ay, by);
+    }
+}
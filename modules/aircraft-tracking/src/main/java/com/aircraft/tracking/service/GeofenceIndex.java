@@ -0,0 +1,111 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.spatial.ZOrderCell;
+import com.aircraft.tracking.fusion.IntObjectMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable grid index over geofences. Each fence is registered in the coarse
+ * {@link ZOrderCell}s covering its bounding box, so the fences near a position are one
+ * unboxed hash lookup away; fences spanning more than {@code maxCellsPerFence} cells are
+ * kept in a short list tested by bounding box instead. A new index is built whenever the
+ * fence set changes and swapped in whole.
+ */
+final class GeofenceIndex {
+
+    private static final Fence[] NONE = new Fence[0];
+    private static final int BUILD_MAX_RANGES = 64;
+
+    record Fence(long id, String name, GeoPolygon polygon, int minAltitude, int maxAltitude, long dwellMillis) {
+
+        boolean contains(double lat, double lng, int altitude) {
+            return altitude >= minAltitude && altitude <= maxAltitude && polygon.contains(lat, lng);
+        }
+
+        boolean sameGeometry(Fence other) {
+            return minAltitude == other.minAltitude && maxAltitude == other.maxAltitude
+                    && polygon.sameVertices(other.polygon);
+        }
+    }
+
+    private final int cellBits;
+    private final IntObjectMap<Fence[]> cells;
+    private final Fence[] large;
+    private final Map<Long, Fence> byId;
+
+    GeofenceIndex(Collection<Fence> fences, int cellBits, int maxCellsPerFence) {
+        if (cellBits < 1 || cellBits > 15) {
+            throw new IllegalArgumentException("Cell bits must be between 1 and 15: " + cellBits);
+        }
+        this.cellBits = cellBits;
+        Map<Integer, List<Fence>> grid = new HashMap<>();
+        List<Fence> large = new ArrayList<>();
+        Map<Long, Fence> byId = new HashMap<>();
+        for (Fence fence : fences) {
+            byId.put(fence.id(), fence);
+            List<Integer> covered = cover(fence.polygon(), maxCellsPerFence);
+            if (covered == null) {
+                large.add(fence);
+                continue;
+            }
+            for (int cell : covered) {
+                grid.computeIfAbsent(cell, c -> new ArrayList<>()).add(fence);
+            }
+        }
+        this.cells = new IntObjectMap<>(Math.max(16, grid.size()));
+        grid.forEach((cell, list) -> cells.put(cell, list.toArray(NONE)));
+        this.large = large.toArray(NONE);
+        this.byId = Map.copyOf(byId);
+    }
+
+    /**
+     * Fences registered in the cell of the position; {@link #large()} must be checked too.
+     */
+    Fence[] near(double lat, double lng) {
+        Fence[] fences = cells.get(cell(lat, lng));
+        return fences != null ? fences : NONE;
+    }
+
+    Fence[] large() {
+        return large;
+    }
+
+    Fence get(long id) {
+        return byId.get(id);
+    }
+
+    Collection<Fence> fences() {
+        return byId.values();
+    }
+
+    int cellCount() {
+        return cells.size();
+    }
+
+    private int cell(double lat, double lng) {
+        return (int) ZOrderCell.coarsen(ZOrderCell.encode(lat, lng), cellBits);
+    }
+
+    private List<Integer> cover(GeoPolygon polygon, int maxCells) {
+        List<Integer> covered = new ArrayList<>();
+        long previousHi = -1;
+        for (long[] range : ZOrderCell.coveringRanges(polygon.minLat(), polygon.maxLat(),
+                polygon.minLng(), polygon.maxLng(), BUILD_MAX_RANGES)) {
+            long lo = Math.max(ZOrderCell.coarsen(range[0], cellBits), previousHi + 1);
+            long hi = ZOrderCell.coarsen(range[1], cellBits);
+            if (covered.size() + hi - lo + 1 > maxCells) {
+                return null;
+            }
+            for (long cell = lo; cell <= hi; cell++) {
+                covered.add((int) cell);
+            }
+            previousHi = Math.max(previousHi, hi);
+        }
+        return covered;
+    }
+}
@@ -0,0 +1,346 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.tracking.dto.GeoVertexDto;
+import com.aircraft.tracking.dto.GeofenceDto;
+import com.aircraft.tracking.dto.GeofenceEventDto;
+import com.aircraft.tracking.model.Geofence;
+import com.aircraft.tracking.repository.GeofenceRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Geofence membership fed by every position update. Only the fences registered in the
+ * {@link GeofenceIndex} cell of the new position, plus the fences the aircraft is already
+ * inside, are tested, so an update away from all fences costs one hash lookup. Membership
+ * is kept per aircraft and events are produced only on transitions: ENTER, EXIT, and one
+ * DWELL per visit once a fence's dwell time has elapsed. Events are queued for the
+ * WebSocket publisher, which sends them on its own schedule.
+ * <p>
+ * Updates for one callsign must not run concurrently; {@link TrackingService} applies them
+ * under the track's lock.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GeofenceService {
+
+    private final GeofenceRepository geofenceRepository;
+
+    @Value("${tracking.geofence.cell-bits:14}")
+    private int cellBits;
+
+    @Value("${tracking.geofence.max-cells-per-fence:1024}")
+    private int maxCellsPerFence;
+
+    @Value("${tracking.geofence.event-queue-capacity:10000}")
+    private int eventQueueCapacity;
+
+    private volatile GeofenceIndex index;
+    private BlockingQueue<GeofenceEventDto> events;
+    private final Map<String, Membership> memberships = new ConcurrentHashMap<>();
+
+    private final AtomicLong updates = new AtomicLong();
+    private final AtomicLong fenceTests = new AtomicLong();
+    private final AtomicLong entered = new AtomicLong();
+    private final AtomicLong exited = new AtomicLong();
+    private final AtomicLong dwelled = new AtomicLong();
+    private final AtomicLong eventsDropped = new AtomicLong();
+
+    private static final class Membership {
+        final List<Occupancy> inside = new ArrayList<>(2);
+    }
+
+    private static final class Occupancy {
+        GeofenceIndex.Fence fence;
+        final LocalDateTime enteredAt;
+        boolean dwellReported;
+
+        Occupancy(GeofenceIndex.Fence fence, LocalDateTime enteredAt) {
+            this.fence = fence;
+            this.enteredAt = enteredAt;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        events = new ArrayBlockingQueue<>(eventQueueCapacity);
+        reload();
+    }
+
+    /**
+     * Rebuilds the index from the stored fences. Aircraft inside a fence that was removed
+     * or redefined leave it silently on their next update; other memberships carry over.
+     */
+    public synchronized void reload() {
+        List<GeofenceIndex.Fence> fences = new ArrayList<>();
+        for (Geofence geofence : geofenceRepository.findAll()) {
+            fences.add(toFence(geofence));
+        }
+        index = new GeofenceIndex(fences, cellBits, maxCellsPerFence);
+        log.info("Indexed {} geofences in {} cells", fences.size(), index.cellCount());
+    }
+
+    /**
+     * Reloads once the current transaction commits, so the index never holds a fence that
+     * was rolled back, nor misses one another transaction cannot see yet.
+     */
+    private void reloadAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reload();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reload();
+            }
+        });
+    }
+
+    @Transactional
+    public GeofenceDto create(GeofenceDto request) {
+        if (geofenceRepository.existsByName(request.getName())) {
+            throw new IllegalArgumentException("Geofence already exists: " + request.getName());
+        }
+        Geofence saved = geofenceRepository.save(Geofence.builder()
+                .name(request.getName())
+                .vertices(formatVertices(request.getPolygon()))
+                .minAltitude(request.getMinAltitude())
+                .maxAltitude(request.getMaxAltitude())
+                .dwellSeconds(request.getDwellSeconds())
+                .build());
+        reloadAfterCommit();
+        return toDto(saved, 0);
+    }
+
+    @Transactional
+    public boolean delete(Long id) {
+        if (!geofenceRepository.existsById(id)) {
+            return false;
+        }
+        geofenceRepository.deleteById(id);
+        reloadAfterCommit();
+        return true;
+    }
+
+    @Transactional(readOnly = true)
+    public List<GeofenceDto> getGeofences() {
+        Map<Long, Integer> occupants = new HashMap<>();
+        for (Membership membership : memberships.values()) {
+            synchronized (membership) {
+                for (Occupancy occupancy : membership.inside) {
+                    occupants.merge(occupancy.fence.id(), 1, Integer::sum);
+                }
+            }
+        }
+        return geofenceRepository.findAll().stream()
+                .map(geofence -> toDto(geofence, occupants.getOrDefault(geofence.getId(), 0)))
+                .toList();
+    }
+
+    /**
+     * Callsigns currently inside the fence.
+     */
+    public List<String> getOccupants(Long id) {
+        List<String> callsigns = new ArrayList<>();
+        memberships.forEach((callsign, membership) -> {
+            synchronized (membership) {
+                for (Occupancy occupancy : membership.inside) {
+                    if (occupancy.fence.id() == id) {
+                        callsigns.add(callsign);
+                    }
+                }
+            }
+        });
+        return callsigns;
+    }
+
+    /**
+     * Applies a position update to the aircraft's membership and queues the resulting events.
+     */
+    public void update(String callsign, double lat, double lng, int altitude, LocalDateTime time) {
+        updates.incrementAndGet();
+        GeofenceIndex current = index;
+        GeofenceIndex.Fence[] near = current.near(lat, lng);
+        GeofenceIndex.Fence[] large = current.large();
+        Membership membership = memberships.get(callsign);
+        if (membership == null) {
+            if (near.length == 0 && large.length == 0) {
+                return;
+            }
+            membership = memberships.computeIfAbsent(callsign, c -> new Membership());
+        }
+
+        synchronized (membership) {
+            // Fences already occupied are tested directly, so a jump far away still exits them
+            for (int i = membership.inside.size() - 1; i >= 0; i--) {
+                Occupancy occupancy = membership.inside.get(i);
+                // Reloads rebuild every fence, so an occupancy survives one unless its own fence changed
+                GeofenceIndex.Fence fence = current.get(occupancy.fence.id());
+                if (fence == null || !fence.sameGeometry(occupancy.fence)) {
+                    membership.inside.remove(i);
+                    continue;
+                }
+                occupancy.fence = fence;
+                fenceTests.incrementAndGet();
+                if (!fence.contains(lat, lng, altitude)) {
+                    membership.inside.remove(i);
+                    exited.incrementAndGet();
+                    publish(event(GeofenceEventDto.Type.EXIT, fence, callsign, lat, lng, altitude, time,
+                            occupancy.enteredAt));
+                } else if (!occupancy.dwellReported && fence.dwellMillis() > 0
+                        && Duration.between(occupancy.enteredAt, time).toMillis() >= fence.dwellMillis()) {
+                    occupancy.dwellReported = true;
+                    dwelled.incrementAndGet();
+                    publish(event(GeofenceEventDto.Type.DWELL, fence, callsign, lat, lng, altitude, time,
+                            occupancy.enteredAt));
+                }
+            }
+            enter(membership, near, callsign, lat, lng, altitude, time);
+            enter(membership, large, callsign, lat, lng, altitude, time);
+            if (membership.inside.isEmpty()) {
+                memberships.remove(callsign, membership);
+            }
+        }
+    }
+
+    /**
+     * Forgets a retired track's memberships without producing EXIT events.
+     */
+    public void remove(String callsign) {
+        memberships.remove(callsign);
+    }
+
+    /**
+     * Removes and returns the queued events in the order they occurred.
+     */
+    public List<GeofenceEventDto> drainEvents() {
+        List<GeofenceEventDto> drained = new ArrayList<>(events.size());
+        events.drainTo(drained);
+        return drained;
+    }
+
+    public Map<String, Object> getStats() {
+        GeofenceIndex current = index;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("geofences", current.fences().size());
+        stats.put("indexedCells", current.cellCount());
+        stats.put("largeFences", current.large().length);
+        stats.put("aircraftInside", memberships.size());
+        stats.put("updates", updates.get());
+        stats.put("fenceTests", fenceTests.get());
+        stats.put("entered", entered.get());
+        stats.put("exited", exited.get());
+        stats.put("dwelled", dwelled.get());
+        stats.put("eventsQueued", events.size());
+        stats.put("eventsDropped", eventsDropped.get());
+        return stats;
+    }
+
+    private void enter(Membership membership, GeofenceIndex.Fence[] candidates, String callsign,
+                       double lat, double lng, int altitude, LocalDateTime time) {
+        for (GeofenceIndex.Fence fence : candidates) {
+            if (isInside(membership, fence)) {
+                continue;
+            }
+            fenceTests.incrementAndGet();
+            if (fence.contains(lat, lng, altitude)) {
+                membership.inside.add(new Occupancy(fence, time));
+                entered.incrementAndGet();
+                publish(event(GeofenceEventDto.Type.ENTER, fence, callsign, lat, lng, altitude, time, time));
+            }
+        }
+    }
+
+    private static boolean isInside(Membership membership, GeofenceIndex.Fence fence) {
+        for (Occupancy occupancy : membership.inside) {
+            if (occupancy.fence.id() == fence.id()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void publish(GeofenceEventDto event) {
+        if (!events.offer(event)) {
+            eventsDropped.incrementAndGet();
+        }
+    }
+
+    private static GeofenceEventDto event(GeofenceEventDto.Type type, GeofenceIndex.Fence fence, String callsign,
+                                          double lat, double lng, int altitude, LocalDateTime time,
+                                          LocalDateTime enteredAt) {
+        return GeofenceEventDto.builder()
+                .type(type)
+                .geofenceId(fence.id())
+                .geofenceName(fence.name())
+                .callsign(callsign)
+                .latitude(lat)
+                .longitude(lng)
+                .altitude(altitude)
+                .timestamp(time)
+                .secondsInside(Duration.between(enteredAt, time).getSeconds())
+                .build();
+    }
+
+    static GeofenceIndex.Fence toFence(Geofence geofence) {
+        String[] vertices = geofence.getVertices().split(";");
+        double[] latitudes = new double[vertices.length];
+        double[] longitudes = new double[vertices.length];
+        for (int i = 0; i < vertices.length; i++) {
+            String[] parts = vertices[i].split(",");
+            latitudes[i] = Double.parseDouble(parts[0]);
+            longitudes[i] = Double.parseDouble(parts[1]);
+        }
+        return new GeofenceIndex.Fence(geofence.getId(), geofence.getName(), new GeoPolygon(latitudes, longitudes),
+                geofence.getMinAltitude() != null ? geofence.getMinAltitude() : Integer.MIN_VALUE,
+                geofence.getMaxAltitude() != null ? geofence.getMaxAltitude() : Integer.MAX_VALUE,
+                geofence.getDwellSeconds() != null ? geofence.getDwellSeconds() * 1000L : 0L);
+    }
+
+    private static String formatVertices(List<GeoVertexDto> polygon) {
+        StringBuilder vertices = new StringBuilder();
+        for (GeoVertexDto vertex : polygon) {
+            if (!vertices.isEmpty()) {
+                vertices.append(';');
+            }
+            vertices.append(vertex.getLatitude()).append(',').append(vertex.getLongitude());
+        }
+        return vertices.toString();
+    }
+
+    private static GeofenceDto toDto(Geofence geofence, int occupants) {
+        List<GeoVertexDto> polygon = new ArrayList<>();
+        for (String vertex : geofence.getVertices().split(";")) {
+            String[] parts = vertex.split(",");
+            polygon.add(new GeoVertexDto(Double.parseDouble(parts[0]), Double.parseDouble(parts[1])));
+        }
+        return GeofenceDto.builder()
+                .id(geofence.getId())
+                .name(geofence.getName())
+                .polygon(polygon)
+                .minAltitude(geofence.getMinAltitude())
+                .maxAltitude(geofence.getMaxAltitude())
+                .dwellSeconds(geofence.getDwellSeconds())
+                .occupants(occupants)
+                .build();
+    }
+}
@@ -0,0 +1,19 @@
+package com.aircraft.tracking.service;
+
+/**
+ * Thrown when a single position update fails the {@link TrackQualityService} screen, so the
+ * caller learns why the track did not move instead of getting its unchanged state back.
+ */
+public class ImplausibleUpdateException extends RuntimeException {
+
+    private final TrackQualityFilter.Rejection rejection;
+
+    public ImplausibleUpdateException(String callsign, TrackQualityFilter.Rejection rejection) {
+        super("Implausible update for " + callsign + ": " + rejection);
+        this.rejection = rejection;
+    }
+
+    public TrackQualityFilter.Rejection getRejection() {
+        return rejection;
+    }
+}
@@ -2,7 +2,6 @@ package com.aircraft.tracking.service;
 
 import com.aircraft.tracking.model.TrackedAircraft;
 import com.aircraft.tracking.model.TrajectoryPoint;
-import com.aircraft.tracking.repository.TrajectoryPointRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -17,7 +16,7 @@ import java.util.List;
 @Slf4j
 public class PredictionService {
     
-    private final TrajectoryPointRepository trajectoryRepository;
+    private final TrackHistoryService trackHistoryService;
     
     @Value("${tracking.prediction.horizon-minutes}")
     private int predictionHorizonMinutes;
@@ -25,6 +24,9 @@ public class PredictionService {
     @Value("${tracking.prediction.enabled}")
     private boolean predictionEnabled;
     
+    @Value("${tracking.prediction.confidence-reference-m:3704}")
+    private double confidenceReferenceMetres;
+    
     public List<TrajectoryPoint> predictTrajectory(TrackedAircraft aircraft) {
         if (!predictionEnabled) {
             return new ArrayList<>();
@@ -33,51 +35,32 @@ public class PredictionService {
         List<TrajectoryPoint> predictions = new ArrayList<>();
         
         try {
-            // Get recent trajectory points for trend analysis
-            LocalDateTime lookbackTime = LocalDateTime.now().minusMinutes(10);
-            List<TrajectoryPoint> recentPoints = trajectoryRepository.findByCallsignAndTimeRange(
-                aircraft.getCallsign(), lookbackTime, LocalDateTime.now()
-            );
+            TrackFilter filter = trackHistoryService.getFilter(aircraft.getCallsign());
             
-            if (recentPoints.size() < 2) {
+            if (filter.getUpdates() < 2) {
                 // Not enough data for prediction
                 return predictions;
             }
             
-            // Simple linear prediction based on current velocity
-            TrajectoryPoint lastPoint = recentPoints.get(recentPoints.size() - 1);
-            TrajectoryPoint previousPoint = recentPoints.get(recentPoints.size() - 2);
-            
-            // Calculate velocity components
-            double timeDiffSeconds = java.time.Duration.between(
-                previousPoint.getTimestamp(), lastPoint.getTimestamp()
-            ).getSeconds();
-            
-            if (timeDiffSeconds <= 0) {
-                return predictions;
-            }
-            
-            double latVelocity = (lastPoint.getLatitude() - previousPoint.getLatitude()) / timeDiffSeconds;
-            double lngVelocity = (lastPoint.getLongitude() - previousPoint.getLongitude()) / timeDiffSeconds;
-            double altVelocity = (lastPoint.getAltitude() - previousPoint.getAltitude()) / timeDiffSeconds;
-            
-            // Generate predictions for the next horizon
+            // Propagate the filtered state; confidence follows the predicted position uncertainty
+            double[] state = new double[7];
             LocalDateTime currentTime = LocalDateTime.now();
+            long nowMillis = TrackHistoryService.toMillis(currentTime);
             for (int minutes = 1; minutes <= predictionHorizonMinutes; minutes++) {
                 LocalDateTime predictionTime = currentTime.plusMinutes(minutes);
-                double timeOffsetSeconds = java.time.Duration.between(currentTime, predictionTime).getSeconds();
+                filter.predict(nowMillis + minutes * 60_000L, state);
                 
                 TrajectoryPoint prediction = TrajectoryPoint.builder()
                         .aircraft(aircraft)
-                        .latitude(lastPoint.getLatitude() + (latVelocity * timeOffsetSeconds))
-                        .longitude(lastPoint.getLongitude() + (lngVelocity * timeOffsetSeconds))
-                        .altitude((int) (lastPoint.getAltitude() + (altVelocity * timeOffsetSeconds)))
-                        .speed(lastPoint.getSpeed())
-                        .heading(lastPoint.getHeading())
-                        .verticalSpeed(aircraft.getVerticalSpeed())
+                        .latitude(state[0])
+                        .longitude(state[1])
+                        .altitude((int) Math.round(state[2]))
+                        .speed((int) Math.round(state[3]))
+                        .heading((int) Math.round(state[4]) % 360)
+                        .verticalSpeed((int) Math.round(state[5]))
                         .timestamp(predictionTime)
                         .pointType(TrajectoryPoint.PointType.PREDICTED)
-                        .confidenceScore(calculateConfidenceScore(minutes, recentPoints.size()))
+                        .confidenceScore(confidenceFromSigma(state[6]))
                         .build();
                 
                 predictions.add(prediction);
@@ -90,10 +73,11 @@ public class PredictionService {
         return predictions;
     }
     
-    private double calculateConfidenceScore(int minutesAhead, int dataPoints) {
-        // Simple confidence calculation - decreases with time and increases with more data
-        double timeDecay = Math.max(0.1, 1.0 - (minutesAhead * 0.1));
-        double dataConfidence = Math.min(1.0, dataPoints / 10.0);
-        return timeDecay * dataConfidence;
+    /**
+     * Maps the 1-sigma horizontal position error to a 0..1 score; an error equal to the
+     * configured reference distance scores about 0.37.
+     */
+    double confidenceFromSigma(double sigmaMetres) {
+        return Math.exp(-sigmaMetres / confidenceReferenceMetres);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,104 @@
+package com.aircraft.tracking.service;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable predicted positions for every active aircraft at common future time steps,
+ * produced once per cycle by {@link BatchPredictionService}.
+ * <p>
+ * Values are stored structure-of-arrays, one primitive array per quantity, with the entry
+ * for aircraft {@code a} at step {@code s} at index {@code a * steps + s}. Step {@code s}
+ * is {@code baseMillis + (s + 1) * stepMillis}.
+ */
+public final class PredictionTable {
+
+    public static final PredictionTable EMPTY = new PredictionTable(0L, 1_000L, 0, List.of(),
+            new double[0], new double[0], new float[0], new float[0], new float[0]);
+
+    private final long baseMillis;
+    private final long stepMillis;
+    private final int steps;
+    private final List<String> callsigns;
+    private final Map<String, Integer> index;
+    private final double[] latitude;
+    private final double[] longitude;
+    private final float[] altitude;
+    private final float[] heading;
+    private final float[] sigma;
+
+    PredictionTable(long baseMillis, long stepMillis, int steps, List<String> callsigns,
+                    double[] latitude, double[] longitude, float[] altitude, float[] heading, float[] sigma) {
+        this.baseMillis = baseMillis;
+        this.stepMillis = stepMillis;
+        this.steps = steps;
+        this.callsigns = Collections.unmodifiableList(callsigns);
+        Map<String, Integer> byCallsign = new HashMap<>(callsigns.size() * 2);
+        for (int i = 0; i < callsigns.size(); i++) {
+            byCallsign.put(callsigns.get(i), i);
+        }
+        this.index = byCallsign;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.altitude = altitude;
+        this.heading = heading;
+        this.sigma = sigma;
+    }
+
+    public long getBaseMillis() {
+        return baseMillis;
+    }
+
+    public long getStepMillis() {
+        return stepMillis;
+    }
+
+    public int getSteps() {
+        return steps;
+    }
+
+    public int size() {
+        return callsigns.size();
+    }
+
+    public List<String> getCallsigns() {
+        return callsigns;
+    }
+
+    /**
+     * @return the row of the aircraft, or -1 if it is not in this table
+     */
+    public int indexOf(String callsign) {
+        Integer i = index.get(callsign);
+        return i != null ? i : -1;
+    }
+
+    public long timeMillis(int step) {
+        return baseMillis + (step + 1) * stepMillis;
+    }
+
+    public double latitude(int aircraft, int step) {
+        return latitude[aircraft * steps + step];
+    }
+
+    public double longitude(int aircraft, int step) {
+        return longitude[aircraft * steps + step];
+    }
+
+    public float altitude(int aircraft, int step) {
+        return altitude[aircraft * steps + step];
+    }
+
+    public float heading(int aircraft, int step) {
+        return heading[aircraft * steps + step];
+    }
+
+    /**
+     * 1-sigma horizontal position uncertainty in metres.
+     */
+    public float sigma(int aircraft, int step) {
+        return sigma[aircraft * steps + step];
+    }
+}
@@ -0,0 +1,140 @@
+package com.aircraft.tracking.service;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Jitter buffer for one aircraft. Samples are held sorted by measurement time and released
+ * in that order once they are {@code holdMillis} behind the newest measurement or have
+ * waited {@code holdMillis} since arrival, whichever comes first, so reports that overtake
+ * each other in transit are put back in order at the cost of at most one hold of latency.
+ * <p>
+ * A sample measured at or before the last released one is late: it cannot be applied
+ * without rewinding the track, so it is handed back to the caller for the history only,
+ * or dropped when it is more than the lateness limit behind.
+ */
+public final class ReorderBuffer<T> {
+
+    public enum Disposition {
+        /** Held, in order behind the samples already buffered. */
+        BUFFERED,
+        /** Held, ahead of buffered samples measured later. */
+        REORDERED,
+        /** Replaced a buffered sample with the same measurement time. */
+        REPLACED,
+        /** Behind the released samples but within the lateness limit. */
+        LATE,
+        /** Behind the released samples by more than the lateness limit. */
+        TOO_LATE
+    }
+
+    private long[] times = new long[4];
+    private long[] arrivals = new long[4];
+    private Object[] samples = new Object[4];
+    private int size;
+
+    private long releasedMillis;
+    private long newestMillis = Long.MIN_VALUE;
+    private long lastArrivalMillis;
+    private boolean retired;
+
+    public ReorderBuffer() {
+        this(Long.MIN_VALUE);
+    }
+
+    /**
+     * A buffer that treats samples measured at or before {@code releasedMillis} as late,
+     * for an aircraft whose earlier buffer was retired.
+     */
+    public ReorderBuffer(long releasedMillis) {
+        this.releasedMillis = releasedMillis;
+    }
+
+    /**
+     * @return what happened to the sample, or null if the buffer was retired and the caller
+     *         must offer it to a fresh one
+     */
+    public synchronized Disposition offer(long measuredMillis, long arrivalMillis, T sample, long maxLatenessMillis) {
+        if (retired) {
+            return null;
+        }
+        lastArrivalMillis = arrivalMillis;
+        if (measuredMillis <= releasedMillis) {
+            return releasedMillis - measuredMillis <= maxLatenessMillis ? Disposition.LATE : Disposition.TOO_LATE;
+        }
+        int i = size;
+        while (i > 0 && times[i - 1] > measuredMillis) {
+            i--;
+        }
+        if (i > 0 && times[i - 1] == measuredMillis) {
+            arrivals[i - 1] = arrivalMillis;
+            samples[i - 1] = sample;
+            return Disposition.REPLACED;
+        }
+        if (size == times.length) {
+            times = Arrays.copyOf(times, size * 2);
+            arrivals = Arrays.copyOf(arrivals, size * 2);
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        System.arraycopy(times, i, times, i + 1, size - i);
+        System.arraycopy(arrivals, i, arrivals, i + 1, size - i);
+        System.arraycopy(samples, i, samples, i + 1, size - i);
+        times[i] = measuredMillis;
+        arrivals[i] = arrivalMillis;
+        samples[i] = sample;
+        size++;
+        newestMillis = Math.max(newestMillis, measuredMillis);
+        return i < size - 1 ? Disposition.REORDERED : Disposition.BUFFERED;
+    }
+
+    /**
+     * Appends the samples due for release to {@code out}, oldest measurement first.
+     *
+     * @return the number of samples released
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized int release(long holdMillis, long nowMillis, List<? super T> out) {
+        // Everything up to the newest due sample goes, so an overtaken sample never stays behind
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (times[i] <= newestMillis - holdMillis || arrivals[i] <= nowMillis - holdMillis) {
+                count = i + 1;
+            }
+        }
+        if (count == 0) {
+            return 0;
+        }
+        for (int i = 0; i < count; i++) {
+            out.add((T) samples[i]);
+        }
+        releasedMillis = times[count - 1];
+        System.arraycopy(times, count, times, 0, size - count);
+        System.arraycopy(arrivals, count, arrivals, 0, size - count);
+        System.arraycopy(samples, count, samples, 0, size - count);
+        Arrays.fill(samples, size - count, size, null);
+        size -= count;
+        return count;
+    }
+
+    /**
+     * Retires the buffer if it is empty and nothing has arrived since {@code cutoffMillis}.
+     * A retired buffer accepts no more samples.
+     */
+    public synchronized boolean retireIfIdle(long cutoffMillis) {
+        if (size == 0 && lastArrivalMillis < cutoffMillis) {
+            retired = true;
+        }
+        return retired;
+    }
+
+    /**
+     * Measurement time of the last released sample, {@link Long#MIN_VALUE} if none.
+     */
+    public synchronized long releasedMillis() {
+        return releasedMillis;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+}
@@ -0,0 +1,96 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.tracking.model.Runway;
+
+/**
+ * A landing direction of a {@link Runway} as a local Cartesian frame, precomputed once so
+ * projecting a track onto the extended centerline costs a few multiplications.
+ * <p>
+ * The origin is the threshold ({@code start}), distances are metres in an equirectangular
+ * projection around it, and the unit vector points from the threshold down the runway
+ * towards {@code end}. A track on final is therefore at a negative along-track coordinate.
+ */
+final class RunwayFrame {
+
+    private static final double METRES_PER_DEG = 111_194.9;
+
+    private final String runwayId;
+    private final double thresholdLatitude;
+    private final double thresholdLongitude;
+    private final double metresPerDegLongitude;
+    private final double unitEast;
+    private final double unitNorth;
+    private final double course;
+    private final double length;
+    private final double halfWidth;
+
+    private RunwayFrame(String runwayId, double thresholdLatitude, double thresholdLongitude,
+                        double metresPerDegLongitude, double unitEast, double unitNorth,
+                        double length, double halfWidth) {
+        this.runwayId = runwayId;
+        this.thresholdLatitude = thresholdLatitude;
+        this.thresholdLongitude = thresholdLongitude;
+        this.metresPerDegLongitude = metresPerDegLongitude;
+        this.unitEast = unitEast;
+        this.unitNorth = unitNorth;
+        this.course = (Math.toDegrees(Math.atan2(unitEast, unitNorth)) + 360) % 360;
+        this.length = length;
+        this.halfWidth = halfWidth;
+    }
+
+    static RunwayFrame of(Runway runway) {
+        double metresPerDegLongitude = METRES_PER_DEG * Math.cos(Math.toRadians(runway.getStartLatitude()));
+        double east = (runway.getEndLongitude() - runway.getStartLongitude()) * metresPerDegLongitude;
+        double north = (runway.getEndLatitude() - runway.getStartLatitude()) * METRES_PER_DEG;
+        double length = Math.hypot(east, north);
+        double runwayLength = length;
+        if (length == 0) {
+            // Degenerate geometry: fall back to the published heading
+            east = Math.sin(Math.toRadians(runway.getHeading()));
+            north = Math.cos(Math.toRadians(runway.getHeading()));
+            length = 1;
+            runwayLength = runway.getLength() != null ? runway.getLength() : 0;
+        }
+        double halfWidth = runway.getWidth() != null ? runway.getWidth() / 2.0 : 0;
+        return new RunwayFrame(runway.getRunwayId(), runway.getStartLatitude(), runway.getStartLongitude(),
+                metresPerDegLongitude, east / length, north / length, runwayLength, halfWidth);
+    }
+
+    String getRunwayId() {
+        return runwayId;
+    }
+
+    /**
+     * True course of the landing direction in degrees.
+     */
+    double getCourse() {
+        return course;
+    }
+
+    /**
+     * Distance before the threshold along the extended centerline; negative once past it.
+     */
+    double distanceToThreshold(double latitude, double longitude) {
+        double east = (longitude - thresholdLongitude) * metresPerDegLongitude;
+        double north = (latitude - thresholdLatitude) * METRES_PER_DEG;
+        return -(east * unitEast + north * unitNorth);
+    }
+
+    /**
+     * Unsigned lateral distance from the extended centerline.
+     */
+    double crossTrack(double latitude, double longitude) {
+        double east = (longitude - thresholdLongitude) * metresPerDegLongitude;
+        double north = (latitude - thresholdLatitude) * METRES_PER_DEG;
+        return Math.abs(east * unitNorth - north * unitEast);
+    }
+
+    /**
+     * Whether a position lies on the runway surface, widened by {@code margin} on each side.
+     */
+    boolean isOnRunway(double latitude, double longitude, double margin) {
+        double distance = distanceToThreshold(latitude, longitude);
+        return distance <= margin && -distance <= length + margin
+                && crossTrack(latitude, longitude) <= halfWidth + margin;
+    }
+}
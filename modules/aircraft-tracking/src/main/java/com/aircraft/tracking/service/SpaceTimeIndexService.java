@@ -0,0 +1,437 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.spatial.ZOrderCell;
+import com.aircraft.tracking.dto.SpaceTimeMatchDto;
+import com.aircraft.tracking.dto.SpaceTimeQueryDto;
+import com.aircraft.tracking.dto.TrajectoryDto;
+import com.aircraft.tracking.dto.TrajectoryPointView;
+import com.aircraft.tracking.model.TrajectoryArchive;
+import com.aircraft.tracking.model.TrajectoryCellVisit;
+import com.aircraft.tracking.model.TrajectoryPoint;
+import com.aircraft.tracking.repository.TrackedAircraftRepository;
+import com.aircraft.tracking.repository.TrajectoryCellVisitRepository;
+import com.aircraft.tracking.repository.TrajectoryPointRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Space-time index over trajectory history for "which aircraft crossed this region between
+ * t1 and t2" queries.
+ * <p>
+ * As points are persisted, each trajectory segment is mapped to the coarse
+ * {@link ZOrderCell}s its bounding box covers, and the time an aircraft spends in a cell
+ * is recorded as one {@link TrajectoryCellVisit}. Visits are capped at
+ * {@code tracking.spacetime.max-visit-minutes}, so a query turns into a few bounded range
+ * scans of the {@code (cell, first_time)} index. Only the trajectories of the candidate
+ * aircraft, within their visit spans, are then read back (archived hours included) and
+ * tested segment by segment against the polygon.
+ * <p>
+ * Visits still open are held in memory per aircraft and written when the aircraft leaves
+ * the cell, the visit reaches its cap or the track goes quiet; queries read them too.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SpaceTimeIndexService {
+
+    private final TrajectoryCellVisitRepository visitRepository;
+    private final TrackedAircraftRepository aircraftRepository;
+    private final TrajectoryPointRepository trajectoryRepository;
+    private final TrajectoryArchiveService archiveService;
+
+    @Value("${tracking.spacetime.cell-bits:12}")
+    private int cellBits;
+
+    @Value("${tracking.spacetime.max-visit-minutes:60}")
+    private long maxVisitMinutes;
+
+    @Value("${tracking.spacetime.max-gap-seconds:60}")
+    private long maxGapSeconds;
+
+    @Value("${tracking.spacetime.retention-days:31}")
+    private int retentionDays;
+
+    // Segments whose bounding box spans more cells than this are indexed by their endpoints only
+    private static final int MAX_CELLS_PER_SEGMENT = 64;
+
+    private final Map<String, TrackCursor> cursors = new ConcurrentHashMap<>();
+
+    private final AtomicLong pointsIndexed = new AtomicLong();
+    private final AtomicLong visitsWritten = new AtomicLong();
+    private final AtomicLong queries = new AtomicLong();
+    private volatile long lastQueryMillis;
+    private volatile int lastQueryCandidates;
+
+    /**
+     * Indexes persisted points in time order per aircraft. Called by the write-behind once
+     * the points have committed, so the open visits in memory never cover points that were
+     * rolled back; the visits this closes are written in their own transaction.
+     */
+    public void index(List<TrajectoryPoint> points) {
+        List<TrajectoryCellVisit> closed = new ArrayList<>();
+        for (TrajectoryPoint point : points) {
+            if (point.getPointType() != TrajectoryPoint.PointType.ACTUAL) {
+                continue;
+            }
+            TrackCursor cursor = cursors.computeIfAbsent(point.getAircraft().getCallsign(), TrackCursor::new);
+            synchronized (cursor) {
+                advance(cursor, point.getLatitude(), point.getLongitude(), point.getTimestamp(), closed);
+            }
+            pointsIndexed.incrementAndGet();
+        }
+        save(closed);
+    }
+
+    /**
+     * Writes out the open visits of tracks with no point for longer than the gap limit.
+     */
+    @Scheduled(fixedDelayString = "${tracking.spacetime.sweep-interval-ms:60000}")
+    public void closeIdle() {
+        closeIdle(LocalDateTime.now().minusSeconds(maxGapSeconds));
+    }
+
+    void closeIdle(LocalDateTime cutoff) {
+        List<TrajectoryCellVisit> closed = new ArrayList<>();
+        for (Iterator<TrackCursor> it = cursors.values().iterator(); it.hasNext(); ) {
+            TrackCursor cursor = it.next();
+            synchronized (cursor) {
+                if (cursor.lastTime != null && cursor.lastTime.isBefore(cutoff)) {
+                    closeAll(cursor, closed);
+                    it.remove();
+                }
+            }
+        }
+        save(closed);
+    }
+
+    @Scheduled(cron = "${tracking.spacetime.cleanup-cron:0 27 * * * *}")
+    @Transactional
+    public void deleteExpired() {
+        if (retentionDays > 0) {
+            int deleted = visitRepository.deleteByFirstTimeBefore(LocalDateTime.now().minusDays(retentionDays));
+            if (deleted > 0) {
+                log.info("Deleted {} space-time index entries older than {} days", deleted, retentionDays);
+            }
+        }
+    }
+
+    /**
+     * Aircraft whose trajectory touched the polygon within {@code [from, to]}, ordered by
+     * the start of their first pass.
+     */
+    @Transactional(readOnly = true)
+    public List<SpaceTimeMatchDto> query(GeoPolygon polygon, LocalDateTime from, LocalDateTime to) {
+        long start = System.currentTimeMillis();
+        List<long[]> ranges = cellRanges(polygon.minLat(), polygon.maxLat(), polygon.minLng(), polygon.maxLng());
+
+        // Candidate spans per callsign: stored visits plus the open ones still in memory
+        Map<String, List<LocalDateTime[]>> spans = new HashMap<>();
+        // A visit is reopened after its cap from the previous point, so it can exceed the cap by one gap
+        LocalDateTime earliestStart = from.minusMinutes(maxVisitMinutes).minusSeconds(maxGapSeconds);
+        for (TrajectoryCellVisit visit : visitRepository.findOverlapping(ranges, earliestStart, from, to)) {
+            spans.computeIfAbsent(visit.getCallsign(), c -> new ArrayList<>())
+                    .add(new LocalDateTime[]{visit.getFirstTime(), visit.getLastTime()});
+        }
+        for (TrackCursor cursor : cursors.values()) {
+            synchronized (cursor) {
+                for (OpenVisit visit : cursor.open.values()) {
+                    if (inRanges(ranges, visit.cell) && !visit.first.isAfter(to) && !visit.last.isBefore(from)) {
+                        spans.computeIfAbsent(cursor.callsign, c -> new ArrayList<>())
+                                .add(new LocalDateTime[]{visit.first, visit.last});
+                    }
+                }
+            }
+        }
+
+        Map<String, Long> aircraftIds = new HashMap<>();
+        if (!spans.isEmpty()) {
+            for (Object[] row : aircraftRepository.findIdsByCallsignIn(spans.keySet())) {
+                aircraftIds.put((String) row[0], (Long) row[1]);
+            }
+        }
+        List<SpaceTimeMatchDto> matches = new ArrayList<>();
+        for (Map.Entry<String, List<LocalDateTime[]>> entry : spans.entrySet()) {
+            List<SpaceTimeMatchDto.Pass> passes = new ArrayList<>();
+            Long aircraftId = aircraftIds.get(entry.getKey());
+            for (LocalDateTime[] span : mergeSpans(entry.getValue())) {
+                passes.addAll(refine(polygon, readTrack(entry.getKey(), aircraftId, span[0], span[1]), from, to));
+            }
+            if (!passes.isEmpty()) {
+                matches.add(SpaceTimeMatchDto.builder()
+                        .callsign(entry.getKey())
+                        .passes(passes)
+                        .build());
+            }
+        }
+        matches.sort(Comparator.comparing((SpaceTimeMatchDto match) -> match.getPasses().get(0).getFrom())
+                .thenComparing(SpaceTimeMatchDto::getCallsign));
+
+        queries.incrementAndGet();
+        lastQueryCandidates = spans.size();
+        lastQueryMillis = System.currentTimeMillis() - start;
+        return matches;
+    }
+
+    @Transactional(readOnly = true)
+    public List<SpaceTimeMatchDto> query(SpaceTimeQueryDto request) {
+        return query(GeoPolygon.of(request.getPolygon()), request.getFrom(), request.getTo());
+    }
+
+    public Map<String, Object> getStats() {
+        int openVisits = 0;
+        for (TrackCursor cursor : cursors.values()) {
+            synchronized (cursor) {
+                openVisits += cursor.open.size();
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("trackedAircraft", cursors.size());
+        stats.put("openVisits", openVisits);
+        stats.put("pointsIndexed", pointsIndexed.get());
+        stats.put("visitsWritten", visitsWritten.get());
+        stats.put("queries", queries.get());
+        stats.put("lastQueryCandidates", lastQueryCandidates);
+        stats.put("lastQueryMillis", lastQueryMillis);
+        return stats;
+    }
+
+    private void advance(TrackCursor cursor, double lat, double lng, LocalDateTime time,
+                         List<TrajectoryCellVisit> closed) {
+        if (cursor.lastTime != null && !time.isAfter(cursor.lastTime)) {
+            // Late point: index it on its own without disturbing the visits in progress
+            closed.add(toEntity(cursor.callsign, new OpenVisit(cell(lat, lng), time)));
+            return;
+        }
+        boolean connected = cursor.lastTime != null
+                && Duration.between(cursor.lastTime, time).getSeconds() <= maxGapSeconds;
+        TreeSet<Long> cells = connected
+                ? segmentCells(cursor.lastLat, cursor.lastLng, lat, lng)
+                : new TreeSet<>(List.of(cell(lat, lng)));
+
+        for (Iterator<OpenVisit> it = cursor.open.values().iterator(); it.hasNext(); ) {
+            OpenVisit visit = it.next();
+            if (!connected || !cells.contains(visit.cell)
+                    || Duration.between(visit.first, time).toMinutes() >= maxVisitMinutes) {
+                closed.add(toEntity(cursor.callsign, visit));
+                it.remove();
+            }
+        }
+        LocalDateTime segmentStart = connected ? cursor.lastTime : time;
+        for (long cell : cells) {
+            OpenVisit visit = cursor.open.computeIfAbsent(cell, c -> new OpenVisit(c, segmentStart));
+            if (time.isAfter(visit.last)) {
+                visit.last = time;
+            }
+        }
+        cursor.lastLat = lat;
+        cursor.lastLng = lng;
+        cursor.lastTime = time;
+    }
+
+    private void closeAll(TrackCursor cursor, List<TrajectoryCellVisit> closed) {
+        for (OpenVisit visit : cursor.open.values()) {
+            closed.add(toEntity(cursor.callsign, visit));
+        }
+        cursor.open.clear();
+    }
+
+    private void save(List<TrajectoryCellVisit> closed) {
+        if (!closed.isEmpty()) {
+            visitRepository.saveAll(closed);
+            visitsWritten.addAndGet(closed.size());
+        }
+    }
+
+    private TreeSet<Long> segmentCells(double lat1, double lng1, double lat2, double lng2) {
+        TreeSet<Long> cells = new TreeSet<>();
+        for (long[] range : cellRanges(Math.min(lat1, lat2), Math.max(lat1, lat2),
+                Math.min(lng1, lng2), Math.max(lng1, lng2))) {
+            if (cells.size() + range[1] - range[0] + 1 > MAX_CELLS_PER_SEGMENT) {
+                cells.clear();
+                cells.add(cell(lat1, lng1));
+                cells.add(cell(lat2, lng2));
+                return cells;
+            }
+            for (long cell = range[0]; cell <= range[1]; cell++) {
+                cells.add(cell);
+            }
+        }
+        return cells;
+    }
+
+    private long cell(double lat, double lng) {
+        return ZOrderCell.coarsen(ZOrderCell.encode(lat, lng), cellBits);
+    }
+
+    private List<long[]> cellRanges(double minLat, double maxLat, double minLng, double maxLng) {
+        List<long[]> ranges = new ArrayList<>();
+        for (long[] range : ZOrderCell.coveringRanges(minLat, maxLat, minLng, maxLng, ZOrderCell.DEFAULT_MAX_RANGES)) {
+            long lo = ZOrderCell.coarsen(range[0], cellBits);
+            long hi = ZOrderCell.coarsen(range[1], cellBits);
+            long[] last = ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+            if (last != null && lo <= last[1] + 1) {
+                last[1] = Math.max(last[1], hi);
+            } else {
+                ranges.add(new long[]{lo, hi});
+            }
+        }
+        return ranges;
+    }
+
+    private static boolean inRanges(List<long[]> ranges, long cell) {
+        for (long[] range : ranges) {
+            if (cell >= range[0] && cell <= range[1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<LocalDateTime[]> mergeSpans(List<LocalDateTime[]> spans) {
+        spans.sort(Comparator.comparing(span -> span[0]));
+        List<LocalDateTime[]> merged = new ArrayList<>(spans.size());
+        for (LocalDateTime[] span : spans) {
+            LocalDateTime[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && !span[0].isAfter(last[1])) {
+                if (span[1].isAfter(last[1])) {
+                    last[1] = span[1];
+                }
+            } else {
+                merged.add(new LocalDateTime[]{span[0], span[1]});
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Reported points of a callsign in the span: archived hours first, then raw rows.
+     */
+    private List<TrajectoryDto.TrajectoryPointDto> readTrack(String callsign, Long aircraftId,
+                                                            LocalDateTime from, LocalDateTime to) {
+        List<TrajectoryDto.TrajectoryPointDto> points = new ArrayList<>(
+                archiveService.readPoints(callsign, from, to, TrajectoryArchive.Resolution.RAW));
+        if (aircraftId != null) {
+            for (TrajectoryPointView point : trajectoryRepository.findViewsByAircraftIdAndTimeRange(aircraftId, from, to)) {
+                if (point.pointType() == TrajectoryPoint.PointType.ACTUAL) {
+                    points.add(new TrajectoryDto.TrajectoryPointDto(point.latitude(), point.longitude(),
+                            point.altitude(), point.speed(), point.heading(), point.verticalSpeed(),
+                            point.timestamp(), point.pointType(), point.confidenceScore()));
+                }
+            }
+        }
+        return points;
+    }
+
+    /**
+     * Runs of consecutive segments, clipped to the time window, that touch the polygon.
+     */
+    List<SpaceTimeMatchDto.Pass> refine(GeoPolygon polygon, List<TrajectoryDto.TrajectoryPointDto> points,
+                                        LocalDateTime from, LocalDateTime to) {
+        List<SpaceTimeMatchDto.Pass> passes = new ArrayList<>();
+        SpaceTimeMatchDto.Pass current = null;
+        for (int i = 0; i < points.size(); i++) {
+            TrajectoryDto.TrajectoryPointDto a = points.get(i);
+            TrajectoryDto.TrajectoryPointDto b = i + 1 < points.size() ? points.get(i + 1) : null;
+            if (b != null && Duration.between(a.getTimestamp(), b.getTimestamp()).getSeconds() > maxGapSeconds) {
+                b = null;
+            }
+            LocalDateTime[] times = new LocalDateTime[2];
+            boolean hit = b != null ? segmentHit(polygon, a, b, from, to, times) : pointHit(polygon, a, from, to, times);
+            if (!hit) {
+                current = null;
+                continue;
+            }
+            if (current != null && !times[0].isAfter(current.getTo())) {
+                current.setTo(times[1]);
+            } else {
+                current = new SpaceTimeMatchDto.Pass(times[0], times[1]);
+                passes.add(current);
+            }
+        }
+        return passes;
+    }
+
+    private static boolean pointHit(GeoPolygon polygon, TrajectoryDto.TrajectoryPointDto point,
+                                    LocalDateTime from, LocalDateTime to, LocalDateTime[] times) {
+        if (point.getTimestamp().isBefore(from) || point.getTimestamp().isAfter(to)
+                || !polygon.contains(point.getLatitude(), point.getLongitude())) {
+            return false;
+        }
+        times[0] = point.getTimestamp();
+        times[1] = point.getTimestamp();
+        return true;
+    }
+
+    private static boolean segmentHit(GeoPolygon polygon, TrajectoryDto.TrajectoryPointDto a,
+                                      TrajectoryDto.TrajectoryPointDto b, LocalDateTime from, LocalDateTime to,
+                                      LocalDateTime[] times) {
+        LocalDateTime t0 = a.getTimestamp().isBefore(from) ? from : a.getTimestamp();
+        LocalDateTime t1 = b.getTimestamp().isAfter(to) ? to : b.getTimestamp();
+        if (t1.isBefore(t0)) {
+            return false;
+        }
+        // Clip the segment to the window by linear interpolation
+        double span = Duration.between(a.getTimestamp(), b.getTimestamp()).toMillis();
+        double f0 = span > 0 ? Duration.between(a.getTimestamp(), t0).toMillis() / span : 0;
+        double f1 = span > 0 ? Duration.between(a.getTimestamp(), t1).toMillis() / span : 1;
+        double dLat = b.getLatitude() - a.getLatitude();
+        double dLng = b.getLongitude() - a.getLongitude();
+        if (!polygon.intersectsSegment(a.getLatitude() + f0 * dLat, a.getLongitude() + f0 * dLng,
+                a.getLatitude() + f1 * dLat, a.getLongitude() + f1 * dLng)) {
+            return false;
+        }
+        times[0] = t0;
+        times[1] = t1;
+        return true;
+    }
+
+    private static TrajectoryCellVisit toEntity(String callsign, OpenVisit visit) {
+        return TrajectoryCellVisit.builder()
+                .callsign(callsign)
+                .cell(visit.cell)
+                .firstTime(visit.first)
+                .lastTime(visit.last)
+                .build();
+    }
+
+    private static final class TrackCursor {
+        final String callsign;
+        final Map<Long, OpenVisit> open = new HashMap<>();
+        double lastLat;
+        double lastLng;
+        LocalDateTime lastTime;
+
+        TrackCursor(String callsign) {
+            this.callsign = callsign;
+        }
+    }
+
+    private static final class OpenVisit {
+        final long cell;
+        final LocalDateTime first;
+        LocalDateTime last;
+
+        OpenVisit(long cell, LocalDateTime first) {
+            this.cell = cell;
+            this.first = first;
+            this.last = first;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.aircraft.tracking.service;
+
+/**
+ * Thrown when a single position update is fused as a manual report but a feed has reported
+ * the position recently, so {@link TrackFusionService} keeps the feed's position and the
+ * track does not move.
+ */
+public class SupersededUpdateException extends RuntimeException {
+
+    public SupersededUpdateException(String callsign) {
+        super("Update for " + callsign + " superseded by feed reports");
+    }
+}
@@ -0,0 +1,63 @@
+package com.aircraft.tracking.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Set of callsigns whose state changed since the last drain. {@link TrackingService} marks
+ * every applied update; the per-aircraft publisher drains the set on its own schedule, so
+ * any number of updates to one aircraft between drains collapse into one entry.
+ */
+@Service
+public class TrackChangeNotifier {
+
+    private final Set<String> changed = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong marked = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public void changed(String callsign) {
+        marked.incrementAndGet();
+        if (!changed.add(callsign)) {
+            coalesced.incrementAndGet();
+        }
+    }
+
+    public void changed(Collection<String> callsigns) {
+        for (String callsign : callsigns) {
+            changed(callsign);
+        }
+    }
+
+    /**
+     * Removes and returns the changed callsigns. A change marked while draining is either
+     * returned now or kept for the next drain, never lost.
+     */
+    public List<String> drain() {
+        List<String> drained = new ArrayList<>(changed.size());
+        for (String callsign : changed) {
+            if (changed.remove(callsign)) {
+                drained.add(callsign);
+            }
+        }
+        return drained;
+    }
+
+    public int pending() {
+        return changed.size();
+    }
+
+    public long getMarked() {
+        return marked.get();
+    }
+
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+}
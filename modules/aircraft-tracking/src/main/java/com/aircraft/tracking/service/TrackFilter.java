@@ -0,0 +1,192 @@
+package com.aircraft.tracking.service;
+
+/**
+ * Constant-velocity Kalman filter for one aircraft in a local east/north/up frame anchored
+ * at the first fix. Each axis carries a {@code [position, velocity]} state with a 2x2
+ * covariance and white-noise-acceleration process noise; the axes are filtered
+ * independently, which keeps every update a fixed handful of arithmetic operations on
+ * fields, with no matrices or allocation.
+ * <p>
+ * There is no turn model: a turn shows up only as acceleration noise, so the estimate lags
+ * through it and {@link #predict} always extrapolates a straight line along the current
+ * track. Predictions for turning aircraft are only as good as the growing sigma says.
+ * <p>
+ * The flat-earth frame is moved to the current position whenever the aircraft gets more
+ * than {@value #REANCHOR_DISTANCE_M} m from its origin, so long tracks do not accumulate
+ * the scale error of a stale longitude factor.
+ * <p>
+ * Units: metres, metres per second and milliseconds.
+ */
+public final class TrackFilter {
+
+    private static final double EARTH_RADIUS_M = 6_371_000.0;
+    private static final double FEET_TO_M = 0.3048;
+    private static final double KNOTS_TO_MPS = 0.514444;
+    // Initial velocity uncertainty when seeded from reported speed/heading
+    private static final double INITIAL_VELOCITY_SIGMA = 15.0;
+    // Equirectangular error at this range stays below the horizontal measurement noise
+    static final double REANCHOR_DISTANCE_M = 20_000.0;
+
+    private final double horizontalMeasurementVar;
+    private final double horizontalAccelerationVar;
+    private final double verticalMeasurementVar;
+    private final double verticalAccelerationVar;
+
+    private double originLat;
+    private double originLon;
+    private double metresPerDegLon;
+    private double metresPerDegLat;
+
+    private final Axis east = new Axis();
+    private final Axis north = new Axis();
+    private final Axis up = new Axis();
+
+    private long lastUpdateMillis;
+    private int updates;
+
+    public TrackFilter(double horizontalMeasurementSigma, double horizontalAccelerationSigma,
+                       double verticalMeasurementSigma, double verticalAccelerationSigma) {
+        this.horizontalMeasurementVar = horizontalMeasurementSigma * horizontalMeasurementSigma;
+        this.horizontalAccelerationVar = horizontalAccelerationSigma * horizontalAccelerationSigma;
+        this.verticalMeasurementVar = verticalMeasurementSigma * verticalMeasurementSigma;
+        this.verticalAccelerationVar = verticalAccelerationSigma * verticalAccelerationSigma;
+    }
+
+    /**
+     * Incorporates one measurement. The first one (or the first after {@link #reset()})
+     * initialises position from the fix and velocity from the reported speed, heading and
+     * vertical speed. Out-of-order measurements are ignored.
+     */
+    public synchronized void update(long timeMillis, double latitude, double longitude, double altitudeFt,
+                                    double speedKt, double headingDeg, double verticalSpeedFpm) {
+        if (updates == 0) {
+            originLat = latitude;
+            originLon = longitude;
+            metresPerDegLat = Math.toRadians(1) * EARTH_RADIUS_M;
+            metresPerDegLon = metresPerDegLat * Math.cos(Math.toRadians(latitude));
+            double groundSpeed = speedKt * KNOTS_TO_MPS;
+            double heading = Math.toRadians(headingDeg);
+            east.init(0, groundSpeed * Math.sin(heading), horizontalMeasurementVar);
+            north.init(0, groundSpeed * Math.cos(heading), horizontalMeasurementVar);
+            up.init(altitudeFt * FEET_TO_M, verticalSpeedFpm * FEET_TO_M / 60.0, verticalMeasurementVar);
+            lastUpdateMillis = timeMillis;
+            updates = 1;
+            return;
+        }
+        if (timeMillis < lastUpdateMillis) {
+            return;
+        }
+        double dt = (timeMillis - lastUpdateMillis) / 1000.0;
+        east.predict(dt, horizontalAccelerationVar);
+        north.predict(dt, horizontalAccelerationVar);
+        up.predict(dt, verticalAccelerationVar);
+        east.correct((longitude - originLon) * metresPerDegLon, horizontalMeasurementVar);
+        north.correct((latitude - originLat) * metresPerDegLat, horizontalMeasurementVar);
+        up.correct(altitudeFt * FEET_TO_M, verticalMeasurementVar);
+        lastUpdateMillis = timeMillis;
+        updates++;
+        if (Math.hypot(east.position, north.position) > REANCHOR_DISTANCE_M) {
+            reanchor();
+        }
+    }
+
+    /**
+     * Moves the frame origin to the current position estimate. Only positions shift;
+     * velocities and covariances are unchanged by the translation.
+     */
+    private void reanchor() {
+        originLat += north.position / metresPerDegLat;
+        originLon += east.position / metresPerDegLon;
+        metresPerDegLon = metresPerDegLat * Math.cos(Math.toRadians(originLat));
+        east.position = 0;
+        north.position = 0;
+    }
+
+    /**
+     * Predicts the state at {@code timeMillis} without changing the filter, writing
+     * {@code [latitude, longitude, altitudeFt, speedKt, headingDeg, verticalSpeedFpm,
+     * horizontalSigmaM]} into {@code out}.
+     *
+     * @return false if the filter has not been initialised
+     */
+    public synchronized boolean predict(long timeMillis, double[] out) {
+        if (updates == 0) {
+            return false;
+        }
+        double dt = Math.max(0, (timeMillis - lastUpdateMillis) / 1000.0);
+        double e = east.position + east.velocity * dt;
+        double n = north.position + north.velocity * dt;
+        double u = up.position + up.velocity * dt;
+        double horizontalVar = east.positionVariance(dt, horizontalAccelerationVar)
+                + north.positionVariance(dt, horizontalAccelerationVar);
+
+        out[0] = originLat + n / metresPerDegLat;
+        out[1] = originLon + e / metresPerDegLon;
+        out[2] = u / FEET_TO_M;
+        out[3] = Math.hypot(east.velocity, north.velocity) / KNOTS_TO_MPS;
+        out[4] = (Math.toDegrees(Math.atan2(east.velocity, north.velocity)) + 360.0) % 360.0;
+        out[5] = up.velocity / FEET_TO_M * 60.0;
+        out[6] = Math.sqrt(horizontalVar);
+        return true;
+    }
+
+    public synchronized int getUpdates() {
+        return updates;
+    }
+
+    public synchronized long getLastUpdateMillis() {
+        return lastUpdateMillis;
+    }
+
+    public synchronized void reset() {
+        updates = 0;
+    }
+
+    /**
+     * One axis of the filter: state {@code [position, velocity]} and its symmetric
+     * covariance {@code [[p00, p01], [p01, p11]]}.
+     */
+    private static final class Axis {
+
+        double position;
+        double velocity;
+        double p00;
+        double p01;
+        double p11;
+
+        void init(double position, double velocity, double measurementVar) {
+            this.position = position;
+            this.velocity = velocity;
+            p00 = measurementVar;
+            p01 = 0;
+            p11 = INITIAL_VELOCITY_SIGMA * INITIAL_VELOCITY_SIGMA;
+        }
+
+        void predict(double dt, double accelerationVar) {
+            position += velocity * dt;
+            double dt2 = dt * dt;
+            // P = F P F' + Q for F = [[1, dt], [0, 1]], Q = q [[dt^4/4, dt^3/2], [dt^3/2, dt^2]]
+            p00 += 2 * dt * p01 + dt2 * p11 + accelerationVar * dt2 * dt2 / 4;
+            p01 += dt * p11 + accelerationVar * dt2 * dt / 2;
+            p11 += accelerationVar * dt2;
+        }
+
+        void correct(double measurement, double measurementVar) {
+            double s = p00 + measurementVar;
+            double k0 = p00 / s;
+            double k1 = p01 / s;
+            double residual = measurement - position;
+            position += k0 * residual;
+            velocity += k1 * residual;
+            double newP11 = p11 - k1 * p01;
+            p00 = (1 - k0) * p00;
+            p01 = (1 - k0) * p01;
+            p11 = newP11;
+        }
+
+        double positionVariance(double dt, double accelerationVar) {
+            double dt2 = dt * dt;
+            return p00 + 2 * dt * p01 + dt2 * p11 + accelerationVar * dt2 * dt2 / 4;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.tracking.dto.FeedAircraftDto;
+import com.aircraft.tracking.fusion.IntObjectMap;
+import com.aircraft.tracking.fusion.ReportSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Correlates reports from several sources (simulator playback, SBS, manual entry) into one
+ * fused track per aircraft, keyed by the 24-bit ICAO address with the callsign as an
+ * alias. Reports without a hex id are matched through the alias; a callsign never seen
+ * with a hex id gets a synthetic key above the ICAO range, and its track is carried over
+ * once the callsign turns up with one.
+ * <p>
+ * Each field group (position, altitude, velocity, identity) remembers which source and
+ * report time it was last taken from. A report replaces a group when it is not older and
+ * its source is at least as accurate, or when the more accurate source has been silent for
+ * {@code tracking.fusion.source-hold-ms}. Reports older than the last one from the same
+ * source, exact repeats of it, and reports that win no group are rejected. A merge is a
+ * constant number of primitive-map and array operations, so adding sources adds no work
+ * per report.
+ */
+@Service
+@Slf4j
+public class TrackFusionService {
+
+    static final int SYNTHETIC_KEY_BASE = 1 << 24;
+
+    private static final int POSITION = 0;
+    private static final int ALTITUDE = 1;
+    private static final int VELOCITY = 2;
+    private static final int IDENTITY = 3;
+    private static final int FIELD_GROUPS = 4;
+    private static final int SOURCES = ReportSource.values().length;
+
+    @Value("${tracking.fusion.source-hold-ms:5000}")
+    private long sourceHoldMillis;
+
+    private final IntObjectMap<FusedTrack> tracks = new IntObjectMap<>(1024);
+    private final Map<String, Integer> aliases = new HashMap<>();
+    private int nextSyntheticKey = SYNTHETIC_KEY_BASE;
+
+    private long accepted;
+    private long duplicates;
+    private long stale;
+    private long unkeyed;
+    private long adopted;
+
+    /**
+     * Per-aircraft fused state. Guarded by the service lock.
+     */
+    private static final class FusedTrack {
+        final String trackCallsign;
+        final long[] lastTime = new long[SOURCES];
+        final int[] lastHash = new int[SOURCES];
+        final long[] fieldTime = new long[FIELD_GROUPS];
+        final ReportSource[] fieldSource = new ReportSource[FIELD_GROUPS];
+        String hexId;
+        Double latitude;
+        Double longitude;
+        Integer altitude;
+        Integer speed;
+        Integer heading;
+        Integer verticalSpeed;
+        String squawk;
+        String flightNumber;
+        String aircraftType;
+        String registration;
+        String origin;
+        String destination;
+        Boolean isOnGround;
+        long receivedMillis;
+
+        FusedTrack(String trackCallsign) {
+            this.trackCallsign = trackCallsign;
+            Arrays.fill(lastTime, Long.MIN_VALUE);
+        }
+    }
+
+    /**
+     * Merges one report into its fused track.
+     *
+     * @return the fused state to apply, named by the callsign the track was first seen
+     *         under (or its hex id), or null if the report was rejected
+     */
+    public synchronized FeedAircraftDto fuse(ReportSource source, FeedAircraftDto report, long receivedMillis) {
+        int hex = parseHexId(report.getHexId());
+        String callsign = callsignOf(report, hex);
+        int key;
+        if (hex >= 0) {
+            key = hex;
+            if (callsign != null) {
+                Integer previous = aliases.put(callsign, hex);
+                if (previous != null && previous >= SYNTHETIC_KEY_BASE && tracks.get(hex) == null) {
+                    FusedTrack carried = tracks.remove(previous);
+                    if (carried != null) {
+                        tracks.put(hex, carried);
+                        adopted++;
+                    }
+                }
+            }
+        } else if (callsign != null) {
+            Integer aliased = aliases.get(callsign);
+            if (aliased == null) {
+                aliased = nextSyntheticKey++;
+                aliases.put(callsign, aliased);
+            }
+            key = aliased;
+        } else {
+            unkeyed++;
+            return null;
+        }
+
+        FusedTrack track = tracks.computeIfAbsent(key,
+                k -> new FusedTrack(callsign != null ? callsign : hexText(k)));
+        long time = report.getLastContact() != null
+                ? TrackHistoryService.toMillis(report.getLastContact()) : receivedMillis;
+        int s = source.ordinal();
+        int hash = contentHash(report);
+        if (time < track.lastTime[s]) {
+            stale++;
+            return null;
+        }
+        if (time == track.lastTime[s] && hash == track.lastHash[s]) {
+            duplicates++;
+            return null;
+        }
+        track.lastTime[s] = time;
+        track.lastHash[s] = hash;
+
+        boolean taken = false;
+        if (validPosition(report) && take(track, POSITION, source, time)) {
+            track.latitude = report.getLatitude();
+            track.longitude = report.getLongitude();
+            taken = true;
+        }
+        if (report.getAltitude() != null && take(track, ALTITUDE, source, time)) {
+            track.altitude = report.getAltitude();
+            track.isOnGround = report.getIsOnGround() != null ? report.getIsOnGround() : track.isOnGround;
+            taken = true;
+        }
+        if (report.getSpeed() != null && report.getHeading() != null && take(track, VELOCITY, source, time)) {
+            track.speed = report.getSpeed();
+            track.heading = report.getHeading();
+            track.verticalSpeed = report.getVerticalSpeed();
+            taken = true;
+        }
+        if (report.getSquawk() != null && take(track, IDENTITY, source, time)) {
+            track.squawk = report.getSquawk();
+            taken = true;
+        }
+        if (!taken) {
+            stale++;
+            return null;
+        }
+
+        if (hex >= 0) {
+            track.hexId = hexText(hex);
+        }
+        track.flightNumber = latest(report.getFlightNumber(), track.flightNumber);
+        track.aircraftType = latest(report.getAircraftType(), track.aircraftType);
+        track.registration = latest(report.getRegistration(), track.registration);
+        track.origin = latest(report.getOrigin(), track.origin);
+        track.destination = latest(report.getDestination(), track.destination);
+        track.receivedMillis = receivedMillis;
+        accepted++;
+        return toReport(track);
+    }
+
+    /**
+     * Name of the fused track a report belongs to, without merging the report; null if no
+     * track has been fused for it yet.
+     */
+    public synchronized String trackCallsign(FeedAircraftDto report) {
+        int hex = parseHexId(report.getHexId());
+        FusedTrack track = hex >= 0 ? tracks.get(hex) : null;
+        if (track == null) {
+            String callsign = callsignOf(report, hex);
+            Integer key = callsign != null ? aliases.get(callsign) : null;
+            track = key != null ? tracks.get(key) : null;
+        }
+        return track != null ? track.trackCallsign : null;
+    }
+
+    /**
+     * Drops fused tracks that have received nothing since {@code cutoffMillis}, with their
+     * aliases.
+     */
+    public synchronized int prune(long cutoffMillis) {
+        int before = tracks.size();
+        tracks.removeIf((key, track) -> track.receivedMillis < cutoffMillis);
+        int removed = before - tracks.size();
+        if (removed > 0) {
+            aliases.values().removeIf(key -> tracks.get(key) == null);
+            log.debug("Pruned {} fused tracks", removed);
+        }
+        return removed;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("tracks", tracks.size());
+        stats.put("aliases", aliases.size());
+        stats.put("accepted", accepted);
+        stats.put("duplicates", duplicates);
+        stats.put("stale", stale);
+        stats.put("unkeyed", unkeyed);
+        stats.put("adopted", adopted);
+        return stats;
+    }
+
+    private boolean take(FusedTrack track, int group, ReportSource source, long time) {
+        ReportSource current = track.fieldSource[group];
+        if (current != null) {
+            long age = time - track.fieldTime[group];
+            if (age < 0 || source.getAccuracy() < current.getAccuracy() && age <= sourceHoldMillis) {
+                return false;
+            }
+        }
+        track.fieldSource[group] = source;
+        track.fieldTime[group] = time;
+        return true;
+    }
+
+    private static String latest(String reported, String current) {
+        return reported != null ? reported : current;
+    }
+
+    private static FeedAircraftDto toReport(FusedTrack track) {
+        long latest = Arrays.stream(track.fieldTime).max().orElse(track.receivedMillis);
+        return FeedAircraftDto.builder()
+                .callsign(track.trackCallsign)
+                .hexId(track.hexId)
+                .flightNumber(track.flightNumber)
+                .latitude(track.latitude)
+                .longitude(track.longitude)
+                .altitude(track.altitude)
+                .speed(track.speed)
+                .heading(track.heading)
+                .verticalSpeed(track.verticalSpeed)
+                .squawk(track.squawk)
+                .aircraftType(track.aircraftType)
+                .registration(track.registration)
+                .origin(track.origin)
+                .destination(track.destination)
+                .isOnGround(track.isOnGround)
+                .lastContact(LocalDateTime.ofInstant(Instant.ofEpochMilli(latest), ZoneId.systemDefault()))
+                .build();
+    }
+
+    /**
+     * @return the ICAO address, or -1 when absent or not 1-6 hex digits
+     */
+    static int parseHexId(String hexId) {
+        if (hexId == null) {
+            return -1;
+        }
+        String trimmed = hexId.trim();
+        if (trimmed.isEmpty() || trimmed.length() > 6) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(trimmed, 16);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String callsignOf(FeedAircraftDto report, int hex) {
+        if (report.getCallsign() == null || report.getCallsign().isBlank()) {
+            return null;
+        }
+        String callsign = report.getCallsign().trim();
+        // Sources that need a name for every aircraft fall back to the hex id, which is no alias
+        if (hex >= 0 && parseHexId(callsign) == hex) {
+            return null;
+        }
+        return callsign;
+    }
+
+    private static String hexText(int key) {
+        return String.format("%06X", key);
+    }
+
+    private static boolean validPosition(FeedAircraftDto report) {
+        return report.getLatitude() != null && report.getLongitude() != null
+                && Math.abs(report.getLatitude()) <= 90 && Math.abs(report.getLongitude()) <= 180;
+    }
+
+    private static int contentHash(FeedAircraftDto report) {
+        return Objects.hash(report.getLatitude(), report.getLongitude(), report.getAltitude(), report.getSpeed(),
+                report.getHeading(), report.getVerticalSpeed(), report.getSquawk());
+    }
+}
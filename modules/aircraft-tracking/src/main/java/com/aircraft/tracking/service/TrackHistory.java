@@ -0,0 +1,182 @@
+package com.aircraft.tracking.service;
+
+/**
+ * Fixed-capacity ring buffer of recent position samples for one aircraft, stored in
+ * parallel primitive arrays so recording and reading never allocate. Index 0 is the newest
+ * sample. All methods synchronize on the instance; contention is limited to one writer
+ * and the occasional reader.
+ */
+public final class TrackHistory {
+
+    private final long[] timeMillis;
+    private final double[] latitude;
+    private final double[] longitude;
+    private final int[] altitude;
+    private final int[] speed;
+    private final int[] heading;
+    private final int[] verticalSpeed;
+
+    private int head = -1;
+    private int size;
+
+    public TrackHistory(int capacity) {
+        timeMillis = new long[capacity];
+        latitude = new double[capacity];
+        longitude = new double[capacity];
+        altitude = new int[capacity];
+        speed = new int[capacity];
+        heading = new int[capacity];
+        verticalSpeed = new int[capacity];
+    }
+
+    public synchronized void add(long time, double lat, double lon, int alt, int spd, int hdg, int vs) {
+        int capacity = timeMillis.length;
+        head = (head + 1) % capacity;
+        timeMillis[head] = time;
+        latitude[head] = lat;
+        longitude[head] = lon;
+        altitude[head] = alt;
+        speed[head] = spd;
+        heading[head] = hdg;
+        verticalSpeed[head] = vs;
+        if (size < capacity) {
+            size++;
+        }
+    }
+
+    /**
+     * Places a sample that arrived out of order at its position by time, shifting the newer
+     * samples up by one. When the buffer is full the oldest sample is dropped; a sample older
+     * than all of a full buffer, or measured at the same time as one already held, is not kept.
+     *
+     * @return whether the sample was stored
+     */
+    public synchronized boolean insert(long time, double lat, double lon, int alt, int spd, int hdg, int vs) {
+        if (size == 0 || time > timeMillis[head]) {
+            add(time, lat, lon, alt, spd, hdg, vs);
+            return true;
+        }
+        int capacity = timeMillis.length;
+        int newer = 0;
+        while (newer < size && timeMillis[slot(newer)] > time) {
+            newer++;
+        }
+        if (newer < size && timeMillis[slot(newer)] == time || newer == size && size == capacity) {
+            return false;
+        }
+        head = (head + 1) % capacity;
+        if (size < capacity) {
+            size++;
+        }
+        for (int age = 0; age < newer; age++) {
+            int to = slot(age);
+            int from = slot(age + 1);
+            timeMillis[to] = timeMillis[from];
+            latitude[to] = latitude[from];
+            longitude[to] = longitude[from];
+            altitude[to] = altitude[from];
+            speed[to] = speed[from];
+            heading[to] = heading[from];
+            verticalSpeed[to] = verticalSpeed[from];
+        }
+        int i = slot(newer);
+        timeMillis[i] = time;
+        latitude[i] = lat;
+        longitude[i] = lon;
+        altitude[i] = alt;
+        speed[i] = spd;
+        heading[i] = hdg;
+        verticalSpeed[i] = vs;
+        return true;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return timeMillis.length;
+    }
+
+    /**
+     * Number of samples no older than {@code windowMillis} relative to the newest one.
+     */
+    public synchronized int countWithin(long windowMillis) {
+        if (size == 0) {
+            return 0;
+        }
+        long from = timeMillis[head] - windowMillis;
+        int count = 0;
+        while (count < size && timeMillis[slot(count)] >= from) {
+            count++;
+        }
+        return count;
+    }
+
+    public synchronized long timeMillis(int age) {
+        return timeMillis[slot(age)];
+    }
+
+    public synchronized double latitude(int age) {
+        return latitude[slot(age)];
+    }
+
+    public synchronized double longitude(int age) {
+        return longitude[slot(age)];
+    }
+
+    public synchronized int altitude(int age) {
+        return altitude[slot(age)];
+    }
+
+    public synchronized int speed(int age) {
+        return speed[slot(age)];
+    }
+
+    public synchronized int heading(int age) {
+        return heading[slot(age)];
+    }
+
+    public synchronized int verticalSpeed(int age) {
+        return verticalSpeed[slot(age)];
+    }
+
+    /**
+     * Least-squares slope of altitude over the window, in feet per minute; 0 when fewer
+     * than two samples are available.
+     */
+    public synchronized double altitudeTrend(long windowMillis) {
+        return slope(altitude, windowMillis) * 60.0;
+    }
+
+    private double slope(int[] values, long windowMillis) {
+        int n = countWithin(windowMillis);
+        if (n < 2) {
+            return 0.0;
+        }
+        long t0 = timeMillis[head];
+        double sumT = 0;
+        double sumV = 0;
+        double sumTT = 0;
+        double sumTV = 0;
+        for (int age = 0; age < n; age++) {
+            int i = slot(age);
+            double t = (timeMillis[i] - t0) / 1000.0;
+            double v = values[i];
+            sumT += t;
+            sumV += v;
+            sumTT += t * t;
+            sumTV += t * v;
+        }
+        double denominator = n * sumTT - sumT * sumT;
+        return denominator == 0 ? 0.0 : (n * sumTV - sumT * sumV) / denominator;
+    }
+
+    private int slot(int age) {
+        if (age < 0 || age >= size) {
+            throw new IndexOutOfBoundsException("age " + age + " outside history of " + size);
+        }
+        int i = head - age;
+        return i < 0 ? i + timeMillis.length : i;
+    }
+}
@@ -0,0 +1,157 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.tracking.model.TrajectoryPoint;
+import com.aircraft.tracking.repository.TrajectoryPointRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds a {@link TrackHistory} ring buffer and a {@link TrackFilter} state estimator per
+ * callsign, both fed by every position update, so prediction (from the filter) and phase
+ * detection (from the history's altitude trend) read from memory instead of the database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrackHistoryService {
+
+    private static final int SEED_LOOKBACK_MINUTES = 10;
+
+    private final TrajectoryPointRepository trajectoryRepository;
+
+    @Value("${tracking.history.capacity:256}")
+    private int capacity;
+
+    @Value("${tracking.prediction.filter.measurement-sigma-m:30}")
+    private double measurementSigma;
+
+    @Value("${tracking.prediction.filter.acceleration-sigma-mps2:1.5}")
+    private double accelerationSigma;
+
+    @Value("${tracking.prediction.filter.vertical-measurement-sigma-m:15}")
+    private double verticalMeasurementSigma;
+
+    @Value("${tracking.prediction.filter.vertical-acceleration-sigma-mps2:0.5}")
+    private double verticalAccelerationSigma;
+
+    @Value("${tracking.prediction.filter.reset-after-seconds:60}")
+    private long resetAfterSeconds;
+
+    private final Map<String, TrackHistory> histories = new ConcurrentHashMap<>();
+    private final Map<String, TrackFilter> filters = new ConcurrentHashMap<>();
+
+    public void record(String callsign, LocalDateTime timestamp, double latitude, double longitude,
+                       int altitude, int speed, int heading, Integer verticalSpeed) {
+        long millis = toMillis(timestamp);
+        int vs = verticalSpeed != null ? verticalSpeed : 0;
+        histories.computeIfAbsent(callsign, c -> new TrackHistory(capacity))
+                .add(millis, latitude, longitude, altitude, speed, heading, vs);
+        updateFilter(filters.computeIfAbsent(callsign, c -> newFilter()),
+                millis, latitude, longitude, altitude, speed, heading, vs);
+    }
+
+    /**
+     * Records a sample measured before the newest one in the history. It is placed in time
+     * order but does not update the state estimator, which only moves forward.
+     *
+     * @return whether the history kept the sample
+     */
+    public boolean merge(String callsign, LocalDateTime timestamp, double latitude, double longitude,
+                         int altitude, int speed, int heading, Integer verticalSpeed) {
+        return histories.computeIfAbsent(callsign, c -> new TrackHistory(capacity))
+                .insert(toMillis(timestamp), latitude, longitude, altitude, speed, heading,
+                        verticalSpeed != null ? verticalSpeed : 0);
+    }
+
+    /**
+     * Returns the state estimator for a callsign, seeding it from persisted history like
+     * {@link #get(String)} when the aircraft has not been seen since startup.
+     */
+    public TrackFilter getFilter(String callsign) {
+        get(callsign);
+        return filters.computeIfAbsent(callsign, c -> newFilter());
+    }
+
+    /**
+     * Returns the history for a callsign. An aircraft not seen since startup is seeded once
+     * from its persisted trajectory so predictions work straight after a restart.
+     */
+    public TrackHistory get(String callsign) {
+        TrackHistory history = histories.get(callsign);
+        if (history != null) {
+            return history;
+        }
+        // Seeded outside the map so the query holds no bin lock; a concurrent seed or record wins
+        TrackFilter filter = newFilter();
+        TrackHistory seeded = seed(callsign, filter);
+        TrackHistory existing = histories.putIfAbsent(callsign, seeded);
+        if (existing != null) {
+            return existing;
+        }
+        filters.putIfAbsent(callsign, filter);
+        return seeded;
+    }
+
+    /**
+     * Filters updated at or after {@code sinceMillis}, for batch processing.
+     */
+    public List<Map.Entry<String, TrackFilter>> activeFilters(long sinceMillis) {
+        List<Map.Entry<String, TrackFilter>> active = new ArrayList<>(filters.size());
+        for (Map.Entry<String, TrackFilter> entry : filters.entrySet()) {
+            TrackFilter filter = entry.getValue();
+            if (filter.getUpdates() > 0 && filter.getLastUpdateMillis() >= sinceMillis) {
+                active.add(Map.entry(entry.getKey(), filter));
+            }
+        }
+        return active;
+    }
+
+    public void remove(String callsign) {
+        histories.remove(callsign);
+        filters.remove(callsign);
+    }
+
+    private TrackHistory seed(String callsign, TrackFilter filter) {
+        TrackHistory history = new TrackHistory(capacity);
+        LocalDateTime now = LocalDateTime.now();
+        List<TrajectoryPoint> points = trajectoryRepository.findByCallsignAndTimeRange(
+                callsign, now.minusMinutes(SEED_LOOKBACK_MINUTES), now);
+        int from = Math.max(0, points.size() - capacity);
+        for (TrajectoryPoint point : points.subList(from, points.size())) {
+            long millis = toMillis(point.getTimestamp());
+            int vs = point.getVerticalSpeed() != null ? point.getVerticalSpeed() : 0;
+            history.add(millis, point.getLatitude(), point.getLongitude(),
+                    point.getAltitude(), point.getSpeed(), point.getHeading(), vs);
+            updateFilter(filter, millis, point.getLatitude(), point.getLongitude(),
+                    point.getAltitude(), point.getSpeed(), point.getHeading(), vs);
+        }
+        log.debug("Seeded track history for {} with {} points", callsign, history.size());
+        return history;
+    }
+
+    private TrackFilter newFilter() {
+        return new TrackFilter(measurementSigma, accelerationSigma, verticalMeasurementSigma, verticalAccelerationSigma);
+    }
+
+    private void updateFilter(TrackFilter filter, long millis, double latitude, double longitude,
+                              int altitude, int speed, int heading, int verticalSpeed) {
+        // A long gap (track lost and reacquired) restarts the estimate rather than coasting through it
+        if (filter.getUpdates() > 0 && millis - filter.getLastUpdateMillis() > resetAfterSeconds * 1000) {
+            filter.reset();
+        }
+        filter.update(millis, latitude, longitude, altitude, speed, heading, verticalSpeed);
+    }
+
+    static long toMillis(LocalDateTime timestamp) {
+        return timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
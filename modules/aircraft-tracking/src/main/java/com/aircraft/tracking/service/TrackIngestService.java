@@ -0,0 +1,163 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.tracking.dto.FeedAircraftDto;
+import com.aircraft.tracking.fusion.ReportSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ingest pipeline for surveillance feeds. Frames are accepted without blocking the
+ * receiving thread and held per aircraft by {@link TrackReorderService} until they can be
+ * released in measurement order. A scheduled drain merges the released reports per
+ * aircraft through {@link TrackFusionService}, coalesces them to the newest fused state per
+ * track and applies those to {@link TrackingService} in micro-batches, creating tracks for
+ * new callsigns; reports that arrived too late to be applied go to the track history only.
+ * Tracks without a report for {@code tracking.ingest.retire-after-seconds} are retired.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrackIngestService {
+    
+    private final TrackingService trackingService;
+    private final TrackFusionService fusionService;
+    private final TrackReorderService reorderService;
+    
+    @Value("${tracking.ingest.retire-after-seconds:300}")
+    private long retireAfterSeconds;
+    
+    private final Object drainLock = new Object();
+    
+    private final AtomicLong frames = new AtomicLong();
+    private final AtomicLong reports = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong updated = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong lateMerged = new AtomicLong();
+    private final AtomicLong retired = new AtomicLong();
+    private volatile long lastBatchMicros;
+    
+    public void submit(List<FeedAircraftDto> frame) {
+        submit(ReportSource.SIMULATOR, frame);
+    }
+    
+    /**
+     * Accepts one frame from a source into the reorder buffers; a report measured at the
+     * same instant as one already held from that source replaces it.
+     */
+    public void submit(ReportSource source, List<FeedAircraftDto> frame) {
+        frames.incrementAndGet();
+        long now = System.currentTimeMillis();
+        for (FeedAircraftDto report : frame) {
+            if (report == null) {
+                rejected.incrementAndGet();
+                continue;
+            }
+            reports.incrementAndGet();
+            switch (reorderService.offer(source, report, now)) {
+                case REPLACED -> coalesced.incrementAndGet();
+                case TOO_LATE -> rejected.incrementAndGet();
+                default -> {
+                }
+            }
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${tracking.ingest.batch-interval-ms:250}")
+    public void drain() {
+        synchronized (drainLock) {
+            mergeLate();
+            Map<String, FeedAircraftDto> newest = new LinkedHashMap<>();
+            for (TrackReorderService.SourcedReport released : reorderService.release(System.currentTimeMillis())) {
+                FeedAircraftDto fused = fusionService.fuse(released.source(), released.report(),
+                        released.receivedMillis());
+                if (fused == null) {
+                    rejected.incrementAndGet();
+                } else if (newest.put(fused.getCallsign(), fused) != null) {
+                    coalesced.incrementAndGet();
+                }
+            }
+            if (newest.isEmpty()) {
+                return;
+            }
+            List<FeedAircraftDto> batch = new ArrayList<>(newest.values());
+            long start = System.nanoTime();
+            try {
+                TrackingService.IngestResult result = trackingService.ingest(batch);
+                created.addAndGet(result.created());
+                updated.addAndGet(result.updated());
+                lateMerged.addAndGet(result.merged());
+                rejected.addAndGet(result.rejected());
+                batches.incrementAndGet();
+            } catch (RuntimeException e) {
+                log.error("Failed to apply ingest batch of {} reports", batch.size(), e);
+            }
+            lastBatchMicros = (System.nanoTime() - start) / 1000;
+        }
+    }
+    
+    /**
+     * Hands reports that arrived after later ones were released to the track history,
+     * under the name of the fused track they belong to.
+     */
+    private void mergeLate() {
+        List<FeedAircraftDto> late = reorderService.drainLate();
+        if (late.isEmpty()) {
+            return;
+        }
+        List<FeedAircraftDto> known = new ArrayList<>(late.size());
+        for (FeedAircraftDto report : late) {
+            String callsign = fusionService.trackCallsign(report);
+            if (callsign != null) {
+                report.setCallsign(callsign);
+                known.add(report);
+            }
+        }
+        try {
+            lateMerged.addAndGet(trackingService.mergeLate(known));
+        } catch (RuntimeException e) {
+            log.error("Failed to merge {} late reports", known.size(), e);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${tracking.ingest.retire-check-ms:10000}")
+    public void retireStale() {
+        int count = trackingService.retireTracks(LocalDateTime.now().minusSeconds(retireAfterSeconds));
+        if (count > 0) {
+            retired.addAndGet(count);
+            log.info("Retired {} tracks without reports for {} s", count, retireAfterSeconds);
+        }
+        fusionService.prune(System.currentTimeMillis() - retireAfterSeconds * 1000);
+        reorderService.prune(System.currentTimeMillis() - retireAfterSeconds * 1000);
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("frames", frames.get());
+        stats.put("reports", reports.get());
+        stats.put("coalesced", coalesced.get());
+        stats.put("pending", reorderService.pending());
+        stats.put("batches", batches.get());
+        stats.put("created", created.get());
+        stats.put("updated", updated.get());
+        stats.put("rejected", rejected.get());
+        stats.put("lateMerged", lateMerged.get());
+        stats.put("retired", retired.get());
+        stats.put("lastBatchMicros", lastBatchMicros);
+        stats.put("fusion", fusionService.getStats());
+        stats.put("reorder", reorderService.getStats());
+        return stats;
+    }
+}
@@ -0,0 +1,154 @@
+package com.aircraft.tracking.service;
+
+/**
+ * Streaming plausibility check for one aircraft. Each sample is compared with the last
+ * accepted one: the ground speed implied by the displacement, the implied climb rate and
+ * the turn rate are held against the type's {@link AircraftPerformance.Limits}, and an
+ * unchanged position from a moving aircraft is treated as a stale repeat. A run of
+ * {@code resyncAfterRejects} rejections means the baseline itself was bad, so the next
+ * sample is accepted and becomes the new baseline.
+ * <p>
+ * The quality score is an exponential average of accepted (1) and rejected (0) samples.
+ * An update is a fixed amount of arithmetic. Samples that arrive out of order are checked
+ * against their recorded neighbours with {@link #check} instead, leaving the baseline alone.
+ */
+public final class TrackQualityFilter {
+
+    private static final double METRES_PER_DEGREE = 111_194.9;
+    private static final double METRES_PER_SECOND_PER_KNOT = 0.514444;
+
+    public enum Rejection {
+        STALE_REPEAT,
+        POSITION_JUMP,
+        ALTITUDE_SPIKE,
+        TURN_RATE
+    }
+
+    /**
+     * Tolerances shared by all aircraft.
+     */
+    public record Settings(double speedTolerance, double positionNoiseMeters, int altitudeNoiseFt,
+                           double headingNoiseDeg, int minMovingSpeedKts, int resyncAfterRejects,
+                           double scoreSmoothing) {
+    }
+
+    private final Settings settings;
+
+    private boolean hasBaseline;
+    private long lastTimeMillis;
+    private double lastLatitude;
+    private double lastLongitude;
+    private int lastAltitude;
+    private int lastHeading;
+
+    private double score = 1.0;
+    private long accepted;
+    private long rejected;
+    private int consecutiveRejects;
+    private long resyncs;
+    private Rejection lastRejection;
+
+    public TrackQualityFilter(Settings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Checks one sample and, if accepted, makes it the baseline for the next.
+     *
+     * @return null if the sample is plausible, otherwise why it was rejected
+     */
+    public synchronized Rejection assess(long timeMillis, double latitude, double longitude, int altitude,
+                                         int speed, int heading, AircraftPerformance.Limits limits) {
+        Rejection rejection = hasBaseline ? check(timeMillis, latitude, longitude, altitude, speed, heading, limits) : null;
+        if (rejection != null && consecutiveRejects + 1 >= settings.resyncAfterRejects()) {
+            resyncs++;
+            rejection = null;
+        }
+        if (rejection != null) {
+            rejected++;
+            consecutiveRejects++;
+            lastRejection = rejection;
+            score += settings.scoreSmoothing() * (0.0 - score);
+            return rejection;
+        }
+        accepted++;
+        consecutiveRejects = 0;
+        score += settings.scoreSmoothing() * (1.0 - score);
+        hasBaseline = true;
+        lastTimeMillis = timeMillis;
+        lastLatitude = latitude;
+        lastLongitude = longitude;
+        lastAltitude = altitude;
+        lastHeading = heading;
+        return null;
+    }
+
+    public synchronized double getScore() {
+        return score;
+    }
+
+    public synchronized long getAccepted() {
+        return accepted;
+    }
+
+    public synchronized long getRejected() {
+        return rejected;
+    }
+
+    public synchronized long getResyncs() {
+        return resyncs;
+    }
+
+    public synchronized Rejection getLastRejection() {
+        return lastRejection;
+    }
+
+    private Rejection check(long timeMillis, double latitude, double longitude, int altitude, int speed, int heading,
+                            AircraftPerformance.Limits limits) {
+        return check(settings, lastTimeMillis, lastLatitude, lastLongitude, lastAltitude, lastHeading,
+                timeMillis, latitude, longitude, altitude, speed, heading, limits);
+    }
+
+    /**
+     * Checks a sample against an earlier one, {@code (lastTimeMillis, lastLatitude, ...)}.
+     *
+     * @return null if the pair is plausible, otherwise why the sample was rejected
+     */
+    static Rejection check(Settings settings, long lastTimeMillis, double lastLatitude, double lastLongitude,
+                           int lastAltitude, int lastHeading, long timeMillis, double latitude, double longitude,
+                           int altitude, int speed, int heading, AircraftPerformance.Limits limits) {
+        boolean moving = speed >= settings.minMovingSpeedKts();
+        if (moving && latitude == lastLatitude && longitude == lastLongitude && altitude == lastAltitude) {
+            return Rejection.STALE_REPEAT;
+        }
+        double dt = (timeMillis - lastTimeMillis) / 1000.0;
+        if (dt <= 0) {
+            // Same instant as the baseline: only a repeat can be judged
+            return null;
+        }
+
+        double north = (latitude - lastLatitude) * METRES_PER_DEGREE;
+        double east = (longitude - lastLongitude) * METRES_PER_DEGREE * Math.cos(Math.toRadians(lastLatitude));
+        double distance = Math.sqrt(north * north + east * east);
+        double maxDistance = limits.maxSpeedKts() * METRES_PER_SECOND_PER_KNOT * dt * (1 + settings.speedTolerance())
+                + settings.positionNoiseMeters();
+        if (distance > maxDistance) {
+            return Rejection.POSITION_JUMP;
+        }
+
+        double maxClimb = limits.maxClimbFpm() / 60.0 * dt * (1 + settings.speedTolerance()) + settings.altitudeNoiseFt();
+        if (Math.abs(altitude - lastAltitude) > maxClimb) {
+            return Rejection.ALTITUDE_SPIKE;
+        }
+
+        // Ground movement can pivot in place, so turn rate is only judged when moving
+        if (moving) {
+            double maxTurn = limits.maxTurnRateDegPerSec() * dt * (1 + settings.speedTolerance())
+                    + settings.headingNoiseDeg();
+            if (Math.abs(FlightPhaseClassifier.headingDifference(heading, lastHeading)) > maxTurn) {
+                return Rejection.TURN_RATE;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,183 @@
+package com.aircraft.tracking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Screens every position update before it reaches the track state. Keeps a
+ * {@link TrackQualityFilter} per callsign and counts rejections by reason; a rejected
+ * update is dropped so that corrupt reports never move the live track, its history or
+ * the persisted trajectory.
+ */
+@Service
+@Slf4j
+public class TrackQualityService {
+
+    @Value("${tracking.quality.enabled:true}")
+    private boolean enabled;
+
+    @Value("${tracking.quality.speed-tolerance:0.25}")
+    private double speedTolerance;
+
+    @Value("${tracking.quality.position-noise-m:300}")
+    private double positionNoiseMeters;
+
+    @Value("${tracking.quality.altitude-noise-ft:300}")
+    private int altitudeNoiseFt;
+
+    @Value("${tracking.quality.heading-noise-deg:15}")
+    private double headingNoiseDeg;
+
+    @Value("${tracking.quality.min-moving-speed-kts:30}")
+    private int minMovingSpeedKts;
+
+    @Value("${tracking.quality.resync-after-rejects:5}")
+    private int resyncAfterRejects;
+
+    @Value("${tracking.quality.score-smoothing:0.1}")
+    private double scoreSmoothing;
+
+    private volatile TrackQualityFilter.Settings settings;
+
+    private final Map<String, TrackQualityFilter> filters = new ConcurrentHashMap<>();
+    private final Map<TrackQualityFilter.Rejection, AtomicLong> rejections = newCounters();
+    private final AtomicLong assessed = new AtomicLong();
+
+    /**
+     * Checks one update against the track's last accepted sample. Callers serialize
+     * updates per callsign.
+     *
+     * @return null if the update may be applied, otherwise why it was rejected
+     */
+    public TrackQualityFilter.Rejection assess(String callsign, String aircraftType, LocalDateTime timestamp,
+                                               double latitude, double longitude, int altitude, int speed,
+                                               int heading) {
+        if (!enabled) {
+            return null;
+        }
+        assessed.incrementAndGet();
+        TrackQualityFilter filter = filters.computeIfAbsent(callsign, c -> new TrackQualityFilter(getSettings()));
+        TrackQualityFilter.Rejection rejection = filter.assess(TrackHistoryService.toMillis(timestamp),
+                latitude, longitude, altitude, speed, heading, AircraftPerformance.forType(aircraftType));
+        if (rejection != null) {
+            rejections.get(rejection).incrementAndGet();
+            log.debug("Rejected update for {}: {}", callsign, rejection);
+        }
+        return rejection;
+    }
+
+    /**
+     * Checks an update measured before the track's live state against the samples either
+     * side of it in {@code history}, without moving the baseline or the quality score.
+     * Callers serialize updates per callsign.
+     *
+     * @return null if the update may be merged, otherwise why it was rejected
+     */
+    public TrackQualityFilter.Rejection assessLate(String callsign, String aircraftType, LocalDateTime timestamp,
+                                                   double latitude, double longitude, int altitude, int speed,
+                                                   int heading, TrackHistory history) {
+        if (!enabled) {
+            return null;
+        }
+        assessed.incrementAndGet();
+        long millis = TrackHistoryService.toMillis(timestamp);
+        AircraftPerformance.Limits limits = AircraftPerformance.forType(aircraftType);
+        int older = 0;
+        while (older < history.size() && history.timeMillis(older) > millis) {
+            older++;
+        }
+        TrackQualityFilter.Rejection rejection = null;
+        if (older < history.size()) {
+            rejection = TrackQualityFilter.check(getSettings(), history.timeMillis(older), history.latitude(older),
+                    history.longitude(older), history.altitude(older), history.heading(older),
+                    millis, latitude, longitude, altitude, speed, heading, limits);
+        }
+        if (rejection == null && older > 0) {
+            int newer = older - 1;
+            rejection = TrackQualityFilter.check(getSettings(), millis, latitude, longitude, altitude, heading,
+                    history.timeMillis(newer), history.latitude(newer), history.longitude(newer),
+                    history.altitude(newer), history.speed(newer), history.heading(newer), limits);
+        }
+        if (rejection != null) {
+            rejections.get(rejection).incrementAndGet();
+            log.debug("Rejected late update for {}: {}", callsign, rejection);
+        }
+        return rejection;
+    }
+
+    /**
+     * Quality of one track: the smoothed acceptance score and its counters.
+     */
+    public Optional<Map<String, Object>> getQuality(String callsign) {
+        TrackQualityFilter filter = filters.get(callsign);
+        if (filter == null) {
+            return Optional.empty();
+        }
+        Map<String, Object> quality = new LinkedHashMap<>();
+        quality.put("callsign", callsign);
+        quality.put("score", filter.getScore());
+        quality.put("accepted", filter.getAccepted());
+        quality.put("rejected", filter.getRejected());
+        quality.put("resyncs", filter.getResyncs());
+        quality.put("lastRejection", filter.getLastRejection());
+        return Optional.of(quality);
+    }
+
+    public void remove(String callsign) {
+        filters.remove(callsign);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> reasons = new LinkedHashMap<>();
+        long rejected = 0;
+        for (Map.Entry<TrackQualityFilter.Rejection, AtomicLong> entry : rejections.entrySet()) {
+            reasons.put(entry.getKey().name(), entry.getValue().get());
+            rejected += entry.getValue().get();
+        }
+        double scoreSum = 0;
+        int degraded = 0;
+        for (TrackQualityFilter filter : filters.values()) {
+            double score = filter.getScore();
+            scoreSum += score;
+            if (score < 0.5) {
+                degraded++;
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("tracks", filters.size());
+        stats.put("assessed", assessed.get());
+        stats.put("rejected", rejected);
+        stats.put("rejections", reasons);
+        stats.put("meanScore", filters.isEmpty() ? 1.0 : scoreSum / filters.size());
+        stats.put("degradedTracks", degraded);
+        return stats;
+    }
+
+    private TrackQualityFilter.Settings getSettings() {
+        TrackQualityFilter.Settings current = settings;
+        if (current == null) {
+            current = new TrackQualityFilter.Settings(speedTolerance, positionNoiseMeters, altitudeNoiseFt,
+                    headingNoiseDeg, minMovingSpeedKts, resyncAfterRejects, scoreSmoothing);
+            settings = current;
+        }
+        return current;
+    }
+
+    private static Map<TrackQualityFilter.Rejection, AtomicLong> newCounters() {
+        Map<TrackQualityFilter.Rejection, AtomicLong> counters = new EnumMap<>(TrackQualityFilter.Rejection.class);
+        for (TrackQualityFilter.Rejection rejection : TrackQualityFilter.Rejection.values()) {
+            counters.put(rejection, new AtomicLong());
+        }
+        return counters;
+    }
+}
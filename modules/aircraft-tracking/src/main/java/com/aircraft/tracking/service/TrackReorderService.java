@@ -0,0 +1,205 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.tracking.dto.FeedAircraftDto;
+import com.aircraft.tracking.fusion.ReportSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Orders position reports by their measurement time rather than their arrival. Feed reports
+ * pass through a {@link ReorderBuffer} per aircraft before fusion; reports that arrive
+ * after later ones were already released are queued as late, for {@link TrackingService} to
+ * merge into the history without touching the live state. Direct updates are not buffered
+ * but get the same lateness decision through {@link #admitLate(long, long)}.
+ * <p>
+ * Buffers are kept per source and aircraft, so each source's reports are ordered against its
+ * own and reach fusion to compete field by field, however far one source lags another. The
+ * aircraft is named by its upper-cased hex id; a callsign-only report uses the hex id last
+ * seen with that callsign, and its callsign only while none has been.
+ * <p>
+ * When an idle buffer is pruned its last release time is kept for a while, so a straggler
+ * that turns up after the prune is still recognised as late rather than taken as fresh.
+ */
+@Service
+public class TrackReorderService {
+
+    @Value("${tracking.reorder.hold-ms:500}")
+    private long holdMillis;
+
+    @Value("${tracking.reorder.max-lateness-ms:30000}")
+    private long maxLatenessMillis;
+
+    @Value("${tracking.reorder.retired-mark-ttl-ms:600000}")
+    private long retiredMarkTtlMillis;
+
+    public record SourcedReport(ReportSource source, FeedAircraftDto report, long receivedMillis) {
+    }
+
+    private final Map<String, ReorderBuffer<SourcedReport>> buffers = new ConcurrentHashMap<>();
+    // Last release time of pruned buffers, by key
+    private final Map<String, Long> retiredMarks = new ConcurrentHashMap<>();
+    // Hex id last reported with each normalized callsign
+    private final Map<String, String> hexIds = new ConcurrentHashMap<>();
+    private final Queue<FeedAircraftDto> late = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong buffered = new AtomicLong();
+    private final AtomicLong reordered = new AtomicLong();
+    private final AtomicLong replaced = new AtomicLong();
+    private final AtomicLong released = new AtomicLong();
+    private final AtomicLong lateMerged = new AtomicLong();
+    private final AtomicLong lateDropped = new AtomicLong();
+    private final AtomicLong maxLatenessSeen = new AtomicLong();
+
+    /**
+     * Buffers a feed report under its measurement time, the receive time when it carries none.
+     */
+    public ReorderBuffer.Disposition offer(ReportSource source, FeedAircraftDto report, long receivedMillis) {
+        long measured = report.getLastContact() != null
+                ? TrackHistoryService.toMillis(report.getLastContact()) : receivedMillis;
+        String key = key(source, report);
+        SourcedReport sample = new SourcedReport(source, report, receivedMillis);
+        ReorderBuffer.Disposition disposition;
+        do {
+            disposition = buffers.computeIfAbsent(key, this::newBuffer)
+                    .offer(measured, receivedMillis, sample, maxLatenessMillis);
+        } while (disposition == null);
+
+        switch (disposition) {
+            case BUFFERED -> buffered.incrementAndGet();
+            case REORDERED -> {
+                buffered.incrementAndGet();
+                reordered.incrementAndGet();
+            }
+            case REPLACED -> replaced.incrementAndGet();
+            case LATE -> late.add(report);
+            case TOO_LATE -> lateDropped.incrementAndGet();
+        }
+        return disposition;
+    }
+
+    /**
+     * Removes the reports due for release, each aircraft's in measurement order.
+     */
+    public List<SourcedReport> release(long nowMillis) {
+        List<SourcedReport> due = new ArrayList<>();
+        for (ReorderBuffer<SourcedReport> buffer : buffers.values()) {
+            released.addAndGet(buffer.release(holdMillis, nowMillis, due));
+        }
+        return due;
+    }
+
+    /**
+     * Removes the queued late feed reports.
+     */
+    public List<FeedAircraftDto> drainLate() {
+        List<FeedAircraftDto> drained = new ArrayList<>();
+        FeedAircraftDto report;
+        while ((report = late.poll()) != null) {
+            drained.add(report);
+        }
+        return drained;
+    }
+
+    /**
+     * Whether a sample measured at {@code measuredMillis}, behind a live state measured at
+     * {@code liveMillis}, is recent enough to merge into the history. Counts it either way.
+     */
+    public boolean admitLate(long liveMillis, long measuredMillis) {
+        long lateness = liveMillis - measuredMillis;
+        maxLatenessSeen.accumulateAndGet(lateness, Math::max);
+        if (lateness > maxLatenessMillis) {
+            lateDropped.incrementAndGet();
+            return false;
+        }
+        lateMerged.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Reports currently held for reordering.
+     */
+    public int pending() {
+        int pending = 0;
+        for (ReorderBuffer<SourcedReport> buffer : buffers.values()) {
+            pending += buffer.size();
+        }
+        return pending;
+    }
+
+    /**
+     * Drops the buffers of aircraft with no report since {@code cutoffMillis}, remembering
+     * what each had released, and forgets marks older than the retention.
+     */
+    public void prune(long cutoffMillis) {
+        buffers.entrySet().removeIf(entry -> {
+            if (!entry.getValue().retireIfIdle(cutoffMillis)) {
+                return false;
+            }
+            long releasedMillis = entry.getValue().releasedMillis();
+            if (releasedMillis != Long.MIN_VALUE) {
+                retiredMarks.put(entry.getKey(), releasedMillis);
+            }
+            return true;
+        });
+        retiredMarks.values().removeIf(releasedMillis -> releasedMillis < cutoffMillis - retiredMarkTtlMillis);
+        // Aliases live as long as a buffer or a mark of their aircraft
+        Set<String> aircraft = new HashSet<>();
+        for (String key : buffers.keySet()) {
+            aircraft.add(key.substring(key.indexOf(':') + 1));
+        }
+        for (String key : retiredMarks.keySet()) {
+            aircraft.add(key.substring(key.indexOf(':') + 1));
+        }
+        hexIds.values().removeIf(hexId -> !aircraft.contains(hexId));
+    }
+
+    private String key(ReportSource source, FeedAircraftDto report) {
+        String hexId = normalize(report.getHexId());
+        String callsign = normalize(report.getCallsign());
+        if (hexId != null && callsign != null) {
+            hexIds.put(callsign, hexId);
+        } else if (hexId == null && callsign != null) {
+            hexId = hexIds.get(callsign);
+        }
+        return source.name() + ':' + (hexId != null ? hexId : callsign);
+    }
+
+    private static String normalize(String id) {
+        return id == null || id.isBlank() ? null : id.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private ReorderBuffer<SourcedReport> newBuffer(String key) {
+        Long releasedMillis = retiredMarks.remove(key);
+        return releasedMillis != null ? new ReorderBuffer<>(releasedMillis) : new ReorderBuffer<>();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("holdMs", holdMillis);
+        stats.put("maxLatenessMs", maxLatenessMillis);
+        stats.put("aircraft", buffers.size());
+        stats.put("retiredMarks", retiredMarks.size());
+        stats.put("pending", pending());
+        stats.put("buffered", buffered.get());
+        stats.put("reordered", reordered.get());
+        stats.put("replaced", replaced.get());
+        stats.put("released", released.get());
+        stats.put("lateMerged", lateMerged.get());
+        stats.put("lateDropped", lateDropped.get());
+        stats.put("lateQueued", late.size());
+        stats.put("maxLatenessSeenMs", maxLatenessSeen.get());
+        return stats;
+    }
+}
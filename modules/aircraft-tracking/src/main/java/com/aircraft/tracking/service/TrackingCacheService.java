@@ -0,0 +1,73 @@
+package com.aircraft.tracking.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Eviction and statistics for the read caches used by {@link TrackingService}.
+ */
+@Service
+@RequiredArgsConstructor
+public class TrackingCacheService {
+    
+    public static final String AIRCRAFT_LIST = "aircraft-list";
+    public static final String AIRCRAFT = "aircraft";
+    
+    private final CacheManager cacheManager;
+    
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong listInvalidations = new AtomicLong();
+    
+    /**
+     * Drops the cached entries of the given aircraft. The active aircraft list is left alone:
+     * positions in it age out with its short TTL, and it is cleared by
+     * {@link #evictAircraftList} only when aircraft join or leave it.
+     */
+    public void evictAircraft(Collection<String> callsigns) {
+        if (callsigns.isEmpty()) {
+            return;
+        }
+        Cache aircraft = cacheManager.getCache(AIRCRAFT);
+        for (String callsign : callsigns) {
+            aircraft.evict(callsign);
+        }
+        invalidations.addAndGet(callsigns.size());
+    }
+    
+    /**
+     * Drops the active aircraft list after a track was created, reactivated or retired.
+     */
+    public void evictAircraftList() {
+        cacheManager.getCache(AIRCRAFT_LIST).clear();
+        listInvalidations.incrementAndGet();
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            if (!(cacheManager.getCache(name) instanceof CaffeineCache cache)) {
+                continue;
+            }
+            CacheStats cacheStats = cache.getNativeCache().stats();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("size", cache.getNativeCache().estimatedSize());
+            entry.put("hits", cacheStats.hitCount());
+            entry.put("misses", cacheStats.missCount());
+            entry.put("hitRate", cacheStats.hitRate());
+            entry.put("evictions", cacheStats.evictionCount());
+            stats.put(name, entry);
+        }
+        stats.put("invalidatedAircraft", invalidations.get());
+        stats.put("invalidatedLists", listInvalidations.get());
+        return stats;
+    }
+}
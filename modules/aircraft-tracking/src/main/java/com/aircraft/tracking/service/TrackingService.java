@@ -1,21 +1,38 @@
 package com.aircraft.tracking.service;
 
+import com.aircraft.tracking.dto.AircraftBatchUpdateDto;
 import com.aircraft.tracking.dto.AircraftUpdateDto;
+import com.aircraft.tracking.dto.BatchUpdateResultDto;
+import com.aircraft.tracking.dto.FeedAircraftDto;
 import com.aircraft.tracking.dto.TrackedAircraftDto;
+import com.aircraft.tracking.dto.TrackedAircraftView;
+import com.aircraft.tracking.dto.TrafficSnapshotDto;
 import com.aircraft.tracking.dto.TrajectoryDto;
+import com.aircraft.tracking.fusion.ReportSource;
 import com.aircraft.tracking.model.TrackedAircraft;
 import com.aircraft.tracking.model.TrajectoryPoint;
 import com.aircraft.tracking.repository.TrackedAircraftRepository;
 import com.aircraft.tracking.repository.TrajectoryPointRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,43 +43,147 @@ public class TrackingService {
     private final TrackedAircraftRepository aircraftRepository;
     private final TrajectoryPointRepository trajectoryRepository;
     private final PredictionService predictionService;
+    private final TrajectoryWriteBehindService writeBehindService;
+    private final TrackHistoryService trackHistoryService;
+    private final TrajectoryLodService trajectoryLodService;
+    private final TrackingCacheService cacheService;
+    private final ApproachSequencingService approachSequencingService;
+    private final FlightPhaseService flightPhaseService;
+    private final GeofenceService geofenceService;
+    private final TrackQualityService trackQualityService;
+    private final TrackReorderService trackReorderService;
+    private final TrackFusionService fusionService;
+    private final TrackChangeNotifier changeNotifier;
+    private final Validator validator;
     
     private static final int RADAR_TIMEOUT_MINUTES = 5;
     
+    // Authoritative latest state per callsign; the database is brought up to date by the write-behind
+    private final Map<String, TrackedAircraft> tracks = new ConcurrentHashMap<>();
+    
+    /**
+     * Active aircraft, with the in-memory state of tracks that changed since the last
+     * write-behind flush, so the cached list is current as soon as it is rebuilt. Stored
+     * rows are read as {@link TrackedAircraftView} projections rather than entities.
+     */
     @Transactional(readOnly = true)
-    @Cacheable("aircraft-list")
+    @Cacheable(TrackingCacheService.AIRCRAFT_LIST)
     public List<TrackedAircraftDto> getAllTrackedAircraft() {
         LocalDateTime threshold = LocalDateTime.now().minusMinutes(RADAR_TIMEOUT_MINUTES);
-        List<TrackedAircraft> aircraft = aircraftRepository.findActiveAircraftSince(threshold);
-        
-        return aircraft.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        List<TrackedAircraftDto> result = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (TrackedAircraftView stored : aircraftRepository.findActiveViewsSince(threshold)) {
+            seen.add(stored.callsign());
+            TrackedAircraft aircraft = tracks.get(stored.callsign());
+            if (aircraft == null) {
+                result.add(convertToDto(stored));
+            } else if (isActiveSince(aircraft, threshold)) {
+                result.add(snapshot(aircraft));
+            }
+        }
+        for (TrackedAircraft aircraft : tracks.values()) {
+            if (!seen.contains(aircraft.getCallsign()) && isActiveSince(aircraft, threshold)) {
+                result.add(snapshot(aircraft));
+            }
+        }
+        return result;
     }
     
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = TrackingCacheService.AIRCRAFT, key = "#callsign", unless = "#result == null")
     public Optional<TrackedAircraftDto> getAircraftByCallsign(String callsign) {
-        return aircraftRepository.findByCallsign(callsign)
-                .filter(aircraft -> aircraft.getIsActive() && 
-                    aircraft.getLastRadarContact().isAfter(
-                        LocalDateTime.now().minusMinutes(RADAR_TIMEOUT_MINUTES)))
-                .map(this::convertToDto);
+        TrackedAircraft tracked = tracks.get(callsign);
+        LocalDateTime threshold = LocalDateTime.now().minusMinutes(RADAR_TIMEOUT_MINUTES);
+        if (tracked != null) {
+            return Optional.of(tracked)
+                    .filter(aircraft -> isActiveSince(aircraft, threshold))
+                    .map(this::snapshot);
+        }
+        return aircraftRepository.findViewByCallsign(callsign)
+                .filter(view -> view.isActive() && view.lastRadarContact().isAfter(threshold))
+                .map(TrackingService::convertToDto);
+    }
+    
+    /**
+     * Current in-memory state of a track, bypassing the read cache; empty for aircraft not
+     * updated since startup.
+     */
+    public Optional<TrackedAircraftDto> getLiveAircraft(String callsign) {
+        return Optional.ofNullable(tracks.get(callsign)).map(this::snapshot);
+    }
+    
+    /**
+     * Last reported state of every active in-memory track, for traffic keyframes.
+     */
+    public List<TrafficSnapshotDto.AircraftState> getLiveStates() {
+        LocalDateTime threshold = LocalDateTime.now().minusMinutes(RADAR_TIMEOUT_MINUTES);
+        List<TrafficSnapshotDto.AircraftState> states = new ArrayList<>(tracks.size());
+        for (TrackedAircraft aircraft : tracks.values()) {
+            synchronized (aircraft) {
+                if (isActiveSince(aircraft, threshold)) {
+                    states.add(TrafficSnapshotDto.AircraftState.builder()
+                            .callsign(aircraft.getCallsign())
+                            .latitude(aircraft.getLatitude())
+                            .longitude(aircraft.getLongitude())
+                            .altitude(aircraft.getAltitude())
+                            .speed(aircraft.getSpeed())
+                            .heading(aircraft.getHeading())
+                            .verticalSpeed(aircraft.getVerticalSpeed())
+                            .sampleTime(aircraft.getLastRadarContact())
+                            .interpolated(false)
+                            .build());
+                }
+            }
+        }
+        return states;
+    }
+    
+    /**
+     * Active aircraft in a flight phase, looked up in the classifier's phase index.
+     */
+    public List<TrackedAircraftDto> getAircraftByFlightPhase(TrackedAircraft.FlightPhase phase) {
+        LocalDateTime threshold = LocalDateTime.now().minusMinutes(RADAR_TIMEOUT_MINUTES);
+        List<TrackedAircraftDto> result = new ArrayList<>();
+        for (String callsign : flightPhaseService.callsigns(phase)) {
+            TrackedAircraft aircraft = tracks.get(callsign);
+            if (aircraft != null && isActiveSince(aircraft, threshold)) {
+                result.add(snapshot(aircraft));
+            }
+        }
+        return result;
     }
     
     @Transactional(readOnly = true)
     public TrajectoryDto getAircraftTrajectory(String callsign) {
-        List<TrajectoryPoint> points = trajectoryRepository.findByAircraftCallsignOrderByTimestampAsc(callsign);
+        return getAircraftTrajectory(callsign, null, null, null, null, null, true);
+    }
+    
+    /**
+     * Stored trajectory simplified to the requested level of detail, optionally followed by
+     * predicted points. {@code zoom} derives a one-pixel tolerance when no explicit
+     * {@code toleranceMeters} is given.
+     */
+    @Transactional(readOnly = true)
+    public TrajectoryDto getAircraftTrajectory(String callsign, LocalDateTime from, LocalDateTime to,
+                                               Double toleranceMeters, Integer zoom, Integer maxPoints,
+                                               boolean includePredicted) {
+        Optional<TrackedAircraft> aircraft = Optional.ofNullable(tracks.get(callsign))
+                .or(() -> aircraftRepository.findByCallsign(callsign));
         
-        // Get predicted points
-        Optional<TrackedAircraft> aircraft = aircraftRepository.findByCallsign(callsign);
-        if (aircraft.isPresent()) {
-            List<TrajectoryPoint> predictedPoints = predictionService.predictTrajectory(aircraft.get());
-            points.addAll(predictedPoints);
+        Double tolerance = toleranceMeters;
+        if (tolerance == null && zoom != null) {
+            double latitude = aircraft.map(TrackedAircraft::getLatitude).orElse(0.0);
+            tolerance = TrajectoryLodService.toleranceForZoom(zoom, latitude);
         }
+        List<TrajectoryDto.TrajectoryPointDto> pointDtos = new ArrayList<>(trajectoryLodService.getActualPoints(
+                callsign, aircraft.map(TrackedAircraft::getId).orElse(null), from, to, tolerance, maxPoints));
         
-        List<TrajectoryDto.TrajectoryPointDto> pointDtos = points.stream()
-                .map(this::convertTrajectoryPointToDto)
-                .collect(Collectors.toList());
+        // Get predicted points
+        if (includePredicted && aircraft.isPresent()) {
+            predictionService.predictTrajectory(aircraft.get()).stream()
+                    .map(this::convertTrajectoryPointToDto)
+                    .forEach(pointDtos::add);
+        }
         
         return TrajectoryDto.builder()
                 .callsign(callsign)
@@ -70,10 +191,531 @@ public class TrackingService {
                 .build();
     }
     
-    @Transactional
+    /**
+     * Applies a position update to the in-memory track state and returns immediately; the
+     * aircraft row and the trajectory point are persisted by {@link TrajectoryWriteBehindService}.
+     * An update that fails the {@link TrackQualityService} screen is dropped; one measured
+     * at or before the live state is screened against its neighbours in the history and
+     * only merged there. A current update is first fused as a {@link ReportSource#MANUAL}
+     * report, so fields a feed has reported recently keep the feed's values, and the fused
+     * state is what gets screened and applied.
+     *
+     * @throws ImplausibleUpdateException if the update failed the screen
+     * @throws SupersededUpdateException if a feed holds the position
+     */
     public TrackedAircraftDto updateAircraftPosition(String callsign, AircraftUpdateDto updateDto) {
-        TrackedAircraft aircraft = aircraftRepository.findByCallsign(callsign)
-                .orElseThrow(() -> new IllegalArgumentException("Aircraft not found: " + callsign));
+        TrackedAircraft aircraft = tracks.get(callsign);
+        if (aircraft == null) {
+            // Loaded outside the map so the query does not hold a bin lock; a concurrent load wins
+            TrackedAircraft loaded = aircraftRepository.findByCallsign(callsign)
+                    .orElseThrow(() -> new IllegalArgumentException("Aircraft not found: " + callsign));
+            TrackedAircraft live = tracks.putIfAbsent(callsign, loaded);
+            aircraft = live != null ? live : loaded;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime time = measuredTime(updateDto, now);
+        TrackedAircraftDto result;
+        TrajectoryPoint trajectoryPoint;
+        boolean late;
+        
+        while (true) {
+            synchronized (aircraft) {
+                if (reinstate(aircraft)) {
+                    late = isLate(aircraft, updateDto, time);
+                    AircraftUpdateDto fused = late ? updateDto : fuseManual(aircraft, updateDto, time);
+                    if (fused == null) {
+                        throw new SupersededUpdateException(callsign);
+                    }
+                    TrackQualityFilter.Rejection rejection = late
+                            ? screenLate(aircraft, updateDto, time) : screen(aircraft, fused, time);
+                    if (rejection != null) {
+                        throw new ImplausibleUpdateException(callsign, rejection);
+                    }
+                    trajectoryPoint = late
+                            ? mergeIntoHistory(aircraft, updateDto, time) : applyUpdate(aircraft, fused, time, now);
+                    result = convertToDto(aircraft);
+                    break;
+                }
+            }
+            aircraft = tracks.getOrDefault(callsign, aircraft);
+        }
+        if (!late) {
+            writeBehindService.markDirty(aircraft);
+            cacheService.evictAircraft(List.of(callsign));
+            changeNotifier.changed(callsign);
+        }
+        
+        if (trajectoryPoint != null && !writeBehindService.enqueue(trajectoryPoint)) {
+            log.warn("Trajectory write-behind queue full, dropped point for {}", callsign);
+        }
+        
+        log.debug(late ? "Merged late aircraft position: {}" : "Updated aircraft position: {}", callsign);
+        
+        return result;
+    }
+    
+    /**
+     * Applies a batch of position updates: one validation pass, one lookup for aircraft not
+     * yet tracked in memory, then the state updates, with all trajectory points handed to the
+     * write-behind together. Invalid, unknown or implausible items are reported per index and
+     * skipped, and late ones only merged into the history; a {@code null} item stands for one
+     * that could not be parsed. Current items are fused and screened as in
+     * {@link #updateAircraftPosition}, and reported superseded when a feed holds the position.
+     */
+    public BatchUpdateResultDto updateAircraftPositions(List<AircraftBatchUpdateDto> updates) {
+        BatchUpdateResultDto.ItemResult[] results = new BatchUpdateResultDto.ItemResult[updates.size()];
+        
+        Set<String> missing = new HashSet<>();
+        for (int i = 0; i < updates.size(); i++) {
+            AircraftBatchUpdateDto item = updates.get(i);
+            if (item == null) {
+                results[i] = itemResult(i, null, BatchUpdateResultDto.Status.INVALID, "Malformed item");
+                continue;
+            }
+            Set<ConstraintViolation<AircraftBatchUpdateDto>> violations = validator.validate(item);
+            if (!violations.isEmpty()) {
+                results[i] = itemResult(i, item.getCallsign(), BatchUpdateResultDto.Status.INVALID,
+                        violations.stream()
+                                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                                .sorted()
+                                .collect(Collectors.joining(", ")));
+            } else if (!tracks.containsKey(item.getCallsign())) {
+                missing.add(item.getCallsign());
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (TrackedAircraft aircraft : aircraftRepository.findByCallsignIn(missing)) {
+                tracks.putIfAbsent(aircraft.getCallsign(), aircraft);
+            }
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<TrajectoryPoint> points = new ArrayList<>(updates.size());
+        Set<String> changed = new HashSet<>();
+        int updated = 0;
+        for (int i = 0; i < updates.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            AircraftBatchUpdateDto item = updates.get(i);
+            TrackedAircraft aircraft = tracks.get(item.getCallsign());
+            if (aircraft == null) {
+                results[i] = itemResult(i, item.getCallsign(), BatchUpdateResultDto.Status.NOT_FOUND,
+                        "Aircraft not found: " + item.getCallsign());
+                continue;
+            }
+            LocalDateTime time = measuredTime(item.getUpdate(), now);
+            TrackQualityFilter.Rejection rejection = null;
+            TrajectoryPoint point = null;
+            AircraftUpdateDto fused = null;
+            boolean late;
+            while (true) {
+                synchronized (aircraft) {
+                    if (reinstate(aircraft)) {
+                        late = isLate(aircraft, item.getUpdate(), time);
+                        if (late) {
+                            rejection = screenLate(aircraft, item.getUpdate(), time);
+                            if (rejection == null) {
+                                point = mergeIntoHistory(aircraft, item.getUpdate(), time);
+                            }
+                        } else {
+                            fused = fuseManual(aircraft, item.getUpdate(), time);
+                            rejection = fused != null ? screen(aircraft, fused, time) : null;
+                            if (fused != null && rejection == null) {
+                                point = applyUpdate(aircraft, fused, time, now);
+                            }
+                        }
+                        break;
+                    }
+                }
+                aircraft = tracks.getOrDefault(item.getCallsign(), aircraft);
+            }
+            if (point != null) {
+                points.add(point);
+            }
+            if (rejection != null) {
+                results[i] = itemResult(i, item.getCallsign(), BatchUpdateResultDto.Status.IMPLAUSIBLE,
+                        "Implausible update: " + rejection);
+                continue;
+            }
+            if (late) {
+                results[i] = itemResult(i, item.getCallsign(), BatchUpdateResultDto.Status.LATE,
+                        point != null ? "Merged into history" : "Too late or already in the history");
+                continue;
+            }
+            if (fused == null) {
+                results[i] = itemResult(i, item.getCallsign(), BatchUpdateResultDto.Status.SUPERSEDED,
+                        "Position held by a feed");
+                continue;
+            }
+            writeBehindService.markDirty(aircraft);
+            changed.add(item.getCallsign());
+            results[i] = itemResult(i, item.getCallsign(), BatchUpdateResultDto.Status.UPDATED, null);
+            updated++;
+        }
+        
+        cacheService.evictAircraft(changed);
+        changeNotifier.changed(changed);
+        
+        int dropped = points.size() - writeBehindService.enqueueAll(points);
+        if (dropped > 0) {
+            log.warn("Trajectory write-behind queue full, dropped {} of {} batch points", dropped, points.size());
+        }
+        log.debug("Applied batch update: {} of {} items", updated, updates.size());
+        
+        return BatchUpdateResultDto.builder()
+                .received(updates.size())
+                .updated(updated)
+                .rejected(updates.size() - updated)
+                .trajectoryPointsDropped(dropped)
+                .results(Arrays.asList(results))
+                .build();
+    }
+    
+    public record IngestResult(int created, int updated, int merged, int rejected) {
+    }
+    
+    /**
+     * Applies a micro-batch of feed reports, one per callsign. Unlike the update endpoints,
+     * callsigns with no track yet get one created, and retired tracks are reactivated.
+     * Reports behind the live state are merged into the history and counted as merged;
+     * invalid, implausible or too-late ones are counted as rejected.
+     */
+    public IngestResult ingest(List<FeedAircraftDto> reports) {
+        List<FeedAircraftDto> accepted = new ArrayList<>(reports.size());
+        List<AircraftUpdateDto> updates = new ArrayList<>(reports.size());
+        Map<String, FeedAircraftDto> missing = new HashMap<>();
+        for (FeedAircraftDto report : reports) {
+            AircraftUpdateDto update = toUpdate(report);
+            if (!validator.validate(update).isEmpty()) {
+                continue;
+            }
+            accepted.add(report);
+            updates.add(update);
+            if (!tracks.containsKey(report.getCallsign())) {
+                missing.put(report.getCallsign(), report);
+            }
+        }
+        
+        int created = 0;
+        if (!missing.isEmpty()) {
+            for (TrackedAircraft aircraft : aircraftRepository.findByCallsignIn(missing.keySet())) {
+                tracks.putIfAbsent(aircraft.getCallsign(), aircraft);
+            }
+            List<TrackedAircraft> newTracks = new ArrayList<>();
+            for (FeedAircraftDto report : missing.values()) {
+                if (!tracks.containsKey(report.getCallsign())) {
+                    newTracks.add(newTrack(report));
+                }
+            }
+            if (!newTracks.isEmpty()) {
+                for (TrackedAircraft aircraft : aircraftRepository.saveAll(newTracks)) {
+                    tracks.putIfAbsent(aircraft.getCallsign(), aircraft);
+                }
+                created = newTracks.size();
+                cacheService.evictAircraftList();
+                log.info("Created {} tracks from the feed", created);
+            }
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<TrajectoryPoint> points = new ArrayList<>(accepted.size());
+        Set<String> changed = new HashSet<>();
+        int merged = 0;
+        for (int i = 0; i < accepted.size(); i++) {
+            FeedAircraftDto report = accepted.get(i);
+            TrackedAircraft aircraft = tracks.get(report.getCallsign());
+            if (aircraft == null) {
+                // Retired again since the lookup above
+                continue;
+            }
+            AircraftUpdateDto update = updates.get(i);
+            LocalDateTime time = measuredTime(update, now);
+            TrajectoryPoint point = null;
+            boolean late;
+            while (true) {
+                synchronized (aircraft) {
+                    if (reinstate(aircraft)) {
+                        late = isLate(aircraft, update, time);
+                        if (late) {
+                            point = screenLate(aircraft, update, time) == null
+                                    ? mergeIntoHistory(aircraft, update, time) : null;
+                        } else if (screen(aircraft, update, time) == null) {
+                            // Identity details only come from reports that make it into the live state
+                            copyDetails(report, aircraft);
+                            point = applyUpdate(aircraft, update, time, now);
+                        }
+                        break;
+                    }
+                }
+                aircraft = tracks.getOrDefault(report.getCallsign(), aircraft);
+            }
+            if (point == null) {
+                continue;
+            }
+            points.add(point);
+            if (late) {
+                merged++;
+                continue;
+            }
+            writeBehindService.markDirty(aircraft);
+            changed.add(report.getCallsign());
+        }
+        cacheService.evictAircraft(changed);
+        changeNotifier.changed(changed);
+        
+        int dropped = points.size() - writeBehindService.enqueueAll(points);
+        if (dropped > 0) {
+            log.warn("Trajectory write-behind queue full, dropped {} of {} ingested points", dropped, points.size());
+        }
+        return new IngestResult(created, changed.size(), merged, reports.size() - changed.size() - merged);
+    }
+    
+    /**
+     * Merges feed reports that arrived after later ones were applied into the history of
+     * their tracks, leaving the live state alone. Reports for tracks not held in memory,
+     * that are not behind the live state, or that are implausible next to the samples around
+     * them, are skipped.
+     *
+     * @return the number of reports merged
+     */
+    public int mergeLate(List<FeedAircraftDto> reports) {
+        if (reports.isEmpty()) {
+            return 0;
+        }
+        List<TrajectoryPoint> points = new ArrayList<>(reports.size());
+        for (FeedAircraftDto report : reports) {
+            TrackedAircraft aircraft = tracks.get(report.getCallsign());
+            AircraftUpdateDto update = toUpdate(report);
+            if (aircraft == null || update.getTimestamp() == null || !validator.validate(update).isEmpty()) {
+                continue;
+            }
+            synchronized (aircraft) {
+                if (tracks.get(report.getCallsign()) == aircraft
+                        && isLate(aircraft, update, update.getTimestamp())
+                        && screenLate(aircraft, update, update.getTimestamp()) == null) {
+                    TrajectoryPoint point = mergeIntoHistory(aircraft, update, update.getTimestamp());
+                    if (point != null) {
+                        points.add(point);
+                    }
+                }
+            }
+        }
+        if (points.isEmpty()) {
+            return 0;
+        }
+        
+        int dropped = points.size() - writeBehindService.enqueueAll(points);
+        if (dropped > 0) {
+            log.warn("Trajectory write-behind queue full, dropped {} of {} late points", dropped, points.size());
+        }
+        return points.size();
+    }
+    
+    /**
+     * Deactivates in-memory tracks with no update since {@code cutoff} and releases their
+     * history. The cutoff is held to at least the radar timeout, so tracks only kept up by
+     * the REST API stay listed as long as before. A later update reactivates the track.
+     *
+     * @return the number of tracks retired
+     */
+    public int retireTracks(LocalDateTime cutoff) {
+        LocalDateTime radarCutoff = LocalDateTime.now().minusMinutes(RADAR_TIMEOUT_MINUTES);
+        if (cutoff.isAfter(radarCutoff)) {
+            cutoff = radarCutoff;
+        }
+        List<String> retired = new ArrayList<>();
+        for (TrackedAircraft aircraft : tracks.values()) {
+            synchronized (aircraft) {
+                if (!aircraft.getIsActive() || !aircraft.getLastRadarContact().isBefore(cutoff)) {
+                    continue;
+                }
+                aircraft.setIsActive(false);
+                // Under the monitor, so an update waiting on it sees the track is gone
+                tracks.remove(aircraft.getCallsign(), aircraft);
+            }
+            writeBehindService.markDirty(aircraft);
+            trackHistoryService.remove(aircraft.getCallsign());
+            flightPhaseService.remove(aircraft.getCallsign());
+            geofenceService.remove(aircraft.getCallsign());
+            trackQualityService.remove(aircraft.getCallsign());
+            retired.add(aircraft.getCallsign());
+        }
+        cacheService.evictAircraft(retired);
+        if (!retired.isEmpty()) {
+            cacheService.evictAircraftList();
+        }
+        trajectoryLodService.invalidate(retired);
+        return retired.size();
+    }
+    
+    /**
+     * Whether the aircraft is still the live track for its callsign, putting it back if it was
+     * retired and nothing has replaced it since. An update that finds it replaced moves on to
+     * the replacement. Callers hold the aircraft's monitor.
+     */
+    private boolean reinstate(TrackedAircraft aircraft) {
+        TrackedAircraft live = tracks.putIfAbsent(aircraft.getCallsign(), aircraft);
+        return live == null || live == aircraft;
+    }
+    
+    private static AircraftUpdateDto toUpdate(FeedAircraftDto report) {
+        return AircraftUpdateDto.builder()
+                .latitude(report.getLatitude())
+                .longitude(report.getLongitude())
+                .altitude(report.getAltitude())
+                .speed(report.getSpeed())
+                .heading(report.getHeading())
+                .verticalSpeed(report.getVerticalSpeed())
+                .squawk(report.getSquawk())
+                .timestamp(report.getLastContact())
+                .build();
+    }
+    
+    /**
+     * Fuses a manual update into the track's fused state, keyed by its hex id when it has one,
+     * and returns the update with the fields a feed still holds taken from the fusion. Returns
+     * null unless the update set the position: the applied sample is stamped with the update's
+     * time, which is only the time of the position it carries when the position is its own.
+     * Altitude and velocity a feed holds were measured at most the source hold before it.
+     * Callers hold the aircraft's monitor.
+     */
+    private AircraftUpdateDto fuseManual(TrackedAircraft aircraft, AircraftUpdateDto updateDto, LocalDateTime time) {
+        FeedAircraftDto fused = fusionService.fuse(ReportSource.MANUAL, FeedAircraftDto.builder()
+                .callsign(aircraft.getCallsign())
+                .hexId(aircraft.getHexId())
+                .latitude(updateDto.getLatitude())
+                .longitude(updateDto.getLongitude())
+                .altitude(updateDto.getAltitude())
+                .speed(updateDto.getSpeed())
+                .heading(updateDto.getHeading())
+                .verticalSpeed(updateDto.getVerticalSpeed())
+                .squawk(updateDto.getSquawk())
+                .lastContact(time)
+                .build(), System.currentTimeMillis());
+        if (fused == null || !Objects.equals(fused.getLatitude(), updateDto.getLatitude())
+                || !Objects.equals(fused.getLongitude(), updateDto.getLongitude())) {
+            return null;
+        }
+        return AircraftUpdateDto.builder()
+                .latitude(fused.getLatitude())
+                .longitude(fused.getLongitude())
+                .altitude(fused.getAltitude())
+                .speed(fused.getSpeed())
+                .heading(fused.getHeading())
+                .verticalSpeed(fused.getVerticalSpeed())
+                .squawk(fused.getSquawk())
+                .flightPhase(updateDto.getFlightPhase())
+                .assignedRunway(updateDto.getAssignedRunway())
+                .approachSequence(updateDto.getApproachSequence())
+                .isEmergency(updateDto.getIsEmergency())
+                .timestamp(updateDto.getTimestamp())
+                .build();
+    }
+    
+    private static TrackedAircraft newTrack(FeedAircraftDto report) {
+        TrackedAircraft aircraft = TrackedAircraft.builder()
+                .callsign(report.getCallsign())
+                .latitude(report.getLatitude())
+                .longitude(report.getLongitude())
+                .altitude(report.getAltitude())
+                .speed(report.getSpeed())
+                .heading(report.getHeading())
+                .verticalSpeed(report.getVerticalSpeed())
+                .squawk(report.getSquawk())
+                .build();
+        copyDetails(report, aircraft);
+        return aircraft;
+    }
+    
+    private static void copyDetails(FeedAircraftDto report, TrackedAircraft aircraft) {
+        if (report.getHexId() != null) {
+            aircraft.setHexId(report.getHexId());
+        }
+        if (report.getFlightNumber() != null) {
+            aircraft.setFlightNumber(report.getFlightNumber());
+        }
+        if (report.getAircraftType() != null) {
+            aircraft.setAircraftType(report.getAircraftType());
+        }
+        if (report.getRegistration() != null) {
+            aircraft.setRegistration(report.getRegistration());
+        }
+        if (report.getOrigin() != null) {
+            aircraft.setOrigin(report.getOrigin());
+        }
+        if (report.getDestination() != null) {
+            aircraft.setDestination(report.getDestination());
+        }
+    }
+    
+    private static LocalDateTime measuredTime(AircraftUpdateDto updateDto, LocalDateTime now) {
+        LocalDateTime timestamp = updateDto.getTimestamp();
+        // A clock ahead of ours is not allowed to push the track into the future
+        return timestamp == null || timestamp.isAfter(now) ? now : timestamp;
+    }
+    
+    /**
+     * Whether an update was measured before the report the live state came from, or at the
+     * same reported instant; applying it would rewind the track or repeat the live sample.
+     * Updates without a timestamp are stamped on receipt, so within one batch they share a
+     * time and are taken in order instead.
+     */
+    private static boolean isLate(TrackedAircraft aircraft, AircraftUpdateDto updateDto, LocalDateTime time) {
+        LocalDateTime measuredAt = aircraft.getMeasuredAt();
+        return measuredAt != null
+                && (time.isBefore(measuredAt) || updateDto.getTimestamp() != null && time.equals(measuredAt));
+    }
+    
+    /**
+     * Places a late update in the track history and returns its trajectory point, or null
+     * if it is beyond the lateness limit or the history did not keep it, as for a repeat of
+     * a sample already held, so nothing is persisted twice. Callers hold the aircraft's monitor.
+     */
+    private TrajectoryPoint mergeIntoHistory(TrackedAircraft aircraft, AircraftUpdateDto updateDto,
+                                             LocalDateTime time) {
+        if (!trackReorderService.admitLate(TrackHistoryService.toMillis(aircraft.getMeasuredAt()),
+                TrackHistoryService.toMillis(time))) {
+            return null;
+        }
+        if (!trackHistoryService.merge(aircraft.getCallsign(), time, updateDto.getLatitude(),
+                updateDto.getLongitude(), updateDto.getAltitude(), updateDto.getSpeed(), updateDto.getHeading(),
+                updateDto.getVerticalSpeed())) {
+            return null;
+        }
+        return toTrajectoryPoint(aircraft, updateDto, time);
+    }
+    
+    /**
+     * Runs the plausibility screen for an update against the track's aircraft type.
+     * Callers hold the aircraft's monitor.
+     */
+    private TrackQualityFilter.Rejection screen(TrackedAircraft aircraft, AircraftUpdateDto updateDto,
+                                                LocalDateTime time) {
+        return trackQualityService.assess(aircraft.getCallsign(), aircraft.getAircraftType(), time,
+                updateDto.getLatitude(), updateDto.getLongitude(), updateDto.getAltitude(),
+                updateDto.getSpeed(), updateDto.getHeading());
+    }
+    
+    /**
+     * Runs the plausibility screen for a late update against the history samples either
+     * side of it. Callers hold the aircraft's monitor.
+     */
+    private TrackQualityFilter.Rejection screenLate(TrackedAircraft aircraft, AircraftUpdateDto updateDto,
+                                                    LocalDateTime time) {
+        return trackQualityService.assessLate(aircraft.getCallsign(), aircraft.getAircraftType(), time,
+                updateDto.getLatitude(), updateDto.getLongitude(), updateDto.getAltitude(),
+                updateDto.getSpeed(), updateDto.getHeading(), trackHistoryService.get(aircraft.getCallsign()));
+    }
+    
+    /**
+     * Copies an update measured at {@code time} onto the tracked state and returns the
+     * matching trajectory point. Callers hold the aircraft's monitor.
+     */
+    private TrajectoryPoint applyUpdate(TrackedAircraft aircraft, AircraftUpdateDto updateDto, LocalDateTime time,
+                                        LocalDateTime now) {
+        LocalDateTime radarThreshold = now.minusMinutes(RADAR_TIMEOUT_MINUTES);
+        boolean joined = aircraft.getLastRadarContact() == null || !isActiveSince(aircraft, radarThreshold);
         
         // Update aircraft position
         aircraft.setLatitude(updateDto.getLatitude());
@@ -88,9 +730,6 @@ public class TrackingService {
         if (updateDto.getSquawk() != null) {
             aircraft.setSquawk(updateDto.getSquawk());
         }
-        if (updateDto.getFlightPhase() != null) {
-            aircraft.setFlightPhase(updateDto.getFlightPhase());
-        }
         if (updateDto.getAssignedRunway() != null) {
             aircraft.setAssignedRunway(updateDto.getAssignedRunway());
         }
@@ -100,42 +739,149 @@ public class TrackingService {
         if (updateDto.getIsEmergency() != null) {
             aircraft.setIsEmergency(updateDto.getIsEmergency());
         }
+        aircraft.setIsActive(true);
+        aircraft.setMeasuredAt(time);
+        aircraft.setLastRadarContact(time);
+        aircraft.setUpdatedAt(now);
+        if (joined && isActiveSince(aircraft, radarThreshold)) {
+            // The cached active list only follows positions through its TTL, not membership
+            cacheService.evictAircraftList();
+        }
+        trackHistoryService.record(aircraft.getCallsign(), time, updateDto.getLatitude(), updateDto.getLongitude(),
+                updateDto.getAltitude(), updateDto.getSpeed(), updateDto.getHeading(), updateDto.getVerticalSpeed());
         
-        TrackedAircraft savedAircraft = aircraftRepository.save(aircraft);
+        // An explicit phase from the client wins; otherwise the classifier derives it from the track
+        if (updateDto.getFlightPhase() != null) {
+            aircraft.setFlightPhase(updateDto.getFlightPhase());
+            flightPhaseService.override(aircraft.getCallsign(), updateDto.getFlightPhase());
+        } else {
+            TrackedAircraft.FlightPhase phase = flightPhaseService.classify(aircraft.getCallsign(), time,
+                    updateDto.getLatitude(), updateDto.getLongitude(), updateDto.getAltitude(),
+                    updateDto.getSpeed(), updateDto.getHeading(), updateDto.getVerticalSpeed());
+            if (phase != null) {
+                aircraft.setFlightPhase(phase);
+            }
+        }
         
-        // Save trajectory point
-        TrajectoryPoint trajectoryPoint = TrajectoryPoint.builder()
-                .aircraft(savedAircraft)
+        geofenceService.update(aircraft.getCallsign(), updateDto.getLatitude(), updateDto.getLongitude(),
+                updateDto.getAltitude(), time);
+        
+        return toTrajectoryPoint(aircraft, updateDto, time);
+    }
+    
+    private static TrajectoryPoint toTrajectoryPoint(TrackedAircraft aircraft, AircraftUpdateDto updateDto,
+                                                     LocalDateTime time) {
+        return TrajectoryPoint.builder()
+                .aircraft(aircraft)
                 .latitude(updateDto.getLatitude())
                 .longitude(updateDto.getLongitude())
                 .altitude(updateDto.getAltitude())
                 .speed(updateDto.getSpeed())
                 .heading(updateDto.getHeading())
                 .verticalSpeed(updateDto.getVerticalSpeed())
-                .timestamp(LocalDateTime.now())
+                .timestamp(time)
                 .pointType(TrajectoryPoint.PointType.ACTUAL)
                 .build();
-        
-        trajectoryRepository.save(trajectoryPoint);
-        
-        log.debug("Updated aircraft position: {}", callsign);
-        
-        return convertToDto(savedAircraft);
     }
     
-    @Transactional(readOnly = true)
+    private static BatchUpdateResultDto.ItemResult itemResult(int index, String callsign,
+                                                             BatchUpdateResultDto.Status status, String message) {
+        return BatchUpdateResultDto.ItemResult.builder()
+                .index(index)
+                .callsign(callsign)
+                .status(status)
+                .message(message)
+                .build();
+    }
+    
+    /**
+     * Aircraft on final to a runway in landing order, from the latest sequencing cycle.
+     */
     public List<TrackedAircraftDto> getAircraftApproachingRunway(String runwayId) {
-        List<TrackedAircraft> aircraft = aircraftRepository.findAircraftApproachingRunway(runwayId);
+        List<TrackedAircraftDto> result = new ArrayList<>();
+        for (ApproachSequencingService.Entry entry : approachSequencingService.getCurrent().forRunway(runwayId)) {
+            TrackedAircraft aircraft = tracks.get(entry.callsign());
+            if (aircraft != null) {
+                TrackedAircraftDto dto = snapshot(aircraft);
+                dto.setAssignedRunway(entry.runwayId());
+                dto.setApproachSequence(entry.sequence());
+                dto.setDistanceToThreshold(entry.distanceToThresholdMeters());
+                dto.setEtaSeconds(entry.etaSeconds());
+                result.add(dto);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Recomputes runway assignment and approach sequence for all active tracks. Only
+     * tracks whose assignment changed are written back; tracks that left the approach
+     * lose the assignment this engine gave them.
+     */
+    @Scheduled(fixedDelayString = "${tracking.runway.sequence-interval-ms:1000}")
+    public void updateApproachSequence() {
+        List<ApproachSequencingService.TrackState> states = new ArrayList<>(tracks.size());
+        for (TrackedAircraft aircraft : tracks.values()) {
+            synchronized (aircraft) {
+                if (aircraft.getIsActive()) {
+                    states.add(new ApproachSequencingService.TrackState(aircraft.getCallsign(),
+                            aircraft.getLatitude(), aircraft.getLongitude(), aircraft.getAltitude(),
+                            aircraft.getSpeed(), aircraft.getHeading()));
+                }
+            }
+        }
+        ApproachSequencingService.ApproachSequence previous = approachSequencingService.getCurrent();
+        ApproachSequencingService.ApproachSequence next = approachSequencingService.sequence(states);
         
-        return aircraft.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        List<String> changed = new ArrayList<>();
+        for (ApproachSequencingService.Entry entry : next.byCallsign().values()) {
+            TrackedAircraft aircraft = tracks.get(entry.callsign());
+            if (aircraft != null && assign(aircraft, entry.runwayId(), entry.sequence())) {
+                changed.add(entry.callsign());
+            }
+        }
+        for (ApproachSequencingService.Entry entry : previous.byCallsign().values()) {
+            TrackedAircraft aircraft = tracks.get(entry.callsign());
+            if (aircraft != null && !next.byCallsign().containsKey(entry.callsign())
+                    && entry.runwayId().equals(aircraft.getAssignedRunway())
+                    && assign(aircraft, null, null)) {
+                changed.add(entry.callsign());
+            }
+        }
+        if (!changed.isEmpty()) {
+            cacheService.evictAircraft(changed);
+            changeNotifier.changed(changed);
+        }
     }
     
-    private TrackedAircraftDto convertToDto(TrackedAircraft aircraft) {
+    private boolean assign(TrackedAircraft aircraft, String runwayId, Integer sequence) {
+        synchronized (aircraft) {
+            if (Objects.equals(aircraft.getAssignedRunway(), runwayId)
+                    && Objects.equals(aircraft.getApproachSequence(), sequence)) {
+                return false;
+            }
+            aircraft.setAssignedRunway(runwayId);
+            aircraft.setApproachSequence(sequence);
+        }
+        writeBehindService.markDirty(aircraft);
+        return true;
+    }
+    
+    private static boolean isActiveSince(TrackedAircraft aircraft, LocalDateTime threshold) {
+        return aircraft.getIsActive() && aircraft.getLastRadarContact().isAfter(threshold);
+    }
+    
+    private TrackedAircraftDto snapshot(TrackedAircraft aircraft) {
+        synchronized (aircraft) {
+            return convertToDto(aircraft);
+        }
+    }
+    
+    static TrackedAircraftDto convertToDto(TrackedAircraft aircraft) {
         return TrackedAircraftDto.builder()
                 .id(aircraft.getId())
                 .callsign(aircraft.getCallsign())
+                .hexId(aircraft.getHexId())
                 .flightNumber(aircraft.getFlightNumber())
                 .latitude(aircraft.getLatitude())
                 .longitude(aircraft.getLongitude())
@@ -158,6 +904,33 @@ public class TrackingService {
                 .build();
     }
     
+    static TrackedAircraftDto convertToDto(TrackedAircraftView view) {
+        return TrackedAircraftDto.builder()
+                .id(view.id())
+                .callsign(view.callsign())
+                .hexId(view.hexId())
+                .flightNumber(view.flightNumber())
+                .latitude(view.latitude())
+                .longitude(view.longitude())
+                .altitude(view.altitude())
+                .speed(view.speed())
+                .heading(view.heading())
+                .verticalSpeed(view.verticalSpeed())
+                .squawk(view.squawk())
+                .aircraftType(view.aircraftType())
+                .registration(view.registration())
+                .origin(view.origin())
+                .destination(view.destination())
+                .flightPhase(view.flightPhase())
+                .assignedRunway(view.assignedRunway())
+                .approachSequence(view.approachSequence())
+                .isEmergency(view.isEmergency())
+                .isActive(view.isActive())
+                .lastRadarContact(view.lastRadarContact())
+                .updatedAt(view.updatedAt())
+                .build();
+    }
+    
     private TrajectoryDto.TrajectoryPointDto convertTrajectoryPointToDto(TrajectoryPoint point) {
         return TrajectoryDto.TrajectoryPointDto.builder()
                 .latitude(point.getLatitude())
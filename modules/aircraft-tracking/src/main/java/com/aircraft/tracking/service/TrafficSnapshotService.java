@@ -0,0 +1,204 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.tracking.archive.KeyframeCodec;
+import com.aircraft.tracking.dto.TrafficSnapshotDto;
+import com.aircraft.tracking.dto.TrajectoryPointRowDto;
+import com.aircraft.tracking.model.TrafficKeyframe;
+import com.aircraft.tracking.repository.TrafficKeyframeRepository;
+import com.aircraft.tracking.repository.TrajectoryPointRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Time-travel reads of the whole traffic picture. Every keyframe interval the latest
+ * state of all active aircraft is written as one {@link TrafficKeyframe}; a query for an
+ * instant reads the keyframes on either side of it and the trajectory points between them
+ * through the time index, then interpolates each aircraft between its last report at or
+ * before the instant and its first report after it. The work is bounded by one keyframe
+ * interval of traffic whatever the total history, and once raw points have been archived
+ * the keyframes alone still give the picture at keyframe resolution.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrafficSnapshotService {
+
+    private final TrackingService trackingService;
+    private final TrafficKeyframeRepository keyframeRepository;
+    private final TrajectoryPointRepository trajectoryRepository;
+
+    @Value("${tracking.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${tracking.snapshot.max-staleness-seconds:30}")
+    private long maxStalenessSeconds;
+
+    @Value("${tracking.snapshot.retention-days:30}")
+    private int retentionDays;
+
+    private volatile long lastKeyframeMicros;
+    private volatile int lastKeyframeAircraft;
+    private volatile long lastQueryMicros;
+
+    @Scheduled(fixedDelayString = "${tracking.snapshot.keyframe-interval-ms:10000}")
+    public void writeKeyframeScheduled() {
+        if (enabled) {
+            writeKeyframe(LocalDateTime.now(), trackingService.getLiveStates());
+        }
+    }
+
+    public TrafficKeyframe writeKeyframe(LocalDateTime frameTime, List<TrafficSnapshotDto.AircraftState> states) {
+        long start = System.nanoTime();
+        byte[] data = KeyframeCodec.encode(frameTime, states);
+        TrafficKeyframe keyframe = keyframeRepository.save(TrafficKeyframe.builder()
+                .frameTime(frameTime)
+                .aircraftCount(states.size())
+                .sizeBytes(data.length)
+                .data(data)
+                .build());
+        lastKeyframeMicros = (System.nanoTime() - start) / 1000;
+        lastKeyframeAircraft = states.size();
+        return keyframe;
+    }
+
+    @Scheduled(cron = "${tracking.snapshot.cleanup-cron:0 17 * * * *}")
+    @Transactional
+    public void deleteExpired() {
+        if (retentionDays > 0) {
+            int deleted = keyframeRepository.deleteByFrameTimeBefore(LocalDateTime.now().minusDays(retentionDays));
+            if (deleted > 0) {
+                log.info("Deleted {} traffic keyframes older than {} days", deleted, retentionDays);
+            }
+        }
+    }
+
+    /**
+     * State of every aircraft at {@code at}. Aircraft whose last report before the instant
+     * is older than {@code tracking.snapshot.max-staleness-seconds} are left out, as are
+     * aircraft first seen after it.
+     */
+    @Transactional(readOnly = true)
+    public TrafficSnapshotDto snapshotAt(LocalDateTime at) {
+        long start = System.nanoTime();
+        Duration staleness = Duration.ofSeconds(maxStalenessSeconds);
+        LocalDateTime oldest = at.minus(staleness);
+
+        Map<String, TrafficSnapshotDto.AircraftState> before = new HashMap<>();
+        Map<String, TrafficSnapshotDto.AircraftState> after = new HashMap<>();
+        Optional<TrafficKeyframe> previous = keyframeRepository.findFirstByFrameTimeLessThanEqualOrderByFrameTimeDesc(at);
+        Optional<TrafficKeyframe> next = keyframeRepository.findFirstByFrameTimeGreaterThanOrderByFrameTimeAsc(at);
+        previous.ifPresent(keyframe -> merge(keyframe, at, before, after));
+        next.ifPresent(keyframe -> merge(keyframe, at, before, after));
+
+        // Deltas: the reports between the two keyframes, never more than the staleness window away
+        LocalDateTime from = previous.map(TrafficKeyframe::getFrameTime)
+                .filter(time -> time.isAfter(oldest))
+                .orElse(oldest);
+        LocalDateTime to = next.map(TrafficKeyframe::getFrameTime)
+                .filter(time -> time.isBefore(at.plus(staleness)))
+                .orElse(at.plus(staleness));
+        for (TrajectoryPointRowDto row : trajectoryRepository.findActualRowsBetween(from, to)) {
+            merge(toState(row), at, before, after);
+        }
+
+        List<TrafficSnapshotDto.AircraftState> aircraft = new ArrayList<>(before.size());
+        for (TrafficSnapshotDto.AircraftState last : before.values()) {
+            if (last.getSampleTime().isBefore(oldest)) {
+                continue;
+            }
+            TrafficSnapshotDto.AircraftState following = after.get(last.getCallsign());
+            aircraft.add(following != null ? interpolate(last, following, at) : last);
+        }
+        aircraft.sort(Comparator.comparing(TrafficSnapshotDto.AircraftState::getCallsign));
+        lastQueryMicros = (System.nanoTime() - start) / 1000;
+        return TrafficSnapshotDto.builder()
+                .at(at)
+                .aircraft(aircraft)
+                .build();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("keyframes", keyframeRepository.count());
+        stats.put("lastKeyframeAircraft", lastKeyframeAircraft);
+        stats.put("lastKeyframeMicros", lastKeyframeMicros);
+        stats.put("lastQueryMicros", lastQueryMicros);
+        return stats;
+    }
+
+    private static void merge(TrafficKeyframe keyframe, LocalDateTime at,
+                              Map<String, TrafficSnapshotDto.AircraftState> before,
+                              Map<String, TrafficSnapshotDto.AircraftState> after) {
+        for (TrafficSnapshotDto.AircraftState state : KeyframeCodec.decode(keyframe.getFrameTime(), keyframe.getData())) {
+            merge(state, at, before, after);
+        }
+    }
+
+    /**
+     * Keeps the latest report at or before {@code at} and the earliest one after it.
+     */
+    private static void merge(TrafficSnapshotDto.AircraftState state, LocalDateTime at,
+                              Map<String, TrafficSnapshotDto.AircraftState> before,
+                              Map<String, TrafficSnapshotDto.AircraftState> after) {
+        if (!state.getSampleTime().isAfter(at)) {
+            before.merge(state.getCallsign(), state,
+                    (current, candidate) -> candidate.getSampleTime().isAfter(current.getSampleTime()) ? candidate : current);
+        } else {
+            after.merge(state.getCallsign(), state,
+                    (current, candidate) -> candidate.getSampleTime().isBefore(current.getSampleTime()) ? candidate : current);
+        }
+    }
+
+    static TrafficSnapshotDto.AircraftState interpolate(TrafficSnapshotDto.AircraftState from,
+                                                        TrafficSnapshotDto.AircraftState to, LocalDateTime at) {
+        double span = Duration.between(from.getSampleTime(), to.getSampleTime()).toMillis();
+        double f = span > 0 ? Duration.between(from.getSampleTime(), at).toMillis() / span : 0;
+        double heading = from.getHeading() + f * FlightPhaseClassifier.headingDifference(to.getHeading(), from.getHeading());
+        Integer verticalSpeed = from.getVerticalSpeed() != null && to.getVerticalSpeed() != null
+                ? Integer.valueOf((int) Math.round(lerp(from.getVerticalSpeed(), to.getVerticalSpeed(), f)))
+                : from.getVerticalSpeed();
+        return TrafficSnapshotDto.AircraftState.builder()
+                .callsign(from.getCallsign())
+                .latitude(lerp(from.getLatitude(), to.getLatitude(), f))
+                .longitude(lerp(from.getLongitude(), to.getLongitude(), f))
+                .altitude((int) Math.round(lerp(from.getAltitude(), to.getAltitude(), f)))
+                .speed((int) Math.round(lerp(from.getSpeed(), to.getSpeed(), f)))
+                .heading(((int) Math.round(heading) % 360 + 360) % 360)
+                .verticalSpeed(verticalSpeed)
+                .sampleTime(from.getSampleTime())
+                .interpolated(true)
+                .build();
+    }
+
+    private static double lerp(double a, double b, double f) {
+        return a + (b - a) * f;
+    }
+
+    private static TrafficSnapshotDto.AircraftState toState(TrajectoryPointRowDto row) {
+        return TrafficSnapshotDto.AircraftState.builder()
+                .callsign(row.getCallsign())
+                .latitude(row.getLatitude())
+                .longitude(row.getLongitude())
+                .altitude(row.getAltitude())
+                .speed(row.getSpeed())
+                .heading(row.getHeading())
+                .verticalSpeed(row.getVerticalSpeed())
+                .sampleTime(row.getTimestamp())
+                .interpolated(false)
+                .build();
+    }
+}
@@ -0,0 +1,357 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.tracking.archive.TrajectoryCodec;
+import com.aircraft.tracking.dto.TrajectoryDto;
+import com.aircraft.tracking.dto.TrajectoryPointRowDto;
+import com.aircraft.tracking.model.TrajectoryArchive;
+import com.aircraft.tracking.repository.TrajectoryArchiveRepository;
+import com.aircraft.tracking.repository.TrajectoryPointRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Tiered trajectory storage. Recent points stay as {@code trajectory_points} rows; points
+ * older than {@code tracking.archive.raw-retention-hours} are compacted per aircraft and
+ * hour into {@link TrajectoryCodec} blocks at full resolution plus 10 s and 1 min
+ * rollups, and the rows are deleted. Readers get archived and raw points as one sequence.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrajectoryArchiveService {
+    
+    private static final int DELETE_BATCH_SIZE = 1000;
+    
+    private final TrajectoryPointRepository trajectoryRepository;
+    private final TrajectoryArchiveRepository archiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${tracking.archive.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${tracking.archive.raw-retention-hours:24}")
+    private int rawRetentionHours;
+    
+    private volatile long lastRunMillis;
+    private volatile long lastPointsArchived;
+    private volatile long lastHoursArchived;
+    
+    @Scheduled(cron = "${tracking.archive.cron:0 7 * * * *}")
+    public void compactScheduled() {
+        if (enabled) {
+            compact(LocalDateTime.now());
+        }
+    }
+    
+    /**
+     * Archives every raw point before the start of the hour {@code raw-retention-hours}
+     * before {@code now}. Each aircraft is compacted in its own transaction.
+     *
+     * @return the number of points archived
+     */
+    public long compact(LocalDateTime now) {
+        long start = System.currentTimeMillis();
+        LocalDateTime cutoff = now.truncatedTo(ChronoUnit.HOURS).minusHours(rawRetentionHours);
+        long points = 0;
+        long hours = 0;
+        for (String callsign : trajectoryRepository.findCallsignsWithActualPointsBefore(cutoff)) {
+            try {
+                long[] result = transactionTemplate.execute(status -> compactAircraft(callsign, cutoff));
+                points += result[0];
+                hours += result[1];
+            } catch (RuntimeException e) {
+                log.error("Failed to archive trajectory of {}", callsign, e);
+            }
+        }
+        lastRunMillis = System.currentTimeMillis() - start;
+        lastPointsArchived = points;
+        lastHoursArchived = hours;
+        if (points > 0) {
+            log.info("Archived {} trajectory points into {} aircraft-hours in {} ms", points, hours, lastRunMillis);
+        }
+        return points;
+    }
+    
+    private long[] compactAircraft(String callsign, LocalDateTime cutoff) {
+        List<Long> ids = new ArrayList<>();
+        List<TrajectoryDto.TrajectoryPointDto> hour = new ArrayList<>();
+        LocalDateTime hourStart = null;
+        long hours = 0;
+        try (Stream<TrajectoryPointRowDto> rows = trajectoryRepository.streamActualBefore(callsign, cutoff)) {
+            for (TrajectoryPointRowDto row : (Iterable<TrajectoryPointRowDto>) rows::iterator) {
+                LocalDateTime rowHour = row.getTimestamp().truncatedTo(ChronoUnit.HOURS);
+                if (!rowHour.equals(hourStart) && !hour.isEmpty()) {
+                    writeHour(callsign, hourStart, hour);
+                    hour.clear();
+                    hours++;
+                }
+                hourStart = rowHour;
+                hour.add(toPointDto(row));
+                ids.add(row.getId());
+            }
+        }
+        if (!hour.isEmpty()) {
+            writeHour(callsign, hourStart, hour);
+            hours++;
+        }
+        for (int from = 0; from < ids.size(); from += DELETE_BATCH_SIZE) {
+            trajectoryRepository.deleteActualBeforeByIds(
+                    ids.subList(from, Math.min(ids.size(), from + DELETE_BATCH_SIZE)), callsign, cutoff);
+        }
+        return new long[]{ids.size(), hours};
+    }
+    
+    private void writeHour(String callsign, LocalDateTime hourStart, List<TrajectoryDto.TrajectoryPointDto> points) {
+        Map<TrajectoryArchive.Resolution, TrajectoryArchive> existing = new EnumMap<>(TrajectoryArchive.Resolution.class);
+        for (TrajectoryArchive archive : archiveRepository.findByCallsignAndHourStart(callsign, hourStart)) {
+            existing.put(archive.getResolution(), archive);
+        }
+        
+        List<TrajectoryDto.TrajectoryPointDto> full = points;
+        TrajectoryArchive raw = existing.get(TrajectoryArchive.Resolution.RAW);
+        if (raw != null) {
+            // Late points for an hour that was already archived
+            full = new ArrayList<>(TrajectoryCodec.decode(raw.getData()));
+            full.addAll(points);
+            full.sort(Comparator.comparing(TrajectoryDto.TrajectoryPointDto::getTimestamp));
+        }
+        
+        List<TrajectoryArchive> blocks = new ArrayList<>(3);
+        for (TrajectoryArchive.Resolution resolution : TrajectoryArchive.Resolution.values()) {
+            byte[] data = TrajectoryCodec.encode(rollup(full, resolution));
+            TrajectoryArchive block = existing.getOrDefault(resolution, TrajectoryArchive.builder()
+                    .callsign(callsign)
+                    .hourStart(hourStart)
+                    .resolution(resolution)
+                    .build());
+            block.setPointCount(TrajectoryCodec.decodeCount(data));
+            block.setSizeBytes(data.length);
+            block.setData(data);
+            blocks.add(block);
+        }
+        archiveRepository.saveAll(blocks);
+    }
+    
+    /**
+     * The first point of every resolution bucket, so rollups contain only real samples.
+     */
+    static List<TrajectoryDto.TrajectoryPointDto> rollup(List<TrajectoryDto.TrajectoryPointDto> points,
+                                                         TrajectoryArchive.Resolution resolution) {
+        if (resolution.getBucketMillis() == 0) {
+            return points;
+        }
+        List<TrajectoryDto.TrajectoryPointDto> sampled = new ArrayList<>();
+        long bucket = Long.MIN_VALUE;
+        for (TrajectoryDto.TrajectoryPointDto point : points) {
+            long pointBucket = Math.floorDiv(TrackHistoryService.toMillis(point.getTimestamp()), resolution.getBucketMillis());
+            if (pointBucket != bucket) {
+                sampled.add(point);
+                bucket = pointBucket;
+            }
+        }
+        return sampled;
+    }
+    
+    /**
+     * Resolution to read for a range so that roughly {@code maxPoints} archived samples
+     * cover it; an open start means the aircraft's first archived hour.
+     */
+    @Transactional(readOnly = true)
+    public TrajectoryArchive.Resolution resolutionFor(String callsign, LocalDateTime from, LocalDateTime to,
+                                                      int maxPoints) {
+        LocalDateTime start = from;
+        if (start == null) {
+            start = archiveRepository.findFirstByCallsignAndResolutionOrderByHourStartAsc(
+                    callsign, TrajectoryArchive.Resolution.RAW)
+                    .map(TrajectoryArchive::getHourStart)
+                    .orElse(null);
+            if (start == null) {
+                return TrajectoryArchive.Resolution.RAW;
+            }
+        }
+        long span = Duration.between(start, to != null ? to : LocalDateTime.now()).toMillis();
+        return TrajectoryArchive.Resolution.forSpacing(span / Math.max(1, maxPoints));
+    }
+    
+    /**
+     * Archived points of a callsign within the range, in time order.
+     */
+    @Transactional(readOnly = true)
+    public List<TrajectoryDto.TrajectoryPointDto> readPoints(String callsign, LocalDateTime from, LocalDateTime to,
+                                                            TrajectoryArchive.Resolution resolution) {
+        LocalDateTime start = from != null ? from : TrajectoryLodService.OPEN_START;
+        LocalDateTime end = to != null ? to : TrajectoryLodService.OPEN_END;
+        List<TrajectoryDto.TrajectoryPointDto> points = new ArrayList<>();
+        for (TrajectoryArchive archive : archiveRepository.findByCallsignAndResolutionAndHourStartBetweenOrderByHourStartAsc(
+                callsign, resolution, start.truncatedTo(ChronoUnit.HOURS), end)) {
+            for (TrajectoryDto.TrajectoryPointDto point : TrajectoryCodec.decode(archive.getData())) {
+                if (!point.getTimestamp().isBefore(start) && !point.getTimestamp().isAfter(end)) {
+                    points.add(point);
+                }
+            }
+        }
+        return points;
+    }
+    
+    /**
+     * Up to {@code limit} archived full-resolution points of a callsign within the range, in
+     * time order, resuming after the first {@code skip} points measured at {@code after} (from
+     * the start of the range when {@code after} is null). Hours are fetched and decoded one at
+     * a time and only until the limit is reached.
+     */
+    @Transactional(readOnly = true)
+    public List<TrajectoryDto.TrajectoryPointDto> readPage(String callsign, LocalDateTime from, LocalDateTime to,
+                                                          LocalDateTime after, long skip, int limit) {
+        List<TrajectoryDto.TrajectoryPointDto> points = new ArrayList<>();
+        LocalDateTime hour = (after != null && after.isAfter(from) ? after : from).truncatedTo(ChronoUnit.HOURS);
+        long skipped = 0;
+        while (points.size() < limit) {
+            Optional<TrajectoryArchive> archive = archiveRepository
+                    .findFirstByCallsignAndResolutionAndHourStartBetweenOrderByHourStartAsc(
+                            callsign, TrajectoryArchive.Resolution.RAW, hour, to);
+            if (archive.isEmpty()) {
+                break;
+            }
+            for (TrajectoryDto.TrajectoryPointDto point : TrajectoryCodec.decode(archive.get().getData())) {
+                LocalDateTime time = point.getTimestamp();
+                if (time.isBefore(from) || time.isAfter(to)) {
+                    continue;
+                }
+                if (after != null && (time.isBefore(after) || time.equals(after) && skipped++ < skip)) {
+                    continue;
+                }
+                points.add(point);
+                if (points.size() == limit) {
+                    break;
+                }
+            }
+            hour = archive.get().getHourStart().plusHours(1);
+        }
+        return points;
+    }
+    
+    /**
+     * Feeds archived full-resolution points in the range to {@code sink} in time order, for
+     * one callsign or for all aircraft when {@code callsign} is null. Hours are decoded one
+     * at a time, so at most one hour of blocks is held; within an hour the points of all
+     * aircraft are merged by timestamp, ties keeping callsign order. Must be called inside a
+     * transaction.
+     *
+     * @return the number of points written
+     */
+    long streamPoints(String callsign, LocalDateTime from, LocalDateTime to, Consumer<TrajectoryPointRowDto> sink) {
+        if (callsign != null) {
+            long count = 0;
+            LocalDateTime hour = from.truncatedTo(ChronoUnit.HOURS);
+            while (true) {
+                Optional<TrajectoryArchive> archive = archiveRepository
+                        .findFirstByCallsignAndResolutionAndHourStartBetweenOrderByHourStartAsc(
+                                callsign, TrajectoryArchive.Resolution.RAW, hour, to);
+                if (archive.isEmpty()) {
+                    return count;
+                }
+                count += emitHour(List.of(archive.get()), from, to, sink);
+                hour = archive.get().getHourStart().plusHours(1);
+            }
+        }
+        long count = 0;
+        List<TrajectoryArchive> hourBlocks = new ArrayList<>();
+        try (Stream<TrajectoryArchive> archives = archiveRepository.streamByResolutionAndHourRange(
+                TrajectoryArchive.Resolution.RAW, from.truncatedTo(ChronoUnit.HOURS), to)) {
+            for (TrajectoryArchive archive : (Iterable<TrajectoryArchive>) archives::iterator) {
+                if (!hourBlocks.isEmpty() && !hourBlocks.get(0).getHourStart().equals(archive.getHourStart())) {
+                    count += emitHour(hourBlocks, from, to, sink);
+                    hourBlocks.clear();
+                }
+                hourBlocks.add(archive);
+            }
+        }
+        return count + emitHour(hourBlocks, from, to, sink);
+    }
+    
+    /**
+     * Decodes the blocks of one hour and emits their points within the range by timestamp.
+     * The sort is stable and the blocks arrive in callsign order.
+     */
+    private static long emitHour(List<TrajectoryArchive> blocks, LocalDateTime from, LocalDateTime to,
+                                 Consumer<TrajectoryPointRowDto> sink) {
+        List<TrajectoryPointRowDto> rows = new ArrayList<>();
+        for (TrajectoryArchive block : blocks) {
+            for (TrajectoryDto.TrajectoryPointDto point : TrajectoryCodec.decode(block.getData())) {
+                if (!point.getTimestamp().isBefore(from) && !point.getTimestamp().isAfter(to)) {
+                    rows.add(toRowDto(block.getCallsign(), point));
+                }
+            }
+        }
+        if (blocks.size() > 1) {
+            rows.sort(Comparator.comparing(TrajectoryPointRowDto::getTimestamp));
+        }
+        rows.forEach(sink);
+        return rows.size();
+    }
+    
+    @Transactional(readOnly = true)
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (Object[] row : archiveRepository.summarizeByResolution()) {
+            long blocks = ((Number) row[1]).longValue();
+            long points = ((Number) row[2]).longValue();
+            long bytes = ((Number) row[3]).longValue();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("blocks", blocks);
+            entry.put("points", points);
+            entry.put("bytes", bytes);
+            entry.put("bytesPerPoint", points > 0 ? (double) bytes / points : 0.0);
+            stats.put(row[0].toString(), entry);
+        }
+        stats.put("lastRunMillis", lastRunMillis);
+        stats.put("lastPointsArchived", lastPointsArchived);
+        stats.put("lastHoursArchived", lastHoursArchived);
+        return stats;
+    }
+    
+    private static TrajectoryDto.TrajectoryPointDto toPointDto(TrajectoryPointRowDto row) {
+        return TrajectoryDto.TrajectoryPointDto.builder()
+                .latitude(row.getLatitude())
+                .longitude(row.getLongitude())
+                .altitude(row.getAltitude())
+                .speed(row.getSpeed())
+                .heading(row.getHeading())
+                .verticalSpeed(row.getVerticalSpeed())
+                .timestamp(row.getTimestamp())
+                .pointType(row.getPointType())
+                .build();
+    }
+    
+    private static TrajectoryPointRowDto toRowDto(String callsign, TrajectoryDto.TrajectoryPointDto point) {
+        return TrajectoryPointRowDto.builder()
+                .callsign(callsign)
+                .latitude(point.getLatitude())
+                .longitude(point.getLongitude())
+                .altitude(point.getAltitude())
+                .speed(point.getSpeed())
+                .heading(point.getHeading())
+                .verticalSpeed(point.getVerticalSpeed())
+                .timestamp(point.getTimestamp())
+                .pointType(point.getPointType())
+                .build();
+    }
+}
@@ -0,0 +1,172 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.tracking.dto.TrajectoryDto;
+import com.aircraft.tracking.dto.TrajectoryPageDto;
+import com.aircraft.tracking.dto.TrajectoryPointRowDto;
+import com.aircraft.tracking.repository.TrajectoryPointRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Bulk trajectory reads that never hold a whole history in memory: keyset pages of
+ * projected rows, and forward-only streams for exports.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrajectoryExportService {
+
+    private final TrajectoryPointRepository trajectoryRepository;
+    private final TrajectoryArchiveService archiveService;
+
+    @Value("${tracking.trajectory.page-size:500}")
+    private int defaultPageSize;
+
+    @Value("${tracking.trajectory.max-page-size:5000}")
+    private int maxPageSize;
+
+    /**
+     * One page of a callsign's trajectory in time order, archived hours first and then raw
+     * rows. Pass the previous page's {@code nextCursor} to continue; pages stay consistent
+     * while new points are appended, and rows compacted into the archive while a client is
+     * walking the raw tier are picked up from the archive. Only such rows that shared the
+     * cursor's exact timestamp can be missed, since archived points no longer have an id.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public TrajectoryPageDto getPage(String callsign, LocalDateTime from, LocalDateTime to,
+                                     String cursor, Integer limit) {
+        int size = Math.max(1, Math.min(limit != null ? limit : defaultPageSize, maxPageSize));
+        LocalDateTime start = Objects.requireNonNullElse(from, TrajectoryLodService.OPEN_START);
+        LocalDateTime end = Objects.requireNonNullElse(to, TrajectoryLodService.OPEN_END);
+        LocalDateTime afterTime = TrajectoryLodService.OPEN_START;
+        long afterId = 0L;
+        if (cursor != null) {
+            Cursor decoded = Cursor.decode(cursor);
+            afterTime = decoded.timestamp();
+            afterId = decoded.id();
+        }
+
+        // One extra point tells whether another page follows. Archived hours precede the raw
+        // rows; once the cursor is on a row id, only points archived after it are read, which
+        // are rows that compaction moved since the previous page
+        LocalDateTime archivedAfter = cursor != null ? afterTime : null;
+        long archivedSkip = afterId <= 0 ? -afterId : Long.MAX_VALUE;
+        List<TrajectoryDto.TrajectoryPointDto> archived = archiveService.readPage(
+                callsign, start, end, archivedAfter, archivedSkip, size + 1);
+        List<TrajectoryPointRowDto> rows = archived.size() > size ? List.of()
+                : trajectoryRepository.findPageByCallsign(callsign, start, end, afterTime, afterId,
+                        Limit.of(size + 1 - archived.size()));
+        boolean hasMore = archived.size() + rows.size() > size;
+        List<TrajectoryDto.TrajectoryPointDto> points = new ArrayList<>(Math.min(archived.size() + rows.size(), size));
+        for (int i = 0; i < archived.size() && points.size() < size; i++) {
+            points.add(archived.get(i));
+        }
+        for (int i = 0; i < rows.size() && points.size() < size; i++) {
+            points.add(toPointDto(rows.get(i)));
+        }
+
+        String nextCursor = null;
+        if (hasMore && size <= archived.size()) {
+            nextCursor = archivedCursor(archived, size - 1, archivedAfter, archivedSkip).encode();
+        } else if (hasMore) {
+            TrajectoryPointRowDto last = rows.get(size - 1 - archived.size());
+            nextCursor = new Cursor(last.getTimestamp(), last.getId()).encode();
+        }
+        return TrajectoryPageDto.builder()
+                .callsign(callsign)
+                .points(points)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Feeds every point in the range to {@code sink}, archived hours first and then raw rows
+     * in time order, for one callsign or for all aircraft when {@code callsign} is null.
+     * Rows come from database cursors and are not kept, so memory use does not depend on
+     * the size of the range.
+     *
+     * @return the number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long stream(String callsign, LocalDateTime from, LocalDateTime to, Consumer<TrajectoryPointRowDto> sink) {
+        LocalDateTime start = Objects.requireNonNullElse(from, TrajectoryLodService.OPEN_START);
+        LocalDateTime end = Objects.requireNonNullElse(to, TrajectoryLodService.OPEN_END);
+        long count = archiveService.streamPoints(callsign, start, end, sink);
+        try (Stream<TrajectoryPointRowDto> rows = callsign != null
+                ? trajectoryRepository.streamByCallsign(callsign, start, end)
+                : trajectoryRepository.streamAll(start, end)) {
+            for (TrajectoryPointRowDto row : (Iterable<TrajectoryPointRowDto>) rows::iterator) {
+                sink.accept(row);
+                count++;
+            }
+        }
+        log.debug("Streamed {} trajectory points for {}", count, callsign != null ? callsign : "all aircraft");
+        return count;
+    }
+
+    /**
+     * Archived points have no row id: their cursor holds minus the number of points already
+     * returned at its timestamp, which also sorts it before every raw row at that time.
+     */
+    private static Cursor archivedCursor(List<TrajectoryDto.TrajectoryPointDto> archived, int last,
+                                         LocalDateTime afterTime, long skipped) {
+        LocalDateTime time = archived.get(last).getTimestamp();
+        long sameTime = time.equals(afterTime) ? skipped : 0;
+        for (int i = last; i >= 0 && archived.get(i).getTimestamp().equals(time); i--) {
+            sameTime++;
+        }
+        return new Cursor(time, -sameTime);
+    }
+
+    private static TrajectoryDto.TrajectoryPointDto toPointDto(TrajectoryPointRowDto row) {
+        return TrajectoryDto.TrajectoryPointDto.builder()
+                .latitude(row.getLatitude())
+                .longitude(row.getLongitude())
+                .altitude(row.getAltitude())
+                .speed(row.getSpeed())
+                .heading(row.getHeading())
+                .verticalSpeed(row.getVerticalSpeed())
+                .timestamp(row.getTimestamp())
+                .pointType(row.getPointType())
+                .confidenceScore(row.getConfidenceScore())
+                .build();
+    }
+
+    /**
+     * Opaque page position: the {@code (timestamp, id)} of the last row returned.
+     */
+    record Cursor(LocalDateTime timestamp, long id) {
+
+        String encode() {
+            String raw = timestamp + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+            }
+        }
+    }
+}
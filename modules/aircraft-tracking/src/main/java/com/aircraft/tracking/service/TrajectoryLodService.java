@@ -0,0 +1,162 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.tracking.dto.TrajectoryDto;
+import com.aircraft.tracking.dto.TrajectoryPointView;
+import com.aircraft.tracking.repository.TrackedAircraftRepository;
+import com.aircraft.tracking.repository.TrajectoryPointRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Level-of-detail access to stored trajectories: points are loaded for an optional time
+ * range from the archive and the raw table, simplified with {@link TrajectorySimplifier} to a tolerance and point budget, and
+ * cached per callsign and level of detail. Entries for a callsign are dropped whenever new
+ * points for it are persisted or its track is retired, and the number of callsigns cached is
+ * bounded, so trajectories looked up after their aircraft left do not pile up.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrajectoryLodService {
+
+    // Ground resolution of one web-mercator pixel at zoom 0 on the equator
+    private static final double METRES_PER_PIXEL_ZOOM_0 = 156_543.03;
+    static final LocalDateTime OPEN_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    static final LocalDateTime OPEN_END = LocalDateTime.of(9999, 12, 31, 23, 59);
+
+    private final TrajectoryPointRepository trajectoryRepository;
+    private final TrackedAircraftRepository aircraftRepository;
+    private final TrajectoryArchiveService archiveService;
+
+    @Value("${tracking.trajectory.default-max-points:2000}")
+    private int defaultMaxPoints;
+
+    @Value("${tracking.trajectory.cache-entries-per-aircraft:8}")
+    private int cacheEntriesPerAircraft;
+
+    @Value("${tracking.trajectory.cache-max-aircraft:2000}")
+    private int cacheMaxAircraft;
+
+    private Cache<String, Map<LodKey, List<TrajectoryDto.TrajectoryPointDto>>> cache;
+
+    record LodKey(LocalDateTime from, LocalDateTime to, double tolerance, int maxPoints) {
+    }
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxAircraft)
+                .build();
+    }
+
+    /**
+     * Tolerance in metres equivalent to one screen pixel at the given web-mercator zoom
+     * level and latitude.
+     */
+    public static double toleranceForZoom(int zoom, double latitude) {
+        return METRES_PER_PIXEL_ZOOM_0 * Math.cos(Math.toRadians(latitude)) / Math.pow(2, zoom);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TrajectoryDto.TrajectoryPointDto> getActualPoints(String callsign, LocalDateTime from, LocalDateTime to,
+                                                                  Double tolerance, Integer maxPoints) {
+        return getActualPoints(callsign, null, from, to, tolerance, maxPoints);
+    }
+
+    /**
+     * As {@link #getActualPoints(String, LocalDateTime, LocalDateTime, Double, Integer)} for a
+     * caller that already knows the aircraft id; {@code null} looks it up on a cache miss.
+     */
+    @Transactional(readOnly = true)
+    public List<TrajectoryDto.TrajectoryPointDto> getActualPoints(String callsign, Long aircraftId,
+                                                                  LocalDateTime from, LocalDateTime to,
+                                                                  Double tolerance, Integer maxPoints) {
+        LodKey key = new LodKey(from, to, tolerance != null ? tolerance : 0.0,
+                maxPoints != null ? maxPoints : defaultMaxPoints);
+        Map<LodKey, List<TrajectoryDto.TrajectoryPointDto>> entries =
+                cache.get(callsign, c -> newLruMap());
+        synchronized (entries) {
+            List<TrajectoryDto.TrajectoryPointDto> cached = entries.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        List<TrajectoryDto.TrajectoryPointDto> simplified = load(callsign, aircraftId, key);
+        synchronized (entries) {
+            // Only publish if no append invalidated this callsign while we were loading
+            if (cache.getIfPresent(callsign) == entries) {
+                entries.put(key, simplified);
+            }
+        }
+        return simplified;
+    }
+
+    public void invalidate(Collection<String> callsigns) {
+        cache.invalidateAll(callsigns);
+    }
+
+    private List<TrajectoryDto.TrajectoryPointDto> load(String callsign, Long aircraftId, LodKey key) {
+        // Archived hours first, at a rollup resolution that fits the budget; they never overlap raw rows
+        List<TrajectoryDto.TrajectoryPointDto> points = new ArrayList<>(archiveService.readPoints(callsign,
+                key.from(), key.to(), archiveService.resolutionFor(callsign, key.from(), key.to(), key.maxPoints())));
+        Long id = aircraftId != null ? aircraftId : aircraftRepository.findIdByCallsign(callsign).orElse(null);
+        if (id != null) {
+            for (TrajectoryPointView point : trajectoryRepository.findViewsByAircraftIdAndTimeRange(id,
+                    Objects.requireNonNullElse(key.from(), OPEN_START),
+                    Objects.requireNonNullElse(key.to(), OPEN_END))) {
+                points.add(toDto(point));
+            }
+        }
+
+        int n = points.size();
+        double[] latitude = new double[n];
+        double[] longitude = new double[n];
+        double[] altitude = new double[n];
+        for (int i = 0; i < n; i++) {
+            TrajectoryDto.TrajectoryPointDto point = points.get(i);
+            latitude[i] = point.getLatitude();
+            longitude[i] = point.getLongitude();
+            altitude[i] = point.getAltitude();
+        }
+        boolean[] keep = TrajectorySimplifier.simplify(latitude, longitude, altitude, key.tolerance(), key.maxPoints());
+
+        List<TrajectoryDto.TrajectoryPointDto> result = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (keep[i]) {
+                result.add(points.get(i));
+            }
+        }
+        log.debug("Simplified trajectory for {} from {} to {} points", callsign, n, result.size());
+        return List.copyOf(result);
+    }
+
+    private Map<LodKey, List<TrajectoryDto.TrajectoryPointDto>> newLruMap() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<LodKey, List<TrajectoryDto.TrajectoryPointDto>> eldest) {
+                return size() > cacheEntriesPerAircraft;
+            }
+        };
+    }
+
+    private static TrajectoryDto.TrajectoryPointDto toDto(TrajectoryPointView point) {
+        return new TrajectoryDto.TrajectoryPointDto(point.latitude(), point.longitude(), point.altitude(),
+                point.speed(), point.heading(), point.verticalSpeed(), point.timestamp(), point.pointType(),
+                point.confidenceScore());
+    }
+}
@@ -0,0 +1,104 @@
+package com.aircraft.tracking.service;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Douglas-Peucker simplification driven by a priority queue: the segment whose farthest
+ * point deviates most is split first, until every remaining deviation is within the
+ * tolerance or the point budget is used up. With an unlimited budget the result equals
+ * classic Douglas-Peucker; with a budget it keeps the most significant points.
+ * <p>
+ * Distances are measured in metres in a local equirectangular frame, with altitude
+ * included so climbs and descents on a straight ground track are preserved.
+ */
+public final class TrajectorySimplifier {
+
+    private static final double METRES_PER_DEG = 111_194.9;
+    private static final double FEET_TO_M = 0.3048;
+
+    private TrajectorySimplifier() {
+    }
+
+    /**
+     * @param latitude   point latitudes in time order
+     * @param longitude  point longitudes
+     * @param altitudeFt point altitudes in feet
+     * @param tolerance  maximum allowed deviation in metres (0 keeps every non-collinear point)
+     * @param maxPoints  maximum number of points to keep (at least 2)
+     * @return flags marking the points to keep; the first and last are always kept
+     */
+    public static boolean[] simplify(double[] latitude, double[] longitude, double[] altitudeFt,
+                                     double tolerance, int maxPoints) {
+        int n = latitude.length;
+        boolean[] keep = new boolean[n];
+        if (n <= 2 || maxPoints >= n && tolerance <= 0) {
+            Arrays.fill(keep, true);
+            return keep;
+        }
+
+        double cosLat = Math.cos(Math.toRadians(latitude[0]));
+        double[] x = new double[n];
+        double[] y = new double[n];
+        double[] z = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = (longitude[i] - longitude[0]) * METRES_PER_DEG * cosLat;
+            y[i] = (latitude[i] - latitude[0]) * METRES_PER_DEG;
+            z[i] = altitudeFt[i] * FEET_TO_M;
+        }
+
+        keep[0] = true;
+        keep[n - 1] = true;
+        int kept = 2;
+        int budget = Math.max(2, maxPoints);
+
+        // Entries are {deviation, first, last, farthest}, largest deviation first
+        PriorityQueue<double[]> segments = new PriorityQueue<>((a, b) -> Double.compare(b[0], a[0]));
+        offer(segments, x, y, z, 0, n - 1);
+        while (!segments.isEmpty() && kept < budget) {
+            double[] segment = segments.poll();
+            if (segment[0] <= tolerance) {
+                break;
+            }
+            int first = (int) segment[1];
+            int last = (int) segment[2];
+            int split = (int) segment[3];
+            keep[split] = true;
+            kept++;
+            offer(segments, x, y, z, first, split);
+            offer(segments, x, y, z, split, last);
+        }
+        return keep;
+    }
+
+    private static void offer(PriorityQueue<double[]> segments, double[] x, double[] y, double[] z,
+                              int first, int last) {
+        if (last - first < 2) {
+            return;
+        }
+        double maxDistance = -1;
+        int farthest = first + 1;
+        for (int i = first + 1; i < last; i++) {
+            double d = distanceToSegment(x, y, z, i, first, last);
+            if (d > maxDistance) {
+                maxDistance = d;
+                farthest = i;
+            }
+        }
+        segments.add(new double[]{maxDistance, first, last, farthest});
+    }
+
+    private static double distanceToSegment(double[] x, double[] y, double[] z, int p, int a, int b) {
+        double dx = x[b] - x[a];
+        double dy = y[b] - y[a];
+        double dz = z[b] - z[a];
+        double lengthSq = dx * dx + dy * dy + dz * dz;
+        double t = lengthSq == 0 ? 0
+                : ((x[p] - x[a]) * dx + (y[p] - y[a]) * dy + (z[p] - z[a]) * dz) / lengthSq;
+        t = Math.max(0, Math.min(1, t));
+        double ex = x[a] + t * dx - x[p];
+        double ey = y[a] + t * dy - y[p];
+        double ez = z[a] + t * dz - z[p];
+        return Math.sqrt(ex * ex + ey * ey + ez * ez);
+    }
+}
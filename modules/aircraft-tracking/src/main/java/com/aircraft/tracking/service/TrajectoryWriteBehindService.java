@@ -0,0 +1,251 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.tracking.model.TrackedAircraft;
+import com.aircraft.tracking.model.TrajectoryPoint;
+import com.aircraft.tracking.repository.TrackedAircraftRepository;
+import com.aircraft.tracking.repository.TrajectoryPointRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind persistence for position updates.
+ * <p>
+ * Updates are applied to in-memory track state by {@link TrackingService}; this service
+ * only queues the resulting trajectory points and remembers which aircraft rows are dirty.
+ * A scheduled flusher drains the queue in batches, each persisted in one transaction so
+ * Hibernate can group the inserts and updates into JDBC batches (trajectory ids come from
+ * a pooled sequence). When the queue is full, callers wait up to the offer timeout and
+ * the point is then dropped and counted. Stored points are added to the space-time index
+ * in the same transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrajectoryWriteBehindService {
+
+    private final TrackedAircraftRepository aircraftRepository;
+    private final TrajectoryPointRepository trajectoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TrajectoryLodService trajectoryLodService;
+    private final SpaceTimeIndexService spaceTimeIndexService;
+
+    @Value("${tracking.persistence.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${tracking.persistence.batch-size:500}")
+    private int batchSize;
+
+    @Value("${tracking.persistence.offer-timeout-ms:5}")
+    private long offerTimeoutMillis;
+
+    private BlockingQueue<TrajectoryPoint> queue;
+    private final Map<String, TrackedAircraft> dirtyAircraft = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong backpressureWaits = new AtomicLong();
+    private final AtomicLong pointsFlushed = new AtomicLong();
+    private final AtomicLong aircraftFlushed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong flushFailures = new AtomicLong();
+    private volatile long lastFlushMillis;
+    private volatile long maxFlushMillis;
+
+    @PostConstruct
+    void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Queues a trajectory point for asynchronous persistence.
+     *
+     * @return false if the point was dropped because the queue stayed full
+     */
+    public boolean enqueue(TrajectoryPoint point) {
+        if (!queue.offer(point)) {
+            backpressureWaits.incrementAndGet();
+            try {
+                if (!queue.offer(point, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    dropped.incrementAndGet();
+                    return false;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                dropped.incrementAndGet();
+                return false;
+            }
+        }
+        enqueued.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Queues a batch of points under the same backpressure policy, but waits at most once:
+     * after the first wait times out the rest of the batch is dropped without waiting, so a
+     * full queue costs the caller one offer timeout rather than one per point.
+     *
+     * @return the number of points accepted
+     */
+    public int enqueueAll(List<TrajectoryPoint> points) {
+        int accepted = 0;
+        for (TrajectoryPoint point : points) {
+            if (!enqueue(point)) {
+                dropped.addAndGet(points.size() - accepted - 1);
+                return accepted;
+            }
+            accepted++;
+        }
+        return accepted;
+    }
+
+    /**
+     * Marks the in-memory aircraft state as needing a write; repeated updates between two
+     * flushes coalesce into a single row update.
+     */
+    public void markDirty(TrackedAircraft aircraft) {
+        dirtyAircraft.put(aircraft.getCallsign(), aircraft);
+    }
+
+    @Scheduled(fixedDelayString = "${tracking.persistence.flush-interval-ms:200}")
+    public void flush() {
+        synchronized (flushLock) {
+            long start = System.currentTimeMillis();
+            flushAircraft();
+            List<TrajectoryPoint> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                flushPoints(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+            long elapsed = System.currentTimeMillis() - start;
+            lastFlushMillis = elapsed;
+            maxFlushMillis = Math.max(maxFlushMillis, elapsed);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        log.info("Write-behind flushed on shutdown: {}", getStats());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queued", queue.size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("dirtyAircraft", dirtyAircraft.size());
+        stats.put("enqueued", enqueued.get());
+        stats.put("dropped", dropped.get());
+        stats.put("backpressureWaits", backpressureWaits.get());
+        stats.put("pointsFlushed", pointsFlushed.get());
+        stats.put("aircraftFlushed", aircraftFlushed.get());
+        stats.put("batches", batches.get());
+        stats.put("flushFailures", flushFailures.get());
+        stats.put("lastFlushMillis", lastFlushMillis);
+        stats.put("maxFlushMillis", maxFlushMillis);
+        return stats;
+    }
+
+    private void flushAircraft() {
+        if (dirtyAircraft.isEmpty()) {
+            return;
+        }
+        List<TrackedAircraft> pending = new ArrayList<>(dirtyAircraft.size());
+        for (String callsign : Set.copyOf(dirtyAircraft.keySet())) {
+            TrackedAircraft aircraft = dirtyAircraft.remove(callsign);
+            if (aircraft != null) {
+                pending.add(aircraft);
+            }
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<Long, TrackedAircraft> managed = new LinkedHashMap<>();
+                for (TrackedAircraft entity : aircraftRepository.findAllById(pending.stream().map(TrackedAircraft::getId).toList())) {
+                    managed.put(entity.getId(), entity);
+                }
+                for (TrackedAircraft state : pending) {
+                    TrackedAircraft entity = managed.get(state.getId());
+                    if (entity != null) {
+                        synchronized (state) {
+                            copyState(state, entity);
+                        }
+                    }
+                }
+            });
+            aircraftFlushed.addAndGet(pending.size());
+        } catch (RuntimeException e) {
+            flushFailures.incrementAndGet();
+            // Re-mark unless a newer state arrived meanwhile
+            pending.forEach(a -> dirtyAircraft.putIfAbsent(a.getCallsign(), a));
+            log.error("Failed to flush {} aircraft rows", pending.size(), e);
+        }
+    }
+
+    private void flushPoints(List<TrajectoryPoint> batch) {
+        Set<String> callsigns = new HashSet<>();
+        for (TrajectoryPoint point : batch) {
+            callsigns.add(point.getAircraft().getCallsign());
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (TrajectoryPoint point : batch) {
+                    point.setAircraft(aircraftRepository.getReferenceById(point.getAircraft().getId()));
+                }
+                trajectoryRepository.saveAll(batch);
+            });
+            pointsFlushed.addAndGet(batch.size());
+            batches.incrementAndGet();
+            trajectoryLodService.invalidate(callsigns);
+        } catch (RuntimeException e) {
+            flushFailures.incrementAndGet();
+            dropped.addAndGet(batch.size());
+            log.error("Failed to flush {} trajectory points", batch.size(), e);
+            return;
+        }
+        try {
+            spaceTimeIndexService.index(batch);
+        } catch (RuntimeException e) {
+            log.error("Failed to index {} trajectory points", batch.size(), e);
+        }
+    }
+
+    private static void copyState(TrackedAircraft from, TrackedAircraft to) {
+        to.setLatitude(from.getLatitude());
+        to.setLongitude(from.getLongitude());
+        to.setAltitude(from.getAltitude());
+        to.setSpeed(from.getSpeed());
+        to.setHeading(from.getHeading());
+        to.setVerticalSpeed(from.getVerticalSpeed());
+        to.setSquawk(from.getSquawk());
+        to.setFlightPhase(from.getFlightPhase());
+        to.setAssignedRunway(from.getAssignedRunway());
+        to.setApproachSequence(from.getApproachSequence());
+        to.setIsEmergency(from.getIsEmergency());
+        to.setIsActive(from.getIsActive());
+        to.setLastRadarContact(from.getLastRadarContact());
+        to.setHexId(from.getHexId());
+        to.setFlightNumber(from.getFlightNumber());
+        to.setAircraftType(from.getAircraftType());
+        to.setRegistration(from.getRegistration());
+        to.setOrigin(from.getOrigin());
+        to.setDestination(from.getDestination());
+    }
+}
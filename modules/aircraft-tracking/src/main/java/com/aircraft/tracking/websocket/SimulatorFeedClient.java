@@ -0,0 +1,167 @@
+package com.aircraft.tracking.websocket;
+
+import com.aircraft.tracking.dto.FeedAircraftDto;
+import com.aircraft.tracking.service.TrackIngestService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.websocket.ContainerProvider;
+import jakarta.websocket.WebSocketContainer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Subscribes to the adsb-data-simulator STOMP feed and hands every frame to
+ * {@link TrackIngestService}. Reconnects with exponential backoff whenever the connection
+ * fails or drops, so tracking and the simulator can be started in any order.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SimulatorFeedClient {
+    
+    // A full frame of several thousand aircraft is a few MB of JSON
+    private static final int MAX_FRAME_BYTES = 16 * 1024 * 1024;
+    
+    private final TrackIngestService ingestService;
+    private final ObjectMapper objectMapper;
+    
+    @Value("${tracking.ingest.simulator.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${tracking.ingest.simulator.url:http://localhost:8080/ws/adsb/realtime}")
+    private String url;
+    
+    @Value("${tracking.ingest.simulator.topic:/topic/aircraft}")
+    private String topic;
+    
+    @Value("${tracking.ingest.simulator.reconnect-delay-ms:5000}")
+    private long reconnectDelayMillis;
+    
+    @Value("${tracking.ingest.simulator.reconnect-max-delay-ms:60000}")
+    private long reconnectMaxDelayMillis;
+    
+    private WebSocketStompClient stompClient;
+    private ThreadPoolTaskScheduler scheduler;
+    private volatile StompSession session;
+    private volatile boolean running;
+    private final AtomicBoolean reconnectPending = new AtomicBoolean();
+    private volatile long nextDelayMillis;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        WebSocketContainer container = ContainerProvider.getWebSocketContainer();
+        container.setDefaultMaxTextMessageBufferSize(MAX_FRAME_BYTES);
+        SockJsClient sockJsClient = new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient(container))));
+        
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        stompClient = new WebSocketStompClient(sockJsClient);
+        stompClient.setMessageConverter(converter);
+        stompClient.setInboundMessageSizeLimit(MAX_FRAME_BYTES);
+        
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("simulator-feed-");
+        scheduler.initialize();
+        
+        running = true;
+        nextDelayMillis = reconnectDelayMillis;
+        connect();
+    }
+    
+    @PreDestroy
+    public void stop() {
+        running = false;
+        StompSession current = session;
+        if (current != null && current.isConnected()) {
+            current.disconnect();
+        }
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+    
+    public boolean isConnected() {
+        StompSession current = session;
+        return current != null && current.isConnected();
+    }
+    
+    private void connect() {
+        reconnectPending.set(false);
+        log.debug("Connecting to simulator feed at {}", url);
+        stompClient.connectAsync(url, new FeedHandler()).whenComplete((connected, error) -> {
+            if (error != null) {
+                log.warn("Simulator feed unavailable at {}: {}", url, error.getMessage());
+                scheduleReconnect();
+            }
+        });
+    }
+    
+    private void scheduleReconnect() {
+        if (running && reconnectPending.compareAndSet(false, true)) {
+            long delay = nextDelayMillis;
+            nextDelayMillis = Math.min(delay * 2, reconnectMaxDelayMillis);
+            scheduler.schedule(this::connect, Instant.now().plusMillis(delay));
+        }
+    }
+    
+    private class FeedHandler extends StompSessionHandlerAdapter {
+        
+        @Override
+        public void afterConnected(StompSession connected, StompHeaders headers) {
+            session = connected;
+            nextDelayMillis = reconnectDelayMillis;
+            connected.subscribe(topic, this);
+            log.info("Subscribed to simulator feed {} at {}", topic, url);
+        }
+        
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return FeedAircraftDto[].class;
+        }
+        
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            ingestService.submit(Arrays.asList((FeedAircraftDto[]) payload));
+        }
+        
+        @Override
+        public void handleException(StompSession failed, StompCommand command, StompHeaders headers,
+                                    byte[] payload, Throwable exception) {
+            log.warn("Failed to handle simulator feed frame", exception);
+        }
+        
+        @Override
+        public void handleTransportError(StompSession failed, Throwable exception) {
+            if (!failed.isConnected()) {
+                // Connect failures are reported by connect(); only log drops of a live session
+                if (failed == session) {
+                    log.warn("Simulator feed connection lost: {}", exception.getMessage());
+                }
+                scheduleReconnect();
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.aircraft.tracking.websocket;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Subscriber count per STOMP destination, kept from the broker's session events so
+ * publishers can skip serializing messages nobody receives. The simple broker does not
+ * expose this itself, and the user registry only sees authenticated sessions.
+ */
+@Component
+public class TopicSubscriptionRegistry {
+
+    // sessionId -> subscriptionId -> destination
+    private final Map<String, Map<String, String>> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Integer> counts = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor headers = headers(event.getMessage());
+        if (headers.getSessionId() == null || headers.getSubscriptionId() == null || headers.getDestination() == null) {
+            return;
+        }
+        subscribe(headers.getSessionId(), headers.getSubscriptionId(), headers.getDestination());
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor headers = headers(event.getMessage());
+        if (headers.getSessionId() != null && headers.getSubscriptionId() != null) {
+            unsubscribe(headers.getSessionId(), headers.getSubscriptionId());
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        disconnect(event.getSessionId());
+    }
+
+    public boolean hasSubscribers(String destination) {
+        return counts.containsKey(destination);
+    }
+
+    public int destinations() {
+        return counts.size();
+    }
+
+    void subscribe(String sessionId, String subscriptionId, String destination) {
+        String previous = sessions.computeIfAbsent(sessionId, s -> new ConcurrentHashMap<>())
+                .put(subscriptionId, destination);
+        if (previous != null) {
+            decrement(previous);
+        }
+        counts.merge(destination, 1, Integer::sum);
+    }
+
+    void unsubscribe(String sessionId, String subscriptionId) {
+        Map<String, String> subscriptions = sessions.get(sessionId);
+        String destination = subscriptions != null ? subscriptions.remove(subscriptionId) : null;
+        if (destination != null) {
+            decrement(destination);
+        }
+    }
+
+    void disconnect(String sessionId) {
+        Map<String, String> subscriptions = sessions.remove(sessionId);
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::decrement);
+        }
+    }
+
+    private void decrement(String destination) {
+        counts.computeIfPresent(destination, (d, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private static StompHeaderAccessor headers(Message<byte[]> message) {
+        return StompHeaderAccessor.wrap(message);
+    }
+}
@@ -1,6 +1,9 @@
 package com.aircraft.tracking.websocket;
 
+import com.aircraft.tracking.dto.GeofenceEventDto;
 import com.aircraft.tracking.dto.TrackedAircraftDto;
+import com.aircraft.tracking.service.GeofenceService;
+import com.aircraft.tracking.service.TrackChangeNotifier;
 import com.aircraft.tracking.service.TrackingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,19 +12,43 @@ import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Publishes the full aircraft list to {@code /topic/tracking} every update interval, and
+ * per-aircraft updates to {@code /topic/tracking/aircraft/{callsign}}. The per-aircraft
+ * topics are driven by {@link TrackChangeNotifier}: each tick publishes the latest state of
+ * the aircraft changed since the previous tick, so a topic gets at most one message per
+ * {@code tracking.websocket.aircraft-interval-ms} however often the aircraft is updated.
+ * Aircraft whose topic has no subscribers are skipped before their state is read.
+ * Geofence events queued by {@link GeofenceService} go out as one list per tick on
+ * {@code /topic/tracking/geofence}.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TrackingWebSocketService {
     
+    static final String AIRCRAFT_TOPIC_PREFIX = "/topic/tracking/aircraft/";
+    static final String GEOFENCE_TOPIC = "/topic/tracking/geofence";
+    
     private final SimpMessagingTemplate messagingTemplate;
     private final TrackingService trackingService;
+    private final TrackChangeNotifier changeNotifier;
+    private final TopicSubscriptionRegistry subscriptionRegistry;
+    private final GeofenceService geofenceService;
     
     @Value("${tracking.update-interval}")
     private long updateInterval;
     
+    private final AtomicLong aircraftPublished = new AtomicLong();
+    private final AtomicLong aircraftSkipped = new AtomicLong();
+    private final AtomicLong geofenceEventsPublished = new AtomicLong();
+    
     @Scheduled(fixedDelayString = "${tracking.update-interval}")
     public void broadcastTrackingUpdates() {
         try {
@@ -36,9 +63,51 @@ public class TrackingWebSocketService {
         }
     }
     
+    @Scheduled(fixedDelayString = "${tracking.websocket.aircraft-interval-ms:200}")
+    public void publishAircraftUpdates() {
+        for (String callsign : changeNotifier.drain()) {
+            if (!subscriptionRegistry.hasSubscribers(AIRCRAFT_TOPIC_PREFIX + callsign)) {
+                aircraftSkipped.incrementAndGet();
+                continue;
+            }
+            Optional<TrackedAircraftDto> aircraft = trackingService.getLiveAircraft(callsign);
+            if (aircraft.isPresent()) {
+                broadcastAircraftUpdate(aircraft.get());
+                aircraftPublished.incrementAndGet();
+            }
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${tracking.websocket.geofence-interval-ms:200}")
+    public void publishGeofenceEvents() {
+        // Drained even without subscribers so the queue never fills with stale events
+        List<GeofenceEventDto> events = geofenceService.drainEvents();
+        if (events.isEmpty() || !subscriptionRegistry.hasSubscribers(GEOFENCE_TOPIC)) {
+            return;
+        }
+        try {
+            messagingTemplate.convertAndSend(GEOFENCE_TOPIC, events);
+            geofenceEventsPublished.addAndGet(events.size());
+        } catch (Exception e) {
+            log.error("Error publishing geofence events", e);
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("aircraftChanges", changeNotifier.getMarked());
+        stats.put("aircraftCoalesced", changeNotifier.getCoalesced());
+        stats.put("aircraftPending", changeNotifier.pending());
+        stats.put("aircraftPublished", aircraftPublished.get());
+        stats.put("aircraftSkippedNoSubscribers", aircraftSkipped.get());
+        stats.put("geofenceEventsPublished", geofenceEventsPublished.get());
+        stats.put("subscribedDestinations", subscriptionRegistry.destinations());
+        return stats;
+    }
+    
     public void broadcastAircraftUpdate(TrackedAircraftDto aircraft) {
         try {
-            messagingTemplate.convertAndSend("/topic/tracking/aircraft/" + aircraft.getCallsign(), aircraft);
+            messagingTemplate.convertAndSend(AIRCRAFT_TOPIC_PREFIX + aircraft.getCallsign(), aircraft);
             log.debug("Broadcasted update for aircraft: {}", aircraft.getCallsign());
         } catch (Exception e) {
             log.error("Error broadcasting aircraft update", e);
@@ -0,0 +1,72 @@
+package com.aircraft.spatial;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ZOrderCellTest {
+
+    @Test
+    void coveringRanges_ShouldContainEveryPointInsideTheBox() {
+        Random random = new Random(42);
+        for (int box = 0; box < 50; box++) {
+            double minLat = 30 + random.nextDouble() * 10;
+            double minLng = 120 + random.nextDouble() * 10;
+            double maxLat = minLat + random.nextDouble() * 2;
+            double maxLng = minLng + random.nextDouble() * 2;
+            List<long[]> ranges = ZOrderCell.coveringRanges(minLat, maxLat, minLng, maxLng,
+                    ZOrderCell.DEFAULT_MAX_RANGES);
+
+            assertThat(ranges).hasSizeLessThanOrEqualTo(ZOrderCell.DEFAULT_MAX_RANGES);
+            for (int i = 0; i < 200; i++) {
+                double lat = minLat + random.nextDouble() * (maxLat - minLat);
+                double lng = minLng + random.nextDouble() * (maxLng - minLng);
+                long cell = ZOrderCell.encode(lat, lng);
+                assertThat(ranges).anySatisfy(r -> assertThat(cell).isBetween(r[0], r[1]));
+            }
+        }
+    }
+
+    @Test
+    void coveringRanges_ShouldStayTightForSmallBoxes() {
+        // Roughly a 20 km box around Gimpo
+        List<long[]> ranges = ZOrderCell.coveringRanges(37.47, 37.65, 126.68, 126.90,
+                ZOrderCell.DEFAULT_MAX_RANGES);
+
+        long covered = ranges.stream().mapToLong(r -> r[1] - r[0] + 1).sum();
+        // The box spans about 66 x 41 cells; the cover must be a small multiple of that
+        assertThat(covered).isLessThan(66L * 41 * 16);
+        assertThat(ZOrderCell.encode(37.5583, 126.7906)).satisfies(cell ->
+                assertThat(ranges).anySatisfy(r -> assertThat(cell).isBetween(r[0], r[1])));
+    }
+
+    @Test
+    void encode_ShouldMatchTheIdsStoredByEveryModule() {
+        // The simulator and the tracking service each keep a copy of this class; both pin these ids
+        assertThat(ZOrderCell.encode(37.5583, 126.7906)).isEqualTo(3_680_906_441L);
+        assertThat(ZOrderCell.encode(-33.9, 151.2)).isEqualTo(1_961_877_651L);
+    }
+
+    @Test
+    void encode_ShouldPreserveLocality() {
+        long a = ZOrderCell.encode(37.5583, 126.7906);
+        long b = ZOrderCell.encode(37.5584, 126.7907);
+        long far = ZOrderCell.encode(-33.9, 151.2);
+
+        assertThat(Math.abs(a - b)).isLessThan(Math.abs(a - far));
+    }
+
+    @Test
+    void coarsen_ShouldKeepCellsInsideTheirParentNode() {
+        long cell = ZOrderCell.encode(37.5583, 126.7906);
+        long parent = ZOrderCell.coarsen(cell, 10);
+        long shift = 2 * (ZOrderCell.BITS - 10);
+
+        assertThat(cell).isBetween(parent << shift, ((parent + 1) << shift) - 1);
+        assertThat(ZOrderCell.coarsen(ZOrderCell.encode(37.5584, 126.7907), 10)).isEqualTo(parent);
+        assertThat(ZOrderCell.coarsen(cell, ZOrderCell.BITS)).isEqualTo(cell);
+    }
+}
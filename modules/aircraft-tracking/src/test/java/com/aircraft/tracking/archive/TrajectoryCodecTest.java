@@ -0,0 +1,77 @@
+package com.aircraft.tracking.archive;
+
+import com.aircraft.tracking.dto.TrajectoryDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TrajectoryCodecTest {
+
+    @Test
+    void decode_ShouldRoundTripPoints() {
+        List<TrajectoryDto.TrajectoryPointDto> points = List.of(
+                point(LocalDateTime.of(2024, 1, 1, 12, 0, 0), -33.9461234, 151.1771234, 0, 0, 359, null),
+                point(LocalDateTime.of(2024, 1, 1, 12, 0, 1, 250_000_000), -33.9462, 151.1772, 25, 140, 0, -700),
+                point(LocalDateTime.of(2024, 1, 1, 12, 0, 9), 37.5583, -126.79, 60000, 1000, 180, 10000),
+                point(LocalDateTime.of(2024, 1, 1, 13, 30, 0), 37.5583, -126.79, 60000, 1000, 180, null));
+
+        List<TrajectoryDto.TrajectoryPointDto> decoded = TrajectoryCodec.decode(TrajectoryCodec.encode(points));
+
+        assertThat(decoded).hasSize(points.size());
+        for (int i = 0; i < points.size(); i++) {
+            TrajectoryDto.TrajectoryPointDto expected = points.get(i);
+            TrajectoryDto.TrajectoryPointDto actual = decoded.get(i);
+            assertThat(actual.getTimestamp()).isEqualTo(expected.getTimestamp());
+            assertThat(actual.getLatitude()).isCloseTo(expected.getLatitude(), within(1e-7));
+            assertThat(actual.getLongitude()).isCloseTo(expected.getLongitude(), within(1e-7));
+            assertThat(actual).usingRecursiveComparison()
+                    .comparingOnlyFields("altitude", "speed", "heading", "verticalSpeed")
+                    .isEqualTo(expected);
+        }
+        assertThat(TrajectoryCodec.decode(TrajectoryCodec.encode(List.of()))).isEmpty();
+    }
+
+    @Test
+    void encode_ShouldStoreOneHourOfFlightInFewBytesPerPoint() {
+        Random random = new Random(42);
+        List<TrajectoryDto.TrajectoryPointDto> points = new ArrayList<>();
+        LocalDateTime time = LocalDateTime.of(2024, 1, 1, 12, 0);
+        double lat = 37.0;
+        double lon = 126.0;
+        int altitude = 5000;
+        for (int i = 0; i < 3600; i++) {
+            // 1 Hz with receive jitter, positions at ADS-B (5 decimal) resolution, climbing
+            time = time.plusNanos((1000 + random.nextInt(21) - 10) * 1_000_000L);
+            lat += 0.0010 + random.nextGaussian() * 0.00002;
+            lon += 0.0012 + random.nextGaussian() * 0.00002;
+            altitude += i % 4 == 0 ? 25 : 0;
+            points.add(point(time, Math.round(lat * 1e5) / 1e5, Math.round(lon * 1e5) / 1e5,
+                    altitude, 250 + random.nextInt(3), 45, 1500));
+        }
+
+        byte[] block = TrajectoryCodec.encode(points);
+
+        // A trajectory_points row with its indexes takes well over 100 bytes
+        assertThat((double) block.length / points.size()).isLessThan(10.0);
+        assertThat(TrajectoryCodec.decodeCount(block)).isEqualTo(3600);
+    }
+
+    private static TrajectoryDto.TrajectoryPointDto point(LocalDateTime time, double lat, double lon, int altitude,
+                                                          int speed, int heading, Integer verticalSpeed) {
+        return TrajectoryDto.TrajectoryPointDto.builder()
+                .timestamp(time)
+                .latitude(lat)
+                .longitude(lon)
+                .altitude(altitude)
+                .speed(speed)
+                .heading(heading)
+                .verticalSpeed(verticalSpeed)
+                .build();
+    }
+}
@@ -0,0 +1,63 @@
+package com.aircraft.tracking.config;
+
+import com.aircraft.spatial.ZOrderCell;
+import com.aircraft.spatial.ZOrderCellBackfill;
+import com.aircraft.tracking.model.TrackedAircraft;
+import com.aircraft.tracking.repository.TrackedAircraftRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class ZOrderCellBackfillTest {
+
+    @Autowired
+    private TrackedAircraftRepository aircraftRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void backfill_ShouldEncodeRowsWithoutACellAndLeaveContactTimesAlone() {
+        aircraftRepository.save(aircraft("KAL123", 37.5583, 126.7906));
+        aircraftRepository.save(aircraft("AAR456", 35.0, 129.0));
+        entityManager.flush();
+        entityManager.getEntityManager()
+                .createQuery("UPDATE TrackedAircraft a SET a.cell = NULL WHERE a.callsign = 'KAL123'")
+                .executeUpdate();
+        entityManager.clear();
+        LocalDateTime contact = aircraftRepository.findByCallsign("KAL123").orElseThrow().getLastRadarContact();
+        entityManager.clear();
+
+        ZOrderCellBackfill backfill = new ZOrderCellBackfill(aircraftRepository,
+                new TransactionTemplate(transactionManager));
+
+        assertThat(backfill.backfill()).isEqualTo(1);
+        entityManager.clear();
+        TrackedAircraft filled = aircraftRepository.findByCallsign("KAL123").orElseThrow();
+        assertThat(filled.getCell()).isEqualTo(ZOrderCell.encode(37.5583, 126.7906));
+        assertThat(filled.getLastRadarContact()).isEqualTo(contact);
+        assertThat(backfill.backfill()).isZero();
+    }
+
+    private static TrackedAircraft aircraft(String callsign, double latitude, double longitude) {
+        return TrackedAircraft.builder()
+                .callsign(callsign)
+                .latitude(latitude)
+                .longitude(longitude)
+                .altitude(10000)
+                .speed(250)
+                .heading(90)
+                .build();
+    }
+}
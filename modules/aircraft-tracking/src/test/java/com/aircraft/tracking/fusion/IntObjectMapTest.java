@@ -0,0 +1,46 @@
+package com.aircraft.tracking.fusion;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntObjectMapTest {
+
+    @Test
+    void shouldMatchHashMapUnderRandomPutsAndRemoves() {
+        IntObjectMap<String> map = new IntObjectMap<>(4);
+        Map<Integer, String> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(key)).isEqualTo(expected.remove(key));
+            } else {
+                String value = "v" + i;
+                assertThat(map.put(key, value)).isEqualTo(expected.put(key, value));
+            }
+        }
+        assertThat(map.size()).isEqualTo(expected.size());
+        for (int key = 0; key < 500; key++) {
+            assertThat(map.get(key)).isEqualTo(expected.get(key));
+        }
+    }
+
+    @Test
+    void removeIf_ShouldKeepRemainingEntriesReachable() {
+        IntObjectMap<Integer> map = new IntObjectMap<>(16);
+        for (int key = 0; key < 1000; key++) {
+            map.put(key * 4096, key);
+        }
+        map.removeIf((key, value) -> value % 3 == 0);
+
+        assertThat(map.size()).isEqualTo(666);
+        for (int key = 0; key < 1000; key++) {
+            assertThat(map.get(key * 4096)).isEqualTo(key % 3 == 0 ? null : key);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.aircraft.tracking.repository;
+
+import com.aircraft.tracking.dto.TrajectoryPageDto;
+import com.aircraft.tracking.dto.TrackedAircraftView;
+import com.aircraft.tracking.dto.TrajectoryPointRowDto;
+import com.aircraft.tracking.dto.TrajectoryPointView;
+import com.aircraft.tracking.model.TrackedAircraft;
+import com.aircraft.tracking.model.TrajectoryPoint;
+import com.aircraft.tracking.service.TrajectoryArchiveService;
+import com.aircraft.tracking.service.TrajectoryExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+class TrajectoryPointRepositoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Autowired
+    private TrackedAircraftRepository aircraftRepository;
+
+    @Autowired
+    private TrajectoryPointRepository trajectoryRepository;
+
+    @Autowired
+    private TrajectoryArchiveRepository archiveRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TrajectoryExportService exportService;
+
+    private TrajectoryArchiveService archiveService;
+
+    @BeforeEach
+    void setUp() {
+        archiveService = new TrajectoryArchiveService(trajectoryRepository, archiveRepository,
+                new TransactionTemplate(transactionManager));
+        exportService = new TrajectoryExportService(trajectoryRepository, archiveService);
+        ReflectionTestUtils.setField(exportService, "defaultPageSize", 4);
+        ReflectionTestUtils.setField(exportService, "maxPageSize", 100);
+        ReflectionTestUtils.setField(archiveService, "rawRetentionHours", 1);
+
+        TrackedAircraft kal = aircraftRepository.save(aircraft("KAL123"));
+        TrackedAircraft aar = aircraftRepository.save(aircraft("AAR456"));
+        List<TrajectoryPoint> points = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            // Pairs of points share a timestamp, so the id has to break ties
+            points.add(point(kal, START.plusSeconds(i / 2), 37.0 + i * 0.01));
+            points.add(point(aar, START.plusSeconds(i), 35.0));
+        }
+        trajectoryRepository.saveAll(points);
+    }
+
+    @Test
+    void getPage_ShouldWalkTrajectoryWithoutGapsOrRepeats() {
+        List<Double> latitudes = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TrajectoryPageDto page = exportService.getPage("KAL123", null, null, cursor, null);
+            page.getPoints().forEach(p -> latitudes.add(p.getLatitude()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(latitudes).hasSize(10).isSortedAccordingTo(Double::compare).doesNotHaveDuplicates();
+        assertThatThrownBy(() -> exportService.getPage("KAL123", null, null, "not-a-cursor", null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void getPage_ShouldWalkArchivedHoursBeforeRawRows() {
+        TrackedAircraft kal = aircraftRepository.findByCallsign("KAL123").orElseThrow();
+        List<TrajectoryPoint> recent = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            recent.add(point(kal, START.plusHours(2).plusSeconds(i), 38.0 + i * 0.01));
+        }
+        trajectoryRepository.saveAll(recent);
+        // The 12:00 hour goes to the archive, 14:00 stays raw
+        assertThat(archiveService.compact(START.plusHours(2).plusMinutes(30))).isEqualTo(20);
+
+        for (int limit : new int[]{1, 3, 4}) {
+            List<Double> latitudes = new ArrayList<>();
+            String cursor = null;
+            do {
+                TrajectoryPageDto page = exportService.getPage("KAL123", null, null, cursor, limit);
+                page.getPoints().forEach(p -> latitudes.add(p.getLatitude()));
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+
+            // Pairs of archived points share a timestamp, so pages also split inside a second
+            assertThat(latitudes).hasSize(13).isSortedAccordingTo(Double::compare).doesNotHaveDuplicates();
+        }
+    }
+
+    @Test
+    void getPage_ShouldPickUpRowsArchivedDuringTheWalk() {
+        TrajectoryPageDto first = exportService.getPage("KAL123", null, null, null, null);
+        // Compaction moves the rest of the 12:00 hour to the archive before the next page
+        assertThat(archiveService.compact(START.plusHours(2).plusMinutes(30))).isEqualTo(20);
+
+        List<Double> latitudes = new ArrayList<>();
+        first.getPoints().forEach(p -> latitudes.add(p.getLatitude()));
+        String cursor = first.getNextCursor();
+        while (cursor != null) {
+            TrajectoryPageDto page = exportService.getPage("KAL123", null, null, cursor, null);
+            page.getPoints().forEach(p -> latitudes.add(p.getLatitude()));
+            cursor = page.getNextCursor();
+        }
+
+        assertThat(latitudes).hasSize(10).isSortedAccordingTo(Double::compare).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void deleteActualBeforeByIds_ShouldOnlyRemoveRowsStillMatchingTheSelection() {
+        List<Long> ids = trajectoryRepository.findAll().stream().map(TrajectoryPoint::getId).toList();
+
+        // Every id is passed, but only KAL123's points before 12:00:03 still qualify
+        int deleted = trajectoryRepository.deleteActualBeforeByIds(ids, "KAL123", START.plusSeconds(3));
+
+        assertThat(deleted).isEqualTo(6);
+        assertThat(trajectoryRepository.count()).isEqualTo(14);
+    }
+
+    @Test
+    void stream_ShouldEmitProjectedRowsInTimeOrder() {
+        List<TrajectoryPointRowDto> rows = new ArrayList<>();
+
+        long all = exportService.stream(null, START, START.plusSeconds(4), rows::add);
+        long single = exportService.stream("AAR456", null, null, row -> { });
+
+        assertThat(all).isEqualTo(rows.size()).isEqualTo(15);
+        assertThat(rows).extracting(TrajectoryPointRowDto::getTimestamp).isSorted();
+        assertThat(rows).extracting(TrajectoryPointRowDto::getCallsign).containsOnly("KAL123", "AAR456");
+        assertThat(single).isEqualTo(10);
+    }
+
+    @Test
+    void stream_ShouldMergeArchivedAircraftInTimeOrder() {
+        TrackedAircraft kal = aircraftRepository.findByCallsign("KAL123").orElseThrow();
+        trajectoryRepository.save(point(kal, START.plusHours(2), 38.0));
+        assertThat(archiveService.compact(START.plusHours(2).plusMinutes(30))).isEqualTo(20);
+        List<TrajectoryPointRowDto> rows = new ArrayList<>();
+
+        long all = exportService.stream(null, null, null, rows::add);
+        long single = exportService.stream("KAL123", START.plusSeconds(2), null, row -> { });
+
+        assertThat(all).isEqualTo(rows.size()).isEqualTo(21);
+        assertThat(rows).extracting(TrajectoryPointRowDto::getTimestamp).isSorted();
+        assertThat(rows.get(0).getCallsign()).isEqualTo("AAR456");
+        assertThat(single).isEqualTo(7);
+    }
+
+    @Test
+    void projections_ShouldSelectRowsWithoutEntities() {
+        Long kalId = aircraftRepository.findIdByCallsign("KAL123").orElseThrow();
+
+        List<TrajectoryPointView> points = trajectoryRepository.findViewsByAircraftIdAndTimeRange(
+                kalId, START, START.plusSeconds(2));
+        List<TrackedAircraftView> active = aircraftRepository.findActiveViewsSince(START);
+
+        assertThat(points).hasSize(6);
+        assertThat(points).extracting(TrajectoryPointView::latitude).isSorted().startsWith(37.0);
+        assertThat(active).extracting(TrackedAircraftView::callsign).containsExactlyInAnyOrder("KAL123", "AAR456");
+        assertThat(aircraftRepository.findViewByCallsign("AAR456"))
+                .hasValueSatisfying(view -> assertThat(view.altitude()).isEqualTo(10000));
+    }
+
+    private static TrackedAircraft aircraft(String callsign) {
+        return TrackedAircraft.builder()
+                .callsign(callsign)
+                .latitude(37.0)
+                .longitude(126.0)
+                .altitude(10000)
+                .speed(250)
+                .heading(90)
+                .build();
+    }
+
+    private static TrajectoryPoint point(TrackedAircraft aircraft, LocalDateTime timestamp, double latitude) {
+        return TrajectoryPoint.builder()
+                .aircraft(aircraft)
+                .latitude(latitude)
+                .longitude(126.0)
+                .altitude(10000)
+                .speed(250)
+                .heading(90)
+                .timestamp(timestamp)
+                .build();
+    }
+}
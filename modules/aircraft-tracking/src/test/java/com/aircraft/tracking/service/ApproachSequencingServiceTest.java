@@ -0,0 +1,96 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.tracking.model.Runway;
+import com.aircraft.tracking.repository.RunwayRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ApproachSequencingServiceTest {
+
+    private static final double KM_LAT = 1 / 111.1949;
+    private static final double KM_LON = KM_LAT / Math.cos(Math.toRadians(37.0));
+
+    // Parallel runways pointing due north, 36R staggered 500 m north and 250 m east of 36L
+    private static final Runway RUNWAY_36L = runway("36L", 37.0, 127.0);
+    private static final Runway RUNWAY_36R = runway("36R", 37.0 + 0.5 * KM_LAT, 127.0 + 0.25 * KM_LON);
+
+    @Mock
+    private RunwayRepository runwayRepository;
+
+    private ApproachSequencingService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ApproachSequencingService(runwayRepository);
+        ReflectionTestUtils.setField(service, "approachDistanceKm", 20.0);
+        ReflectionTestUtils.setField(service, "captureHalfAngleDeg", 10.0);
+        ReflectionTestUtils.setField(service, "captureMinWidthMeters", 300.0);
+        ReflectionTestUtils.setField(service, "maxHeadingOffsetDeg", 30.0);
+        ReflectionTestUtils.setField(service, "maxHeightAboveGlidepathFt", 3000.0);
+        ReflectionTestUtils.setField(service, "minSpeedKnots", 60);
+    }
+
+    @Test
+    void sequence_ShouldOrderTracksOnFinalByTimeToThreshold() {
+        when(runwayRepository.findByIsActiveTrue()).thenReturn(List.of(RUNWAY_36L, RUNWAY_36R));
+        service.refreshRunways();
+
+        ApproachSequencingService.ApproachSequence sequence = service.sequence(List.of(
+                track("FAR", 12, 0, 4000, 180, 0),
+                track("NEAR", 5, 0, 1500, 140, 0),
+                track("AWAY", 8, 0, 2500, 180, 180),
+                track("HIGH", 10, 0, 15000, 250, 0),
+                track("WIDE", 6, 2, 2000, 180, 0),
+                track("OUTSIDE", 25, 0, 6000, 250, 0)));
+
+        assertThat(sequence.forRunway("36L"))
+                .extracting(ApproachSequencingService.Entry::callsign, ApproachSequencingService.Entry::sequence)
+                .containsExactly(tuple("NEAR", 1), tuple("FAR", 2));
+        ApproachSequencingService.Entry near = sequence.byCallsign().get("NEAR");
+        assertThat(near.distanceToThresholdMeters()).isCloseTo(5000, offset(5.0));
+        assertThat(near.etaSeconds()).isCloseTo(5000 / (140 * 0.514444), offset(1.0));
+        assertThat(sequence.forRunway("36R")).isEmpty();
+    }
+
+    @Test
+    void sequence_ShouldKeepThePreviousRunwayWhileStillQualifying() {
+        ApproachSequencingService.TrackState between = track("KAL123", 5, 0.125, 1500, 150, 0);
+        when(runwayRepository.findByIsActiveTrue()).thenReturn(List.of(RUNWAY_36R));
+        service.refreshRunways();
+        assertThat(service.sequence(List.of(between)).byCallsign().get("KAL123").runwayId()).isEqualTo("36R");
+
+        // 36L reopens and would be reached first, but the aircraft stays with its runway
+        when(runwayRepository.findByIsActiveTrue()).thenReturn(List.of(RUNWAY_36L, RUNWAY_36R));
+        service.refreshRunways();
+        assertThat(service.sequence(List.of(between)).byCallsign().get("KAL123").runwayId()).isEqualTo("36R");
+        assertThat(service.sequence(List.of(track("JJA789", 5, 0.125, 1500, 150, 0)))
+                .byCallsign().get("JJA789").runwayId()).isEqualTo("36L");
+    }
+
+    private static ApproachSequencingService.TrackState track(String callsign, double kmSouth, double kmEast,
+                                                              int altitude, int speed, int heading) {
+        return new ApproachSequencingService.TrackState(callsign, 37.0 - kmSouth * KM_LAT,
+                127.0 + kmEast * KM_LON, altitude, speed, heading);
+    }
+
+    private static Runway runway(String id, double latitude, double longitude) {
+        return Runway.builder()
+                .runwayId(id).name("RWY " + id)
+                .startLatitude(latitude).startLongitude(longitude)
+                .endLatitude(latitude + 3 * KM_LAT).endLongitude(longitude)
+                .heading(360).length(3000).width(45)
+                .build();
+    }
+}
@@ -0,0 +1,115 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.tracking.repository.TrajectoryPointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+
+@ExtendWith(MockitoExtension.class)
+class BatchPredictionServiceTest {
+
+    @Mock
+    private TrajectoryPointRepository trajectoryRepository;
+
+    private TrackHistoryService trackHistoryService;
+
+    private BatchPredictionService batchPredictionService;
+
+    @BeforeEach
+    void setUp() {
+        trackHistoryService = new TrackHistoryService(trajectoryRepository);
+        ReflectionTestUtils.setField(trackHistoryService, "capacity", 16);
+        ReflectionTestUtils.setField(trackHistoryService, "measurementSigma", 30.0);
+        ReflectionTestUtils.setField(trackHistoryService, "accelerationSigma", 1.5);
+        ReflectionTestUtils.setField(trackHistoryService, "verticalMeasurementSigma", 15.0);
+        ReflectionTestUtils.setField(trackHistoryService, "verticalAccelerationSigma", 0.5);
+        ReflectionTestUtils.setField(trackHistoryService, "resetAfterSeconds", 60L);
+
+        batchPredictionService = new BatchPredictionService(trackHistoryService,
+                new PredictionService(trackHistoryService));
+        ReflectionTestUtils.setField(batchPredictionService, "predictionEnabled", true);
+        ReflectionTestUtils.setField(batchPredictionService, "stepSeconds", 30);
+        ReflectionTestUtils.setField(batchPredictionService, "steps", 10);
+        ReflectionTestUtils.setField(batchPredictionService, "activeWindowSeconds", 300);
+    }
+
+    @Test
+    void predictAll_ShouldMatchPerTrackPredictionForEveryAircraftAndStep() {
+        LocalDateTime start = LocalDateTime.now().minusSeconds(5);
+        for (int a = 0; a < 500; a++) {
+            for (int i = 0; i < 5; i++) {
+                trackHistoryService.record("TRK" + a, start.plusSeconds(i), 37.0 + a * 0.001,
+                        126.0 + i * 0.001, 5000 + a, 200, 90, 0);
+            }
+        }
+        long now = System.currentTimeMillis();
+
+        PredictionTable table = batchPredictionService.predictAll(now);
+
+        assertThat(table.size()).isEqualTo(500);
+        assertThat(table.getSteps()).isEqualTo(10);
+        double[] expected = new double[7];
+        for (String callsign : new String[]{"TRK0", "TRK137", "TRK499"}) {
+            int a = table.indexOf(callsign);
+            TrackFilter filter = trackHistoryService.getFilter(callsign);
+            for (int s = 0; s < table.getSteps(); s++) {
+                filter.predict(table.timeMillis(s), expected);
+                assertThat(table.latitude(a, s)).isEqualTo(expected[0]);
+                assertThat(table.longitude(a, s)).isEqualTo(expected[1]);
+                assertThat((double) table.altitude(a, s)).isCloseTo(expected[2], within(0.01));
+            }
+        }
+        assertThat(table.indexOf("UNKNOWN")).isEqualTo(-1);
+    }
+
+    @Test
+    void predictAll_ShouldSkipTracksOutsideActiveWindow() {
+        LocalDateTime now = LocalDateTime.now();
+        trackHistoryService.record("STALE", now.minusMinutes(10), 37.0, 126.0, 5000, 200, 90, 0);
+        trackHistoryService.record("FRESH", now, 37.0, 126.0, 5000, 200, 90, 0);
+
+        batchPredictionService.runCycle();
+
+        assertThat(batchPredictionService.getTable().getCallsigns()).containsExactly("FRESH");
+        assertThat(batchPredictionService.getPredictedTrajectory("FRESH"))
+                .hasValueSatisfying(t -> assertThat(t.getPoints()).hasSize(10));
+        assertThat(batchPredictionService.getPredictedTrajectory("STALE")).isEmpty();
+    }
+
+    @Test
+    void predictAll_ShouldLeaveOutTracksResetAfterBeingListed() {
+        LocalDateTime now = LocalDateTime.now();
+        for (String callsign : new String[]{"KAL123", "AAR456", "JJA789"}) {
+            trackHistoryService.record(callsign, now, 37.0, 126.0, 5000, 200, 90, 0);
+        }
+        List<Map.Entry<String, TrackFilter>> listed = trackHistoryService.activeFilters(0L);
+        TrackHistoryService racing = spy(trackHistoryService);
+        doReturn(listed).when(racing).activeFilters(anyLong());
+        trackHistoryService.getFilter("AAR456").reset();
+        batchPredictionService = new BatchPredictionService(racing, new PredictionService(racing));
+        ReflectionTestUtils.setField(batchPredictionService, "stepSeconds", 30);
+        ReflectionTestUtils.setField(batchPredictionService, "steps", 10);
+        ReflectionTestUtils.setField(batchPredictionService, "activeWindowSeconds", 300);
+
+        PredictionTable table = batchPredictionService.predictAll(System.currentTimeMillis());
+
+        assertThat(table.getCallsigns()).containsExactlyInAnyOrder("KAL123", "JJA789");
+        assertThat(table.indexOf("AAR456")).isEqualTo(-1);
+        for (int a = 0; a < table.size(); a++) {
+            assertThat(table.latitude(a, 0)).isCloseTo(37.0, within(0.1));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.tracking.model.Runway;
+import com.aircraft.tracking.model.TrackedAircraft.FlightPhase;
+import com.aircraft.tracking.repository.TrajectoryPointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FlightPhaseClassifierTest {
+
+    private static final double KM_LAT = 1 / 111.1949;
+    private static final double KM_LON = KM_LAT / Math.cos(Math.toRadians(37.0));
+
+    private static final FlightPhaseClassifier.Thresholds THRESHOLDS = new FlightPhaseClassifier.Thresholds(
+            100, 3, 60_000, 40, 50, 500, 1000, 10000, 5000, 20_000, 1500, 10, 30, 3, 3);
+
+    // Runway 36 pointing due north, threshold at 37.0 N 127.0 E
+    private static final List<RunwayFrame> RUNWAYS = List.of(RunwayFrame.of(Runway.builder()
+            .runwayId("36").name("RWY 36")
+            .startLatitude(37.0).startLongitude(127.0)
+            .endLatitude(37.0 + 3 * KM_LAT).endLongitude(127.0)
+            .heading(360).length(3000).width(45)
+            .build()));
+
+    private FlightPhaseClassifier classifier;
+    private long time;
+
+    @BeforeEach
+    void setUp() {
+        classifier = new FlightPhaseClassifier(THRESHOLDS);
+        time = 0;
+    }
+
+    @Test
+    void update_ShouldFollowADeparture() {
+        assertThat(feed(1, 0, 1, 0, 0, 90, 0)).isEqualTo(FlightPhase.PARKED);
+        assertThat(feed(3, 0, 1, 0, 15, 270, 0)).isEqualTo(FlightPhase.TAXI_OUT);
+        assertThat(feed(3, 0.5, 0, 0, 120, 0, 0)).isEqualTo(FlightPhase.TAKEOFF);
+        assertThat(feed(3, 4, 0, 500, 160, 0, 2000)).isEqualTo(FlightPhase.TAKEOFF);
+        assertThat(feed(3, 8, 0, 3000, 220, 0, 2000)).isEqualTo(FlightPhase.CLIMB);
+        assertThat(feed(10, 40, 0, 12000, 300, 0, 0)).isEqualTo(FlightPhase.CRUISE);
+    }
+
+    @Test
+    void update_ShouldFollowAnArrival() {
+        assertThat(feed(1, 0, 10, 8000, 250, 270, -1500)).isEqualTo(FlightPhase.DESCENT);
+        // The turn onto final is not yet a stabilised approach
+        assertThat(feed(1, -8, 0, 2500, 180, 0, -700)).isEqualTo(FlightPhase.DESCENT);
+        assertThat(feed(3, -8, 0, 2500, 180, 0, -700)).isEqualTo(FlightPhase.APPROACH);
+        assertThat(feed(3, -1, 0, 300, 140, 0, -700)).isEqualTo(FlightPhase.LANDING);
+        assertThat(feed(3, 0.5, 0, 0, 130, 0, 0)).isEqualTo(FlightPhase.LANDING);
+        assertThat(feed(3, 1.5, 0, 0, 20, 0, 0)).isEqualTo(FlightPhase.TAXI_IN);
+        assertThat(feed(30, 1.5, 1, 0, 0, 90, 0)).isEqualTo(FlightPhase.TAXI_IN);
+        assertThat(feed(40, 1.5, 1, 0, 0, 90, 0)).isEqualTo(FlightPhase.PARKED);
+    }
+
+    @Test
+    void update_ShouldIgnoreASingleVerticalRateSpike() {
+        assertThat(feed(5, 50, 0, 35000, 450, 0, 0)).isEqualTo(FlightPhase.CRUISE);
+
+        assertThat(feed(1, 50, 0, 35000, 450, 0, -3000)).isEqualTo(FlightPhase.CRUISE);
+        assertThat(feed(5, 50, 0, 35000, 450, 0, 0)).isEqualTo(FlightPhase.CRUISE);
+    }
+
+    @Test
+    void service_ShouldDeriveVerticalRateFromTheTrackHistoryWhenNotReported() {
+        TrackHistoryService history = trackHistoryService();
+        FlightPhaseService service = service(history);
+        LocalDateTime start = LocalDateTime.of(2026, 10, 18, 14, 0);
+
+        FlightPhase phase = null;
+        for (int i = 0; i < 5; i++) {
+            int altitude = 20000 - 30 * i; // 1800 ft/min
+            history.record("KAL123", start.plusSeconds(i), 37.5, 127.0, altitude, 300, 180, null);
+            phase = service.classify("KAL123", start.plusSeconds(i), 37.5, 127.0, altitude, 300, 180, null);
+        }
+        assertThat(phase).isEqualTo(FlightPhase.DESCENT);
+    }
+
+    @Test
+    void service_ShouldIndexCallsignsByConfirmedPhase() {
+        FlightPhaseService service = service(trackHistoryService());
+
+        LocalDateTime start = LocalDateTime.of(2026, 10, 18, 14, 0);
+        service.classify("KAL123", start, 37.5, 127.0, 35000, 450, 0, 0);
+        service.classify("JJA789", start, 37.0, 127.0 + KM_LON, 0, 0, 90, 0);
+        assertThat(service.callsigns(FlightPhase.CRUISE)).containsExactly("KAL123");
+        assertThat(service.callsigns(FlightPhase.PARKED)).containsExactly("JJA789");
+
+        service.override("KAL123", FlightPhase.DESCENT);
+        service.remove("JJA789");
+        assertThat(service.callsigns(FlightPhase.CRUISE)).isEmpty();
+        assertThat(service.callsigns(FlightPhase.DESCENT)).containsExactly("KAL123");
+        assertThat(service.callsigns(FlightPhase.PARKED)).isEmpty();
+    }
+
+    private static FlightPhaseService service(TrackHistoryService history) {
+        ApproachSequencingService sequencing = mock(ApproachSequencingService.class);
+        when(sequencing.getRunwayFrames()).thenReturn(RUNWAYS);
+        FlightPhaseService service = new FlightPhaseService(sequencing, history);
+        ReflectionTestUtils.setField(service, "thresholds", THRESHOLDS);
+        ReflectionTestUtils.setField(service, "verticalRateWindowMillis", 10_000L);
+        return service;
+    }
+
+    private static TrackHistoryService trackHistoryService() {
+        TrackHistoryService history = new TrackHistoryService(mock(TrajectoryPointRepository.class));
+        ReflectionTestUtils.setField(history, "capacity", 64);
+        ReflectionTestUtils.setField(history, "measurementSigma", 30.0);
+        ReflectionTestUtils.setField(history, "accelerationSigma", 1.5);
+        ReflectionTestUtils.setField(history, "verticalMeasurementSigma", 15.0);
+        ReflectionTestUtils.setField(history, "verticalAccelerationSigma", 0.5);
+        ReflectionTestUtils.setField(history, "resetAfterSeconds", 60L);
+        return history;
+    }
+
+    /**
+     * Feeds {@code count} identical samples one second apart at a position given in km
+     * north and east of the threshold, and returns the resulting phase.
+     */
+    private FlightPhase feed(int count, double kmNorth, double kmEast, int altitude, int speed, int heading,
+                             int verticalSpeed) {
+        FlightPhase phase = null;
+        for (int i = 0; i < count; i++) {
+            time += 1000;
+            phase = classifier.update(time, 37.0 + kmNorth * KM_LAT, 127.0 + kmEast * KM_LON,
+                    altitude, speed, heading, verticalSpeed, RUNWAYS);
+        }
+        return phase;
+    }
+}
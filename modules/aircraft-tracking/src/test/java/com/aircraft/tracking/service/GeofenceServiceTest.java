@@ -0,0 +1,126 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.tracking.dto.GeofenceEventDto;
+import com.aircraft.tracking.model.Geofence;
+import com.aircraft.tracking.repository.GeofenceRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GeofenceServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Mock
+    private GeofenceRepository geofenceRepository;
+
+    @Test
+    void update_ShouldFireEventsOnlyOnTransitions() {
+        GeofenceService service = service(List.of(fence(1L, "Gate_Area_2", 37.5, 126.8, null, 30)));
+
+        service.update("KAL123", 37.49, 126.8, 0, T0.minusSeconds(5));
+        service.update("KAL123", 37.5, 126.8, 0, T0);
+        service.update("KAL123", 37.5, 126.801, 0, T0.plusSeconds(10));
+        service.update("KAL123", 37.5, 126.802, 0, T0.plusSeconds(35));
+        service.update("KAL123", 37.5, 126.801, 0, T0.plusSeconds(40));
+        service.update("KAL123", 37.51, 126.8, 0, T0.plusSeconds(50));
+
+        List<GeofenceEventDto> events = service.drainEvents();
+        assertThat(events).extracting(GeofenceEventDto::getType).containsExactly(
+                GeofenceEventDto.Type.ENTER, GeofenceEventDto.Type.DWELL, GeofenceEventDto.Type.EXIT);
+        assertThat(events).extracting(GeofenceEventDto::getGeofenceName).containsOnly("Gate_Area_2");
+        assertThat(events.get(1).getSecondsInside()).isEqualTo(35);
+        assertThat(events.get(2).getSecondsInside()).isEqualTo(50);
+        assertThat(service.getOccupants(1L)).isEmpty();
+        assertThat(service.drainEvents()).isEmpty();
+    }
+
+    @Test
+    void update_ShouldTestOnlyFencesNearTheAircraft() {
+        // 2000 small fences on a grid well away from the aircraft, and one around it
+        List<Geofence> fences = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            fences.add(fence(i + 10L, "RPZ" + i, 35.0 + (i / 50) * 0.02, 127.0 + (i % 50) * 0.02, null, null));
+        }
+        fences.add(fence(1L, "Gate_Area_2", 37.5, 126.8, null, null));
+        GeofenceService service = service(fences);
+
+        service.update("JJA789", 36.0, 126.0, 1000, T0);
+        assertThat(service.getStats()).containsEntry("fenceTests", 0L);
+
+        service.update("KAL123", 37.5, 126.8, 0, T0);
+        assertThat((Long) service.getStats().get("fenceTests")).isLessThanOrEqualTo(4L);
+        assertThat(service.getOccupants(1L)).containsExactly("KAL123");
+    }
+
+    @Test
+    void update_ShouldRespectTheAltitudeBand() {
+        GeofenceService service = service(List.of(fence(1L, "RKSS_RPZ_14L", 37.5, 126.8, 3000, null)));
+
+        service.update("KAL123", 37.5, 126.8, 5000, T0);
+        assertThat(service.drainEvents()).isEmpty();
+
+        service.update("KAL123", 37.5, 126.8, 2500, T0.plusSeconds(30));
+        assertThat(service.drainEvents()).extracting(GeofenceEventDto::getType)
+                .containsExactly(GeofenceEventDto.Type.ENTER);
+    }
+
+    @Test
+    void reload_ShouldKeepMembershipsOfUnchangedFences() {
+        GeofenceService service = service(List.of(fence(1L, "Gate_Area_2", 37.5, 126.8, null, 30)));
+        service.update("KAL123", 37.5, 126.8, 0, T0);
+        service.update("KAL123", 37.5, 126.8, 0, T0.plusSeconds(35));
+
+        // Another fence is added: every Fence is rebuilt, but Gate_Area_2 is unchanged
+        when(geofenceRepository.findAll()).thenReturn(List.of(
+                fence(1L, "Gate_Area_2", 37.5, 126.8, null, 30), fence(2L, "RPZ", 36.0, 127.0, null, null)));
+        service.reload();
+        service.update("KAL123", 37.5, 126.8, 0, T0.plusSeconds(40));
+
+        assertThat(service.drainEvents()).extracting(GeofenceEventDto::getType).containsExactly(
+                GeofenceEventDto.Type.ENTER, GeofenceEventDto.Type.DWELL);
+
+        // Redefining the fence drops the membership silently and the aircraft enters the new one
+        when(geofenceRepository.findAll()).thenReturn(List.of(fence(1L, "Gate_Area_2", 37.5, 126.8, 3000, 30)));
+        service.reload();
+        service.update("KAL123", 37.5, 126.8, 0, T0.plusSeconds(45));
+
+        assertThat(service.drainEvents()).extracting(GeofenceEventDto::getType)
+                .containsExactly(GeofenceEventDto.Type.ENTER);
+        assertThat(service.getOccupants(1L)).containsExactly("KAL123");
+    }
+
+    private GeofenceService service(List<Geofence> fences) {
+        when(geofenceRepository.findAll()).thenReturn(fences);
+        GeofenceService service = new GeofenceService(geofenceRepository);
+        ReflectionTestUtils.setField(service, "cellBits", 14);
+        ReflectionTestUtils.setField(service, "maxCellsPerFence", 1024);
+        ReflectionTestUtils.setField(service, "eventQueueCapacity", 100);
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+
+    // Square of about 1 km around the centre
+    private static Geofence fence(Long id, String name, double lat, double lng, Integer maxAltitude,
+                                  Integer dwellSeconds) {
+        double d = 0.005;
+        return Geofence.builder()
+                .id(id)
+                .name(name)
+                .vertices((lat - d) + "," + (lng - d) + ";" + (lat - d) + "," + (lng + d) + ";"
+                        + (lat + d) + "," + (lng + d) + ";" + (lat + d) + "," + (lng - d))
+                .maxAltitude(maxAltitude)
+                .dwellSeconds(dwellSeconds)
+                .build();
+    }
+}
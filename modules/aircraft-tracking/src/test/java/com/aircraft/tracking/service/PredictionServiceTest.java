@@ -0,0 +1,79 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.tracking.model.TrackedAircraft;
+import com.aircraft.tracking.model.TrajectoryPoint;
+import com.aircraft.tracking.repository.TrajectoryPointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class PredictionServiceTest {
+
+    @Mock
+    private TrajectoryPointRepository trajectoryRepository;
+
+    private TrackHistoryService trackHistoryService;
+
+    private PredictionService predictionService;
+
+    @BeforeEach
+    void setUp() {
+        trackHistoryService = new TrackHistoryService(trajectoryRepository);
+        ReflectionTestUtils.setField(trackHistoryService, "capacity", 64);
+        ReflectionTestUtils.setField(trackHistoryService, "measurementSigma", 30.0);
+        ReflectionTestUtils.setField(trackHistoryService, "accelerationSigma", 1.5);
+        ReflectionTestUtils.setField(trackHistoryService, "verticalMeasurementSigma", 15.0);
+        ReflectionTestUtils.setField(trackHistoryService, "verticalAccelerationSigma", 0.5);
+        ReflectionTestUtils.setField(trackHistoryService, "resetAfterSeconds", 60L);
+        predictionService = new PredictionService(trackHistoryService);
+        ReflectionTestUtils.setField(predictionService, "predictionHorizonMinutes", 5);
+        ReflectionTestUtils.setField(predictionService, "predictionEnabled", true);
+        ReflectionTestUtils.setField(predictionService, "confidenceReferenceMetres", 3704.0);
+    }
+
+    @Test
+    void predictTrajectory_ShouldExtrapolateFilteredStateFromMemory() {
+        LocalDateTime start = LocalDateTime.now().minusSeconds(30);
+        for (int i = 0; i <= 30; i++) {
+            // Eastbound at ~0.001 deg/s, climbing 10 ft/s, reported consistently
+            trackHistoryService.record("KAL123", start.plusSeconds(i), 37.50, 126.70 + i * 0.001,
+                    3000 + i * 10, 170, 90, 600);
+        }
+
+        List<TrajectoryPoint> predictions = predictionService.predictTrajectory(aircraft());
+
+        assertThat(predictions).hasSize(5);
+        assertThat(predictions.get(0).getLongitude()).isCloseTo(126.79, within(0.002));
+        assertThat(predictions.get(0).getAltitude()).isCloseTo(3900, within(60));
+        assertThat(predictions.get(0).getHeading()).isCloseTo(90, within(2));
+        assertThat(predictions).allMatch(p -> p.getPointType() == TrajectoryPoint.PointType.PREDICTED);
+        assertThat(predictions).extracting(TrajectoryPoint::getConfidenceScore).isSortedAccordingTo((a, b) -> Double.compare(b, a));
+        verifyNoInteractions(trajectoryRepository);
+    }
+
+    @Test
+    void predictTrajectory_WithSingleFix_ShouldReturnNothing() {
+        trackHistoryService.record("KAL123", LocalDateTime.now(), 37.50, 126.70, 3000, 170, 90, 0);
+
+        assertThat(predictionService.predictTrajectory(aircraft())).isEmpty();
+    }
+
+    private static TrackedAircraft aircraft() {
+        return TrackedAircraft.builder()
+                .id(1L)
+                .callsign("KAL123")
+                .verticalSpeed(600)
+                .build();
+    }
+}
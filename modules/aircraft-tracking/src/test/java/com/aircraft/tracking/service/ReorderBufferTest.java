@@ -0,0 +1,75 @@
+package com.aircraft.tracking.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReorderBufferTest {
+
+    private static final long HOLD = 500;
+    private static final long MAX_LATENESS = 10_000;
+
+    @Test
+    void release_ShouldPutOvertakenSamplesBackInOrder() {
+        ReorderBuffer<String> buffer = new ReorderBuffer<>();
+        assertThat(buffer.offer(1000, 1000, "a", MAX_LATENESS)).isEqualTo(ReorderBuffer.Disposition.BUFFERED);
+        assertThat(buffer.offer(1400, 1050, "c", MAX_LATENESS)).isEqualTo(ReorderBuffer.Disposition.BUFFERED);
+        assertThat(buffer.offer(1200, 1100, "b", MAX_LATENESS)).isEqualTo(ReorderBuffer.Disposition.REORDERED);
+        assertThat(buffer.offer(1200, 1150, "b2", MAX_LATENESS)).isEqualTo(ReorderBuffer.Disposition.REPLACED);
+
+        List<String> out = new ArrayList<>();
+        // Nothing is half a second behind the newest measurement or has waited that long yet
+        assertThat(buffer.release(HOLD, 1200, out)).isZero();
+
+        assertThat(buffer.offer(2000, 1300, "d", MAX_LATENESS)).isEqualTo(ReorderBuffer.Disposition.BUFFERED);
+        assertThat(buffer.release(HOLD, 1300, out)).isEqualTo(3);
+        assertThat(out).containsExactly("a", "b2", "c");
+        assertThat(buffer.size()).isEqualTo(1);
+    }
+
+    @Test
+    void release_ShouldNotHoldASampleLongerThanTheHoldTime() {
+        ReorderBuffer<String> buffer = new ReorderBuffer<>();
+        buffer.offer(1000, 5000, "a", MAX_LATENESS);
+
+        List<String> out = new ArrayList<>();
+        assertThat(buffer.release(HOLD, 5400, out)).isZero();
+        assertThat(buffer.release(HOLD, 5500, out)).isEqualTo(1);
+        assertThat(out).containsExactly("a");
+    }
+
+    @Test
+    void offer_ShouldClassifySamplesBehindTheReleasedOnes() {
+        ReorderBuffer<String> buffer = new ReorderBuffer<>();
+        buffer.offer(20_000, 20_000, "a", MAX_LATENESS);
+        buffer.release(0, 20_000, new ArrayList<>());
+
+        assertThat(buffer.offer(20_000, 20_100, "dup", MAX_LATENESS)).isEqualTo(ReorderBuffer.Disposition.LATE);
+        assertThat(buffer.offer(12_000, 20_100, "late", MAX_LATENESS)).isEqualTo(ReorderBuffer.Disposition.LATE);
+        assertThat(buffer.offer(5_000, 20_100, "stale", MAX_LATENESS)).isEqualTo(ReorderBuffer.Disposition.TOO_LATE);
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void offer_ShouldHonourTheReleaseMarkOfARetiredBuffer() {
+        ReorderBuffer<String> buffer = new ReorderBuffer<>(20_000);
+
+        assertThat(buffer.offer(18_000, 60_000, "straggler", MAX_LATENESS)).isEqualTo(ReorderBuffer.Disposition.LATE);
+        assertThat(buffer.offer(21_000, 60_000, "fresh", MAX_LATENESS)).isEqualTo(ReorderBuffer.Disposition.BUFFERED);
+        assertThat(buffer.releasedMillis()).isEqualTo(20_000);
+    }
+
+    @Test
+    void retireIfIdle_ShouldRefuseFurtherSamples() {
+        ReorderBuffer<String> buffer = new ReorderBuffer<>();
+        buffer.offer(1000, 1000, "a", MAX_LATENESS);
+        assertThat(buffer.retireIfIdle(2000)).isFalse();
+
+        buffer.release(0, 1000, new ArrayList<>());
+        assertThat(buffer.retireIfIdle(2000)).isTrue();
+        assertThat(buffer.offer(3000, 3000, "b", MAX_LATENESS)).isNull();
+    }
+}
@@ -0,0 +1,121 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.tracking.dto.SpaceTimeMatchDto;
+import com.aircraft.tracking.model.TrackedAircraft;
+import com.aircraft.tracking.model.TrajectoryPoint;
+import com.aircraft.tracking.repository.TrackedAircraftRepository;
+import com.aircraft.tracking.repository.TrajectoryArchiveRepository;
+import com.aircraft.tracking.repository.TrajectoryCellVisitRepository;
+import com.aircraft.tracking.repository.TrajectoryPointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class SpaceTimeIndexServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(3);
+
+    // Approach gate east of the eastbound track's start
+    private static final GeoPolygon GATE = new GeoPolygon(
+            new double[]{37.45, 37.45, 37.55, 37.55}, new double[]{126.2, 126.25, 126.25, 126.2});
+
+    @Autowired
+    private TrackedAircraftRepository aircraftRepository;
+
+    @Autowired
+    private TrajectoryPointRepository trajectoryRepository;
+
+    @Autowired
+    private TrajectoryArchiveRepository archiveRepository;
+
+    @Autowired
+    private TrajectoryCellVisitRepository visitRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private SpaceTimeIndexService indexService;
+
+    @BeforeEach
+    void setUp() {
+        TrajectoryArchiveService archiveService = new TrajectoryArchiveService(trajectoryRepository, archiveRepository,
+                new TransactionTemplate(transactionManager));
+        indexService = new SpaceTimeIndexService(visitRepository, aircraftRepository, trajectoryRepository, archiveService);
+        ReflectionTestUtils.setField(indexService, "cellBits", 12);
+        ReflectionTestUtils.setField(indexService, "maxVisitMinutes", 60L);
+        ReflectionTestUtils.setField(indexService, "maxGapSeconds", 60L);
+
+        // Eastbound through the gate between 200 s and 250 s, and one aircraft far to the south
+        indexService.index(saveTrack("KAL123", 37.5));
+        indexService.index(saveTrack("AAR456", 36.0));
+    }
+
+    @Test
+    void query_ShouldReturnOnlyAircraftCrossingTheRegionWithTheirPassTimes() {
+        List<SpaceTimeMatchDto> matches = indexService.query(GATE, START, START.plusHours(1));
+
+        assertThat(matches).extracting(SpaceTimeMatchDto::getCallsign).containsExactly("KAL123");
+        assertThat(matches.get(0).getPasses()).hasSize(1);
+        SpaceTimeMatchDto.Pass pass = matches.get(0).getPasses().get(0);
+        assertThat(pass.getFrom()).isBetween(START.plusSeconds(199), START.plusSeconds(200));
+        assertThat(pass.getTo()).isBetween(START.plusSeconds(250), START.plusSeconds(251));
+    }
+
+    @Test
+    void query_ShouldClipPassesToTheTimeWindow() {
+        List<SpaceTimeMatchDto> inside = indexService.query(GATE, START.plusSeconds(220), START.plusSeconds(230));
+        List<SpaceTimeMatchDto> after = indexService.query(GATE, START.plusSeconds(300), START.plusSeconds(400));
+
+        assertThat(inside).hasSize(1);
+        assertThat(inside.get(0).getPasses()).containsExactly(
+                new SpaceTimeMatchDto.Pass(START.plusSeconds(220), START.plusSeconds(230)));
+        assertThat(after).isEmpty();
+    }
+
+    @Test
+    void query_ShouldFindClosedVisitsOnceTracksGoQuiet() {
+        indexService.closeIdle(START.plusHours(2));
+
+        assertThat(indexService.getStats()).containsEntry("openVisits", 0);
+        assertThat(visitRepository.count()).isPositive();
+        assertThat(indexService.query(GATE, START, START.plusHours(1)))
+                .extracting(SpaceTimeMatchDto::getCallsign).containsExactly("KAL123");
+    }
+
+    private List<TrajectoryPoint> saveTrack(String callsign, double latitude) {
+        TrackedAircraft aircraft = aircraftRepository.save(TrackedAircraft.builder()
+                .callsign(callsign)
+                .latitude(latitude)
+                .longitude(126.0)
+                .altitude(5000)
+                .speed(200)
+                .heading(90)
+                .build());
+        List<TrajectoryPoint> points = new ArrayList<>();
+        for (int i = 0; i <= 500; i++) {
+            points.add(TrajectoryPoint.builder()
+                    .aircraft(aircraft)
+                    .latitude(latitude)
+                    .longitude(126.0 + i * 0.001)
+                    .altitude(5000)
+                    .speed(200)
+                    .heading(90)
+                    .timestamp(START.plusSeconds(i))
+                    .pointType(TrajectoryPoint.PointType.ACTUAL)
+                    .build());
+        }
+        return trajectoryRepository.saveAll(points);
+    }
+}
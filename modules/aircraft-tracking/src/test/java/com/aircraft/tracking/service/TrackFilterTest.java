@@ -0,0 +1,95 @@
+package com.aircraft.tracking.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TrackFilterTest {
+
+    private static final double METRES_PER_DEG_LAT = 111_194.9;
+
+    @Test
+    void update_ShouldConvergeOnVelocityFromNoisyFixes() {
+        TrackFilter filter = new TrackFilter(30, 1.5, 15, 0.5);
+        Random random = new Random(7);
+        double metresPerDegLon = METRES_PER_DEG_LAT * Math.cos(Math.toRadians(37.5));
+
+        // Due east at 150 m/s (~292 kt), climbing 5 m/s, one noisy fix per second; reported
+        // heading and speed deliberately wrong so the estimate has to come from the fixes
+        for (int i = 0; i <= 120; i++) {
+            double east = 150.0 * i + random.nextGaussian() * 30;
+            double north = random.nextGaussian() * 30;
+            double altitudeM = 1000 + 5.0 * i + random.nextGaussian() * 5;
+            filter.update(i * 1000L, 37.5 + north / METRES_PER_DEG_LAT, 126.7 + east / metresPerDegLon,
+                    altitudeM / 0.3048, 250, 60, 0);
+        }
+
+        double[] state = new double[7];
+        assertThat(filter.predict(120_000L, state)).isTrue();
+        assertThat(state[3]).isCloseTo(150 / 0.514444, within(10.0));
+        assertThat(state[4]).isCloseTo(90.0, within(3.0));
+        assertThat(state[5]).isCloseTo(5 / 0.3048 * 60, within(150.0));
+
+        // One minute ahead the truth is 9 km further east
+        filter.predict(180_000L, state);
+        double predictedEast = (state[1] - 126.7) * metresPerDegLon;
+        assertThat(predictedEast).isCloseTo(150.0 * 180, within(500.0));
+    }
+
+    @Test
+    void predict_ShouldGrowUncertaintyWithHorizon() {
+        TrackFilter filter = new TrackFilter(30, 1.5, 15, 0.5);
+        for (int i = 0; i < 30; i++) {
+            filter.update(i * 1000L, 37.5, 126.7 + i * 0.001, 3000, 200, 90, 0);
+        }
+
+        double[] state = new double[7];
+        filter.predict(29_000L, state);
+        double now = state[6];
+        filter.predict(89_000L, state);
+        double oneMinute = state[6];
+        filter.predict(629_000L, state);
+        double tenMinutes = state[6];
+
+        assertThat(now).isLessThan(30.0);
+        assertThat(oneMinute).isGreaterThan(now);
+        assertThat(tenMinutes).isGreaterThan(oneMinute);
+    }
+
+    @Test
+    void update_ShouldKeepVelocityAccurateFarFromTheFirstFix() {
+        TrackFilter filter = new TrackFilter(30, 1.5, 15, 0.5);
+        double latitude = 60.0;
+        double longitude = 10.0;
+        double step = 200.0 / Math.sqrt(2);
+
+        // North-east at 200 m/s for 25 minutes: the longitude scale changes by 6% on the way
+        for (int i = 0; i <= 1500; i++) {
+            if (i > 0) {
+                latitude += step / METRES_PER_DEG_LAT;
+                longitude += step / (METRES_PER_DEG_LAT * Math.cos(Math.toRadians(latitude)));
+            }
+            filter.update(i * 1000L, latitude, longitude, 30000, 389, 45, 0);
+        }
+
+        double[] state = new double[7];
+        filter.predict(1_500_000L, state);
+        assertThat(state[3]).isCloseTo(200 / 0.514444, within(2.0));
+        assertThat(state[4]).isCloseTo(45.0, within(0.5));
+        assertThat(state[0]).isCloseTo(latitude, within(0.001));
+    }
+
+    @Test
+    void update_ShouldIgnoreOutOfOrderFixes() {
+        TrackFilter filter = new TrackFilter(30, 1.5, 15, 0.5);
+        filter.update(10_000L, 37.5, 126.7, 3000, 200, 90, 0);
+        filter.update(11_000L, 37.5, 126.701, 3000, 200, 90, 0);
+        filter.update(5_000L, 38.0, 127.0, 9000, 200, 90, 0);
+
+        assertThat(filter.getUpdates()).isEqualTo(2);
+        assertThat(filter.getLastUpdateMillis()).isEqualTo(11_000L);
+    }
+}
@@ -0,0 +1,101 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.tracking.dto.FeedAircraftDto;
+import com.aircraft.tracking.fusion.ReportSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrackFusionServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 5, 2, 4, 9, 7);
+
+    private TrackFusionService fusionService;
+
+    @BeforeEach
+    void setUp() {
+        fusionService = new TrackFusionService();
+        ReflectionTestUtils.setField(fusionService, "sourceHoldMillis", 5000L);
+    }
+
+    @Test
+    void fuse_ShouldRejectDuplicateAndOlderReportsFromTheSameSource() {
+        assertThat(fusionService.fuse(ReportSource.SIMULATOR, report("KAL123", "71BE13", 37.50, T0), 0)).isNotNull();
+
+        assertThat(fusionService.fuse(ReportSource.SIMULATOR, report("KAL123", "71BE13", 37.50, T0), 0)).isNull();
+        assertThat(fusionService.fuse(ReportSource.SIMULATOR, report("KAL123", "71BE13", 37.49, T0.minusSeconds(1)), 0))
+                .isNull();
+        assertThat(fusionService.getStats())
+                .containsEntry("accepted", 1L)
+                .containsEntry("duplicates", 1L)
+                .containsEntry("stale", 1L);
+    }
+
+    @Test
+    void fuse_ShouldPreferTheMoreAccurateSourceUntilItGoesQuiet() {
+        fusionService.fuse(ReportSource.SBS, report("KAL123", "71BE13", 37.50, T0), 0);
+
+        // A simulator report two seconds later does not override the SBS position
+        assertThat(fusionService.fuse(ReportSource.SIMULATOR, report("KAL123", "71BE13", 37.60, T0.plusSeconds(2)), 0))
+                .isNull();
+        FeedAircraftDto fused = fusionService.fuse(ReportSource.SIMULATOR,
+                report("KAL123", "71BE13", 37.61, T0.plusSeconds(6)), 0);
+
+        assertThat(fused.getLatitude()).isEqualTo(37.61);
+        assertThat(fused.getCallsign()).isEqualTo("KAL123");
+        assertThat(fused.getHexId()).isEqualTo("71BE13");
+    }
+
+    @Test
+    void fuse_ShouldCorrelateHexOnlyAndCallsignOnlyReportsThroughTheAlias() {
+        // Callsign-only first, then the same callsign with its hex id, then hex id alone
+        fusionService.fuse(ReportSource.MANUAL, report("JJA789", null, 37.40, T0), 0);
+        fusionService.fuse(ReportSource.SIMULATOR, report("JJA789", "71c070", 37.41, T0.plusSeconds(1)), 0);
+        FeedAircraftDto fused = fusionService.fuse(ReportSource.SBS, report(null, "71C070", 37.42, T0.plusSeconds(2)), 0);
+
+        assertThat(fused.getCallsign()).isEqualTo("JJA789");
+        assertThat(fused.getLatitude()).isEqualTo(37.42);
+        assertThat(fusionService.getStats())
+                .containsEntry("tracks", 1)
+                .containsEntry("adopted", 1L);
+    }
+
+    @Test
+    void fuse_ShouldNameHexOnlyTracksByHexIdAndRejectUnkeyedReports() {
+        FeedAircraftDto fused = fusionService.fuse(ReportSource.SIMULATOR, report("71C070", "71C070", 37.55, T0), 0);
+
+        assertThat(fused.getCallsign()).isEqualTo("71C070");
+        assertThat(fusionService.fuse(ReportSource.SBS, report(" ", null, 37.55, T0), 0)).isNull();
+        assertThat(fusionService.getStats())
+                .containsEntry("aliases", 0)
+                .containsEntry("unkeyed", 1L);
+    }
+
+    @Test
+    void prune_ShouldDropSilentTracksAndTheirAliases() {
+        fusionService.fuse(ReportSource.SIMULATOR, report("KAL123", "71BE13", 37.50, T0), 1_000);
+        fusionService.fuse(ReportSource.SIMULATOR, report("JJA789", null, 37.40, T0), 5_000);
+
+        assertThat(fusionService.prune(2_000)).isEqualTo(1);
+        assertThat(fusionService.getStats())
+                .containsEntry("tracks", 1)
+                .containsEntry("aliases", 1);
+    }
+
+    private static FeedAircraftDto report(String callsign, String hexId, double latitude, LocalDateTime time) {
+        return FeedAircraftDto.builder()
+                .callsign(callsign)
+                .hexId(hexId)
+                .latitude(latitude)
+                .longitude(126.80)
+                .altitude(3000)
+                .speed(180)
+                .heading(140)
+                .lastContact(time)
+                .build();
+    }
+}
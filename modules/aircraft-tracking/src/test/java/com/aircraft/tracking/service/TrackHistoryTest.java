@@ -0,0 +1,79 @@
+package com.aircraft.tracking.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class TrackHistoryTest {
+
+    @Test
+    void add_ShouldKeepNewestSamplesWhenFull() {
+        TrackHistory history = new TrackHistory(4);
+        for (int i = 0; i < 6; i++) {
+            history.add(i * 1000L, 37.0 + i, 126.0, 1000 + i * 100, 200, 90, 0);
+        }
+
+        assertThat(history.size()).isEqualTo(4);
+        assertThat(history.timeMillis(0)).isEqualTo(5000L);
+        assertThat(history.timeMillis(3)).isEqualTo(2000L);
+        assertThat(history.altitude(1)).isEqualTo(1400);
+        assertThatThrownBy(() -> history.timeMillis(4)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void insert_ShouldPlaceLateSamplesInTimeOrder() {
+        TrackHistory history = new TrackHistory(4);
+        history.add(1000L, 37.0, 126.0, 1000, 200, 90, 0);
+        history.add(3000L, 37.0, 126.0, 3000, 200, 90, 0);
+        history.add(4000L, 37.0, 126.0, 4000, 200, 90, 0);
+
+        assertThat(history.insert(2000L, 37.0, 126.0, 2000, 200, 90, 0)).isTrue();
+        assertThat(history.size()).isEqualTo(4);
+        assertThat(history.timeMillis(0)).isEqualTo(4000L);
+        assertThat(history.altitude(2)).isEqualTo(2000);
+        assertThat(history.timeMillis(3)).isEqualTo(1000L);
+
+        // Full: the oldest sample makes room, and a sample older than all of them is not kept
+        assertThat(history.insert(3500L, 37.0, 126.0, 3500, 200, 90, 0)).isTrue();
+        assertThat(history.timeMillis(3)).isEqualTo(2000L);
+        assertThat(history.timeMillis(1)).isEqualTo(3500L);
+        assertThat(history.insert(500L, 37.0, 126.0, 500, 200, 90, 0)).isFalse();
+        assertThat(history.timeMillis(3)).isEqualTo(2000L);
+    }
+
+    @Test
+    void insert_ShouldNotKeepARepeatOfAHeldMeasurementTime() {
+        TrackHistory history = new TrackHistory(4);
+        history.add(1000L, 37.0, 126.0, 1000, 200, 90, 0);
+        history.add(3000L, 37.0, 126.0, 3000, 200, 90, 0);
+
+        assertThat(history.insert(3000L, 37.1, 126.0, 3001, 200, 90, 0)).isFalse();
+        assertThat(history.insert(1000L, 37.1, 126.0, 1001, 200, 90, 0)).isFalse();
+        assertThat(history.size()).isEqualTo(2);
+        assertThat(history.altitude(0)).isEqualTo(3000);
+    }
+
+    @Test
+    void countWithin_ShouldOnlyCountRecentSamples() {
+        TrackHistory history = new TrackHistory(16);
+        for (int i = 0; i < 10; i++) {
+            history.add(i * 1000L, 37.0, 126.0, 1000, 200, 90, 0);
+        }
+
+        assertThat(history.countWithin(3000)).isEqualTo(4);
+        assertThat(history.countWithin(60_000)).isEqualTo(10);
+    }
+
+    @Test
+    void altitudeTrend_ShouldMatchAConstantRate() {
+        TrackHistory history = new TrackHistory(32);
+        for (int i = 0; i < 20; i++) {
+            // Climbing 1,200 ft/min
+            history.add(i * 1000L, 37.0, 126.0, 1000 + i * 20, 150 + i * 2, 90, 1200);
+        }
+
+        assertThat(history.altitudeTrend(10_000)).isCloseTo(1200.0, within(1e-6));
+    }
+}
@@ -0,0 +1,267 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.tracking.dto.AircraftUpdateDto;
+import com.aircraft.tracking.dto.FeedAircraftDto;
+import com.aircraft.tracking.fusion.ReportSource;
+import com.aircraft.tracking.model.TrackedAircraft;
+import com.aircraft.tracking.repository.TrackedAircraftRepository;
+import com.aircraft.tracking.repository.TrajectoryPointRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrackIngestServiceTest {
+
+    @Mock
+    private TrackedAircraftRepository aircraftRepository;
+
+    @Mock
+    private TrajectoryPointRepository trajectoryRepository;
+
+    @Mock
+    private PredictionService predictionService;
+
+    @Mock
+    private TrajectoryWriteBehindService writeBehindService;
+
+    @Mock
+    private TrackHistoryService trackHistoryService;
+
+    @Mock
+    private TrajectoryLodService trajectoryLodService;
+
+    @Mock
+    private TrackingCacheService cacheService;
+
+    @Mock
+    private ApproachSequencingService approachSequencingService;
+
+    @Mock
+    private FlightPhaseService flightPhaseService;
+
+    @Mock
+    private GeofenceService geofenceService;
+
+    @Mock
+    private TrackQualityService trackQualityService;
+
+    @Mock
+    private TrackChangeNotifier changeNotifier;
+
+    private TrackingService trackingService;
+    private TrackReorderService reorderService;
+    private TrackFusionService fusionService;
+    private TrackIngestService ingestService;
+
+    @BeforeEach
+    void setUp() {
+        reorderService = new TrackReorderService();
+        ReflectionTestUtils.setField(reorderService, "maxLatenessMillis", 30_000L);
+        fusionService = new TrackFusionService();
+        ReflectionTestUtils.setField(fusionService, "sourceHoldMillis", 5_000L);
+        trackingService = new TrackingService(aircraftRepository, trajectoryRepository, predictionService,
+                writeBehindService, trackHistoryService, trajectoryLodService, cacheService,
+                approachSequencingService, flightPhaseService, geofenceService, trackQualityService,
+                reorderService, fusionService, changeNotifier,
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ingestService = new TrackIngestService(trackingService, fusionService, reorderService);
+        ReflectionTestUtils.setField(ingestService, "retireAfterSeconds", 60L);
+    }
+
+    @Test
+    void drain_ShouldCoalesceFramesAndCreateUnknownTracks() {
+        when(aircraftRepository.findByCallsignIn(anyCollection())).thenReturn(List.of(TrackedAircraft.builder()
+                .id(1L).callsign("KAL123").latitude(37.5).longitude(126.7)
+                .altitude(5000).speed(200).heading(140).build()));
+        when(aircraftRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+        when(writeBehindService.enqueueAll(anyList())).thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+
+        ingestService.submit(List.of(report("KAL123", 37.50), report(" JJA789 ", 37.40)));
+        ingestService.submit(List.of(report("KAL123", 37.51), report("BAD", 95.0)));
+        ingestService.drain();
+
+        assertThat(trackingService.getAircraftByCallsign("KAL123"))
+                .hasValueSatisfying(dto -> assertThat(dto.getLatitude()).isEqualTo(37.51));
+        assertThat(trackingService.getAircraftByCallsign("JJA789"))
+                .hasValueSatisfying(dto -> assertThat(dto.getAircraftType()).isEqualTo("B738"));
+        verify(aircraftRepository).saveAll(argThat(tracks -> tracks.iterator().next().getCallsign().equals("JJA789")));
+        verify(writeBehindService).enqueueAll(argThat(points -> points.size() == 2));
+        assertThat(ingestService.getStats())
+                .containsEntry("frames", 2L)
+                .containsEntry("coalesced", 1L)
+                .containsEntry("created", 1L)
+                .containsEntry("updated", 2L)
+                .containsEntry("rejected", 1L)
+                .containsEntry("pending", 0);
+    }
+
+    @Test
+    void drain_ShouldMergeLateReportsIntoHistoryOnly() {
+        when(trackHistoryService.merge(any(), any(), anyDouble(), anyDouble(), anyInt(), anyInt(), anyInt(), any()))
+                .thenReturn(true);
+        when(aircraftRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+        when(writeBehindService.enqueueAll(anyList())).thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+        LocalDateTime measured = LocalDateTime.now().minusSeconds(2).withNano(0);
+
+        FeedAircraftDto current = report("JJA789", 37.40);
+        current.setLastContact(measured);
+        ingestService.submit(List.of(current));
+        ingestService.drain();
+        FeedAircraftDto late = report("JJA789", 37.39);
+        late.setLastContact(measured.minusSeconds(3));
+        ingestService.submit(List.of(late));
+        ingestService.drain();
+
+        assertThat(trackingService.getAircraftByCallsign("JJA789"))
+                .hasValueSatisfying(dto -> assertThat(dto.getLatitude()).isEqualTo(37.40));
+        verify(trackHistoryService).merge(eq("JJA789"), eq(measured.minusSeconds(3)), eq(37.39), anyDouble(),
+                anyInt(), anyInt(), anyInt(), any());
+        assertThat(ingestService.getStats()).containsEntry("lateMerged", 1L);
+        assertThat(reorderService.getStats()).containsEntry("lateMerged", 1L);
+    }
+
+    @Test
+    void updateAircraftPosition_ShouldYieldToTheFeedThatHoldsTheTrack() {
+        when(aircraftRepository.findByCallsignIn(anyCollection())).thenReturn(List.of(TrackedAircraft.builder()
+                .id(1L).callsign("KAL123").latitude(37.5).longitude(126.7)
+                .altitude(5000).speed(200).heading(140).build()));
+        LocalDateTime measured = LocalDateTime.now().minusSeconds(4).withNano(0);
+        FeedAircraftDto feed = report("KAL123", 37.50);
+        feed.setLastContact(measured);
+        ingestService.submit(List.of(feed));
+        ingestService.drain();
+
+        AircraftUpdateDto manual = AircraftUpdateDto.builder()
+                .latitude(37.60).longitude(126.79).altitude(3000).speed(180).heading(140)
+                .timestamp(measured.plusSeconds(2)).build();
+        assertThatThrownBy(() -> trackingService.updateAircraftPosition("KAL123", manual))
+                .isInstanceOf(SupersededUpdateException.class);
+
+        assertThat(trackingService.getAircraftByCallsign("KAL123"))
+                .hasValueSatisfying(dto -> assertThat(dto.getLatitude()).isEqualTo(37.50));
+        assertThat(fusionService.getStats()).containsEntry("stale", 1L);
+    }
+
+    @Test
+    void ingest_ShouldTakeDetailsOnlyFromAcceptedReportsAndCountMergesApart() {
+        when(trackHistoryService.merge(any(), any(), anyDouble(), anyDouble(), anyInt(), anyInt(), anyInt(), any()))
+                .thenReturn(true);
+        when(aircraftRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+        when(writeBehindService.enqueueAll(anyList())).thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+        LocalDateTime measured = LocalDateTime.now().minusSeconds(2).withNano(0);
+        FeedAircraftDto current = report("JJA789", 37.40);
+        current.setLastContact(measured);
+        trackingService.ingest(List.of(current));
+
+        FeedAircraftDto late = report("JJA789", 37.39);
+        late.setLastContact(measured.minusSeconds(3));
+        late.setAircraftType("A321");
+        TrackingService.IngestResult lateResult = trackingService.ingest(List.of(late));
+
+        FeedAircraftDto jump = report("JJA789", 38.40);
+        jump.setLastContact(measured.plusSeconds(1));
+        jump.setAircraftType("A321");
+        when(trackQualityService.assess(eq("JJA789"), any(), any(), anyDouble(), anyDouble(), anyInt(), anyInt(),
+                anyInt())).thenReturn(TrackQualityFilter.Rejection.POSITION_JUMP);
+        TrackingService.IngestResult jumpResult = trackingService.ingest(List.of(jump));
+
+        assertThat(lateResult).isEqualTo(new TrackingService.IngestResult(0, 0, 1, 0));
+        assertThat(jumpResult).isEqualTo(new TrackingService.IngestResult(0, 0, 0, 1));
+        assertThat(trackingService.getAircraftByCallsign("JJA789"))
+                .hasValueSatisfying(dto -> assertThat(dto.getAircraftType()).isEqualTo("B738"));
+    }
+
+    @Test
+    void prune_ShouldStillClassifyStragglersOfAPrunedBufferAsLate() {
+        ReflectionTestUtils.setField(reorderService, "retiredMarkTtlMillis", 600_000L);
+        long now = System.currentTimeMillis();
+        FeedAircraftDto released = report("JJA789", 37.40);
+        released.setLastContact(LocalDateTime.now().minusSeconds(2));
+        reorderService.offer(ReportSource.SIMULATOR, released, now);
+        assertThat(reorderService.release(now)).hasSize(1);
+
+        reorderService.prune(now + 1);
+        FeedAircraftDto straggler = report("JJA789", 37.39);
+        straggler.setLastContact(released.getLastContact().minusSeconds(3));
+
+        assertThat(reorderService.getStats()).containsEntry("aircraft", 0).containsEntry("retiredMarks", 1);
+        assertThat(reorderService.offer(ReportSource.SIMULATOR, straggler, now + 2))
+                .isEqualTo(ReorderBuffer.Disposition.LATE);
+        // Marks older than the retention are forgotten
+        reorderService.prune(now + 700_000);
+        assertThat(reorderService.getStats()).containsEntry("retiredMarks", 0);
+    }
+
+    @Test
+    void offer_ShouldBufferEachSourceApartUnderTheNormalizedHexId() {
+        long now = System.currentTimeMillis();
+        LocalDateTime measured = LocalDateTime.now().minusSeconds(2);
+        FeedAircraftDto sbs = report("KAL123", 37.50);
+        sbs.setHexId("71be12");
+        sbs.setLastContact(measured);
+        FeedAircraftDto simulator = report("KAL123", 37.51);
+        simulator.setHexId("71BE12");
+        simulator.setLastContact(measured);
+        FeedAircraftDto callsignOnly = report(" kal123 ", 37.52);
+        callsignOnly.setLastContact(measured);
+
+        assertThat(reorderService.offer(ReportSource.SBS, sbs, now)).isEqualTo(ReorderBuffer.Disposition.BUFFERED);
+        // Another source at the same time is kept for fusion to weigh, not replaced
+        assertThat(reorderService.offer(ReportSource.SIMULATOR, simulator, now))
+                .isEqualTo(ReorderBuffer.Disposition.BUFFERED);
+        assertThat(reorderService.offer(ReportSource.SBS, callsignOnly, now))
+                .isEqualTo(ReorderBuffer.Disposition.REPLACED);
+        assertThat(reorderService.getStats()).containsEntry("aircraft", 2).containsEntry("pending", 2);
+    }
+
+    @Test
+    void retireTracks_ShouldDeactivateSilentTracks() {
+        when(aircraftRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+        when(writeBehindService.enqueueAll(anyList())).thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+        FeedAircraftDto silent = report("JJA789", 37.40);
+        silent.setLastContact(LocalDateTime.now().minusMinutes(6));
+        FeedAircraftDto quiet = report("AAR456", 37.60);
+        quiet.setLastContact(LocalDateTime.now().minusMinutes(4));
+        trackingService.ingest(List.of(silent, quiet));
+
+        assertThat(trackingService.retireTracks(LocalDateTime.now().minusMinutes(7))).isZero();
+        // A cutoff shorter than the radar timeout is held to it, so only JJA789 goes
+        assertThat(trackingService.retireTracks(LocalDateTime.now().plusSeconds(1))).isEqualTo(1);
+
+        assertThat(trackingService.getAircraftByCallsign("JJA789")).isEmpty();
+        verify(trackHistoryService).remove("JJA789");
+        verify(trajectoryLodService).invalidate(List.of("JJA789"));
+        // The deactivation reaches the database through the write-behind
+        verify(writeBehindService, atLeastOnce()).markDirty(argThat(aircraft -> !aircraft.getIsActive()));
+    }
+
+    private static FeedAircraftDto report(String callsign, double latitude) {
+        return FeedAircraftDto.builder()
+                .callsign(callsign)
+                .latitude(latitude)
+                .longitude(126.79)
+                .altitude(3000)
+                .speed(180)
+                .heading(140)
+                .aircraftType("B738")
+                .build();
+    }
+}
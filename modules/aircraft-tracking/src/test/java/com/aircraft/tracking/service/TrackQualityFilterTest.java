@@ -0,0 +1,110 @@
+package com.aircraft.tracking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrackQualityFilterTest {
+
+    private static final double KM_LAT = 1 / 111.1949;
+    private static final double KM_LON = KM_LAT / Math.cos(Math.toRadians(37.0));
+
+    private static final TrackQualityFilter.Settings SETTINGS = new TrackQualityFilter.Settings(
+            0.25, 300, 300, 15, 30, 5, 0.1);
+
+    private TrackQualityFilter filter;
+    private AircraftPerformance.Limits limits;
+    private long time;
+
+    @BeforeEach
+    void setUp() {
+        filter = new TrackQualityFilter(SETTINGS);
+        limits = AircraftPerformance.forType("A320");
+        time = 0;
+    }
+
+    @Test
+    void assess_ShouldAcceptASteadyTrack() {
+        assertThat(feed(0, 0, 0, 35000, 450, 90)).isNull();
+        assertThat(feed(5, 0, 1.1, 35000, 450, 90)).isNull();
+        assertThat(feed(5, 0, 2.2, 35100, 450, 92)).isNull();
+
+        assertThat(filter.getAccepted()).isEqualTo(3);
+        assertThat(filter.getRejected()).isZero();
+        assertThat(filter.getScore()).isEqualTo(1.0);
+    }
+
+    @Test
+    void assess_ShouldRejectAPositionJumpAndKeepTheLastGoodBaseline() {
+        feed(0, 0, 0, 35000, 450, 90);
+
+        assertThat(feed(5, 0, 20, 35000, 450, 90)).isEqualTo(TrackQualityFilter.Rejection.POSITION_JUMP);
+        // Judged against the sample before the jump, 10 s earlier
+        assertThat(feed(5, 0, 2.3, 35000, 450, 90)).isNull();
+        assertThat(filter.getLastRejection()).isEqualTo(TrackQualityFilter.Rejection.POSITION_JUMP);
+    }
+
+    @Test
+    void assess_ShouldRejectAnAltitudeSpike() {
+        feed(0, 0, 0, 35000, 450, 90);
+
+        assertThat(feed(5, 0, 1.1, 37000, 450, 90)).isEqualTo(TrackQualityFilter.Rejection.ALTITUDE_SPIKE);
+        assertThat(feed(5, 0, 2.2, 35400, 450, 90)).isNull();
+    }
+
+    @Test
+    void assess_ShouldRejectAStaleRepeatOnlyWhileMoving() {
+        feed(0, 0, 0, 35000, 450, 90);
+        assertThat(feed(5, 0, 0, 35000, 450, 90)).isEqualTo(TrackQualityFilter.Rejection.STALE_REPEAT);
+
+        TrackQualityFilter parked = new TrackQualityFilter(SETTINGS);
+        assertThat(parked.assess(0, 37.0, 127.0, 0, 0, 90, limits)).isNull();
+        assertThat(parked.assess(5000, 37.0, 127.0, 0, 0, 90, limits)).isNull();
+    }
+
+    @Test
+    void assess_ShouldJudgeTurnRateAgainstTheAircraftType() {
+        feed(0, 0, 0, 3000, 120, 90);
+        assertThat(feed(5, 0, 0.3, 3000, 120, 180)).isEqualTo(TrackQualityFilter.Rejection.TURN_RATE);
+
+        limits = AircraftPerformance.forType("EC35");
+        filter = new TrackQualityFilter(SETTINGS);
+        feed(0, 0, 0, 3000, 120, 90);
+        assertThat(feed(5, 0, 0.3, 3000, 120, 180)).isNull();
+    }
+
+    @Test
+    void assess_ShouldResyncAfterARunOfRejections() {
+        feed(0, 0, 0, 35000, 450, 90);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(feed(5, 50, 0, 35000, 450, 90)).isEqualTo(TrackQualityFilter.Rejection.POSITION_JUMP);
+        }
+        assertThat(feed(5, 50, 0, 35000, 450, 90)).isNull();
+        assertThat(filter.getResyncs()).isEqualTo(1);
+
+        // The resynced sample is now the baseline
+        assertThat(feed(5, 50, 1.1, 35000, 450, 90)).isNull();
+    }
+
+    @Test
+    void assess_ShouldLowerTheScoreOnRejectionsAndRecover() {
+        feed(0, 0, 0, 35000, 450, 90);
+        feed(5, 0, 20, 35000, 450, 90);
+        feed(5, 0, 20, 35000, 450, 90);
+        double degraded = filter.getScore();
+        assertThat(degraded).isLessThan(0.85);
+
+        feed(5, 0, 3.3, 35000, 450, 90);
+        assertThat(filter.getScore()).isGreaterThan(degraded);
+        assertThat(filter.getRejected()).isEqualTo(2);
+    }
+
+    private TrackQualityFilter.Rejection feed(int seconds, double northKm, double eastKm, int altitude, int speed,
+                                              int heading) {
+        time += seconds * 1000L;
+        return filter.assess(time, 37.0 + northKm * KM_LAT, 127.0 + eastKm * KM_LON, altitude, speed, heading,
+                limits);
+    }
+}
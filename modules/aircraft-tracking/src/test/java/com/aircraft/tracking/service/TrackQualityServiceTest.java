@@ -0,0 +1,63 @@
+package com.aircraft.tracking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrackQualityServiceTest {
+
+    private static final double KM_LON = 1 / 111.1949 / Math.cos(Math.toRadians(37.0));
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private TrackQualityService service;
+    private TrackHistory history;
+
+    @BeforeEach
+    void setUp() {
+        service = new TrackQualityService();
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "speedTolerance", 0.25);
+        ReflectionTestUtils.setField(service, "positionNoiseMeters", 300.0);
+        ReflectionTestUtils.setField(service, "altitudeNoiseFt", 300);
+        ReflectionTestUtils.setField(service, "headingNoiseDeg", 15.0);
+        ReflectionTestUtils.setField(service, "minMovingSpeedKts", 30);
+        ReflectionTestUtils.setField(service, "resyncAfterRejects", 5);
+        ReflectionTestUtils.setField(service, "scoreSmoothing", 0.1);
+
+        // Eastbound at about 430 kt: 2.2 km in 10 s
+        history = new TrackHistory(8);
+        history.add(millis(0), 37.0, 127.0, 35000, 430, 90, 0);
+        history.add(millis(10), 37.0, 127.0 + 2.2 * KM_LON, 35000, 430, 90, 0);
+    }
+
+    @Test
+    void assessLate_ShouldJudgeASampleAgainstBothNeighbours() {
+        assertThat(late(5, 1.1, 35000)).isNull();
+        // Plausible 9 s after the older sample, but 1.7 km short of the newer one a second later
+        assertThat(late(9, 0.5, 35000)).isEqualTo(TrackQualityFilter.Rejection.POSITION_JUMP);
+        assertThat(late(5, 1.1, 39000)).isEqualTo(TrackQualityFilter.Rejection.ALTITUDE_SPIKE);
+        // A repeat of a recorded sample is a duplicate
+        assertThat(late(10, 2.2, 35000)).isEqualTo(TrackQualityFilter.Rejection.STALE_REPEAT);
+    }
+
+    @Test
+    void assessLate_ShouldLeaveTheLiveBaselineAndScoreAlone() {
+        late(9, 0.5, 35000);
+
+        assertThat(service.getQuality("KAL123")).isEmpty();
+        assertThat(service.getStats()).containsEntry("rejected", 1L);
+    }
+
+    private TrackQualityFilter.Rejection late(int seconds, double eastKm, int altitude) {
+        return service.assessLate("KAL123", "A320", START.plusSeconds(seconds), 37.0, 127.0 + eastKm * KM_LON,
+                altitude, 430, 90, history);
+    }
+
+    private static long millis(int seconds) {
+        return TrackHistoryService.toMillis(START.plusSeconds(seconds));
+    }
+}
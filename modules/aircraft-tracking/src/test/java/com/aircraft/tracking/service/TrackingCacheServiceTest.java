@@ -0,0 +1,78 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.tracking.config.CacheConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrackingCacheServiceTest {
+
+    private CacheManager cacheManager;
+    private TrackingCacheService cacheService;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new CacheConfig().cacheManager(300, 100, 1000);
+        cacheService = new TrackingCacheService(cacheManager);
+    }
+
+    @Test
+    void evictAircraft_ShouldDropOnlyChangedAircraftAndKeepTheList() {
+        Cache aircraft = cacheManager.getCache(TrackingCacheService.AIRCRAFT);
+        Cache list = cacheManager.getCache(TrackingCacheService.AIRCRAFT_LIST);
+        aircraft.put("KAL123", "kal");
+        aircraft.put("AAR456", "aar");
+        list.put("all", List.of("kal", "aar"));
+
+        cacheService.evictAircraft(List.of("KAL123"));
+
+        assertThat(aircraft.get("KAL123")).isNull();
+        assertThat(aircraft.get("AAR456")).isNotNull();
+        assertThat(list.get("all")).isNotNull();
+
+        cacheService.evictAircraftList();
+
+        assertThat(list.get("all")).isNull();
+        assertThat(aircraft.get("AAR456")).isNotNull();
+    }
+
+    @Test
+    void aircraftList_ShouldExpireAfterItsOwnTtl() throws InterruptedException {
+        cacheManager = new CacheConfig().cacheManager(300, 100, 50);
+        Cache aircraft = cacheManager.getCache(TrackingCacheService.AIRCRAFT);
+        Cache list = cacheManager.getCache(TrackingCacheService.AIRCRAFT_LIST);
+        aircraft.put("KAL123", "kal");
+        list.put("all", List.of("kal"));
+
+        Thread.sleep(100);
+
+        assertThat(list.get("all")).isNull();
+        assertThat(aircraft.get("KAL123")).isNotNull();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getStats_ShouldReportHitsAndMissesPerCache() {
+        Cache aircraft = cacheManager.getCache(TrackingCacheService.AIRCRAFT);
+        aircraft.put("KAL123", "kal");
+        aircraft.get("KAL123");
+        aircraft.get("KAL123");
+        aircraft.get("JJA789");
+        cacheService.evictAircraft(List.of("KAL123"));
+
+        Map<String, Object> stats = cacheService.getStats();
+
+        assertThat((Map<String, Object>) stats.get(TrackingCacheService.AIRCRAFT))
+                .containsEntry("hits", 2L)
+                .containsEntry("misses", 1L)
+                .containsEntry("size", 0L);
+        assertThat(stats).containsKey(TrackingCacheService.AIRCRAFT_LIST)
+                .containsEntry("invalidatedAircraft", 1L);
+    }
+}
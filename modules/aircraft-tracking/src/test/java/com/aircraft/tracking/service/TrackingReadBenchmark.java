@@ -0,0 +1,185 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.tracking.AircraftTrackingApplication;
+import com.aircraft.tracking.dto.TrackedAircraftDto;
+import com.aircraft.tracking.dto.TrajectoryDto;
+import com.aircraft.tracking.dto.TrajectoryPointView;
+import com.aircraft.tracking.model.TrackedAircraft;
+import com.aircraft.tracking.model.TrajectoryPoint;
+import com.aircraft.tracking.repository.TrackedAircraftRepository;
+import com.aircraft.tracking.repository.TrajectoryPointRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity versus projection read paths against the in-memory database with 5000 active
+ * aircraft and a 2000-point trajectory: the active list as mapped DTOs, and one trajectory
+ * as point DTOs, each read in a read-only transaction as the services do.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.aircraft.tracking.service.TrackingReadBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TrackingReadBenchmark {
+
+    private static final int AIRCRAFT = 5000;
+    private static final int TRAJECTORY_POINTS = 2000;
+
+    private ConfigurableApplicationContext context;
+    private TrackedAircraftRepository aircraftRepository;
+    private TrajectoryPointRepository trajectoryRepository;
+    private TransactionTemplate readOnly;
+    private LocalDateTime threshold;
+    private LocalDateTime trajectoryStart;
+    private String callsign;
+    private Long aircraftId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(AircraftTrackingApplication.class)
+                .properties("server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.com.aircraft.tracking=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "tracking.ingest.simulator.enabled=false",
+                        "tracking.archive.enabled=false")
+                .run();
+        aircraftRepository = context.getBean(TrackedAircraftRepository.class);
+        trajectoryRepository = context.getBean(TrajectoryPointRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        List<TrackedAircraft> aircraft = new ArrayList<>(AIRCRAFT);
+        for (int i = 0; i < AIRCRAFT; i++) {
+            aircraft.add(TrackedAircraft.builder()
+                    .callsign(String.format("BM%05d", i))
+                    .hexId(Integer.toHexString(0x710000 + i))
+                    .flightNumber("BM" + i)
+                    .latitude(37.0 + (i % 100) * 0.01)
+                    .longitude(126.0 + (i / 100) * 0.01)
+                    .altitude(1000 + i % 30000)
+                    .speed(250)
+                    .heading(i % 360)
+                    .verticalSpeed(0)
+                    .aircraftType("B738")
+                    .registration("HL" + i)
+                    .origin("RKSS")
+                    .destination("RKPC")
+                    .build());
+        }
+        List<TrackedAircraft> saved = aircraftRepository.saveAll(aircraft);
+        TrackedAircraft tracked = saved.get(0);
+        callsign = tracked.getCallsign();
+        aircraftId = tracked.getId();
+
+        trajectoryStart = LocalDateTime.now().minusHours(1);
+        List<TrajectoryPoint> points = new ArrayList<>(TRAJECTORY_POINTS);
+        for (int i = 0; i < TRAJECTORY_POINTS; i++) {
+            points.add(TrajectoryPoint.builder()
+                    .aircraft(tracked)
+                    .latitude(37.0 + i * 0.0005)
+                    .longitude(126.0 + i * 0.0005)
+                    .altitude(3000 + i)
+                    .speed(250)
+                    .heading(45)
+                    .verticalSpeed(500)
+                    .timestamp(trajectoryStart.plusSeconds(i))
+                    .pointType(TrajectoryPoint.PointType.ACTUAL)
+                    .build());
+        }
+        trajectoryRepository.saveAll(points);
+        threshold = LocalDateTime.now().minusMinutes(5);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TrackedAircraftDto> activeAircraftEntities() {
+        return readOnly.execute(status -> {
+            List<TrackedAircraftDto> result = new ArrayList<>(AIRCRAFT);
+            for (TrackedAircraft aircraft : aircraftRepository.findActiveAircraftSince(threshold)) {
+                result.add(TrackingService.convertToDto(aircraft));
+            }
+            return result;
+        });
+    }
+
+    @Benchmark
+    public List<TrackedAircraftDto> activeAircraftProjection() {
+        return readOnly.execute(status -> aircraftRepository.findActiveViewsSince(threshold).stream()
+                .map(TrackingService::convertToDto)
+                .toList());
+    }
+
+    @Benchmark
+    public List<TrajectoryDto.TrajectoryPointDto> trajectoryEntities() {
+        return readOnly.execute(status -> {
+            List<TrajectoryDto.TrajectoryPointDto> result = new ArrayList<>(TRAJECTORY_POINTS);
+            for (TrajectoryPoint point : trajectoryRepository.findByCallsignAndTimeRange(
+                    callsign, trajectoryStart, LocalDateTime.now())) {
+                result.add(TrajectoryDto.TrajectoryPointDto.builder()
+                        .latitude(point.getLatitude())
+                        .longitude(point.getLongitude())
+                        .altitude(point.getAltitude())
+                        .speed(point.getSpeed())
+                        .heading(point.getHeading())
+                        .verticalSpeed(point.getVerticalSpeed())
+                        .timestamp(point.getTimestamp())
+                        .pointType(point.getPointType())
+                        .confidenceScore(point.getConfidenceScore())
+                        .build());
+            }
+            return result;
+        });
+    }
+
+    @Benchmark
+    public List<TrajectoryDto.TrajectoryPointDto> trajectoryProjection() {
+        return readOnly.execute(status -> {
+            List<TrajectoryDto.TrajectoryPointDto> result = new ArrayList<>(TRAJECTORY_POINTS);
+            for (TrajectoryPointView point : trajectoryRepository.findViewsByAircraftIdAndTimeRange(
+                    aircraftId, trajectoryStart, LocalDateTime.now())) {
+                result.add(new TrajectoryDto.TrajectoryPointDto(point.latitude(), point.longitude(),
+                        point.altitude(), point.speed(), point.heading(), point.verticalSpeed(),
+                        point.timestamp(), point.pointType(), point.confidenceScore()));
+            }
+            return result;
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TrackingReadBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,282 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.tracking.dto.AircraftBatchUpdateDto;
+import com.aircraft.tracking.dto.AircraftUpdateDto;
+import com.aircraft.tracking.dto.BatchUpdateResultDto;
+import com.aircraft.tracking.dto.FeedAircraftDto;
+import com.aircraft.tracking.fusion.ReportSource;
+import com.aircraft.tracking.model.TrackedAircraft;
+import com.aircraft.tracking.repository.TrackedAircraftRepository;
+import com.aircraft.tracking.repository.TrajectoryPointRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrackingServiceBatchUpdateTest {
+
+    @Mock
+    private TrackedAircraftRepository aircraftRepository;
+
+    @Mock
+    private TrajectoryPointRepository trajectoryRepository;
+
+    @Mock
+    private PredictionService predictionService;
+
+    @Mock
+    private TrajectoryWriteBehindService writeBehindService;
+
+    @Mock
+    private TrackHistoryService trackHistoryService;
+
+    @Mock
+    private TrajectoryLodService trajectoryLodService;
+
+    @Mock
+    private TrackingCacheService cacheService;
+
+    @Mock
+    private ApproachSequencingService approachSequencingService;
+
+    @Mock
+    private FlightPhaseService flightPhaseService;
+
+    @Mock
+    private GeofenceService geofenceService;
+
+    @Mock
+    private TrackQualityService trackQualityService;
+
+    @Mock
+    private TrackReorderService trackReorderService;
+
+    @Mock
+    private TrackChangeNotifier changeNotifier;
+
+    private TrackFusionService fusionService;
+
+    private TrackingService trackingService;
+
+    @BeforeEach
+    void setUp() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        fusionService = new TrackFusionService();
+        ReflectionTestUtils.setField(fusionService, "sourceHoldMillis", 5_000L);
+        trackingService = new TrackingService(aircraftRepository, trajectoryRepository, predictionService,
+                writeBehindService, trackHistoryService, trajectoryLodService, cacheService,
+                approachSequencingService, flightPhaseService, geofenceService, trackQualityService,
+                trackReorderService, fusionService, changeNotifier, validator);
+    }
+
+    @Test
+    void updateAircraftPositions_ShouldReportPerItemResults() {
+        when(aircraftRepository.findByCallsignIn(anyCollection())).thenReturn(List.of(aircraft(1L, "KAL123")));
+        when(writeBehindService.enqueueAll(anyList())).thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+
+        AircraftBatchUpdateDto invalid = item("AAR456", 37.6);
+        invalid.getUpdate().setAltitude(-5);
+        BatchUpdateResultDto result = trackingService.updateAircraftPositions(Arrays.asList(
+                item("KAL123", 37.55),
+                invalid,
+                item("JJA789", 37.50),
+                null,
+                item("KAL123", 37.56)));
+
+        assertThat(result.getReceived()).isEqualTo(5);
+        assertThat(result.getUpdated()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(3);
+        assertThat(result.getResults()).extracting(BatchUpdateResultDto.ItemResult::getStatus).containsExactly(
+                BatchUpdateResultDto.Status.UPDATED,
+                BatchUpdateResultDto.Status.INVALID,
+                BatchUpdateResultDto.Status.NOT_FOUND,
+                BatchUpdateResultDto.Status.INVALID,
+                BatchUpdateResultDto.Status.UPDATED);
+        assertThat(result.getResults().get(1).getMessage()).contains("altitude");
+        assertThat(trackingService.getAircraftByCallsign("KAL123"))
+                .hasValueSatisfying(dto -> assertThat(dto.getLatitude()).isEqualTo(37.56));
+        // One lookup for the untracked callsigns, one hand-off to the write-behind
+        verify(aircraftRepository, times(1)).findByCallsignIn(anyCollection());
+        verify(writeBehindService, times(1)).enqueueAll(argThat(points -> points.size() == 2));
+        verify(cacheService).evictAircraft(Set.of("KAL123"));
+        assertThat(fusionService.getStats()).containsEntry("accepted", 2L);
+    }
+
+    @Test
+    void updateAircraftPositions_ShouldScreenAndApplyTheFusedState() {
+        when(aircraftRepository.findByCallsignIn(anyCollection()))
+                .thenReturn(List.of(aircraft(1L, "KAL123"), aircraft(2L, "AAR456")));
+        LocalDateTime measured = LocalDateTime.now().minusSeconds(10).withNano(0);
+        FeedAircraftDto withoutPosition = feed("KAL123", measured);
+        withoutPosition.setLatitude(null);
+        withoutPosition.setLongitude(null);
+        fusionService.fuse(ReportSource.SBS, withoutPosition, 0);
+        fusionService.fuse(ReportSource.SBS, feed("AAR456", measured), 0);
+        AircraftBatchUpdateDto positioned = item("KAL123", 37.56);
+        positioned.getUpdate().setTimestamp(measured.plusSeconds(1));
+        AircraftBatchUpdateDto held = item("AAR456", 37.56);
+        held.getUpdate().setTimestamp(measured.plusSeconds(1));
+
+        BatchUpdateResultDto result = trackingService.updateAircraftPositions(List.of(positioned, held));
+
+        assertThat(result.getResults()).extracting(BatchUpdateResultDto.ItemResult::getStatus).containsExactly(
+                BatchUpdateResultDto.Status.UPDATED,
+                BatchUpdateResultDto.Status.SUPERSEDED);
+        // The manual position with the SBS altitude and velocity, and that is what was screened
+        assertThat(trackingService.getAircraftByCallsign("KAL123")).hasValueSatisfying(dto -> {
+            assertThat(dto.getLatitude()).isEqualTo(37.56);
+            assertThat(dto.getAltitude()).isEqualTo(4000);
+            assertThat(dto.getSpeed()).isEqualTo(210);
+        });
+        verify(trackQualityService).assess(eq("KAL123"), any(), any(), eq(37.56), anyDouble(), eq(4000), eq(210),
+                eq(135));
+        verify(trackQualityService, never()).assess(eq("AAR456"), any(), any(), anyDouble(), anyDouble(), anyInt(),
+                anyInt(), anyInt());
+        assertThat(trackingService.getLiveAircraft("AAR456"))
+                .hasValueSatisfying(dto -> assertThat(dto.getLatitude()).isEqualTo(37.5));
+        verify(writeBehindService).enqueueAll(argThat(points -> points.size() == 1));
+    }
+
+    @Test
+    void updateAircraftPositions_ShouldNotQueryTracksAlreadyInMemory() {
+        when(aircraftRepository.findByCallsignIn(anyCollection())).thenReturn(List.of(aircraft(1L, "KAL123")));
+        trackingService.updateAircraftPositions(List.of(item("KAL123", 37.55)));
+
+        List<AircraftBatchUpdateDto> batch = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            batch.add(item("KAL123", 37.55 + i * 0.0001));
+        }
+        BatchUpdateResultDto result = trackingService.updateAircraftPositions(batch);
+
+        assertThat(result.getUpdated()).isEqualTo(100);
+        verify(aircraftRepository, times(1)).findByCallsignIn(anyCollection());
+    }
+
+    @Test
+    void updateAircraftPositions_ShouldMergeLateItemsWithoutRewindingTheTrack() {
+        when(trackHistoryService.merge(any(), any(), anyDouble(), anyDouble(), anyInt(), anyInt(), anyInt(), any()))
+                .thenReturn(true);
+        when(aircraftRepository.findByCallsignIn(anyCollection())).thenReturn(List.of(aircraft(1L, "KAL123")));
+        when(trackReorderService.admitLate(anyLong(), anyLong())).thenReturn(true);
+        LocalDateTime measured = LocalDateTime.now().minusSeconds(10);
+        AircraftBatchUpdateDto current = item("KAL123", 37.56);
+        current.getUpdate().setTimestamp(measured);
+        AircraftBatchUpdateDto late = item("KAL123", 37.55);
+        late.getUpdate().setTimestamp(measured.minusSeconds(4));
+
+        BatchUpdateResultDto result = trackingService.updateAircraftPositions(List.of(current, late));
+
+        assertThat(result.getResults()).extracting(BatchUpdateResultDto.ItemResult::getStatus).containsExactly(
+                BatchUpdateResultDto.Status.UPDATED,
+                BatchUpdateResultDto.Status.LATE);
+        assertThat(result.getResults().get(1).getMessage()).isEqualTo("Merged into history");
+        assertThat(trackingService.getAircraftByCallsign("KAL123"))
+                .hasValueSatisfying(dto -> assertThat(dto.getLatitude()).isEqualTo(37.56));
+        verify(trackHistoryService).merge(eq("KAL123"), eq(measured.minusSeconds(4)), eq(37.55), anyDouble(),
+                anyInt(), anyInt(), anyInt(), any());
+        verify(writeBehindService).enqueueAll(argThat(points -> points.size() == 2
+                && points.get(1).getTimestamp().equals(measured.minusSeconds(4))));
+    }
+
+    @Test
+    void updateAircraftPositions_ShouldTreatARepeatedMeasurementTimeAsLateAndScreenIt() {
+        when(aircraftRepository.findByCallsignIn(anyCollection())).thenReturn(List.of(aircraft(1L, "KAL123")));
+        when(trackReorderService.admitLate(anyLong(), anyLong())).thenReturn(true);
+        when(trackQualityService.assessLate(eq("KAL123"), any(), any(), anyDouble(), anyDouble(), anyInt(), anyInt(),
+                anyInt(), any())).thenReturn(null, TrackQualityFilter.Rejection.POSITION_JUMP);
+        LocalDateTime measured = LocalDateTime.now().minusSeconds(10);
+        AircraftBatchUpdateDto current = item("KAL123", 37.56);
+        current.getUpdate().setTimestamp(measured);
+        AircraftBatchUpdateDto repeat = item("KAL123", 37.57);
+        repeat.getUpdate().setTimestamp(measured);
+        AircraftBatchUpdateDto stray = item("KAL123", 38.55);
+        stray.getUpdate().setTimestamp(measured.minusSeconds(4));
+
+        BatchUpdateResultDto result = trackingService.updateAircraftPositions(List.of(current, repeat, stray));
+
+        assertThat(result.getResults()).extracting(BatchUpdateResultDto.ItemResult::getStatus).containsExactly(
+                BatchUpdateResultDto.Status.UPDATED,
+                BatchUpdateResultDto.Status.LATE,
+                BatchUpdateResultDto.Status.IMPLAUSIBLE);
+        assertThat(trackingService.getAircraftByCallsign("KAL123"))
+                .hasValueSatisfying(dto -> assertThat(dto.getLatitude()).isEqualTo(37.56));
+        verify(trackHistoryService, never()).merge(eq("KAL123"), eq(measured.minusSeconds(4)), anyDouble(),
+                anyDouble(), anyInt(), anyInt(), anyInt(), any());
+        // The history already holds the repeated time, so only the first sample is persisted
+        verify(writeBehindService).enqueueAll(argThat(points -> points.size() == 1));
+    }
+
+    @Test
+    void updateAircraftPosition_ShouldSurfaceAScreenRejection() {
+        when(aircraftRepository.findByCallsign("KAL123")).thenReturn(Optional.of(aircraft(1L, "KAL123")));
+        when(trackQualityService.assess(eq("KAL123"), any(), any(), anyDouble(), anyDouble(), anyInt(), anyInt(),
+                anyInt())).thenReturn(TrackQualityFilter.Rejection.POSITION_JUMP);
+
+        assertThatThrownBy(() -> trackingService.updateAircraftPosition("KAL123", item("KAL123", 38.5).getUpdate()))
+                .isInstanceOfSatisfying(ImplausibleUpdateException.class,
+                        e -> assertThat(e.getRejection()).isEqualTo(TrackQualityFilter.Rejection.POSITION_JUMP));
+        assertThat(trackingService.getLiveAircraft("KAL123"))
+                .hasValueSatisfying(dto -> assertThat(dto.getLatitude()).isEqualTo(37.5));
+        verifyNoInteractions(writeBehindService, changeNotifier);
+    }
+
+    private static AircraftBatchUpdateDto item(String callsign, double latitude) {
+        return AircraftBatchUpdateDto.builder()
+                .callsign(callsign)
+                .update(AircraftUpdateDto.builder()
+                        .latitude(latitude)
+                        .longitude(126.79)
+                        .altitude(3000)
+                        .speed(180)
+                        .heading(140)
+                        .build())
+                .build();
+    }
+
+    private static FeedAircraftDto feed(String callsign, LocalDateTime lastContact) {
+        return FeedAircraftDto.builder()
+                .callsign(callsign)
+                .latitude(37.52)
+                .longitude(126.75)
+                .altitude(4000)
+                .speed(210)
+                .heading(135)
+                .lastContact(lastContact)
+                .build();
+    }
+
+    private static TrackedAircraft aircraft(Long id, String callsign) {
+        return TrackedAircraft.builder()
+                .id(id)
+                .callsign(callsign)
+                .latitude(37.5)
+                .longitude(126.7)
+                .altitude(5000)
+                .speed(200)
+                .heading(140)
+                .build();
+    }
+}
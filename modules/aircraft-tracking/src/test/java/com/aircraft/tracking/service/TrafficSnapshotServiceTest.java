@@ -0,0 +1,133 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.tracking.dto.TrafficSnapshotDto;
+import com.aircraft.tracking.model.TrackedAircraft;
+import com.aircraft.tracking.model.TrajectoryPoint;
+import com.aircraft.tracking.repository.TrackedAircraftRepository;
+import com.aircraft.tracking.repository.TrafficKeyframeRepository;
+import com.aircraft.tracking.repository.TrajectoryPointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+class TrafficSnapshotServiceTest {
+
+    private static final LocalDateTime AT = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).minusHours(2);
+
+    @Autowired
+    private TrackedAircraftRepository aircraftRepository;
+
+    @Autowired
+    private TrajectoryPointRepository trajectoryRepository;
+
+    @Autowired
+    private TrafficKeyframeRepository keyframeRepository;
+
+    private TrafficSnapshotService snapshotService;
+
+    @BeforeEach
+    void setUp() {
+        snapshotService = new TrafficSnapshotService(mock(TrackingService.class), keyframeRepository, trajectoryRepository);
+        ReflectionTestUtils.setField(snapshotService, "maxStalenessSeconds", 30L);
+    }
+
+    @Test
+    void snapshotAt_ShouldInterpolateBetweenReportsAroundTheInstant() {
+        TrackedAircraft aircraft = saveAircraft("KAL123");
+        savePoint(aircraft, AT.minusSeconds(1), 37.0, 126.0, 10000, 350);
+        savePoint(aircraft, AT.plusSeconds(3), 37.4, 126.4, 10400, 10);
+        // Keyframe written before both reports; the rows after it supersede its state
+        snapshotService.writeKeyframe(AT.minusSeconds(5), List.of(state("KAL123", AT.minusSeconds(6), 36.0)));
+
+        TrafficSnapshotDto snapshot = snapshotService.snapshotAt(AT);
+
+        assertThat(snapshot.getAircraft()).hasSize(1);
+        TrafficSnapshotDto.AircraftState state = snapshot.getAircraft().get(0);
+        assertThat(state.getInterpolated()).isTrue();
+        assertThat(state.getLatitude()).isCloseTo(37.1, within(1e-9));
+        assertThat(state.getLongitude()).isCloseTo(126.1, within(1e-9));
+        assertThat(state.getAltitude()).isEqualTo(10100);
+        assertThat(state.getHeading()).isEqualTo(355); // across north, not the long way round
+        assertThat(state.getSampleTime()).isEqualTo(AT.minusSeconds(1));
+    }
+
+    @Test
+    void snapshotAt_ShouldUseKeyframesAloneOnceRawPointsAreGone() {
+        snapshotService.writeKeyframe(AT.minusSeconds(5), List.of(
+                state("KAL123", AT.minusSeconds(6), 37.0),
+                state("AAR456", AT.minusSeconds(50), 35.0)));
+        snapshotService.writeKeyframe(AT.plusSeconds(5), List.of(
+                state("KAL123", AT.plusSeconds(4), 37.5),
+                state("JJA789", AT.plusSeconds(4), 33.5)));
+
+        TrafficSnapshotDto snapshot = snapshotService.snapshotAt(AT);
+
+        // AAR456 is stale and JJA789 first appears after the instant
+        assertThat(snapshot.getAircraft()).extracting(TrafficSnapshotDto.AircraftState::getCallsign)
+                .containsExactly("KAL123");
+        assertThat(snapshot.getAircraft().get(0).getLatitude()).isCloseTo(37.3, within(1e-6));
+    }
+
+    @Test
+    void snapshotAt_ShouldHoldTheLastReportWhenNothingFollows() {
+        TrackedAircraft aircraft = saveAircraft("KAL123");
+        savePoint(aircraft, AT.minusSeconds(20), 37.0, 126.0, 10000, 90);
+
+        List<TrafficSnapshotDto.AircraftState> held = snapshotService.snapshotAt(AT).getAircraft();
+        List<TrafficSnapshotDto.AircraftState> expired = snapshotService.snapshotAt(AT.plusSeconds(15)).getAircraft();
+
+        assertThat(held).hasSize(1);
+        assertThat(held.get(0).getInterpolated()).isFalse();
+        assertThat(held.get(0).getLatitude()).isEqualTo(37.0);
+        assertThat(expired).isEmpty();
+    }
+
+    private TrackedAircraft saveAircraft(String callsign) {
+        return aircraftRepository.save(TrackedAircraft.builder()
+                .callsign(callsign)
+                .latitude(37.0)
+                .longitude(126.0)
+                .altitude(10000)
+                .speed(250)
+                .heading(90)
+                .build());
+    }
+
+    private void savePoint(TrackedAircraft aircraft, LocalDateTime timestamp, double latitude, double longitude,
+                           int altitude, int heading) {
+        trajectoryRepository.save(TrajectoryPoint.builder()
+                .aircraft(aircraft)
+                .latitude(latitude)
+                .longitude(longitude)
+                .altitude(altitude)
+                .speed(250)
+                .heading(heading)
+                .timestamp(timestamp)
+                .pointType(TrajectoryPoint.PointType.ACTUAL)
+                .build());
+    }
+
+    private static TrafficSnapshotDto.AircraftState state(String callsign, LocalDateTime sampleTime, double latitude) {
+        return TrafficSnapshotDto.AircraftState.builder()
+                .callsign(callsign)
+                .latitude(latitude)
+                .longitude(126.0)
+                .altitude(10000)
+                .speed(250)
+                .heading(90)
+                .sampleTime(sampleTime)
+                .interpolated(false)
+                .build();
+    }
+}
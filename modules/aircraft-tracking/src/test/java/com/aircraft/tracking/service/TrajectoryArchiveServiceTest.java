@@ -0,0 +1,139 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.tracking.dto.TrajectoryDto;
+import com.aircraft.tracking.model.TrackedAircraft;
+import com.aircraft.tracking.model.TrajectoryArchive;
+import com.aircraft.tracking.model.TrajectoryPoint;
+import com.aircraft.tracking.repository.TrackedAircraftRepository;
+import com.aircraft.tracking.repository.TrajectoryArchiveRepository;
+import com.aircraft.tracking.repository.TrajectoryPointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class TrajectoryArchiveServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusMinutes(30);
+
+    @Autowired
+    private TrackedAircraftRepository aircraftRepository;
+
+    @Autowired
+    private TrajectoryPointRepository trajectoryRepository;
+
+    @Autowired
+    private TrajectoryArchiveRepository archiveRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TrajectoryArchiveService archiveService;
+    private TrajectoryLodService lodService;
+    private TrackedAircraft aircraft;
+
+    @BeforeEach
+    void setUp() {
+        archiveService = new TrajectoryArchiveService(trajectoryRepository, archiveRepository,
+                new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(archiveService, "rawRetentionHours", 24);
+        lodService = new TrajectoryLodService(trajectoryRepository, aircraftRepository, archiveService);
+        ReflectionTestUtils.setField(lodService, "defaultMaxPoints", 100_000);
+        ReflectionTestUtils.setField(lodService, "cacheEntriesPerAircraft", 8);
+        ReflectionTestUtils.setField(lodService, "cacheMaxAircraft", 16);
+        ReflectionTestUtils.invokeMethod(lodService, "init");
+
+        aircraft = aircraftRepository.save(TrackedAircraft.builder()
+                .callsign("KAL123")
+                .latitude(37.0)
+                .longitude(126.0)
+                .altitude(10000)
+                .speed(250)
+                .heading(90)
+                .build());
+    }
+
+    @Test
+    void compact_ShouldArchiveOldHoursAndKeepRecentRows() {
+        // 10:00-11:59 two days ago is archived, the last hour stays raw
+        saveTrack(NOW.minusDays(2).withHour(10).withMinute(0), 7200);
+        saveTrack(NOW.minusHours(1), 600);
+
+        long archived = archiveService.compact(NOW);
+
+        assertThat(archived).isEqualTo(7200);
+        assertThat(trajectoryRepository.count()).isEqualTo(600);
+        List<TrajectoryArchive> blocks = archiveRepository.findAll();
+        assertThat(blocks).hasSize(6);
+        assertThat(blocks).filteredOn(b -> b.getResolution() == TrajectoryArchive.Resolution.RAW)
+                .extracting(TrajectoryArchive::getPointCount).containsOnly(3600);
+        assertThat(blocks).filteredOn(b -> b.getResolution() == TrajectoryArchive.Resolution.TEN_SECONDS)
+                .extracting(TrajectoryArchive::getPointCount).containsOnly(360);
+        assertThat(blocks).filteredOn(b -> b.getResolution() == TrajectoryArchive.Resolution.ONE_MINUTE)
+                .extracting(TrajectoryArchive::getPointCount).containsOnly(60);
+    }
+
+    @Test
+    void trajectoryReads_ShouldSpanArchiveAndRawTiers() {
+        saveTrack(NOW.minusDays(2).withHour(10).withMinute(0), 3600);
+        saveTrack(NOW.minusHours(1), 600);
+        archiveService.compact(NOW);
+
+        List<TrajectoryDto.TrajectoryPointDto> full = lodService.getActualPoints("KAL123", null, null, null, null);
+        List<TrajectoryDto.TrajectoryPointDto> hour = lodService.getActualPoints("KAL123",
+                NOW.minusDays(2).withHour(10).withMinute(15), NOW.minusDays(2).withHour(10).withMinute(45), null, 100_000);
+
+        assertThat(full).hasSize(4200);
+        assertThat(full).extracting(TrajectoryDto.TrajectoryPointDto::getTimestamp).isSorted();
+        assertThat(hour).hasSize(1801);
+        // Long ranges with a small budget read rollups instead of every archived point
+        LocalDateTime archivedHour = NOW.minusDays(2).withHour(10).withMinute(0);
+        assertThat(archiveService.resolutionFor("KAL123", archivedHour, archivedHour.plusHours(1), 100))
+                .isEqualTo(TrajectoryArchive.Resolution.TEN_SECONDS);
+        assertThat(archiveService.resolutionFor("KAL123", null, null, 100))
+                .isEqualTo(TrajectoryArchive.Resolution.ONE_MINUTE);
+    }
+
+    @Test
+    void compact_ShouldMergeLatePointsIntoArchivedHour() {
+        LocalDateTime hour = NOW.minusDays(2).withHour(10).withMinute(0);
+        saveTrack(hour, 1800);
+        archiveService.compact(NOW);
+        saveTrack(hour.plusMinutes(30), 1800);
+
+        archiveService.compact(NOW);
+
+        assertThat(trajectoryRepository.count()).isZero();
+        assertThat(archiveRepository.findByCallsignAndHourStart("KAL123", hour))
+                .filteredOn(b -> b.getResolution() == TrajectoryArchive.Resolution.RAW)
+                .extracting(TrajectoryArchive::getPointCount).containsExactly(3600);
+    }
+
+    private void saveTrack(LocalDateTime start, int seconds) {
+        List<TrajectoryPoint> points = new ArrayList<>(seconds);
+        for (int i = 0; i < seconds; i++) {
+            points.add(TrajectoryPoint.builder()
+                    .aircraft(aircraft)
+                    .latitude(37.0 + i * 0.001)
+                    .longitude(126.0 + i * 0.001)
+                    .altitude(10000 + i)
+                    .speed(250)
+                    .heading(45)
+                    .verticalSpeed(60)
+                    .timestamp(start.plusSeconds(i))
+                    .build());
+        }
+        trajectoryRepository.saveAll(points);
+    }
+}
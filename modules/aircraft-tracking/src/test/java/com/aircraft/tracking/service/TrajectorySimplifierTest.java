@@ -0,0 +1,76 @@
+package com.aircraft.tracking.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrajectorySimplifierTest {
+
+    @Test
+    void simplify_ShouldCollapseStraightLevelTrackToEndpoints() {
+        int n = 50;
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        double[] alt = new double[n];
+        for (int i = 0; i < n; i++) {
+            lat[i] = 37.0 + i * 0.001;
+            lon[i] = 126.0 + i * 0.001;
+            alt[i] = 10000;
+        }
+
+        boolean[] keep = TrajectorySimplifier.simplify(lat, lon, alt, 10, 2000);
+
+        assertThat(count(keep)).isEqualTo(2);
+        assertThat(keep[0]).isTrue();
+        assertThat(keep[n - 1]).isTrue();
+    }
+
+    @Test
+    void simplify_ShouldKeepTurnAndClimbCorners() {
+        // East for 20 points, then north for 20; the second half also climbs on the same ground track
+        int n = 41;
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        double[] alt = new double[n];
+        for (int i = 0; i < n; i++) {
+            lat[i] = 37.0 + Math.max(0, i - 20) * 0.01;
+            lon[i] = 126.0 + Math.min(i, 20) * 0.01;
+            alt[i] = i <= 30 ? 5000 : 5000 + (i - 30) * 1000;
+        }
+
+        boolean[] keep = TrajectorySimplifier.simplify(lat, lon, alt, 50, 2000);
+
+        assertThat(keep[20]).isTrue();
+        assertThat(keep[30]).isTrue();
+        assertThat(count(keep)).isEqualTo(4);
+    }
+
+    @Test
+    void simplify_ShouldRespectPointBudget() {
+        int n = 1000;
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        double[] alt = new double[n];
+        for (int i = 0; i < n; i++) {
+            lat[i] = 37.0 + Math.sin(i / 10.0) * 0.1;
+            lon[i] = 126.0 + i * 0.001;
+            alt[i] = 20000;
+        }
+
+        boolean[] keep = TrajectorySimplifier.simplify(lat, lon, alt, 0, 100);
+
+        assertThat(count(keep)).isEqualTo(100);
+        assertThat(keep[0]).isTrue();
+        assertThat(keep[n - 1]).isTrue();
+    }
+
+    private static int count(boolean[] keep) {
+        int kept = 0;
+        for (boolean k : keep) {
+            if (k) {
+                kept++;
+            }
+        }
+        return kept;
+    }
+}
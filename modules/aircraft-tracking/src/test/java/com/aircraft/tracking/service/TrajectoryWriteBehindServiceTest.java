@@ -0,0 +1,167 @@
+package com.aircraft.tracking.service;
+
+import com.aircraft.tracking.model.TrackedAircraft;
+import com.aircraft.tracking.model.TrajectoryPoint;
+import com.aircraft.tracking.repository.TrackedAircraftRepository;
+import com.aircraft.tracking.repository.TrajectoryPointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrajectoryWriteBehindServiceTest {
+
+    @Mock
+    private TrackedAircraftRepository aircraftRepository;
+
+    @Mock
+    private TrajectoryPointRepository trajectoryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TrajectoryLodService trajectoryLodService;
+
+    @Mock
+    private SpaceTimeIndexService spaceTimeIndexService;
+
+    private TrajectoryWriteBehindService writeBehindService;
+
+    private TrackedAircraft aircraft;
+
+    @BeforeEach
+    void setUp() {
+        writeBehindService = new TrajectoryWriteBehindService(aircraftRepository, trajectoryRepository,
+                new TransactionTemplate(transactionManager), trajectoryLodService, spaceTimeIndexService);
+        ReflectionTestUtils.setField(writeBehindService, "queueCapacity", 4);
+        ReflectionTestUtils.setField(writeBehindService, "batchSize", 3);
+        ReflectionTestUtils.setField(writeBehindService, "offerTimeoutMillis", 1L);
+        ReflectionTestUtils.invokeMethod(writeBehindService, "init");
+
+        aircraft = TrackedAircraft.builder()
+                .id(1L)
+                .callsign("KAL123")
+                .latitude(37.5583)
+                .longitude(126.7906)
+                .altitude(3000)
+                .speed(180)
+                .heading(140)
+                .build();
+    }
+
+    @Test
+    void enqueue_WhenQueueIsFull_ShouldDropAndCount() {
+        for (int i = 0; i < 6; i++) {
+            writeBehindService.enqueue(point(i));
+        }
+
+        assertThat(writeBehindService.getStats())
+                .containsEntry("enqueued", 4L)
+                .containsEntry("dropped", 2L)
+                .containsEntry("backpressureWaits", 2L)
+                .containsEntry("queued", 4);
+        verifyNoInteractions(trajectoryRepository);
+    }
+
+    @Test
+    void enqueueAll_WhenQueueIsFull_ShouldWaitOnceAndDropTheRest() {
+        List<TrajectoryPoint> points = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            points.add(point(i));
+        }
+        // Ten seconds of waiting if every point waited its own timeout
+        ReflectionTestUtils.setField(writeBehindService, "offerTimeoutMillis", 10L);
+
+        long start = System.nanoTime();
+        int accepted = writeBehindService.enqueueAll(points);
+
+        assertThat(System.nanoTime() - start).isLessThan(1_000_000_000L);
+        assertThat(accepted).isEqualTo(4);
+        assertThat(writeBehindService.getStats())
+                .containsEntry("dropped", 996L)
+                .containsEntry("backpressureWaits", 1L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldPersistQueuedPointsInBatches() {
+        when(aircraftRepository.getReferenceById(anyLong())).thenReturn(aircraft);
+        for (int i = 0; i < 4; i++) {
+            writeBehindService.enqueue(point(i));
+        }
+
+        writeBehindService.flush();
+
+        ArgumentCaptor<List<TrajectoryPoint>> batches = ArgumentCaptor.forClass(List.class);
+        verify(trajectoryRepository, times(2)).saveAll(batches.capture());
+        assertThat(batches.getAllValues()).extracting(List::size).containsExactly(3, 1);
+        assertThat(writeBehindService.getStats())
+                .containsEntry("pointsFlushed", 4L)
+                .containsEntry("batches", 2L)
+                .containsEntry("queued", 0);
+        verify(trajectoryLodService, times(2)).invalidate(Set.of("KAL123"));
+        verify(spaceTimeIndexService, times(2)).index(anyList());
+    }
+
+    @Test
+    void flush_WhenPointsRollBack_ShouldNotIndexThem() {
+        when(aircraftRepository.getReferenceById(anyLong())).thenReturn(aircraft);
+        when(trajectoryRepository.saveAll(anyList())).thenThrow(new IllegalStateException("constraint"));
+        writeBehindService.enqueue(point(0));
+
+        writeBehindService.flush();
+
+        verify(spaceTimeIndexService, never()).index(anyList());
+        assertThat(writeBehindService.getStats())
+                .containsEntry("dropped", 1L)
+                .containsEntry("flushFailures", 1L);
+    }
+
+    @Test
+    void flush_ShouldCoalesceAircraftUpdatesIntoOneRowWrite() {
+        TrackedAircraft managed = TrackedAircraft.builder().id(1L).callsign("KAL123").altitude(3000).build();
+        when(aircraftRepository.findAllById(anyList())).thenReturn(List.of(managed));
+
+        LocalDateTime contact = LocalDateTime.of(2024, 1, 1, 12, 0, 5);
+        aircraft.setAltitude(2500);
+        writeBehindService.markDirty(aircraft);
+        aircraft.setAltitude(2000);
+        aircraft.setLastRadarContact(contact);
+        writeBehindService.markDirty(aircraft);
+        writeBehindService.flush();
+
+        assertThat(managed.getAltitude()).isEqualTo(2000);
+        assertThat(managed.getLastRadarContact()).isEqualTo(contact);
+        verify(aircraftRepository, times(1)).findAllById(anyList());
+        assertThat(writeBehindService.getStats()).containsEntry("aircraftFlushed", 1L);
+    }
+
+    private TrajectoryPoint point(int i) {
+        return TrajectoryPoint.builder()
+                .aircraft(aircraft)
+                .latitude(37.55 + i * 0.001)
+                .longitude(126.79)
+                .altitude(3000)
+                .speed(180)
+                .heading(140)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
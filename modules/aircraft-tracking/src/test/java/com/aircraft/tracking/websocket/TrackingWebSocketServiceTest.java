@@ -0,0 +1,85 @@
+package com.aircraft.tracking.websocket;
+
+import com.aircraft.tracking.dto.TrackedAircraftDto;
+import com.aircraft.tracking.service.GeofenceService;
+import com.aircraft.tracking.service.TrackChangeNotifier;
+import com.aircraft.tracking.service.TrackingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrackingWebSocketServiceTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private TrackingService trackingService;
+
+    @Mock
+    private GeofenceService geofenceService;
+
+    private TrackChangeNotifier changeNotifier;
+    private TopicSubscriptionRegistry subscriptionRegistry;
+    private TrackingWebSocketService webSocketService;
+
+    @BeforeEach
+    void setUp() {
+        changeNotifier = new TrackChangeNotifier();
+        subscriptionRegistry = new TopicSubscriptionRegistry();
+        webSocketService = new TrackingWebSocketService(messagingTemplate, trackingService,
+                changeNotifier, subscriptionRegistry, geofenceService);
+    }
+
+    @Test
+    void publishAircraftUpdates_ShouldSendLatestStateOncePerSubscribedAircraft() {
+        subscriptionRegistry.subscribe("session-1", "sub-0", "/topic/tracking/aircraft/KAL123");
+        TrackedAircraftDto latest = TrackedAircraftDto.builder().callsign("KAL123").latitude(37.56).build();
+        when(trackingService.getLiveAircraft("KAL123")).thenReturn(Optional.of(latest));
+
+        changeNotifier.changed("KAL123");
+        changeNotifier.changed(List.of("KAL123", "JJA789"));
+        changeNotifier.changed("KAL123");
+        webSocketService.publishAircraftUpdates();
+
+        verify(messagingTemplate, times(1)).convertAndSend("/topic/tracking/aircraft/KAL123", (Object) latest);
+        verify(messagingTemplate, never()).convertAndSend(eq("/topic/tracking/aircraft/JJA789"), any(Object.class));
+        verify(trackingService, never()).getLiveAircraft("JJA789");
+        assertThat(webSocketService.getStats())
+                .containsEntry("aircraftCoalesced", 2L)
+                .containsEntry("aircraftPublished", 1L)
+                .containsEntry("aircraftSkippedNoSubscribers", 1L);
+
+        // Nothing changed since the last tick
+        webSocketService.publishAircraftUpdates();
+        verify(messagingTemplate, times(1)).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    void publishAircraftUpdates_ShouldStopOnceTheLastSubscriberLeaves() {
+        subscriptionRegistry.subscribe("session-1", "sub-0", "/topic/tracking/aircraft/KAL123");
+        subscriptionRegistry.subscribe("session-2", "sub-0", "/topic/tracking/aircraft/KAL123");
+
+        subscriptionRegistry.unsubscribe("session-1", "sub-0");
+        assertThat(subscriptionRegistry.hasSubscribers("/topic/tracking/aircraft/KAL123")).isTrue();
+        subscriptionRegistry.disconnect("session-2");
+        assertThat(subscriptionRegistry.hasSubscribers("/topic/tracking/aircraft/KAL123")).isFalse();
+
+        changeNotifier.changed("KAL123");
+        webSocketService.publishAircraftUpdates();
+
+        verifyNoInteractions(trackingService, messagingTemplate);
+    }
+}
@@ -2,8 +2,13 @@ package com.auth.service.repository;
 
 import com.auth.service.model.RefreshToken;
 import com.auth.service.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -21,4 +26,12 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
     void deleteByToken(String token);
     
     void deleteByExpiresAtBeforeOrIsRevokedTrue(LocalDateTime now);
+    
+    @Query("SELECT t.id FROM RefreshToken t WHERE t.expiresAt < :now OR t.isRevoked = true ORDER BY t.id")
+    List<Long> findExpiredOrRevokedIds(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken t WHERE t.id IN :ids AND (t.expiresAt < :now OR t.isRevoked = true)")
+    int deleteExpiredOrRevokedByIds(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
 }
\ No newline at end of file
@@ -3,27 +3,42 @@ package com.auth.service.service;
 import com.auth.service.repository.RefreshTokenRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TokenCleanupService {
-    
+
     private final RefreshTokenRepository refreshTokenRepository;
-    
+
+    private static final int DELETE_BATCH_SIZE = 1000;
+
+    /**
+     * Deletes expired and revoked tokens in bounded chunks, each a bulk JPQL delete in its
+     * own transaction, instead of loading and removing every token in one transaction. The
+     * delete repeats the expiry check, so nothing outside the selection is removed.
+     */
     @Scheduled(cron = "0 0 * * * *") // Run every hour
-    @Transactional
     public void cleanupExpiredTokens() {
+        LocalDateTime now = LocalDateTime.now();
         try {
-            refreshTokenRepository.deleteByExpiresAtBeforeOrIsRevokedTrue(LocalDateTime.now());
-            log.info("Cleaned up expired and revoked refresh tokens");
+            int deleted = 0;
+            List<Long> ids;
+            do {
+                ids = refreshTokenRepository.findExpiredOrRevokedIds(now, PageRequest.of(0, DELETE_BATCH_SIZE));
+                if (!ids.isEmpty()) {
+                    deleted += refreshTokenRepository.deleteExpiredOrRevokedByIds(ids, now);
+                }
+            } while (ids.size() == DELETE_BATCH_SIZE);
+            log.info("Cleaned up {} expired and revoked refresh tokens", deleted);
         } catch (Exception e) {
             log.error("Error during token cleanup", e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,131 @@
+package com.aircraft.spatial;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Z-order (Morton) cell ids for latitude/longitude, used as an indexed column so that
+ * bounding-box lookups become a handful of range scans on a plain B-tree index, on H2 and
+ * PostgreSQL alike.
+ * <p>
+ * Each axis is quantised to {@value #BITS} bits (about 300 m of latitude per cell) and the
+ * two are bit-interleaved, so every quadtree node is one contiguous id range.
+ * <p>
+ * Compiled into both aircraft-tracking and adsb-data-simulator, whose stored cells must
+ * agree; the ids are pinned by aircraft-tracking's {@code ZOrderCellTest}.
+ */
+public final class ZOrderCell {
+
+    public static final int BITS = 16;
+    private static final int MAX = (1 << BITS) - 1;
+
+    public static final int DEFAULT_MAX_RANGES = 8;
+
+    private ZOrderCell() {
+    }
+
+    public static long encode(double latitude, double longitude) {
+        return interleave(quantise(longitude, -180.0, 360.0)) | (interleave(quantise(latitude, -90.0, 180.0)) << 1);
+    }
+
+    /**
+     * Id of the enclosing quadtree node with {@code bits} bits per axis; ids at one level
+     * keep the Z-order, so coarsened ranges stay contiguous.
+     */
+    public static long coarsen(long cell, int bits) {
+        return cell >>> (2 * (BITS - bits));
+    }
+
+    /**
+     * Returns disjoint, sorted {@code [lo, hi]} cell ranges that together cover the box.
+     * The cover is conservative (it may include cells just outside the box), so callers
+     * still apply the exact latitude/longitude predicate.
+     */
+    public static List<long[]> coveringRanges(double minLat, double maxLat, double minLng, double maxLng,
+                                              int maxRanges) {
+        int x0 = quantise(minLng, -180.0, 360.0);
+        int x1 = quantise(maxLng, -180.0, 360.0);
+        int y0 = quantise(minLat, -90.0, 180.0);
+        int y1 = quantise(maxLat, -90.0, 180.0);
+
+        List<long[]> ranges = new ArrayList<>();
+        // Partially covered quadtree nodes as {x, y} at the current level
+        List<int[]> partial = new ArrayList<>();
+        partial.add(new int[]{0, 0});
+
+        for (int level = 0; level < BITS && !partial.isEmpty(); level++) {
+            int childShift = BITS - level - 1;
+            List<long[]> contained = new ArrayList<>();
+            List<int[]> nextPartial = new ArrayList<>();
+            for (int[] node : partial) {
+                for (int q = 0; q < 4; q++) {
+                    int cx = (node[0] << 1) | (q & 1);
+                    int cy = (node[1] << 1) | (q >> 1);
+                    int lx = cx << childShift;
+                    int hx = lx + (1 << childShift) - 1;
+                    int ly = cy << childShift;
+                    int hy = ly + (1 << childShift) - 1;
+                    if (hx < x0 || lx > x1 || hy < y0 || ly > y1) {
+                        continue;
+                    }
+                    if (lx >= x0 && hx <= x1 && ly >= y0 && hy <= y1) {
+                        contained.add(nodeRange(cx, cy, childShift));
+                    } else {
+                        nextPartial.add(new int[]{cx, cy});
+                    }
+                }
+            }
+            if (ranges.size() + contained.size() + nextPartial.size() > maxRanges) {
+                // Budget exhausted: keep the current partial nodes whole
+                for (int[] node : partial) {
+                    ranges.add(nodeRange(node[0], node[1], childShift + 1));
+                }
+                partial.clear();
+                break;
+            }
+            ranges.addAll(contained);
+            partial = nextPartial;
+        }
+        for (int[] node : partial) {
+            ranges.add(nodeRange(node[0], node[1], 0));
+        }
+        return merge(ranges);
+    }
+
+    private static long[] nodeRange(int x, int y, int shift) {
+        long lo = encodeCell(x << shift, y << shift);
+        return new long[]{lo, lo + (1L << (2 * shift)) - 1};
+    }
+
+    private static List<long[]> merge(List<long[]> ranges) {
+        ranges.sort((a, b) -> Long.compare(a[0], b[0]));
+        List<long[]> merged = new ArrayList<>(ranges.size());
+        for (long[] range : ranges) {
+            long[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && range[0] <= last[1] + 1) {
+                last[1] = Math.max(last[1], range[1]);
+            } else {
+                merged.add(range);
+            }
+        }
+        return merged;
+    }
+
+    private static long encodeCell(int x, int y) {
+        return interleave(x) | (interleave(y) << 1);
+    }
+
+    private static int quantise(double value, double offset, double span) {
+        int cell = (int) Math.floor((value - offset) / span * (MAX + 1));
+        return Math.max(0, Math.min(MAX, cell));
+    }
+
+    private static long interleave(int value) {
+        long v = value & 0xFFFFL;
+        v = (v | (v << 8)) & 0x00FF00FFL;
+        v = (v | (v << 4)) & 0x0F0F0F0FL;
+        v = (v | (v << 2)) & 0x33333333L;
+        v = (v | (v << 1)) & 0x55555555L;
+        return v;
+    }
+}
@@ -0,0 +1,51 @@
+package com.aircraft.spatial;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Fills in the Z-order cell of rows written before the column existed. Area lookups scan
+ * cell ranges, so a row without a cell would never be found by them. Updates go through
+ * bulk JPQL, so entity callbacks do not touch the contact timestamps.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class ZOrderCellBackfill {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final ZOrderCellRepository repository;
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        backfill();
+    }
+
+    public int backfill() {
+        int filled = 0;
+        List<Object[]> rows;
+        do {
+            rows = repository.findCoordinatesWithoutCell(PageRequest.of(0, BATCH_SIZE));
+            List<Object[]> batch = rows;
+            filled += transactionTemplate.execute(status -> {
+                int updated = 0;
+                for (Object[] row : batch) {
+                    updated += repository.setCellIfMissing((Long) row[0],
+                            ZOrderCell.encode((Double) row[1], (Double) row[2]));
+                }
+                return updated;
+            });
+        } while (rows.size() == BATCH_SIZE);
+        if (filled > 0) {
+            log.info("Backfilled the Z-order cell of {} rows", filled);
+        }
+        return filled;
+    }
+}
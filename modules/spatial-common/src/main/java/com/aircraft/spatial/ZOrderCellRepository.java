@@ -0,0 +1,24 @@
+package com.aircraft.spatial;
+
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Queries a repository of rows carrying a {@link ZOrderCell} column provides to
+ * {@link ZOrderCellBackfill}.
+ */
+public interface ZOrderCellRepository {
+
+    /**
+     * {@code [id, latitude, longitude]} of rows with coordinates but no cell, in id order.
+     */
+    List<Object[]> findCoordinatesWithoutCell(Pageable pageable);
+
+    /**
+     * Sets the cell of a row that still has none, by bulk update.
+     *
+     * @return the number of rows updated
+     */
+    int setCellIfMissing(Long id, Long cell);
+}